@@ -0,0 +1,49 @@
+package cmiller.interview.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cmiller.interview.internal.calculator.ChargeCalculator;
+
+/**
+ * The pricing step, with {@link ChargeCalculator} against the
+ * {@link BigDecimal} calculation it replaced. Run with {@code -prof gc} to
+ * compare the allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChargeCalculatorBenchmark {
+    private int chargeDays = 17;
+    private long dailyRentalCharge = 299;
+    private int discountPercent = 15;
+
+    @Benchmark
+    public long longArithmetic() {
+	long preDiscountCharge = ChargeCalculator.calculatePreDiscountCharge(chargeDays, dailyRentalCharge);
+	return preDiscountCharge - ChargeCalculator.calculateDiscountAmount(preDiscountCharge, discountPercent);
+    }
+
+    @Benchmark
+    public long bigDecimal() {
+	BigDecimal preDiscountCharge = new BigDecimal(dailyRentalCharge).multiply(new BigDecimal(chargeDays))
+		.setScale(0, RoundingMode.HALF_UP);
+	BigDecimal discount = preDiscountCharge.multiply(new BigDecimal(discountPercent))
+		.divide(new BigDecimal("100")).setScale(0, RoundingMode.HALF_UP);
+	return preDiscountCharge.longValue() - discount.longValue();
+    }
+}
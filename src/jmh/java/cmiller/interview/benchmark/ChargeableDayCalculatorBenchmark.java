@@ -0,0 +1,78 @@
+package cmiller.interview.benchmark;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.calculator.BusinessCalendarChargeableDayCalculator;
+import cmiller.interview.internal.calculator.ChargeableDayCalculator;
+import cmiller.interview.internal.calculator.ClosedFormChargeableDayCalculator;
+import cmiller.interview.internal.calculator.PrefixSumChargeableDayCalculator;
+import cmiller.interview.internal.calendar.BusinessCalendar;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * Counting the chargeable days of a rental by formula, by bit counts over the
+ * {@link BusinessCalendar}, and by two reads of a prefix sum table. The bit
+ * counts cost a word per 64 days rented, the prefix sums are the same at any
+ * rental length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChargeableDayCalculatorBenchmark {
+    private static final LocalDate CHECK_OUT_DATE = LocalDate.of(2020, Month.JULY, 2);
+    private static final ChargeableDaysDO LADDER = new ChargeableDaysDO(Tool.Type.LADDER, 199, true, true, false);
+
+    @Param({ "3", "30", "365" })
+    private int rentalDays;
+
+    private LocalDate dueDate;
+    private ChargeableDayCalculator closedForm;
+    private ChargeableDayCalculator businessCalendar;
+    private ChargeableDayCalculator prefixSum;
+
+    @Setup
+    public void setup() {
+	HolidaysAgent holidaysAgent = new HolidaysAgent();
+	BusinessCalendar calendar = BusinessCalendar.build(holidaysAgent, 1990, 2100);
+	dueDate = CHECK_OUT_DATE.plusDays(rentalDays);
+	closedForm = new ClosedFormChargeableDayCalculator(holidaysAgent);
+	businessCalendar = new BusinessCalendarChargeableDayCalculator(calendar, closedForm);
+	prefixSum = new PrefixSumChargeableDayCalculator(calendar, closedForm);
+	// builds the table outside of the measurement
+	prefixSum.calculateChargeableDays(CHECK_OUT_DATE, dueDate, LADDER);
+    }
+
+    @Benchmark
+    public int closedForm() {
+	return closedForm.calculateChargeableDays(CHECK_OUT_DATE, dueDate, LADDER);
+    }
+
+    @Benchmark
+    public int businessCalendar() {
+	return businessCalendar.calculateChargeableDays(CHECK_OUT_DATE, dueDate, LADDER);
+    }
+
+    @Benchmark
+    public int prefixSum() {
+	return prefixSum.calculateChargeableDays(CHECK_OUT_DATE, dueDate, LADDER);
+    }
+}
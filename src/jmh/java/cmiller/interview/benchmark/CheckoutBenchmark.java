@@ -0,0 +1,69 @@
+package cmiller.interview.benchmark;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cmiller.interview.checkin.CheckInRequest;
+import cmiller.interview.checkin.CheckInResponse;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.internal.checkin.CheckInManager;
+import cmiller.interview.internal.checkout.CheckoutManager;
+import cmiller.interview.internal.factory.ToolRentalServiceDependencyFactory;
+
+/**
+ * {@link CheckoutManager#checkout(CheckoutRequest)} across rental lengths, for
+ * a tool type which is not charged on weekends or holidays. Each rental is
+ * checked in on its due date, so the open rentals do not pile up over the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    @Param({ "1", "7", "30", "365", "3650" })
+    private int rentalDays;
+
+    private ToolRentalServiceDependencyFactory factory;
+    private CheckoutManager checkoutManager;
+    private CheckInManager checkInManager;
+    private CheckoutRequest request;
+
+    @Setup
+    public void setup() {
+	factory = new ToolRentalServiceDependencyFactory();
+	checkoutManager = factory.getCheckoutManager();
+	checkInManager = factory.getCheckInManager();
+	request = new CheckoutRequest.Builder().toolCode("JAKD").checkOutDate(LocalDate.of(2015, Month.SEPTEMBER, 3))
+		.rentalDays(rentalDays).discountPercent(10).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+	factory.close();
+    }
+
+    @Benchmark
+    public CheckInResponse checkoutAndCheckIn() {
+	RentalAgreement rentalAgreement = checkoutManager.checkout(request).getRentalAgreement();
+	return checkInManager.checkIn(new CheckInRequest.Builder().rentalId(rentalAgreement.getRentalId())
+		.checkInDate(rentalAgreement.getDueDate()).build());
+    }
+}
@@ -0,0 +1,142 @@
+package cmiller.interview.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.codec.RentalAgreementCodec;
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.data.access.impl.InMemoryDataRetrievalService;
+
+/**
+ * Encoding and decoding a typical rental agreement with the
+ * {@link RentalAgreementCodec}, into a reused buffer, compared with Java
+ * serialization of the same fields. The encoded sizes are compared by the
+ * {@code RentalAgreementCodecTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+    private ToolRentalService service;
+    private RentalAgreement rentalAgreement;
+    private SerializableAgreement serializableAgreement;
+    private final RentalAgreementCodec codec = new RentalAgreementCodec(
+	    new InMemoryDataRetrievalService()::getToolByCode);
+    private final ByteBuffer reusedBuffer = ByteBuffer.allocate(256);
+    private byte[] encoded;
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws IOException {
+	service = ToolRentalService.Factory.getService();
+	rentalAgreement = service.checkout(new CheckoutRequest.Builder().toolCode("JAKR")
+		.checkOutDate(LocalDate.of(2020, Month.JULY, 2)).rentalDays(4).discountPercent(50).build())
+		.getRentalAgreement();
+	serializableAgreement = new SerializableAgreement(rentalAgreement);
+	encoded = codec.encode(rentalAgreement);
+	serialized = javaSerialize(serializableAgreement);
+    }
+
+    @TearDown
+    public void tearDown() {
+	service.close();
+    }
+
+    @Benchmark
+    public int encode() {
+	reusedBuffer.clear();
+	codec.encode(rentalAgreement, reusedBuffer);
+	return reusedBuffer.position();
+    }
+
+    @Benchmark
+    public RentalAgreement decode() {
+	return codec.decode(ByteBuffer.wrap(encoded));
+    }
+
+    @Benchmark
+    public byte[] javaSerializationEncode() throws IOException {
+	return javaSerialize(serializableAgreement);
+    }
+
+    @Benchmark
+    public Object javaSerializationDecode() throws IOException, ClassNotFoundException {
+	try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+	    return in.readObject();
+	}
+    }
+
+    private static byte[] javaSerialize(Object value) throws IOException {
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+	try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+	    out.writeObject(value);
+	}
+	return bytes.toByteArray();
+    }
+
+    /**
+     * The agreement as it would be shipped with Java serialization, with the tool
+     * inlined
+     */
+    static final class SerializableAgreement implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final long rentalId;
+	private final String toolCode;
+	private final Tool.Type toolType;
+	private final String toolBrand;
+	private final int rentalDays;
+	private final LocalDate checkOutDate;
+	private final LocalDate dueDate;
+	private final long dailyRentalCharge;
+	private final int chargeDays;
+	private final long preDiscountCharge;
+	private final int discountPercent;
+	private final long discountAmount;
+	private final long finalCharge;
+	private final long catalogVersion;
+
+	SerializableAgreement(RentalAgreement agreement) {
+	    this.rentalId = agreement.getRentalId();
+	    this.toolCode = agreement.getTool().getCode();
+	    this.toolType = agreement.getTool().getType();
+	    this.toolBrand = agreement.getTool().getBrand();
+	    this.rentalDays = agreement.getRentalDays();
+	    this.checkOutDate = agreement.getCheckOutDate();
+	    this.dueDate = agreement.getDueDate();
+	    this.dailyRentalCharge = agreement.getDailyRentalCharge();
+	    this.chargeDays = agreement.getChargeDays();
+	    this.preDiscountCharge = agreement.getPreDiscountCharge();
+	    this.discountPercent = agreement.getDiscountPercent();
+	    this.discountAmount = agreement.getDiscountAmount();
+	    this.finalCharge = agreement.getFinalCharge();
+	    this.catalogVersion = agreement.getCatalogVersion();
+	}
+    }
+}
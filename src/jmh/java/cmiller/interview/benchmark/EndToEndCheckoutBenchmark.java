@@ -0,0 +1,76 @@
+package cmiller.interview.benchmark;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkin.CheckInRequest;
+import cmiller.interview.checkin.CheckInResponse;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.CheckoutResponse;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.checkout.RentalQuote;
+
+/**
+ * The public API path, through {@link ToolRentalService.Factory#getService()}.
+ * {@link #checkoutAndCheckIn()} reuses one service, checking each rental in on
+ * its due date so the open rentals do not pile up over the run, while
+ * {@link #newServiceCheckout()} also pays for creating the service and its
+ * dependencies. {@link #quote()}
+ * prices the same rental again and again, as a store front does while a customer
+ * picks the dates, so it is answered from the quote cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EndToEndCheckoutBenchmark {
+    private static final CheckoutRequest REQUEST = new CheckoutRequest.Builder().toolCode("LADW")
+	    .checkOutDate(LocalDate.of(2020, Month.JULY, 2)).rentalDays(3).discountPercent(10).build();
+
+    private ToolRentalService service;
+
+    @Setup
+    public void setup() {
+	service = ToolRentalService.Factory.getService();
+    }
+
+    @TearDown
+    public void tearDown() {
+	service.close();
+    }
+
+    @Benchmark
+    public CheckInResponse checkoutAndCheckIn() {
+	RentalAgreement rentalAgreement = service.checkout(REQUEST).getRentalAgreement();
+	return service.checkin(new CheckInRequest.Builder().rentalId(rentalAgreement.getRentalId())
+		.checkInDate(rentalAgreement.getDueDate()).build());
+    }
+
+    @Benchmark
+    public RentalQuote quote() {
+	return service.quote(REQUEST);
+    }
+
+    @Benchmark
+    public CheckoutResponse newServiceCheckout() {
+	try (ToolRentalService newService = ToolRentalService.Factory.getService()) {
+	    return newService.checkout(REQUEST);
+	}
+    }
+}
@@ -0,0 +1,50 @@
+package cmiller.interview.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cmiller.interview.internal.agent.HolidaysAgent;
+
+/**
+ * {@link HolidaysAgent#getHolidaysForYear(int)} with a cold cache (a new agent
+ * per call) and a warm cache (the year is already cached)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidaysAgentBenchmark {
+    private static final int YEAR = 2020;
+
+    private HolidaysAgent warmAgent;
+
+    @Setup
+    public void setup() {
+	warmAgent = new HolidaysAgent();
+	warmAgent.prewarm(YEAR, YEAR);
+    }
+
+    @Benchmark
+    public List<LocalDate> coldCache() {
+	return new HolidaysAgent().getHolidaysForYear(YEAR);
+    }
+
+    @Benchmark
+    public List<LocalDate> warmCache() {
+	return warmAgent.getHolidaysForYear(YEAR);
+    }
+}
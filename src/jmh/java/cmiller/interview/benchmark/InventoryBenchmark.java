@@ -0,0 +1,75 @@
+package cmiller.interview.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cmiller.interview.internal.inventory.InventoryService;
+
+/**
+ * Many registers reserving and releasing units of the {@link InventoryService}
+ * at once: all of them competing for the same hot tool, or each renting its own
+ * tool. The hot tool is stocked with fewer units than there are threads, so
+ * some reservations fail, as they would for the last units on the shelf.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class InventoryBenchmark {
+    private static final String STORE = "store 1";
+    private static final String HOT_TOOL_CODE = "HOT";
+
+    private final InventoryService inventory = new InventoryService();
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Setup
+    public void setup() {
+	inventory.addStock(STORE, HOT_TOOL_CODE, 4);
+	for (int i = 0; i < 64; i++) {
+	    inventory.addStock(STORE, "TOOL" + i, 4);
+	}
+    }
+
+    @State(Scope.Thread)
+    public static class Register {
+	String toolCode;
+
+	@Setup
+	public void setup(InventoryBenchmark benchmark) {
+	    toolCode = "TOOL" + benchmark.threadCount.getAndIncrement() % 64;
+	}
+    }
+
+    @Benchmark
+    public boolean hotTool() {
+	if (inventory.tryReserve(STORE, HOT_TOOL_CODE)) {
+	    inventory.release(STORE, HOT_TOOL_CODE);
+	    return true;
+	}
+	return false;
+    }
+
+    @Benchmark
+    public boolean toolPerRegister(Register register) {
+	if (inventory.tryReserve(STORE, register.toolCode)) {
+	    inventory.release(STORE, register.toolCode);
+	    return true;
+	}
+	return false;
+    }
+}
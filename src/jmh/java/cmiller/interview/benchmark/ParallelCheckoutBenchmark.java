@@ -0,0 +1,83 @@
+package cmiller.interview.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.CheckoutResult;
+import cmiller.interview.internal.checkin.CheckInManager;
+import cmiller.interview.internal.checkout.CheckoutTestData;
+import cmiller.interview.internal.checkout.ParallelCheckoutManager;
+import cmiller.interview.internal.factory.ToolRentalServiceDependencyFactory;
+
+/**
+ * Checkouts per second of a {@link ParallelCheckoutManager} batch, for an
+ * increasing number of cores. The rentals of each batch are checked in after
+ * it, outside of the measurement, so every batch starts from an empty ledger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelCheckoutBenchmark {
+    private static final int BATCH_SIZE = 50_000;
+    private static final int THRESHOLD = 512;
+
+    @Param({ "1", "2", "4", "8" })
+    private int parallelism;
+
+    private ToolRentalServiceDependencyFactory factory;
+    private ForkJoinPool pool;
+    private ParallelCheckoutManager parallelCheckoutManager;
+    private CheckInManager checkInManager;
+    private List<CheckoutRequest> requests;
+    private List<CheckoutResult> results;
+
+    @Setup
+    public void setup() {
+	factory = new ToolRentalServiceDependencyFactory();
+	pool = new ForkJoinPool(parallelism);
+	parallelCheckoutManager = new ParallelCheckoutManager(factory.getCheckoutManager(), pool, THRESHOLD);
+	checkInManager = factory.getCheckInManager();
+	requests = CheckoutTestData.randomRequests(new Random(42), BATCH_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+	pool.shutdown();
+	pool.awaitTermination(10, TimeUnit.SECONDS);
+	factory.close();
+    }
+
+    // a batch takes milliseconds, so the per invocation check-in does not skew it
+    @TearDown(Level.Invocation)
+    public void checkInAll() {
+	CheckoutTestData.checkInAll(checkInManager, results);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<CheckoutResult> checkoutAll() {
+	results = parallelCheckoutManager.checkoutAll(requests);
+	return results;
+    }
+}
@@ -0,0 +1,64 @@
+package cmiller.interview.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.RentalAgreement;
+
+/**
+ * {@link RentalAgreement#prettyPrint()} of a typical rental agreement, and
+ * {@link RentalAgreement#prettyPrint(Appendable)} into a reused buffer, as a
+ * bulk reprint would
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrettyPrintBenchmark {
+    private ToolRentalService service;
+    private RentalAgreement rentalAgreement;
+    private final StringBuilder reusedBuffer = new StringBuilder(512);
+
+    @Setup
+    public void setup() {
+	service = ToolRentalService.Factory.getService();
+	rentalAgreement = service.checkout(new CheckoutRequest.Builder().toolCode("JAKR")
+		.checkOutDate(LocalDate.of(2020, Month.JULY, 2)).rentalDays(4).discountPercent(50).build())
+		.getRentalAgreement();
+    }
+
+    @TearDown
+    public void tearDown() {
+	service.close();
+    }
+
+    @Benchmark
+    public String prettyPrint() {
+	return rentalAgreement.prettyPrint();
+    }
+
+    @Benchmark
+    public int prettyPrintToAppendable() throws IOException {
+	reusedBuffer.setLength(0);
+	rentalAgreement.prettyPrint(reusedBuffer);
+	return reusedBuffer.length();
+    }
+}
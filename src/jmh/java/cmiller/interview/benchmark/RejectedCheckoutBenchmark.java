@@ -0,0 +1,106 @@
+package cmiller.interview.benchmark;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cmiller.interview.ToolRentalServiceException;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.CheckoutResult;
+import cmiller.interview.internal.checkout.CheckoutManager;
+import cmiller.interview.internal.factory.ToolRentalServiceDependencyFactory;
+
+/**
+ * The reject path for a mistyped tool code and for invalid input, as at a
+ * register. {@link CheckoutManager#checkout(CheckoutRequest)} throws and catches
+ * a {@link ToolRentalServiceException#rejection(ToolRentalServiceException.FailureReason, String)
+ * rejection}, while {@link CheckoutManager#tryCheckout(CheckoutRequest)} returns
+ * it as a failed result without throwing. The {@code stackTrace} benchmarks
+ * measure the rejections as they were before, going through the same checks
+ * and then throwing an exception created by the public constructor, which fills
+ * in the stack trace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectedCheckoutBenchmark {
+    private static final CheckoutRequest UNKNOWN_TOOL = new CheckoutRequest.Builder().toolCode("LADX")
+	    .checkOutDate(LocalDate.of(2020, Month.JULY, 2)).rentalDays(3).build();
+    private static final CheckoutRequest INVALID_INPUT = new CheckoutRequest.Builder().toolCode("LADW")
+	    .checkOutDate(LocalDate.of(2020, Month.JULY, 2)).rentalDays(0).build();
+
+    private ToolRentalServiceDependencyFactory factory;
+    private CheckoutManager checkoutManager;
+
+    @Setup
+    public void setup() {
+	factory = new ToolRentalServiceDependencyFactory();
+	checkoutManager = factory.getCheckoutManager();
+    }
+
+    @TearDown
+    public void tearDown() {
+	factory.close();
+    }
+
+    @Benchmark
+    public Object checkoutUnknownTool() {
+	try {
+	    return checkoutManager.checkout(UNKNOWN_TOOL);
+	} catch (ToolRentalServiceException e) {
+	    return e.getFailureReason();
+	}
+    }
+
+    @Benchmark
+    public Object checkoutInvalidInput() {
+	try {
+	    return checkoutManager.checkout(INVALID_INPUT);
+	} catch (ToolRentalServiceException e) {
+	    return e.getFailureReason();
+	}
+    }
+
+    @Benchmark
+    public Object stackTraceUnknownTool() {
+	return throwWithStackTrace(checkoutManager.tryCheckout(UNKNOWN_TOOL));
+    }
+
+    @Benchmark
+    public Object stackTraceInvalidInput() {
+	return throwWithStackTrace(checkoutManager.tryCheckout(INVALID_INPUT));
+    }
+
+    @Benchmark
+    public CheckoutResult tryCheckoutUnknownTool() {
+	return checkoutManager.tryCheckout(UNKNOWN_TOOL);
+    }
+
+    @Benchmark
+    public CheckoutResult tryCheckoutInvalidInput() {
+	return checkoutManager.tryCheckout(INVALID_INPUT);
+    }
+
+    private static Object throwWithStackTrace(CheckoutResult result) {
+	try {
+	    throw new ToolRentalServiceException(result.getFailureReason(), result.getFailure().getMessage());
+	} catch (ToolRentalServiceException e) {
+	    return e.getFailureReason();
+	}
+    }
+}
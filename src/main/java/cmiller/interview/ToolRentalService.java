@@ -1,13 +1,20 @@
 package cmiller.interview;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import cmiller.interview.checkin.CheckInRequest;
 import cmiller.interview.checkin.CheckInResponse;
 import cmiller.interview.checkout.CheckoutRequest;
 import cmiller.interview.checkout.CheckoutResponse;
+import cmiller.interview.checkout.CheckoutResult;
 import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.checkout.RentalQuote;
+import cmiller.interview.internal.factory.ToolRentalServiceConfiguration;
 import cmiller.interview.internal.factory.ToolRentalServiceDependencyFactory;
 
-public interface ToolRentalService {
+public interface ToolRentalService extends AutoCloseable {
     /**
      * Checkout a tool
      * 
@@ -31,6 +38,12 @@ public interface ToolRentalService {
      *                                    request.rentalDays} is not provided, or
      *                                    the value provided is not a positive
      *                                    number</li>
+     *                                    <li>No unit of the tool is available at
+     *                                    the
+     *                                    {@link CheckoutRequest.Builder#storeId(String)
+     *                                    request.storeId}, failing with
+     *                                    {@link ToolRentalServiceException.FailureReason#TOOL_UNAVAILABLE
+     *                                    TOOL_UNAVAILABLE}</li>
      *                                    </ul>
      *                                    The returned exception will provide the
      *                                    {@link ToolRentalServiceException#getFailureReason()
@@ -38,11 +51,132 @@ public interface ToolRentalService {
      */
     CheckoutResponse checkout(CheckoutRequest request) throws ToolRentalServiceException;
 
+    /**
+     * Checkout a tool, returning a failed result rather than throwing. Suited to
+     * registers, where mistyped tool codes and invalid input are common: these
+     * are rejected without throwing or capturing a stack trace.
+     *
+     * @param request the {@link CheckoutRequest request data} in order to process a
+     *                checkout action
+     * @return a successful {@link CheckoutResult result} with the
+     *         {@link CheckoutResponse response} of the checkout, or a failed
+     *         result for any of the failure conditions documented on
+     *         {@link #checkout(CheckoutRequest)}, carrying the
+     *         {@link CheckoutResult#getFailureReason() reason}. A {@code null}
+     *         request fails with
+     *         {@link ToolRentalServiceException.FailureReason#INVALID_INPUT
+     *         INVALID_INPUT}.
+     */
+    CheckoutResult tryCheckout(CheckoutRequest request);
+
+    /**
+     * Checkout a tool without blocking the calling thread. The checkout runs on
+     * the service's asynchronous checkout executor.
+     *
+     * @param request the {@link CheckoutRequest request data} in order to process a
+     *                checkout action
+     * @return a future completed with the {@link CheckoutResponse response} of the
+     *         checkout. For any of the failure conditions documented on
+     *         {@link #checkout(CheckoutRequest)}, the future is completed
+     *         exceptionally with a {@link ToolRentalServiceException} carrying the
+     *         {@link ToolRentalServiceException#getFailureReason() reason}.
+     */
+    CompletableFuture<CheckoutResponse> checkoutAsync(CheckoutRequest request);
+
+    /**
+     * Checkout a batch of tools. Each request is validated and priced exactly as
+     * by {@link #checkout(CheckoutRequest)}, but tool and pricing information is
+     * only looked up once per tool code in the batch.
+     *
+     * @param requests the {@link CheckoutRequest requests} to checkout
+     * @return one {@link CheckoutResult result} per request, in the order of the
+     *         requests. A request failing for any of the reasons documented on
+     *         {@link #checkout(CheckoutRequest)} is returned as a failed result,
+     *         and does not prevent the other requests from being checked out.
+     */
+    List<CheckoutResult> checkoutAll(Collection<CheckoutRequest> requests);
+
+    /**
+     * Same as {@link #checkoutAll(Collection)}, but splits the batch across the
+     * service's checkout thread pool. Intended for large batches, where the cost
+     * of coordinating the threads is outweighed by pricing on all cores.
+     *
+     * @param requests the {@link CheckoutRequest requests} to checkout
+     * @return one {@link CheckoutResult result} per request, in the order of the
+     *         requests
+     */
+    List<CheckoutResult> checkoutAllParallel(Collection<CheckoutRequest> requests);
+
+    /**
+     * Prices a rental without checking the tool out, such as for showing prices
+     * while a customer picks the dates. No unit is reserved and no rental is
+     * opened, so quoting is much cheaper than checking out, and the same rental
+     * quoted again is answered from a cache.
+     *
+     * @param request the {@link CheckoutRequest request data} of the rental, whose
+     *                store, tool code, check out date, rental days and discount
+     *                are used
+     * @return the {@link RentalQuote charges} the rental would be checked out
+     *         with
+     * @throws ToolRentalServiceException for any of the failure conditions
+     *                                    documented on
+     *                                    {@link #checkout(CheckoutRequest)}, other
+     *                                    than the tool being unavailable
+     */
+    RentalQuote quote(CheckoutRequest request) throws ToolRentalServiceException;
+
+    /**
+     * Checks whether a unit of a tool is free for a rental window, such as for a
+     * booking weeks ahead. Units are counted for tools with stock configured at
+     * the store; other tools are always available.
+     *
+     * @param request the {@link CheckoutRequest request data} of the rental, whose
+     *                store, tool code, check out date and rental days are used
+     * @return whether a unit is free on every day from the check out date, for the
+     *         rental days, going by the rentals checked out so far
+     * @throws ToolRentalServiceException for any of the failure conditions
+     *                                    documented on
+     *                                    {@link #checkout(CheckoutRequest)}, other
+     *                                    than the tool being unavailable
+     */
+    boolean isAvailable(CheckoutRequest request) throws ToolRentalServiceException;
+
+    /**
+     * Check a rented tool back in, closing its rental, and returning the unit to
+     * the stock of the store it was rented from
+     *
+     * @param request the {@link CheckInRequest request data} in order to process a
+     *                check-in action
+     * @return the {@link CheckInResponse response} resulting from the check-in
+     *         action, which contains the closed {@link RentalAgreement rental
+     *         agreement} and any late charge
+     * @throws ToolRentalServiceException with
+     *                                    {@link ToolRentalServiceException.FailureReason#INVALID_INPUT
+     *                                    INVALID_INPUT} if the rental id or
+     *                                    check-in date is not provided, or the
+     *                                    check-in date is before the checkout
+     *                                    date, and with
+     *                                    {@link ToolRentalServiceException.FailureReason#RENTAL_NOT_FOUND
+     *                                    RENTAL_NOT_FOUND} if there is no open
+     *                                    rental with the id, including when it
+     *                                    was already checked in
+     */
     CheckInResponse checkin(CheckInRequest request) throws ToolRentalServiceException;
 
+    /**
+     * Releases the resources held by the service. The service must not be used
+     * after it has been closed.
+     */
+    @Override
+    void close();
+
     public class Factory {
 	public static ToolRentalService getService() {
 	    return new ToolRentalServiceDependencyFactory().getToolRentalServiceImpl();
 	}
+
+	public static ToolRentalService getService(ToolRentalServiceConfiguration configuration) {
+	    return new ToolRentalServiceDependencyFactory(configuration).getToolRentalServiceImpl();
+	}
     }
 }
@@ -1,10 +1,16 @@
 package cmiller.interview;
 
+/**
+ * The failure of a service call, with the {@link FailureReason reason} it
+ * failed. Expected business failures, such as invalid input or an unknown tool
+ * code, are {@link #rejection(FailureReason, String) created} without a stack
+ * trace.
+ */
 public class ToolRentalServiceException extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
     public enum FailureReason {
-	TOOL_NOT_FOUND, INVALID_INPUT, INTERNAL_ERROR
+	TOOL_NOT_FOUND, INVALID_INPUT, INTERNAL_ERROR, RENTAL_NOT_FOUND, TOOL_UNAVAILABLE
     }
 
     private final FailureReason failureReason;
@@ -29,6 +35,21 @@ public class ToolRentalServiceException extends RuntimeException {
 	this.failureReason = failureReason;
     }
 
+    private ToolRentalServiceException(FailureReason failureReason, String message, boolean writableStackTrace) {
+	super(message, null, true, writableStackTrace);
+	this.failureReason = failureReason;
+    }
+
+    /**
+     * Creates the exception of an expected business failure, such as a mistyped
+     * tool code or invalid input. Its cause is the request rather than the code,
+     * so the stack trace is not filled in, which makes it several times cheaper to
+     * create.
+     */
+    public static ToolRentalServiceException rejection(FailureReason failureReason, String message) {
+	return new ToolRentalServiceException(failureReason, message, false);
+    }
+
     public FailureReason getFailureReason() {
 	return failureReason;
     }
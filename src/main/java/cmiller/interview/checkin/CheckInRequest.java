@@ -1,8 +1,52 @@
 package cmiller.interview.checkin;
 
-/**
- * Created to show package structure for future enhancements
- */
+import java.time.LocalDate;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkout.RentalAgreement;
+
 public class CheckInRequest {
-// unimplemented
-}
\ No newline at end of file
+    private final long rentalId;
+    private final LocalDate checkInDate;
+
+    private CheckInRequest(Builder builder) {
+	this.rentalId = builder.rentalId;
+	this.checkInDate = builder.checkInDate;
+    }
+
+    public long getRentalId() {
+	return rentalId;
+    }
+
+    public LocalDate getCheckInDate() {
+	return checkInDate;
+    }
+
+    public static class Builder {
+	private long rentalId;
+	private LocalDate checkInDate;
+
+	/**
+	 * The {@link RentalAgreement#getRentalId() rental id} of the agreement
+	 * returned by the checkout
+	 */
+	public Builder rentalId(long rentalId) {
+	    this.rentalId = rentalId;
+	    return this;
+	}
+
+	public Builder checkInDate(LocalDate checkInDate) {
+	    this.checkInDate = checkInDate;
+	    return this;
+	}
+
+	/**
+	 * Validation for required fields will be performed in the
+	 * {@link ToolRentalService#checkin(CheckInRequest) check-in implementation},
+	 * per the API contract.
+	 */
+	public CheckInRequest build() {
+	    return new CheckInRequest(this);
+	}
+    }
+}
@@ -1,7 +1,40 @@
 package cmiller.interview.checkin;
 
-/**
- * Created to show package structure for future enhancements
- */
+import java.time.LocalDate;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkout.RentalAgreement;
+
 public interface CheckInResponse {
+
+    /**
+     * @return the Rental Agreement which was closed by the
+     *         {@link ToolRentalService#checkin(CheckInRequest) check-in action}
+     */
+    RentalAgreement getRentalAgreement();
+
+    /**
+     * @return the date the tool was brought back. Guaranteed to not return
+     *         {@code null}.
+     */
+    LocalDate getCheckInDate();
+
+    /**
+     * @return the number of days the tool was brought back after the due date, or
+     *         0 if it was not late
+     */
+    int getLateDays();
+
+    /**
+     * @return the number of the late days which are chargeable, by the same
+     *         weekday/weekend/holiday rules as the rental itself
+     */
+    int getLateChargeDays();
+
+    /**
+     * @return the amount charged for the late days, in cents, at the daily rental
+     *         charge of the agreement. The rental discount does not apply.
+     *         Guaranteed to not be negative.
+     */
+    long getLateCharge();
 }
@@ -7,18 +7,33 @@ import org.apache.commons.lang3.StringUtils;
 import cmiller.interview.ToolRentalService;
 
 public class CheckoutRequest {
+    /**
+     * The store of requests which do not name one
+     */
+    public static final String DEFAULT_STORE_ID = "default";
+
+    private final String storeId;
     private final String toolCode;
     private final int rentalDays;
     private final LocalDate checkOutDate;
     private final int discountPercent;
 
     private CheckoutRequest(Builder builder) {
+	this.storeId = builder.storeId;
 	this.toolCode = builder.toolCode;
 	this.rentalDays = builder.rentalDays;
 	this.checkOutDate = builder.checkOutDate;
 	this.discountPercent = builder.discountPercent;
     }
 
+    /**
+     * @return the store the tool is rented from, whose stock it is taken from.
+     *         Never {@code null}.
+     */
+    public String getStoreId() {
+	return storeId;
+    }
+
     public String getToolCode() {
 	return toolCode;
     }
@@ -36,11 +51,20 @@ public class CheckoutRequest {
     }
 
     public static class Builder {
+	private String storeId = DEFAULT_STORE_ID;
 	private String toolCode;
 	private int rentalDays;
 	private LocalDate checkOutDate;
 	private int discountPercent;
 
+	public Builder storeId(String storeId) {
+	    if (StringUtils.isBlank(storeId)) {
+		throw new IllegalArgumentException("CheckoutRequest.storeId cannot be null/blank");
+	    }
+	    this.storeId = storeId;
+	    return this;
+	}
+
 	public Builder toolCode(String toolCode) {
 	    if (StringUtils.isBlank(toolCode)) {
 		throw new IllegalArgumentException("CheckoutRequest.toolCode cannot be null/blank");
@@ -0,0 +1,39 @@
+package cmiller.interview.checkout;
+
+import java.util.Collection;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.ToolRentalServiceException;
+import cmiller.interview.ToolRentalServiceException.FailureReason;
+
+/**
+ * The outcome of a single checkout, either
+ * {@link ToolRentalService#tryCheckout(CheckoutRequest) on its own} or within a
+ * {@link ToolRentalService#checkoutAll(Collection) batch}. Exactly one of
+ * {@link #getResponse()} and {@link #getFailure()} is non-null.
+ */
+public interface CheckoutResult {
+
+    /**
+     * @return whether the checkout succeeded, in which case
+     *         {@link #getResponse()} is provided
+     */
+    boolean isSuccess();
+
+    /**
+     * @return the response of the successful checkout, or {@code null} if the
+     *         checkout failed
+     */
+    CheckoutResponse getResponse();
+
+    /**
+     * @return the reason the checkout failed, or {@code null} if it succeeded
+     */
+    ToolRentalServiceException getFailure();
+
+    /**
+     * @return the {@link FailureReason} of the {@link #getFailure() failure}, or
+     *         {@code null} if the checkout succeeded
+     */
+    FailureReason getFailureReason();
+}
@@ -1,5 +1,6 @@
 package cmiller.interview.checkout;
 
+import java.io.IOException;
 import java.time.LocalDate;
 
 import cmiller.interview.common.Tool;
@@ -12,6 +13,23 @@ public interface RentalAgreement {
      */
     String prettyPrint();
 
+    /**
+     * Pretty print each of the fields according to the requirements, directly
+     * into the provided {@link Appendable}, such as a {@link java.io.Writer} or
+     * {@link StringBuilder}. The output is the same as {@link #prettyPrint()}.
+     *
+     * @param out the destination of the pretty-printed fields
+     * @throws IOException if appending to the destination fails
+     */
+    void prettyPrint(Appendable out) throws IOException;
+
+    /**
+     * @return the unique id of the rental, used to
+     *         {@link cmiller.interview.ToolRentalService#checkin(cmiller.interview.checkin.CheckInRequest)
+     *         check the tool back in}. Guaranteed to be &gt 0.
+     */
+    long getRentalId();
+
     /**
      * @return the tool that was rented. Guaranteed to not return {@code null}.
      */
@@ -36,7 +54,9 @@ public interface RentalAgreement {
 
     /**
      * @return the amount per day the tool costs, in cents. Guaranteed to not be
-     *         negative.
+     *         negative. Seasonal rates and caps may charge the rental differently
+     *         from this amount on each of its {@link #getChargeDays() charge
+     *         days}.
      */
     long getDailyRentalCharge();
 
@@ -70,4 +90,10 @@ public interface RentalAgreement {
      *         to not be negative.
      */
     long getFinalCharge();
+
+    /**
+     * @return the version of the tool catalog the rental was priced with, or 0 if
+     *         the catalog is not versioned
+     */
+    long getCatalogVersion();
 }
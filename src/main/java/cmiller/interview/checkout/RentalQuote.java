@@ -0,0 +1,70 @@
+package cmiller.interview.checkout;
+
+import java.time.LocalDate;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.common.Tool;
+
+/**
+ * The charges a rental would have, as {@link ToolRentalService#quote(CheckoutRequest)
+ * quoted} without checking the tool out. The charges are the same as those of
+ * the {@link RentalAgreement} the same request would check out with, as long as
+ * the catalog and pricing rules do not change in between.
+ */
+public interface RentalQuote {
+    /**
+     * @return the type of the quoted tool. Every tool of the type is quoted the
+     *         same. Guaranteed to not return {@code null}.
+     */
+    Tool.Type getToolType();
+
+    /**
+     * @return the number of days the tool would be rented. Guaranteed to be &gt 0.
+     */
+    int getRentalDays();
+
+    /**
+     * @return the date the tool would be checked out. Guaranteed to not return
+     *         {@code null}.
+     */
+    LocalDate getCheckOutDate();
+
+    /**
+     * @return the date the tool would be due back. Guaranteed to not return
+     *         {@code null}.
+     */
+    LocalDate getDueDate();
+
+    /**
+     * @return the amount per day the tool costs, in cents
+     * @see RentalAgreement#getDailyRentalCharge()
+     */
+    long getDailyRentalCharge();
+
+    /**
+     * @return the number of chargeable days
+     * @see RentalAgreement#getChargeDays()
+     */
+    int getChargeDays();
+
+    /**
+     * @return the amount charged for the rental, in cents, before any discounts
+     *         are taken
+     */
+    long getPreDiscountCharge();
+
+    /**
+     * @return the discount percent offered on the tool, in the range 0 - 100
+     */
+    int getDiscountPercent();
+
+    /**
+     * @return the discount amount offered on the tool, in cents
+     */
+    long getDiscountAmount();
+
+    /**
+     * @return the final amount that would be charged for the rental, in cents
+     */
+    long getFinalCharge();
+}
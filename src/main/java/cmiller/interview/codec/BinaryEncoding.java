@@ -0,0 +1,102 @@
+package cmiller.interview.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The primitive encodings shared by the codecs. Non-negative numbers are
+ * written as unsigned LEB128 varints, signed numbers are zigzag encoded first,
+ * so small values of either take a single byte.
+ */
+final class BinaryEncoding {
+
+    private BinaryEncoding() {
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+	while ((value & ~0x7FL) != 0) {
+	    buffer.put((byte) ((value & 0x7F) | 0x80));
+	    value >>>= 7;
+	}
+	buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+	long value = 0;
+	for (int shift = 0; shift < Long.SIZE; shift += 7) {
+	    byte b = buffer.get();
+	    value |= (long) (b & 0x7F) << shift;
+	    if (b >= 0) {
+		return value;
+	    }
+	}
+	throw new IllegalArgumentException("Malformed varint");
+    }
+
+    static int varLongSize(long value) {
+	// 1 byte per 7 bits, and at least 1 byte for 0
+	return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7);
+    }
+
+    static void putSignedVarLong(ByteBuffer buffer, long value) {
+	putVarLong(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    static long getSignedVarLong(ByteBuffer buffer) {
+	long zigzag = getVarLong(buffer);
+	return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    static int signedVarLongSize(long value) {
+	return varLongSize((value << 1) ^ (value >> 63));
+    }
+
+    static int getVarInt(ByteBuffer buffer) {
+	long value = getVarLong(buffer);
+	if (value > Integer.MAX_VALUE || value < 0) {
+	    throw new IllegalArgumentException("Varint " + value + " is out of range of an int");
+	}
+	return (int) value;
+    }
+
+    static int getSignedVarInt(ByteBuffer buffer) {
+	long value = getSignedVarLong(buffer);
+	if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+	    throw new IllegalArgumentException("Varint " + value + " is out of range of an int");
+	}
+	return (int) value;
+    }
+
+    static byte[] toBytes(String value) {
+	return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a length prefixed string, already encoded with {@link #toBytes}
+     */
+    static void putString(ByteBuffer buffer, byte[] bytes) {
+	putVarLong(buffer, bytes.length);
+	buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+	int length = getVarInt(buffer);
+	if (length > buffer.remaining()) {
+	    throw new BufferUnderflowException();
+	}
+	if (!buffer.hasArray()) {
+	    byte[] bytes = new byte[length];
+	    buffer.get(bytes);
+	    return new String(bytes, StandardCharsets.UTF_8);
+	}
+	String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+		StandardCharsets.UTF_8);
+	buffer.position(buffer.position() + length);
+	return value;
+    }
+
+    static int stringSize(byte[] bytes) {
+	return varLongSize(bytes.length) + bytes.length;
+    }
+}
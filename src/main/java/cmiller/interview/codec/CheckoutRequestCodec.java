@@ -0,0 +1,129 @@
+package cmiller.interview.codec;
+
+import static cmiller.interview.codec.BinaryEncoding.getSignedVarInt;
+import static cmiller.interview.codec.BinaryEncoding.getString;
+import static cmiller.interview.codec.BinaryEncoding.putSignedVarLong;
+import static cmiller.interview.codec.BinaryEncoding.putString;
+import static cmiller.interview.codec.BinaryEncoding.signedVarLongSize;
+import static cmiller.interview.codec.BinaryEncoding.stringSize;
+import static cmiller.interview.codec.BinaryEncoding.toBytes;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import cmiller.interview.checkout.CheckoutRequest;
+
+/**
+ * Compact, versioned binary encoding of a {@link CheckoutRequest}, in the same
+ * style as the {@link RentalAgreementCodec}.
+ * <p>
+ * Requests are validated by the checkout, not when they are built, so the codec
+ * keeps whatever was given, including missing tool codes and dates, and
+ * negative numbers. Instances are immutable, and safe to share between threads.
+ */
+public final class CheckoutRequestCodec {
+    /**
+     * The version of the encoding written by this codec
+     */
+    public static final byte VERSION = 1;
+
+    private static final int HAS_TOOL_CODE = 1;
+    private static final int HAS_CHECK_OUT_DATE = 2;
+    // the default store is left out
+    private static final int HAS_STORE_ID = 4;
+
+    /**
+     * @return the number of bytes the request is encoded to
+     */
+    public int encodedSize(CheckoutRequest request) {
+	return encodedSize(request, request.getToolCode() == null ? null : toBytes(request.getToolCode()),
+		storeIdBytes(request));
+    }
+
+    /**
+     * Encodes the request at the position of the buffer, and advances it past the
+     * encoding.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has fewer than
+     *                                          {@link #encodedSize(CheckoutRequest)}
+     *                                          bytes remaining
+     */
+    public void encode(CheckoutRequest request, ByteBuffer buffer) {
+	byte[] toolCode = request.getToolCode() == null ? null : toBytes(request.getToolCode());
+	LocalDate checkOutDate = request.getCheckOutDate();
+	byte[] storeId = storeIdBytes(request);
+
+	buffer.put(VERSION);
+	buffer.put((byte) ((toolCode != null ? HAS_TOOL_CODE : 0) | (checkOutDate != null ? HAS_CHECK_OUT_DATE : 0)
+		| (storeId != null ? HAS_STORE_ID : 0)));
+	if (storeId != null) {
+	    putString(buffer, storeId);
+	}
+	if (toolCode != null) {
+	    putString(buffer, toolCode);
+	}
+	putSignedVarLong(buffer, request.getRentalDays());
+	if (checkOutDate != null) {
+	    buffer.putInt(Math.toIntExact(checkOutDate.toEpochDay()));
+	}
+	putSignedVarLong(buffer, request.getDiscountPercent());
+    }
+
+    /**
+     * @return a new array holding just the encoded request
+     */
+    public byte[] encode(CheckoutRequest request) {
+	byte[] encoded = new byte[encodedSize(request)];
+	encode(request, ByteBuffer.wrap(encoded));
+	return encoded;
+    }
+
+    /**
+     * Decodes a request from the position of the buffer, and advances it past the
+     * encoding.
+     *
+     * @throws IllegalArgumentException          if the encoding is of an
+     *                                           unsupported version, or is
+     *                                           malformed
+     * @throws java.nio.BufferUnderflowException if the encoding is truncated
+     */
+    public CheckoutRequest decode(ByteBuffer buffer) {
+	byte version = buffer.get();
+	if (version != VERSION) {
+	    throw new IllegalArgumentException("Unsupported CheckoutRequest encoding version " + version);
+	}
+
+	byte flags = buffer.get();
+	CheckoutRequest.Builder builder = new CheckoutRequest.Builder();
+	if ((flags & HAS_STORE_ID) != 0) {
+	    builder.storeId(getString(buffer));
+	}
+	if ((flags & HAS_TOOL_CODE) != 0) {
+	    builder.toolCode(getString(buffer));
+	}
+	builder.rentalDays(getSignedVarInt(buffer));
+	if ((flags & HAS_CHECK_OUT_DATE) != 0) {
+	    builder.checkOutDate(LocalDate.ofEpochDay(buffer.getInt()));
+	}
+	return builder.discountPercent(getSignedVarInt(buffer)).build();
+    }
+
+    /**
+     * Decodes the whole array, as returned by {@link #encode(CheckoutRequest)}
+     */
+    public CheckoutRequest decode(byte[] encoded) {
+	return decode(ByteBuffer.wrap(encoded));
+    }
+
+    private static byte[] storeIdBytes(CheckoutRequest request) {
+	return CheckoutRequest.DEFAULT_STORE_ID.equals(request.getStoreId()) ? null : toBytes(request.getStoreId());
+    }
+
+    private static int encodedSize(CheckoutRequest request, byte[] toolCode, byte[] storeId) {
+	return 2 * Byte.BYTES + (storeId == null ? 0 : stringSize(storeId))
+		+ (toolCode == null ? 0 : stringSize(toolCode))
+		+ signedVarLongSize(request.getRentalDays())
+		+ (request.getCheckOutDate() == null ? 0 : Integer.BYTES)
+		+ signedVarLongSize(request.getDiscountPercent());
+    }
+}
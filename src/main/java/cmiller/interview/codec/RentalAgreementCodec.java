@@ -0,0 +1,155 @@
+package cmiller.interview.codec;
+
+import static cmiller.interview.codec.BinaryEncoding.getString;
+import static cmiller.interview.codec.BinaryEncoding.getSignedVarInt;
+import static cmiller.interview.codec.BinaryEncoding.getVarInt;
+import static cmiller.interview.codec.BinaryEncoding.getVarLong;
+import static cmiller.interview.codec.BinaryEncoding.putSignedVarLong;
+import static cmiller.interview.codec.BinaryEncoding.putString;
+import static cmiller.interview.codec.BinaryEncoding.putVarLong;
+import static cmiller.interview.codec.BinaryEncoding.signedVarLongSize;
+import static cmiller.interview.codec.BinaryEncoding.stringSize;
+import static cmiller.interview.codec.BinaryEncoding.toBytes;
+import static cmiller.interview.codec.BinaryEncoding.varLongSize;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.function.Function;
+
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.checkout.RentalAgreementImpl;
+
+/**
+ * Compact, versioned binary encoding of a {@link RentalAgreement}, for shipping
+ * agreements between services.
+ * <p>
+ * The tool is written as its code, and resolved again when decoding, so both
+ * sides are expected to share a tool catalog. The check out date is written as
+ * an epoch-day int, the due date as the days after it, and the numbers as
+ * varints, which keeps a typical agreement to about 30 bytes. Each encoding
+ * starts with a {@link #VERSION version} byte, so the format can evolve while
+ * older encodings stay readable.
+ * <p>
+ * Instances are immutable, and safe to share between threads.
+ */
+public final class RentalAgreementCodec {
+    /**
+     * The version of the encoding written by this codec
+     */
+    public static final byte VERSION = 1;
+
+    private final Function<String, ? extends Tool> toolResolver;
+
+    /**
+     * @param toolResolver finds the tool of a decoded agreement by its code,
+     *                     returning {@code null} if the tool is unknown
+     */
+    public RentalAgreementCodec(Function<String, ? extends Tool> toolResolver) {
+	this.toolResolver = toolResolver;
+    }
+
+    /**
+     * @return the number of bytes the agreement is encoded to
+     */
+    public int encodedSize(RentalAgreement agreement) {
+	return encodedSize(agreement, toBytes(agreement.getTool().getCode()));
+    }
+
+    /**
+     * Encodes the agreement at the position of the buffer, and advances it past the
+     * encoding.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has fewer than
+     *                                          {@link #encodedSize(RentalAgreement)}
+     *                                          bytes remaining
+     */
+    public void encode(RentalAgreement agreement, ByteBuffer buffer) {
+	byte[] toolCode = toBytes(agreement.getTool().getCode());
+	long checkOutEpochDay = agreement.getCheckOutDate().toEpochDay();
+
+	buffer.put(VERSION);
+	putVarLong(buffer, agreement.getRentalId());
+	putString(buffer, toolCode);
+	putVarLong(buffer, agreement.getRentalDays());
+	buffer.putInt(Math.toIntExact(checkOutEpochDay));
+	putSignedVarLong(buffer, agreement.getDueDate().toEpochDay() - checkOutEpochDay);
+	putVarLong(buffer, agreement.getDailyRentalCharge());
+	putVarLong(buffer, agreement.getChargeDays());
+	putVarLong(buffer, agreement.getPreDiscountCharge());
+	putVarLong(buffer, agreement.getDiscountPercent());
+	putVarLong(buffer, agreement.getDiscountAmount());
+	putVarLong(buffer, agreement.getFinalCharge());
+	putVarLong(buffer, agreement.getCatalogVersion());
+    }
+
+    /**
+     * @return a new array holding just the encoded agreement
+     */
+    public byte[] encode(RentalAgreement agreement) {
+	byte[] encoded = new byte[encodedSize(agreement)];
+	encode(agreement, ByteBuffer.wrap(encoded));
+	return encoded;
+    }
+
+    /**
+     * Decodes an agreement from the position of the buffer, and advances it past
+     * the encoding.
+     *
+     * @throws IllegalArgumentException          if the encoding is of an
+     *                                           unsupported version, is malformed,
+     *                                           or names an unknown tool
+     * @throws java.nio.BufferUnderflowException if the encoding is truncated
+     */
+    public RentalAgreement decode(ByteBuffer buffer) {
+	byte version = buffer.get();
+	if (version != VERSION) {
+	    throw new IllegalArgumentException("Unsupported RentalAgreement encoding version " + version);
+	}
+
+	long rentalId = getVarLong(buffer);
+	String toolCode = getString(buffer);
+	Tool tool = toolResolver.apply(toolCode);
+	if (tool == null) {
+	    throw new IllegalArgumentException("Unknown tool code " + toolCode);
+	}
+	int rentalDays = getVarInt(buffer);
+	LocalDate checkOutDate = LocalDate.ofEpochDay(buffer.getInt());
+	LocalDate dueDate = checkOutDate.plusDays(getSignedVarInt(buffer));
+
+	//@formatter:off
+	return new RentalAgreementImpl.Builder()
+		.rentalId(rentalId)
+		.tool(tool)
+		.rentalDays(rentalDays)
+		.checkOutDate(checkOutDate)
+		.dueDate(dueDate)
+		.dailyRentalCharge(getVarLong(buffer))
+		.chargeDays(getVarInt(buffer))
+		.preDiscountCharge(getVarLong(buffer))
+		.discountPercent(getVarInt(buffer))
+		.discountAmount(getVarLong(buffer))
+		.finalCharge(getVarLong(buffer))
+		.catalogVersion(getVarLong(buffer))
+		.build();
+	//@formatter:on
+    }
+
+    /**
+     * Decodes the whole array, as returned by {@link #encode(RentalAgreement)}
+     */
+    public RentalAgreement decode(byte[] encoded) {
+	return decode(ByteBuffer.wrap(encoded));
+    }
+
+    private static int encodedSize(RentalAgreement agreement, byte[] toolCode) {
+	long checkOutEpochDay = agreement.getCheckOutDate().toEpochDay();
+	return Byte.BYTES + varLongSize(agreement.getRentalId()) + stringSize(toolCode)
+		+ varLongSize(agreement.getRentalDays()) + Integer.BYTES
+		+ signedVarLongSize(agreement.getDueDate().toEpochDay() - checkOutEpochDay)
+		+ varLongSize(agreement.getDailyRentalCharge()) + varLongSize(agreement.getChargeDays())
+		+ varLongSize(agreement.getPreDiscountCharge()) + varLongSize(agreement.getDiscountPercent())
+		+ varLongSize(agreement.getDiscountAmount()) + varLongSize(agreement.getFinalCharge())
+		+ varLongSize(agreement.getCatalogVersion());
+    }
+}
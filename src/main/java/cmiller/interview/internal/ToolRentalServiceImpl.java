@@ -1,13 +1,17 @@
 package cmiller.interview.internal;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import cmiller.interview.ToolRentalService;
 import cmiller.interview.ToolRentalServiceException;
 import cmiller.interview.checkin.CheckInRequest;
 import cmiller.interview.checkin.CheckInResponse;
 import cmiller.interview.checkout.CheckoutRequest;
 import cmiller.interview.checkout.CheckoutResponse;
-import cmiller.interview.internal.checkin.CheckInManager;
-import cmiller.interview.internal.checkout.CheckoutManager;
+import cmiller.interview.checkout.CheckoutResult;
+import cmiller.interview.checkout.RentalQuote;
 import cmiller.interview.internal.factory.ToolRentalServiceDependencyFactory;
 
 /**
@@ -15,7 +19,7 @@ import cmiller.interview.internal.factory.ToolRentalServiceDependencyFactory;
  * dedicated workflow
  */
 public class ToolRentalServiceImpl implements ToolRentalService {
-    private ToolRentalServiceDependencyFactory factory;
+    private final ToolRentalServiceDependencyFactory factory;
 
     public ToolRentalServiceImpl(ToolRentalServiceDependencyFactory factory) {
 	this.factory = factory;
@@ -23,11 +27,46 @@ public class ToolRentalServiceImpl implements ToolRentalService {
 
     @Override
     public CheckoutResponse checkout(CheckoutRequest request) throws ToolRentalServiceException {
-	return new CheckoutManager(factory).checkout(request);
+	return factory.getCheckoutManager().checkout(request);
+    }
+
+    @Override
+    public CheckoutResult tryCheckout(CheckoutRequest request) {
+	return factory.getCheckoutManager().tryCheckout(request);
+    }
+
+    @Override
+    public CompletableFuture<CheckoutResponse> checkoutAsync(CheckoutRequest request) {
+	return factory.getAsyncCheckoutManager().checkout(request);
+    }
+
+    @Override
+    public List<CheckoutResult> checkoutAll(Collection<CheckoutRequest> requests) {
+	return factory.getCheckoutManager().checkoutAll(requests);
+    }
+
+    @Override
+    public List<CheckoutResult> checkoutAllParallel(Collection<CheckoutRequest> requests) {
+	return factory.getParallelCheckoutManager().checkoutAll(requests);
+    }
+
+    @Override
+    public RentalQuote quote(CheckoutRequest request) throws ToolRentalServiceException {
+	return factory.getCheckoutManager().quote(request);
+    }
+
+    @Override
+    public boolean isAvailable(CheckoutRequest request) throws ToolRentalServiceException {
+	return factory.getCheckoutManager().isAvailable(request);
     }
 
     @Override
     public CheckInResponse checkin(CheckInRequest request) throws ToolRentalServiceException {
-	return new CheckInManager(factory).checkIn(request);
+	return factory.getCheckInManager().checkIn(request);
+    }
+
+    @Override
+    public void close() {
+	factory.close();
     }
 }
\ No newline at end of file
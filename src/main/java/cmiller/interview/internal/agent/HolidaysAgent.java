@@ -1,52 +1,74 @@
 package cmiller.interview.internal.agent;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.Month;
-import java.time.temporal.TemporalAdjusters;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+
+import cmiller.interview.internal.cache.CacheStats;
+import cmiller.interview.internal.cache.LruCache;
+import cmiller.interview.internal.calendar.HolidayRule;
 
 public class HolidaysAgent {
+    public static final int DEFAULT_MAXIMUM_CACHED_YEARS = 256;
+
+    private final List<HolidayRule> rules;
+    // avoids redundant building out of this list for the same year. Bounded, so
+    // dates far in the past or future cannot grow it forever
+    private final LruCache<Integer, List<LocalDate>> cache;
+
+    public HolidaysAgent() {
+	this(DEFAULT_MAXIMUM_CACHED_YEARS);
+    }
 
-    // avoids redundant building out of this list for the same year
-    private Map<Integer, List<LocalDate>> cache = new HashMap<>();
+    public HolidaysAgent(int maximumCachedYears) {
+	this(HolidayRule.DEFAULT_RULES, maximumCachedYears);
+    }
+
+    public HolidaysAgent(List<HolidayRule> rules, int maximumCachedYears) {
+	this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+	this.cache = new LruCache<>(maximumCachedYears);
+    }
 
+    /**
+     * @return the dates the holidays are observed on within the year
+     */
     public List<LocalDate> getHolidaysForYear(int year) {
-	List<LocalDate> holidays = cache.get(year);
+	return cache.get(year, this::createHolidayListForYear);
+    }
+
+    public List<HolidayRule> getRules() {
+	return rules;
+    }
 
-	if (holidays == null) {
-	    holidays = createHolidayListForYear(year);
-	    cache.put(year, holidays);
+    /**
+     * Computes and caches the holidays of each year in the inclusive range, so the
+     * first checkouts do not pay for it. Years beyond the maximum cache size are
+     * evicted again, least recently used first.
+     */
+    public void prewarm(int fromYear, int toYear) {
+	for (int year = fromYear; year <= toYear; year++) {
+	    getHolidaysForYear(year);
 	}
+    }
 
-	return holidays;
+    public CacheStats getCacheStats() {
+	return cache.stats();
     }
 
     private List<LocalDate> createHolidayListForYear(int year) {
-	//@formatter:off
-	return Arrays.asList(
-		// expand with other holidays in future
-		fourthOfJuly(year), 
-		laborDay(year)
-	);
-	//@formatter:on
-    }
-
-    private static LocalDate fourthOfJuly(int year) {
-	LocalDate independenceDay = LocalDate.of(year, Month.JULY, 4);
-	DayOfWeek dayOfWeek = independenceDay.getDayOfWeek();
-	if (dayOfWeek == DayOfWeek.SATURDAY) {
-	    return independenceDay.minusDays(1);
-	} else if (dayOfWeek == DayOfWeek.SUNDAY) {
-	    return independenceDay.plusDays(1);
+	List<LocalDate> holidays = new ArrayList<>(rules.size());
+	for (HolidayRule rule : rules) {
+	    LocalDate holiday = rule.dateIn(year);
+	    if (holiday.getYear() == year) {
+		holidays.add(holiday);
+	    }
+	    // next year's New Year's Day may be observed on the last day of this year
+	    LocalDate nextYearsHoliday = rule.dateIn(year + 1);
+	    if (nextYearsHoliday.getYear() == year) {
+		holidays.add(nextYearsHoliday);
+	    }
 	}
-	return independenceDay;
-    }
-
-    private static LocalDate laborDay(int year) {
-	return LocalDate.of(year, Month.SEPTEMBER, 1).with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+	return Collections.unmodifiableList(holidays);
     }
 }
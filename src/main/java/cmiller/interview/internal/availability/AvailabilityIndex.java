@@ -0,0 +1,92 @@
+package cmiller.interview.internal.availability;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the days each tool is booked at each store, answering whether a
+ * unit is free for a whole rental window without scanning the rentals.
+ * <p>
+ * Each (store, tool code) pair has its own {@link ToolSchedule}, a segment tree
+ * over epoch days, so booking and querying a window takes time logarithmic in
+ * the span of dates, however long the window is and however many rentals there
+ * are. Schedules are found through {@link ConcurrentHashMap concurrent maps}
+ * and have their own lock, so registers booking different tools never contend.
+ * <p>
+ * Windows are half open: a rental of n days starting on its check out date
+ * books the check out date and the n - 1 days after it, so a tool returned on
+ * its due date can be rented again that day.
+ */
+public class AvailabilityIndex {
+    /**
+     * The capacity of tools without any stock recorded
+     */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, ToolSchedule>> schedulesByStore =
+	    new ConcurrentHashMap<>();
+
+    /**
+     * Adds units of the tool to the number the store can have booked on the same
+     * day. Tools without any units added have an {@link #UNLIMITED} capacity.
+     */
+    public void addCapacity(String storeId, String toolCode, long units) {
+	schedule(storeId, toolCode).addCapacity(units);
+    }
+
+    /**
+     * Books a unit of the tool for the window, whether or not one is free, as for
+     * a rental which has already been checked out
+     */
+    public void book(String storeId, String toolCode, LocalDate fromDate, LocalDate toDateExclusive) {
+	schedule(storeId, toolCode).add(fromDate.toEpochDay(), toDateExclusive.toEpochDay(), 1);
+    }
+
+    /**
+     * Books a unit of the tool for the window, only if a unit is free on every day
+     * of it. Checking and booking is atomic, so concurrent bookings never take
+     * more units than the capacity.
+     *
+     * @return whether the unit was booked
+     */
+    public boolean tryBook(String storeId, String toolCode, LocalDate fromDate, LocalDate toDateExclusive) {
+	return schedule(storeId, toolCode).tryBook(fromDate.toEpochDay(), toDateExclusive.toEpochDay());
+    }
+
+    /**
+     * Cancels a booking made for the same window
+     */
+    public void cancel(String storeId, String toolCode, LocalDate fromDate, LocalDate toDateExclusive) {
+	ToolSchedule schedule = find(storeId, toolCode);
+	if (schedule != null) {
+	    schedule.add(fromDate.toEpochDay(), toDateExclusive.toEpochDay(), -1);
+	}
+    }
+
+    /**
+     * @return the most units of the tool booked on any one day of the window
+     */
+    public int getPeakBookings(String storeId, String toolCode, LocalDate fromDate, LocalDate toDateExclusive) {
+	ToolSchedule schedule = find(storeId, toolCode);
+	return schedule == null ? 0 : schedule.max(fromDate.toEpochDay(), toDateExclusive.toEpochDay());
+    }
+
+    /**
+     * @return whether a unit of the tool is free on every day of the window
+     */
+    public boolean isAvailable(String storeId, String toolCode, LocalDate fromDate, LocalDate toDateExclusive) {
+	ToolSchedule schedule = find(storeId, toolCode);
+	return schedule == null
+		|| schedule.max(fromDate.toEpochDay(), toDateExclusive.toEpochDay()) < schedule.getCapacity();
+    }
+
+    private ToolSchedule schedule(String storeId, String toolCode) {
+	return schedulesByStore.computeIfAbsent(storeId, store -> new ConcurrentHashMap<>())
+		.computeIfAbsent(toolCode, code -> new ToolSchedule(UNLIMITED));
+    }
+
+    private ToolSchedule find(String storeId, String toolCode) {
+	ConcurrentHashMap<String, ToolSchedule> schedulesByToolCode = schedulesByStore.get(storeId);
+	return schedulesByToolCode == null ? null : schedulesByToolCode.get(toolCode);
+    }
+}
@@ -0,0 +1,143 @@
+package cmiller.interview.internal.availability;
+
+import java.util.Arrays;
+
+/**
+ * The number of units of one tool booked on each day, as a sparse segment tree
+ * over epoch days supporting "add to a range of days" and "maximum over a range
+ * of days", each in time logarithmic in the span of the tree.
+ * <p>
+ * The tree spans every epoch day a {@link java.time.LocalDate} can hold, and
+ * its nodes are only created where bookings begin or end, so it takes memory
+ * in proportion to the number of bookings rather than the number of days. The
+ * amount added to a whole node is kept on that node, and never pushed down to
+ * its children. The nodes live in parallel arrays, with index 0 standing for a
+ * missing child.
+ * <p>
+ * All methods are synchronized, so each tool has its own lock.
+ */
+final class ToolSchedule {
+    // LocalDate.MIN and MAX are about 3.65e11 days from the epoch
+    private static final long FIRST_DAY = -(1L << 39);
+    private static final long END_DAY = 1L << 39;
+    private static final int ROOT = 1;
+
+    private int[] left = new int[64];
+    private int[] right = new int[64];
+    // the most units booked on any one day of the node, including its own added
+    private int[] max = new int[64];
+    // the units booked on every day of the node
+    private int[] added = new int[64];
+    private int nodeCount = 2;
+    private long capacity;
+
+    ToolSchedule(long capacity) {
+	this.capacity = capacity;
+    }
+
+    synchronized long getCapacity() {
+	return capacity;
+    }
+
+    synchronized void addCapacity(long units) {
+	capacity = capacity == AvailabilityIndex.UNLIMITED ? units : capacity + units;
+    }
+
+    /**
+     * Adds to the units booked on each day of the range
+     *
+     * @param units the units to book, or to cancel if negative
+     */
+    synchronized void add(long fromDay, long toDayExclusive, int units) {
+	if (fromDay >= toDayExclusive) {
+	    return;
+	}
+	add(ROOT, FIRST_DAY, END_DAY, fromDay, toDayExclusive, units);
+    }
+
+    /**
+     * Books a unit on each day of the range, if every day has a unit left
+     *
+     * @return whether the unit was booked
+     */
+    synchronized boolean tryBook(long fromDay, long toDayExclusive) {
+	if (max(fromDay, toDayExclusive) >= capacity) {
+	    return false;
+	}
+	add(fromDay, toDayExclusive, 1);
+	return true;
+    }
+
+    /**
+     * @return the most units booked on any one day of the range
+     */
+    synchronized int max(long fromDay, long toDayExclusive) {
+	if (fromDay >= toDayExclusive) {
+	    return 0;
+	}
+	return max(ROOT, FIRST_DAY, END_DAY, fromDay, toDayExclusive);
+    }
+
+    private void add(int node, long low, long high, long fromDay, long toDayExclusive, int units) {
+	if (fromDay <= low && high <= toDayExclusive) {
+	    added[node] += units;
+	    max[node] += units;
+	    return;
+	}
+	long middle = low + (high - low) / 2;
+	if (fromDay < middle) {
+	    add(leftChild(node), low, middle, fromDay, toDayExclusive, units);
+	}
+	if (toDayExclusive > middle) {
+	    add(rightChild(node), middle, high, fromDay, toDayExclusive, units);
+	}
+	max[node] = added[node] + Math.max(max[left[node]], max[right[node]]);
+    }
+
+    private int max(int node, long low, long high, long fromDay, long toDayExclusive) {
+	if (node == 0) {
+	    return 0;
+	}
+	if (fromDay <= low && high <= toDayExclusive) {
+	    return max[node];
+	}
+	long middle = low + (high - low) / 2;
+	// a cancelled part of a booking made on this node is negative below it
+	int childMax = Integer.MIN_VALUE;
+	if (fromDay < middle) {
+	    childMax = max(left[node], low, middle, fromDay, toDayExclusive);
+	}
+	if (toDayExclusive > middle) {
+	    childMax = Math.max(childMax, max(right[node], middle, high, fromDay, toDayExclusive));
+	}
+	return added[node] + childMax;
+    }
+
+    private int leftChild(int node) {
+	if (left[node] == 0) {
+	    // not assigned directly, as the arrays may be replaced by newNode
+	    int child = newNode();
+	    left[node] = child;
+	}
+	return left[node];
+    }
+
+    private int rightChild(int node) {
+	if (right[node] == 0) {
+	    int child = newNode();
+	    right[node] = child;
+	}
+	return right[node];
+    }
+
+    private int newNode() {
+	if (nodeCount == left.length) {
+	    int length = left.length * 2;
+	    left = Arrays.copyOf(left, length);
+	    right = Arrays.copyOf(right, length);
+	    max = Arrays.copyOf(max, length);
+	    added = Arrays.copyOf(added, length);
+	}
+	return nodeCount++;
+    }
+}
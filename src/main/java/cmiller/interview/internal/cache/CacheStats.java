@@ -0,0 +1,48 @@
+package cmiller.interview.internal.cache;
+
+/**
+ * Point-in-time counters of a cache
+ */
+public class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+
+    public CacheStats(long hitCount, long missCount, long evictionCount, int size) {
+	this.hitCount = hitCount;
+	this.missCount = missCount;
+	this.evictionCount = evictionCount;
+	this.size = size;
+    }
+
+    public long getHitCount() {
+	return hitCount;
+    }
+
+    public long getMissCount() {
+	return missCount;
+    }
+
+    public long getEvictionCount() {
+	return evictionCount;
+    }
+
+    public int getSize() {
+	return size;
+    }
+
+    /**
+     * @return the ratio of hits to all lookups, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+	long requests = hitCount + missCount;
+	return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+	return "CacheStats [hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount
+		+ ", size=" + size + "]";
+    }
+}
@@ -0,0 +1,207 @@
+package cmiller.interview.internal.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A thread-safe, size-bounded cache which evicts the least recently used entry
+ * once the maximum size is exceeded.
+ * <p>
+ * Concurrent {@link #get(Object, Function) gets} for the same missing key only
+ * run the loader once; the other callers wait for its result. The loader runs
+ * outside of the cache's lock, so a slow load does not block lookups of other
+ * keys. A loader returning {@code null} is not cached.
+ * <p>
+ * Entries may optionally expire a fixed time after they were loaded or put.
+ * Expired entries are dropped when they are next looked up, and are counted as
+ * evictions.
+ */
+public class LruCache<K, V> {
+    private final int maximumSize;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LruCache(int maximumSize) {
+	this(maximumSize, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param expireAfterWrite how long entries stay cached after they were loaded
+     *                         or put, or 0 for them to never expire
+     */
+    public LruCache(int maximumSize, long expireAfterWrite, TimeUnit unit) {
+	this(maximumSize, expireAfterWrite, unit, System::nanoTime);
+    }
+
+    /**
+     * @param ticker the source of {@link System#nanoTime()} like time readings used
+     *               for expiry
+     */
+    public LruCache(int maximumSize, long expireAfterWrite, TimeUnit unit, LongSupplier ticker) {
+	if (maximumSize < 1) {
+	    throw new IllegalArgumentException("LruCache.maximumSize must be greater than 0");
+	}
+	if (expireAfterWrite < 0) {
+	    throw new IllegalArgumentException("LruCache.expireAfterWrite cannot be negative");
+	}
+	this.maximumSize = maximumSize;
+	this.expireAfterWriteNanos = unit.toNanos(expireAfterWrite);
+	this.ticker = ticker;
+	this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+	    private static final long serialVersionUID = 1L;
+
+	    @Override
+	    protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+		boolean evict = size() > LruCache.this.maximumSize;
+		if (evict) {
+		    evictions.increment();
+		}
+		return evict;
+	    }
+	};
+    }
+
+    /**
+     * @return the cached value for the key, loading it with the loader if it is
+     *         not cached yet
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+	Entry<V> entry;
+	boolean loadHere = false;
+	synchronized (entries) {
+	    entry = getUnexpired(key);
+	    if (entry == null) {
+		entry = new Entry<>(new CompletableFuture<>());
+		entries.put(key, entry);
+		loadHere = true;
+	    }
+	}
+
+	if (!loadHere) {
+	    hits.increment();
+	    return join(entry.future);
+	}
+
+	misses.increment();
+	try {
+	    V value = loader.apply(key);
+	    entry.writtenAtNanos = ticker.getAsLong();
+	    entry.future.complete(value);
+	    if (value == null) {
+		remove(key, entry);
+	    }
+	    return value;
+	} catch (RuntimeException | Error e) {
+	    remove(key, entry);
+	    entry.future.completeExceptionally(e);
+	    throw e;
+	}
+    }
+
+    /**
+     * @return the cached value for the key, or {@code null} if it is not cached.
+     *         Does not count as a hit or miss.
+     */
+    public V getIfPresent(K key) {
+	Entry<V> entry;
+	synchronized (entries) {
+	    entry = getUnexpired(key);
+	}
+	return entry == null ? null : join(entry.future);
+    }
+
+    public void put(K key, V value) {
+	Entry<V> entry = new Entry<>(CompletableFuture.completedFuture(value));
+	entry.writtenAtNanos = ticker.getAsLong();
+	synchronized (entries) {
+	    entries.put(key, entry);
+	}
+    }
+
+    public void invalidate(K key) {
+	synchronized (entries) {
+	    entries.remove(key);
+	}
+    }
+
+    public void invalidateAll() {
+	synchronized (entries) {
+	    entries.clear();
+	}
+    }
+
+    public int size() {
+	synchronized (entries) {
+	    return entries.size();
+	}
+    }
+
+    public int getMaximumSize() {
+	return maximumSize;
+    }
+
+    public CacheStats stats() {
+	return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    /**
+     * Must be called while holding the lock of the entries
+     *
+     * @return the entry for the key, or null if it is missing or was dropped
+     *         because it expired
+     */
+    private Entry<V> getUnexpired(K key) {
+	Entry<V> entry = entries.get(key);
+	if (entry != null && expireAfterWriteNanos > 0 && entry.future.isDone()
+		&& ticker.getAsLong() - entry.writtenAtNanos >= expireAfterWriteNanos) {
+	    entries.remove(key);
+	    evictions.increment();
+	    return null;
+	}
+	return entry;
+    }
+
+    private void remove(K key, Entry<V> entry) {
+	synchronized (entries) {
+	    // only remove our own entry, it may have been replaced in the meantime
+	    if (entries.get(key) == entry) {
+		entries.remove(key);
+	    }
+	}
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+	try {
+	    return future.join();
+	} catch (CompletionException e) {
+	    Throwable cause = e.getCause();
+	    if (cause instanceof RuntimeException) {
+		throw (RuntimeException) cause;
+	    } else if (cause instanceof Error) {
+		throw (Error) cause;
+	    }
+	    throw e;
+	}
+    }
+
+    private static final class Entry<V> {
+	private final CompletableFuture<V> future;
+	// written before the future is completed, and only read once it is done
+	private volatile long writtenAtNanos;
+
+	private Entry(CompletableFuture<V> future) {
+	    this.future = future;
+	}
+    }
+}
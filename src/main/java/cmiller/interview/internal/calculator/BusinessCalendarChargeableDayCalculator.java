@@ -0,0 +1,39 @@
+package cmiller.interview.internal.calculator;
+
+import java.time.LocalDate;
+
+import cmiller.interview.internal.calendar.BusinessCalendar;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * Counts chargeable days with bit counts over a precomputed
+ * {@link BusinessCalendar}. Rentals that are not fully within the calendar's
+ * span of years are delegated to the fallback calculator.
+ */
+public class BusinessCalendarChargeableDayCalculator implements ChargeableDayCalculator {
+    private final BusinessCalendar businessCalendar;
+    private final ChargeableDayCalculator fallback;
+
+    public BusinessCalendarChargeableDayCalculator(BusinessCalendar businessCalendar,
+	    ChargeableDayCalculator fallback) {
+	this.businessCalendar = businessCalendar;
+	this.fallback = fallback;
+    }
+
+    @Override
+    public int calculateChargeableDays(LocalDate checkOutDate, LocalDate dueDate, ChargeableDaysDO chargeableDaysDO) {
+	// Based on the requirements, the first chargeable day is the day after
+	// checkout, inclusive to the due date
+	long firstEpochDay = checkOutDate.toEpochDay() + 1;
+	long lastEpochDay = dueDate.toEpochDay();
+	if (lastEpochDay < firstEpochDay) {
+	    return 0;
+	}
+	if (!businessCalendar.covers(firstEpochDay, lastEpochDay)) {
+	    return fallback.calculateChargeableDays(checkOutDate, dueDate, chargeableDaysDO);
+	}
+
+	return businessCalendar.countDays(firstEpochDay, lastEpochDay, chargeableDaysDO.isWeekdayCharge(),
+		chargeableDaysDO.isWeekendCharge(), chargeableDaysDO.isHolidayCharge());
+    }
+}
@@ -0,0 +1,49 @@
+package cmiller.interview.internal.calculator;
+
+/**
+ * Exact integer arithmetic for rental charges, in cents. Gives the same results
+ * as the equivalent {@link java.math.BigDecimal} calculation rounded
+ * {@link java.math.RoundingMode#HALF_UP HALF_UP}, without allocating. Results
+ * which do not fit in a {@code long} throw an {@link ArithmeticException}
+ * rather than silently overflowing.
+ */
+public final class ChargeCalculator {
+    private static final long PERCENT_DIVISOR = 100;
+
+    private ChargeCalculator() {
+    }
+
+    /**
+     * @return the charge for the chargeable days, before any discount
+     * @throws ArithmeticException if the charge overflows a {@code long}
+     */
+    public static long calculatePreDiscountCharge(int chargeDays, long dailyRentalChargeCents) {
+	return Math.multiplyExact(dailyRentalChargeCents, (long) chargeDays);
+    }
+
+    /**
+     * @return the discount percent of the charge, rounded half up to whole cents
+     * @throws ArithmeticException if the intermediate product overflows a
+     *                             {@code long}
+     */
+    public static long calculateDiscountAmount(long preDiscountChargeCents, int discountPercent) {
+	long scaled = Math.multiplyExact(preDiscountChargeCents, (long) discountPercent);
+	return divideRoundHalfUp(scaled, PERCENT_DIVISOR);
+    }
+
+    /**
+     * Divides, rounding to the nearest whole number, and away from zero when
+     * exactly halfway between two whole numbers
+     *
+     * @param divisor must be positive
+     */
+    static long divideRoundHalfUp(long dividend, long divisor) {
+	long quotient = dividend / divisor;
+	long remainder = dividend % divisor;
+	// the remainder has the sign of the dividend, and is smaller than the divisor
+	if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+	    quotient += Long.signum(dividend);
+	}
+	return quotient;
+    }
+}
@@ -0,0 +1,23 @@
+package cmiller.interview.internal.calculator;
+
+import java.time.LocalDate;
+
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * Counts the chargeable days of a rental. Implementations are interchangeable
+ * and must all produce the same result for the same input.
+ */
+public interface ChargeableDayCalculator {
+
+    /**
+     * @param checkOutDate     the date the tool was checked out. This day is never
+     *                         charged.
+     * @param dueDate          the date the tool is due back, inclusive
+     * @param chargeableDaysDO the {@link ChargeableDaysDO chargeable days
+     *                         information} of the rented tool's type
+     * @return the number of chargeable days, beginning from the day after checkout,
+     *         and including the due date
+     */
+    int calculateChargeableDays(LocalDate checkOutDate, LocalDate dueDate, ChargeableDaysDO chargeableDaysDO);
+}
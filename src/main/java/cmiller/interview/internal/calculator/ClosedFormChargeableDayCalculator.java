@@ -0,0 +1,114 @@
+package cmiller.interview.internal.calculator;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * Counts chargeable days without visiting each day of the rental. Weekend days
+ * are counted arithmetically from whole weeks plus the leftover days, and
+ * holidays are subtracted using the per-year holiday lists of the
+ * {@link HolidaysAgent}. The cost depends on the number of calendar years the
+ * rental spans, not on the number of days.
+ */
+public class ClosedFormChargeableDayCalculator implements ChargeableDayCalculator {
+    // 1970-01-01 (epoch day 0) was a Thursday, i.e. index 3 of a Monday-based week
+    private static final int EPOCH_DAY_OF_WEEK_OFFSET = 3;
+    private static final int SATURDAY_INDEX = DayOfWeek.SATURDAY.getValue() - 1;
+
+    private final HolidaysAgent holidaysAgent;
+
+    public ClosedFormChargeableDayCalculator(HolidaysAgent holidaysAgent) {
+	this.holidaysAgent = holidaysAgent;
+    }
+
+    @Override
+    public int calculateChargeableDays(LocalDate checkOutDate, LocalDate dueDate, ChargeableDaysDO chargeableDaysDO) {
+	// Based on the requirements, the first chargeable day is the day after
+	// checkout, inclusive to the due date
+	LocalDate firstDay = checkOutDate.plusDays(1);
+	long firstEpochDay = firstDay.toEpochDay();
+	long lastEpochDay = dueDate.toEpochDay();
+	if (lastEpochDay < firstEpochDay) {
+	    return 0;
+	}
+
+	long weekendDays = countWeekendDays(firstEpochDay, lastEpochDay);
+	long weekdays = lastEpochDay - firstEpochDay + 1 - weekendDays;
+	long chargeableDays = (chargeableDaysDO.isWeekdayCharge() ? weekdays : 0)
+		+ (chargeableDaysDO.isWeekendCharge() ? weekendDays : 0);
+	if (!chargeableDaysDO.isHolidayCharge() && chargeableDays > 0) {
+	    chargeableDays -= countHolidays(firstDay, dueDate, chargeableDaysDO.isWeekdayCharge(),
+		    chargeableDaysDO.isWeekendCharge());
+	}
+
+	return (int) chargeableDays;
+    }
+
+    /**
+     * Counts the holidays within the inclusive range. Only holidays on the kinds
+     * of day which are otherwise charged are counted, so that days excluded as
+     * weekdays or weekend days are not subtracted twice.
+     */
+    private int countHolidays(LocalDate firstDay, LocalDate lastDay, boolean onWeekdays, boolean onWeekends) {
+	int count = 0;
+	for (int year = firstDay.getYear(); year <= lastDay.getYear(); year++) {
+	    List<LocalDate> holidays = holidaysAgent.getHolidaysForYear(year);
+	    for (int i = 0; i < holidays.size(); i++) {
+		LocalDate holiday = holidays.get(i);
+		// a day is only matched against the holidays of its own year
+		if (holiday.getYear() != year || holiday.isBefore(firstDay) || holiday.isAfter(lastDay)
+			|| !(isWeekend(holiday.toEpochDay()) ? onWeekends : onWeekdays)
+			|| isDuplicate(holidays, i)) {
+		    continue;
+		}
+		count++;
+	    }
+	}
+	return count;
+    }
+
+    private static boolean isDuplicate(List<LocalDate> holidays, int index) {
+	LocalDate holiday = holidays.get(index);
+	for (int i = 0; i < index; i++) {
+	    if (holidays.get(i).equals(holiday)) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * @return the number of Saturdays and Sundays within the inclusive range of
+     *         epoch days
+     */
+    public static long countWeekendDays(long firstEpochDay, long lastEpochDay) {
+	return weekendDaysBefore(lastEpochDay + 1) - weekendDaysBefore(firstEpochDay);
+    }
+
+    public static boolean isWeekend(long epochDay) {
+	return dayOfWeekIndex(epochDay) >= SATURDAY_INDEX;
+    }
+
+    /**
+     * @return the number of weekend days before the epoch day, relative to the
+     *         Monday preceding the epoch. Only the difference between two results
+     *         is meaningful.
+     */
+    private static long weekendDaysBefore(long epochDay) {
+	long shifted = epochDay + EPOCH_DAY_OF_WEEK_OFFSET;
+	long wholeWeeks = Math.floorDiv(shifted, 7);
+	long leftoverDays = Math.floorMod(shifted, 7);
+	return wholeWeeks * 2 + Math.max(0, leftoverDays - SATURDAY_INDEX);
+    }
+
+    /**
+     * @return 0 for Monday through 6 for Sunday
+     */
+    private static int dayOfWeekIndex(long epochDay) {
+	return Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK_OFFSET, 7);
+    }
+}
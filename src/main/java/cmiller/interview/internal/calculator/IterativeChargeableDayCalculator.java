@@ -0,0 +1,83 @@
+package cmiller.interview.internal.calculator;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * Walks every day of the rental and tests it against the non-chargeable day
+ * conditions. Cost grows with the length of the rental, so this is kept as the
+ * reference implementation that the faster calculators are verified against.
+ */
+public class IterativeChargeableDayCalculator implements ChargeableDayCalculator {
+    private final HolidaysAgent holidaysAgent;
+
+    public IterativeChargeableDayCalculator(HolidaysAgent holidaysAgent) {
+	this.holidaysAgent = holidaysAgent;
+    }
+
+    @Override
+    public int calculateChargeableDays(LocalDate checkOutDate, LocalDate dueDate, ChargeableDaysDO chargeableDaysDO) {
+	int chargeableDays = 0;
+	List<Predicate<LocalDate>> notChargeableDayConditions = buildNonChargeableDayConditions(chargeableDaysDO);
+
+	// Based on the requirements, the first chargeable day is the day after
+	// checkout
+	LocalDate currentDate = checkOutDate.plusDays(1);
+
+	// inclusive to the due date
+	nextDayLoop: while (currentDate.isBefore(dueDate) || currentDate.isEqual(dueDate)) {
+	    for (Predicate<LocalDate> condition : notChargeableDayConditions) {
+
+		// if it's determined based on the Predicate, that the tool rental is not
+		// chargeable for that day
+		if (condition.test(currentDate)) {
+		    currentDate = currentDate.plusDays(1);
+		    continue nextDayLoop;
+		}
+	    }
+
+	    chargeableDays++;
+	    currentDate = currentDate.plusDays(1);
+	}
+	return chargeableDays;
+    }
+
+    /**
+     *
+     * @return the List of conditions to check if a certain {@link LocalDate day}
+     *         should not be charged. The list of conditions is made up, only of the
+     *         specified conditions (weekday/weekend/holiday) that are "false",
+     *         meaning that condition is "not chargeable" for the tool type.
+     */
+    private List<Predicate<LocalDate>> buildNonChargeableDayConditions(ChargeableDaysDO chargeableDaysDO) {
+	List<Predicate<LocalDate>> conditions = new ArrayList<>();
+
+	if (!chargeableDaysDO.isWeekdayCharge()) {
+	    conditions.add(date -> !isWeekend(date));
+	}
+	if (!chargeableDaysDO.isWeekendCharge()) {
+	    conditions.add(IterativeChargeableDayCalculator::isWeekend);
+	}
+	if (!chargeableDaysDO.isHolidayCharge()) {
+	    conditions.add(this::isHoliday);
+	}
+
+	return conditions;
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+	DayOfWeek dayOfWeek = date.getDayOfWeek();
+	return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+    }
+
+    private boolean isHoliday(LocalDate date) {
+	List<LocalDate> holidays = holidaysAgent.getHolidaysForYear(date.getYear());
+	return holidays.contains(date);
+    }
+}
@@ -0,0 +1,142 @@
+package cmiller.interview.internal.calculator;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import cmiller.interview.internal.calendar.BusinessCalendar;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * Counts chargeable days with two reads of a prefix sum table over a
+ * precomputed {@link BusinessCalendar}. Entry {@code i} of a table is the number
+ * of chargeable days before the {@code i}th day of the calendar, so the count of
+ * a rental is the difference of the entries after its due date and at its first
+ * chargeable day.
+ * <p>
+ * The count only depends on which kinds of day are charged, so there is one
+ * table per combination of the {@link ChargeableDaysDO} weekday, weekend and
+ * holiday flags. Each table is built on first use, so a catalog update changing
+ * the flags only builds the table of the new combination. A table takes 4 bytes
+ * per day of the calendar, about 160KB for 1990 through 2100; see
+ * {@link #getTableFootprintBytes()}. The holidays are those of the calendar,
+ * which is immutable, so a new set of holidays comes with a new calendar and a
+ * new calculator. Rentals that are not fully within the calendar's span of
+ * years are delegated to the fallback calculator.
+ */
+public class PrefixSumChargeableDayCalculator implements ChargeableDayCalculator {
+    private static final int WEEKDAYS = 1;
+    private static final int WEEKENDS = 2;
+    private static final int HOLIDAYS = 4;
+
+    private final BusinessCalendar businessCalendar;
+    private final ChargeableDayCalculator fallback;
+    private final long firstEpochDay;
+    // by the charged kinds of day, built on first use
+    private final AtomicReferenceArray<int[]> tables = new AtomicReferenceArray<>(
+	    (WEEKDAYS | WEEKENDS | HOLIDAYS) + 1);
+
+    public PrefixSumChargeableDayCalculator(BusinessCalendar businessCalendar, ChargeableDayCalculator fallback) {
+	this.businessCalendar = businessCalendar;
+	this.fallback = fallback;
+	this.firstEpochDay = businessCalendar.getFirstEpochDay();
+    }
+
+    @Override
+    public int calculateChargeableDays(LocalDate checkOutDate, LocalDate dueDate, ChargeableDaysDO chargeableDaysDO) {
+	// Based on the requirements, the first chargeable day is the day after
+	// checkout, inclusive to the due date
+	long firstEpochDay = checkOutDate.toEpochDay() + 1;
+	long lastEpochDay = dueDate.toEpochDay();
+	if (lastEpochDay < firstEpochDay) {
+	    return 0;
+	}
+	if (!businessCalendar.covers(firstEpochDay, lastEpochDay)) {
+	    return fallback.calculateChargeableDays(checkOutDate, dueDate, chargeableDaysDO);
+	}
+
+	int[] prefixSums = getTable(chargedDays(chargeableDaysDO));
+	return prefixSums[(int) (lastEpochDay - this.firstEpochDay) + 1]
+		- prefixSums[(int) (firstEpochDay - this.firstEpochDay)];
+    }
+
+    /**
+     * @return the heap used by each table built so far, in bytes, by the kinds of
+     *         day it charges, such as {@code "weekdays+holidays"}
+     */
+    public Map<String, Long> getTableFootprintBytes() {
+	Map<String, Long> footprints = new LinkedHashMap<>();
+	for (int chargedDays = 0; chargedDays < tables.length(); chargedDays++) {
+	    int[] table = tables.get(chargedDays);
+	    if (table != null) {
+		// the array header and its ints
+		footprints.put(describe(chargedDays), 16L + (long) table.length * Integer.BYTES);
+	    }
+	}
+	return footprints;
+    }
+
+    /**
+     * @return the heap used by all tables built so far, in bytes
+     */
+    public long getFootprintBytes() {
+	long footprint = 0;
+	for (long tableFootprint : getTableFootprintBytes().values()) {
+	    footprint += tableFootprint;
+	}
+	return footprint;
+    }
+
+    private int[] getTable(int chargedDays) {
+	int[] table = tables.get(chargedDays);
+	if (table == null) {
+	    // concurrent first uses may each build the table, they are all equal
+	    table = buildTable(chargedDays);
+	    if (!tables.compareAndSet(chargedDays, null, table)) {
+		table = tables.get(chargedDays);
+	    }
+	}
+	return table;
+    }
+
+    private int[] buildTable(int chargedDays) {
+	boolean weekdays = (chargedDays & WEEKDAYS) != 0;
+	boolean weekends = (chargedDays & WEEKENDS) != 0;
+	boolean holidays = (chargedDays & HOLIDAYS) != 0;
+	int days = (int) (businessCalendar.getLastEpochDay() - firstEpochDay + 1);
+	int[] prefixSums = new int[days + 1];
+	for (int offset = 0; offset < days; offset++) {
+	    long epochDay = firstEpochDay + offset;
+	    prefixSums[offset + 1] = prefixSums[offset]
+		    + businessCalendar.countDays(epochDay, epochDay, weekdays, weekends, holidays);
+	}
+	return prefixSums;
+    }
+
+    private static int chargedDays(ChargeableDaysDO chargeableDaysDO) {
+	return (chargeableDaysDO.isWeekdayCharge() ? WEEKDAYS : 0)
+		| (chargeableDaysDO.isWeekendCharge() ? WEEKENDS : 0)
+		| (chargeableDaysDO.isHolidayCharge() ? HOLIDAYS : 0);
+    }
+
+    private static String describe(int chargedDays) {
+	StringBuilder description = new StringBuilder();
+	if ((chargedDays & WEEKDAYS) != 0) {
+	    description.append("weekdays");
+	}
+	if ((chargedDays & WEEKENDS) != 0) {
+	    description.append(description.length() > 0 ? "+" : "").append("weekends");
+	}
+	if ((chargedDays & HOLIDAYS) != 0) {
+	    description.append(description.length() > 0 ? "+" : "").append("holidays");
+	}
+	return description.length() > 0 ? description.toString() : "none";
+    }
+
+    @Override
+    public String toString() {
+	return "PrefixSumChargeableDayCalculator [fromYear=" + businessCalendar.getFromYear() + ", toYear="
+		+ businessCalendar.getToYear() + ", tableFootprintBytes=" + getTableFootprintBytes() + "]";
+    }
+}
@@ -0,0 +1,217 @@
+package cmiller.interview.internal.calendar;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.calculator.ClosedFormChargeableDayCalculator;
+
+/**
+ * Precomputed weekend and holiday flags for every day of a span of years,
+ * stored as one bit per epoch day. Lookups and range counts are bit operations
+ * and do not allocate. Instances are immutable and safe to share across
+ * threads.
+ */
+public class BusinessCalendar {
+    private static final int BITS_PER_WORD = Long.SIZE;
+
+    private final int fromYear;
+    private final int toYear;
+    private final long firstEpochDay;
+    private final long lastEpochDay;
+    private final long[] weekendBits;
+    private final long[] holidayBits;
+
+    private BusinessCalendar(int fromYear, int toYear, long[] weekendBits, long[] holidayBits) {
+	this.fromYear = fromYear;
+	this.toYear = toYear;
+	this.firstEpochDay = LocalDate.of(fromYear, Month.JANUARY, 1).toEpochDay();
+	this.lastEpochDay = LocalDate.of(toYear, Month.DECEMBER, 31).toEpochDay();
+	this.weekendBits = weekendBits;
+	this.holidayBits = holidayBits;
+    }
+
+    /**
+     * Builds the calendar for each year of the inclusive range, taking the
+     * holidays from the {@link HolidaysAgent}
+     */
+    public static BusinessCalendar build(HolidaysAgent holidaysAgent, int fromYear, int toYear) {
+	if (fromYear > toYear) {
+	    throw new IllegalArgumentException("BusinessCalendar fromYear cannot be after toYear");
+	}
+	long firstEpochDay = LocalDate.of(fromYear, Month.JANUARY, 1).toEpochDay();
+	long lastEpochDay = LocalDate.of(toYear, Month.DECEMBER, 31).toEpochDay();
+	int days = (int) (lastEpochDay - firstEpochDay + 1);
+	long[] weekendBits = new long[(days + BITS_PER_WORD - 1) / BITS_PER_WORD];
+	long[] holidayBits = new long[weekendBits.length];
+
+	for (int offset = 0; offset < days; offset++) {
+	    if (ClosedFormChargeableDayCalculator.isWeekend(firstEpochDay + offset)) {
+		set(weekendBits, offset);
+	    }
+	}
+
+	for (int year = fromYear; year <= toYear; year++) {
+	    List<LocalDate> holidays = holidaysAgent.getHolidaysForYear(year);
+	    for (LocalDate holiday : holidays) {
+		// a day is only matched against the holidays of its own year
+		if (holiday.getYear() == year) {
+		    set(holidayBits, (int) (holiday.toEpochDay() - firstEpochDay));
+		}
+	    }
+	}
+
+	return new BusinessCalendar(fromYear, toYear, weekendBits, holidayBits);
+    }
+
+    public int getFromYear() {
+	return fromYear;
+    }
+
+    public int getToYear() {
+	return toYear;
+    }
+
+    /**
+     * @return the epoch day of January 1st of the {@link #getFromYear() first
+     *         year}
+     */
+    public long getFirstEpochDay() {
+	return firstEpochDay;
+    }
+
+    /**
+     * @return the epoch day of December 31st of the {@link #getToYear() last year}
+     */
+    public long getLastEpochDay() {
+	return lastEpochDay;
+    }
+
+    /**
+     * @return whether every day of the inclusive range of epoch days is within
+     *         this calendar
+     */
+    public boolean covers(long firstEpochDay, long lastEpochDay) {
+	return firstEpochDay >= this.firstEpochDay && lastEpochDay <= this.lastEpochDay;
+    }
+
+    public boolean covers(LocalDate date) {
+	long epochDay = date.toEpochDay();
+	return covers(epochDay, epochDay);
+    }
+
+    public boolean isWeekend(LocalDate date) {
+	return isSet(weekendBits, offsetOf(date.toEpochDay()));
+    }
+
+    public boolean isHoliday(LocalDate date) {
+	return isSet(holidayBits, offsetOf(date.toEpochDay()));
+    }
+
+    /**
+     * @return the number of weekend days within the inclusive range of epoch days
+     */
+    public int countWeekendDays(long firstEpochDay, long lastEpochDay) {
+	return countNonBusinessDays(firstEpochDay, lastEpochDay, true, false);
+    }
+
+    /**
+     * @return the number of holidays within the inclusive range of epoch days
+     */
+    public int countHolidays(long firstEpochDay, long lastEpochDay) {
+	return countNonBusinessDays(firstEpochDay, lastEpochDay, false, true);
+    }
+
+    /**
+     * @return the number of days within the inclusive range of epoch days which
+     *         are a weekend day (if {@code weekends}) or a holiday (if
+     *         {@code holidays}). A holiday on a weekend is counted once.
+     */
+    public int countNonBusinessDays(long firstEpochDay, long lastEpochDay, boolean weekends, boolean holidays) {
+	if (lastEpochDay < firstEpochDay || !(weekends || holidays)) {
+	    return 0;
+	}
+	int firstOffset = offsetOf(firstEpochDay);
+	int lastOffset = offsetOf(lastEpochDay);
+	int firstWord = firstOffset / BITS_PER_WORD;
+	int lastWord = lastOffset / BITS_PER_WORD;
+	long weekendMask = weekends ? -1L : 0L;
+	long holidayMask = holidays ? -1L : 0L;
+
+	int count = 0;
+	for (int word = firstWord; word <= lastWord; word++) {
+	    long bits = (weekendBits[word] & weekendMask) | (holidayBits[word] & holidayMask);
+	    if (word == firstWord) {
+		bits &= -1L << (firstOffset % BITS_PER_WORD);
+	    }
+	    if (word == lastWord) {
+		bits &= -1L >>> (BITS_PER_WORD - 1 - lastOffset % BITS_PER_WORD);
+	    }
+	    count += Long.bitCount(bits);
+	}
+	return count;
+    }
+
+    /**
+     * @return the number of days within the inclusive range of epoch days which
+     *         are a weekday (if {@code weekdays}) or a weekend day (if
+     *         {@code weekends}), and are not a holiday unless {@code holidays}
+     */
+    public int countDays(long firstEpochDay, long lastEpochDay, boolean weekdays, boolean weekends,
+	    boolean holidays) {
+	if (lastEpochDay < firstEpochDay || !(weekdays || weekends)) {
+	    return 0;
+	}
+	int firstOffset = offsetOf(firstEpochDay);
+	int lastOffset = offsetOf(lastEpochDay);
+	int firstWord = firstOffset / BITS_PER_WORD;
+	int lastWord = lastOffset / BITS_PER_WORD;
+	long weekdayMask = weekdays ? -1L : 0L;
+	long weekendMask = weekends ? -1L : 0L;
+	long holidayMask = holidays ? 0L : -1L;
+
+	int count = 0;
+	for (int word = firstWord; word <= lastWord; word++) {
+	    long bits = ((~weekendBits[word] & weekdayMask) | (weekendBits[word] & weekendMask))
+		    & ~(holidayBits[word] & holidayMask);
+	    if (word == firstWord) {
+		bits &= -1L << (firstOffset % BITS_PER_WORD);
+	    }
+	    if (word == lastWord) {
+		bits &= -1L >>> (BITS_PER_WORD - 1 - lastOffset % BITS_PER_WORD);
+	    }
+	    count += Long.bitCount(bits);
+	}
+	return count;
+    }
+
+    /**
+     * @return the heap used by the bit sets, in bytes
+     */
+    public long getFootprintBytes() {
+	return (long) (weekendBits.length + holidayBits.length) * Long.BYTES;
+    }
+
+    private int offsetOf(long epochDay) {
+	if (epochDay < firstEpochDay || epochDay > lastEpochDay) {
+	    throw new IllegalArgumentException(
+		    "Epoch day " + epochDay + " is outside of the calendar years " + fromYear + "-" + toYear);
+	}
+	return (int) (epochDay - firstEpochDay);
+    }
+
+    private static void set(long[] bits, int offset) {
+	bits[offset / BITS_PER_WORD] |= 1L << (offset % BITS_PER_WORD);
+    }
+
+    private static boolean isSet(long[] bits, int offset) {
+	return (bits[offset / BITS_PER_WORD] & (1L << (offset % BITS_PER_WORD))) != 0;
+    }
+
+    @Override
+    public String toString() {
+	return "BusinessCalendar [fromYear=" + fromYear + ", toYear=" + toYear + ", footprintBytes="
+		+ getFootprintBytes() + "]";
+    }
+}
@@ -0,0 +1,151 @@
+package cmiller.interview.internal.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Defines the date a holiday falls on in any year: on a fixed date, on the nth
+ * weekday of a month, or on the last weekday of a month. Holidays on a fixed
+ * date may be observed on the closest weekday instead, the Friday before a
+ * Saturday or the Monday after a Sunday.
+ */
+public final class HolidayRule {
+    /**
+     * Independence Day, observed, and Labor Day, the holidays of stores without a
+     * region of their own
+     */
+    public static final List<HolidayRule> DEFAULT_RULES = Collections.unmodifiableList(Arrays.asList(
+	    fixedDate("Independence Day", Month.JULY, 4, true),
+	    nthWeekday("Labor Day", 1, DayOfWeek.MONDAY, Month.SEPTEMBER)));
+
+    public enum Kind {
+	FIXED_DATE, NTH_WEEKDAY, LAST_WEEKDAY
+    }
+
+    private final String name;
+    private final Kind kind;
+    private final Month month;
+    private final int dayOfMonth;
+    private final int ordinal;
+    private final DayOfWeek dayOfWeek;
+    private final boolean observed;
+
+    private HolidayRule(String name, Kind kind, Month month, int dayOfMonth, int ordinal, DayOfWeek dayOfWeek,
+	    boolean observed) {
+	if (name == null || name.trim().isEmpty()) {
+	    throw new IllegalArgumentException("HolidayRule name cannot be null/blank");
+	}
+	if (month == null) {
+	    throw new IllegalArgumentException("HolidayRule month cannot be null");
+	}
+	this.name = name;
+	this.kind = kind;
+	this.month = month;
+	this.dayOfMonth = dayOfMonth;
+	this.ordinal = ordinal;
+	this.dayOfWeek = dayOfWeek;
+	this.observed = observed;
+    }
+
+    /**
+     * @param observed whether the holiday is moved to the Friday before when it
+     *                 falls on a Saturday, and to the Monday after when it falls on
+     *                 a Sunday
+     */
+    public static HolidayRule fixedDate(String name, Month month, int dayOfMonth, boolean observed) {
+	if (month != null && (dayOfMonth < 1 || dayOfMonth > month.minLength())) {
+	    throw new IllegalArgumentException("HolidayRule dayOfMonth must be within every " + month);
+	}
+	return new HolidayRule(name, Kind.FIXED_DATE, month, dayOfMonth, 0, null, observed);
+    }
+
+    /**
+     * @param ordinal 1 for the first weekday of the month, through 4
+     */
+    public static HolidayRule nthWeekday(String name, int ordinal, DayOfWeek dayOfWeek, Month month) {
+	if (ordinal < 1 || ordinal > 4) {
+	    throw new IllegalArgumentException("HolidayRule ordinal must be between 1 and 4");
+	}
+	if (dayOfWeek == null) {
+	    throw new IllegalArgumentException("HolidayRule dayOfWeek cannot be null");
+	}
+	return new HolidayRule(name, Kind.NTH_WEEKDAY, month, 0, ordinal, dayOfWeek, false);
+    }
+
+    public static HolidayRule lastWeekday(String name, DayOfWeek dayOfWeek, Month month) {
+	if (dayOfWeek == null) {
+	    throw new IllegalArgumentException("HolidayRule dayOfWeek cannot be null");
+	}
+	return new HolidayRule(name, Kind.LAST_WEEKDAY, month, 0, 0, dayOfWeek, false);
+    }
+
+    /**
+     * @return the date the holiday is observed on in the year. An observed holiday
+     *         on January 1st may fall on December 31st of the year before.
+     */
+    public LocalDate dateIn(int year) {
+	switch (kind) {
+	case NTH_WEEKDAY:
+	    return LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(ordinal, dayOfWeek));
+	case LAST_WEEKDAY:
+	    return LocalDate.of(year, month, 1).with(TemporalAdjusters.lastInMonth(dayOfWeek));
+	default:
+	    LocalDate date = LocalDate.of(year, month, dayOfMonth);
+	    if (observed && date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+		return date.minusDays(1);
+	    } else if (observed && date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+		return date.plusDays(1);
+	    }
+	    return date;
+	}
+    }
+
+    public String getName() {
+	return name;
+    }
+
+    public Kind getKind() {
+	return kind;
+    }
+
+    public Month getMonth() {
+	return month;
+    }
+
+    /**
+     * @return the day of the month of a {@link Kind#FIXED_DATE}
+     */
+    public int getDayOfMonth() {
+	return dayOfMonth;
+    }
+
+    /**
+     * @return which weekday of the month a {@link Kind#NTH_WEEKDAY} is, from 1
+     */
+    public int getOrdinal() {
+	return ordinal;
+    }
+
+    /**
+     * @return the weekday of a {@link Kind#NTH_WEEKDAY} or
+     *         {@link Kind#LAST_WEEKDAY}
+     */
+    public DayOfWeek getDayOfWeek() {
+	return dayOfWeek;
+    }
+
+    public boolean isObserved() {
+	return observed;
+    }
+
+    @Override
+    public String toString() {
+	return "HolidayRule [name=" + name + ", kind=" + kind + ", month=" + month + ", dayOfMonth=" + dayOfMonth
+		+ ", ordinal=" + ordinal + ", dayOfWeek=" + dayOfWeek + ", observed=" + observed + "]";
+    }
+}
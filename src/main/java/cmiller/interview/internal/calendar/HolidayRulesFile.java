@@ -0,0 +1,101 @@
+package cmiller.interview.internal.calendar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the {@link HolidayRule holiday rules} of each region from a text file.
+ * Each line holds one rule, as comma separated region, holiday name and
+ * definition, where the definition is one of:
+ *
+ * <pre>
+ * fixed &lt;MONTH&gt; &lt;day&gt; [observed]
+ * nth &lt;1-4&gt; &lt;WEEKDAY&gt; &lt;MONTH&gt;
+ * last &lt;WEEKDAY&gt; &lt;MONTH&gt;
+ * </pre>
+ *
+ * for example {@code MA, Patriots' Day, nth 3 MONDAY APRIL}. Blank lines and
+ * lines starting with {@code #} are skipped. Unlike catalog imports, a file
+ * with an invalid line is rejected as a whole, as a missing holiday would
+ * silently overcharge the region's rentals.
+ */
+public final class HolidayRulesFile {
+
+    private HolidayRulesFile() {
+    }
+
+    /**
+     * @return the rules of each region, in the order of the file
+     * @throws IllegalArgumentException if a line is not a valid rule
+     */
+    public static Map<String, List<HolidayRule>> load(Path path) throws IOException {
+	Map<String, List<HolidayRule>> rulesByRegion = new LinkedHashMap<>();
+	try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+	    int lineNumber = 0;
+	    String line;
+	    while ((line = reader.readLine()) != null) {
+		lineNumber++;
+		String trimmed = line.trim();
+		if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+		    continue;
+		}
+		String[] columns = trimmed.split(",", 3);
+		if (columns.length != 3 || columns[0].trim().isEmpty()) {
+		    throw invalidLine(path, lineNumber, "expected region, name, definition", null);
+		}
+		HolidayRule rule;
+		try {
+		    rule = parseRule(columns[1].trim(), columns[2].trim());
+		} catch (IllegalArgumentException | DateTimeException e) {
+		    throw invalidLine(path, lineNumber, e.getMessage(), e);
+		}
+		rulesByRegion.computeIfAbsent(columns[0].trim(), region -> new ArrayList<>()).add(rule);
+	    }
+	}
+	rulesByRegion.replaceAll((region, rules) -> Collections.unmodifiableList(rules));
+	return rulesByRegion;
+    }
+
+    static HolidayRule parseRule(String name, String definition) {
+	String[] words = definition.toUpperCase(Locale.ROOT).split("\\s+");
+	switch (words[0]) {
+	case "FIXED":
+	    if (words.length == 3 || (words.length == 4 && words[3].equals("OBSERVED"))) {
+		return HolidayRule.fixedDate(name, Month.valueOf(words[1]), Integer.parseInt(words[2]),
+			words.length == 4);
+	    }
+	    break;
+	case "NTH":
+	    if (words.length == 4) {
+		return HolidayRule.nthWeekday(name, Integer.parseInt(words[1]), DayOfWeek.valueOf(words[2]),
+			Month.valueOf(words[3]));
+	    }
+	    break;
+	case "LAST":
+	    if (words.length == 3) {
+		return HolidayRule.lastWeekday(name, DayOfWeek.valueOf(words[1]), Month.valueOf(words[2]));
+	    }
+	    break;
+	default:
+	    break;
+	}
+	throw new IllegalArgumentException("unknown holiday definition: " + definition);
+    }
+
+    private static IllegalArgumentException invalidLine(Path path, int lineNumber, String message,
+	    Throwable cause) {
+	return new IllegalArgumentException("Line " + lineNumber + " of " + path + ": " + message, cause);
+    }
+}
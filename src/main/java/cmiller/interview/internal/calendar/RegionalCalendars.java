@@ -0,0 +1,164 @@
+package cmiller.interview.internal.calendar;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.calculator.BusinessCalendarChargeableDayCalculator;
+import cmiller.interview.internal.calculator.ChargeableDayCalculator;
+import cmiller.interview.internal.calculator.ClosedFormChargeableDayCalculator;
+
+/**
+ * The holidays of each region, and the region of each store. Every region has
+ * its own {@link HolidaysAgent}, precomputed {@link BusinessCalendar} and
+ * {@link ChargeableDayCalculator}, so a rental is charged by the holidays its
+ * store observes. Stores without a region use the {@link #DEFAULT_REGION}.
+ * <p>
+ * Looking up the calendar of a store is a single hash map read, and checking a
+ * day against it is a bit test. Instances are immutable and safe to share
+ * across threads.
+ */
+public class RegionalCalendars {
+    /**
+     * The region of stores which are not assigned one
+     */
+    public static final String DEFAULT_REGION = "default";
+
+    private final Map<String, RegionCalendar> calendarsByRegion;
+    private final Map<String, RegionCalendar> calendarsByStore;
+    private final RegionCalendar defaultCalendar;
+
+    private RegionalCalendars(Map<String, RegionCalendar> calendarsByRegion,
+	    Map<String, RegionCalendar> calendarsByStore) {
+	this.calendarsByRegion = calendarsByRegion;
+	this.calendarsByStore = calendarsByStore;
+	this.defaultCalendar = calendarsByRegion.get(DEFAULT_REGION);
+    }
+
+    /**
+     * @return the region of the store, or the {@link #DEFAULT_REGION} if it is not
+     *         assigned one
+     */
+    public String getRegion(String storeId) {
+	return calendarFor(storeId).region;
+    }
+
+    public Set<String> getRegions() {
+	return calendarsByRegion.keySet();
+    }
+
+    public HolidaysAgent getHolidaysAgent(String region) {
+	return calendarOf(region).holidaysAgent;
+    }
+
+    public BusinessCalendar getBusinessCalendar(String region) {
+	return calendarOf(region).businessCalendar;
+    }
+
+    /**
+     * @return the calculator counting chargeable days by the holidays of the
+     *         store's region
+     */
+    public ChargeableDayCalculator getChargeableDayCalculator(String storeId) {
+	return calendarFor(storeId).chargeableDayCalculator;
+    }
+
+    /**
+     * @return whether the store's region observes a holiday on the date
+     */
+    public boolean isHoliday(String storeId, LocalDate date) {
+	RegionCalendar calendar = calendarFor(storeId);
+	if (calendar.businessCalendar.covers(date)) {
+	    return calendar.businessCalendar.isHoliday(date);
+	}
+	return calendar.holidaysAgent.getHolidaysForYear(date.getYear()).contains(date);
+    }
+
+    private RegionCalendar calendarFor(String storeId) {
+	RegionCalendar calendar = storeId == null ? null : calendarsByStore.get(storeId);
+	return calendar != null ? calendar : defaultCalendar;
+    }
+
+    private RegionCalendar calendarOf(String region) {
+	RegionCalendar calendar = calendarsByRegion.get(region);
+	if (calendar == null) {
+	    throw new IllegalArgumentException("Unknown region " + region);
+	}
+	return calendar;
+    }
+
+    private static final class RegionCalendar {
+	private final String region;
+	private final HolidaysAgent holidaysAgent;
+	private final BusinessCalendar businessCalendar;
+	private final ChargeableDayCalculator chargeableDayCalculator;
+
+	private RegionCalendar(String region, HolidaysAgent holidaysAgent, BusinessCalendar businessCalendar,
+		ChargeableDayCalculator chargeableDayCalculator) {
+	    this.region = region;
+	    this.holidaysAgent = holidaysAgent;
+	    this.businessCalendar = businessCalendar;
+	    this.chargeableDayCalculator = chargeableDayCalculator;
+	}
+    }
+
+    public static class Builder {
+	private final Map<String, RegionCalendar> calendarsByRegion = new HashMap<>();
+	private final Map<String, String> regionsByStore = new HashMap<>();
+
+	/**
+	 * Adds a region with its own precomputed calendar
+	 */
+	public Builder region(String region, HolidaysAgent holidaysAgent, BusinessCalendar businessCalendar) {
+	    return region(region, holidaysAgent, businessCalendar, new BusinessCalendarChargeableDayCalculator(
+		    businessCalendar, new ClosedFormChargeableDayCalculator(holidaysAgent)));
+	}
+
+	/**
+	 * Adds a region whose chargeable days are counted by the calculator
+	 */
+	public Builder region(String region, HolidaysAgent holidaysAgent, BusinessCalendar businessCalendar,
+		ChargeableDayCalculator chargeableDayCalculator) {
+	    if (region == null || holidaysAgent == null || businessCalendar == null
+		    || chargeableDayCalculator == null) {
+		throw new IllegalArgumentException("RegionalCalendars region arguments cannot be null");
+	    }
+	    calendarsByRegion.put(region,
+		    new RegionCalendar(region, holidaysAgent, businessCalendar, chargeableDayCalculator));
+	    return this;
+	}
+
+	public Builder storeRegion(String storeId, String region) {
+	    if (storeId == null || region == null) {
+		throw new IllegalArgumentException("RegionalCalendars storeId and region cannot be null");
+	    }
+	    regionsByStore.put(storeId, region);
+	    return this;
+	}
+
+	/**
+	 * @throws IllegalArgumentException if there is no {@link #DEFAULT_REGION}, or
+	 *                                  a store is assigned a region which was not
+	 *                                  added
+	 */
+	public RegionalCalendars build() {
+	    if (!calendarsByRegion.containsKey(DEFAULT_REGION)) {
+		throw new IllegalArgumentException("RegionalCalendars requires the " + DEFAULT_REGION + " region");
+	    }
+	    Map<String, RegionCalendar> calendarsByStore = new HashMap<>();
+	    regionsByStore.forEach((storeId, region) -> {
+		RegionCalendar calendar = calendarsByRegion.get(region);
+		if (calendar == null) {
+		    throw new IllegalArgumentException(
+			    "Store " + storeId + " is assigned the unknown region " + region);
+		}
+		calendarsByStore.put(storeId, calendar);
+	    });
+	    return new RegionalCalendars(Collections.unmodifiableMap(new HashMap<>(calendarsByRegion)),
+		    Collections.unmodifiableMap(calendarsByStore));
+	}
+    }
+}
@@ -1,17 +1,116 @@
 package cmiller.interview.internal.checkin;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmiller.interview.ToolRentalServiceException;
+import cmiller.interview.ToolRentalServiceException.FailureReason;
 import cmiller.interview.checkin.CheckInRequest;
 import cmiller.interview.checkin.CheckInResponse;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.internal.availability.AvailabilityIndex;
+import cmiller.interview.internal.calculator.ChargeCalculator;
+import cmiller.interview.internal.calendar.RegionalCalendars;
 import cmiller.interview.internal.factory.ToolRentalServiceDependencyFactory;
+import cmiller.interview.internal.inventory.InventoryService;
+import cmiller.interview.internal.journal.RentalJournal;
+import cmiller.interview.internal.ledger.Rental;
+import cmiller.interview.internal.ledger.RentalLedger;
 
 /**
- * Created to show package structure for future enhancements
+ * Closes the rentals opened by the
+ * {@link cmiller.interview.internal.checkout.CheckoutManager CheckoutManager},
+ * charging for any chargeable days after the due date.
  */
 public class CheckInManager {
+    private static final Logger LOGGER = Logger.getLogger(CheckInManager.class.getName());
+
+    private final RentalLedger rentalLedger;
+    private final RentalJournal rentalJournal;
+    private final InventoryService inventoryService;
+    private final AvailabilityIndex availabilityIndex;
+    private final RegionalCalendars regionalCalendars;
+
     public CheckInManager(ToolRentalServiceDependencyFactory factory) {
+	this.rentalLedger = factory.getRentalLedger();
+	this.rentalJournal = factory.getRentalJournal();
+	this.inventoryService = factory.getInventoryService();
+	this.availabilityIndex = factory.getAvailabilityIndex();
+	this.regionalCalendars = factory.getRegionalCalendars();
     }
 
     public CheckInResponse checkIn(CheckInRequest request) {
-	throw new UnsupportedOperationException("Not implemented yet");
+	validateRequest(request);
+
+	Rental rental = rentalLedger.getOpenRental(request.getRentalId());
+	if (rental == null) {
+	    throw rentalNotFound(request.getRentalId());
+	}
+	RentalAgreement rentalAgreement = rental.getRentalAgreement();
+	LocalDate checkInDate = request.getCheckInDate();
+	if (checkInDate.isBefore(rentalAgreement.getCheckOutDate())) {
+	    throw ToolRentalServiceException.rejection(FailureReason.INVALID_INPUT,
+		    "checkInDate cannot be before the checkOutDate %s".formatted(rentalAgreement.getCheckOutDate()));
+	}
+
+	LocalDate dueDate = rentalAgreement.getDueDate();
+	int lateDays = (int) Math.max(0, ChronoUnit.DAYS.between(dueDate, checkInDate));
+	int lateChargeDays = lateDays == 0 ? 0
+		: regionalCalendars.getChargeableDayCalculator(rental.getStoreId()).calculateChargeableDays(dueDate,
+			checkInDate, rental.getChargeableDaysDO());
+	// priced before closing, so a failure leaves the rental open
+	long lateCharge;
+	try {
+	    lateCharge = ChargeCalculator.calculatePreDiscountCharge(lateChargeDays,
+		    rentalAgreement.getDailyRentalCharge());
+	} catch (ArithmeticException e) {
+	    LOGGER.log(Level.SEVERE, "The late charge for %s days at %s cents per day is out of range"
+		    .formatted(lateChargeDays, rentalAgreement.getDailyRentalCharge()), e);
+	    throw new ToolRentalServiceException(FailureReason.INTERNAL_ERROR, "An unexpected error occurred", e);
+	}
+
+	// only one of concurrent check-ins of the same rental gets to close it. The
+	// closing is journaled first, so a failing journal never leaves a rental
+	// closed which the journal would reopen on recovery
+	if (rentalLedger.claim(request.getRentalId()) == null) {
+	    throw rentalNotFound(request.getRentalId());
+	}
+	try {
+	    rentalJournal.recordClosed(request.getRentalId());
+	} catch (RuntimeException e) {
+	    rentalLedger.unclaim(request.getRentalId());
+	    throw e;
+	}
+	rentalLedger.close(request.getRentalId());
+	if (rental.isShelfUnitTaken()) {
+	    inventoryService.release(rental.getStoreId(), rentalAgreement.getTool().getCode());
+	}
+	availabilityIndex.cancel(rental.getStoreId(), rentalAgreement.getTool().getCode(),
+		rentalAgreement.getCheckOutDate(), rentalAgreement.getDueDate());
+
+	return new CheckInResponseImpl(rentalAgreement, checkInDate, lateDays, lateChargeDays, lateCharge);
+    }
+
+    private static ToolRentalServiceException rentalNotFound(long rentalId) {
+	return ToolRentalServiceException.rejection(FailureReason.RENTAL_NOT_FOUND,
+		"There is no open rental with the rentalId %s".formatted(rentalId));
+    }
+
+    /**
+     * throws an exception with {@link FailureReason#INVALID_INPUT} if one of the
+     * conditions for an invalid request are met
+     */
+    private void validateRequest(CheckInRequest request) {
+	if (request == null) {
+	    throw ToolRentalServiceException.rejection(FailureReason.INVALID_INPUT, "request cannot be null");
+	} else if (request.getRentalId() < 1) {
+	    throw ToolRentalServiceException.rejection(FailureReason.INVALID_INPUT,
+		    "rentalId is required, and must be greater than 0");
+	} else if (request.getCheckInDate() == null) {
+	    throw ToolRentalServiceException.rejection(FailureReason.INVALID_INPUT,
+		    "checkInDate is required, and cannot be null");
+	}
     }
 }
@@ -0,0 +1,54 @@
+package cmiller.interview.internal.checkin;
+
+import java.time.LocalDate;
+
+import cmiller.interview.checkin.CheckInResponse;
+import cmiller.interview.checkout.RentalAgreement;
+
+public class CheckInResponseImpl implements CheckInResponse {
+    private final RentalAgreement rentalAgreement;
+    private final LocalDate checkInDate;
+    private final int lateDays;
+    private final int lateChargeDays;
+    private final long lateCharge;
+
+    public CheckInResponseImpl(RentalAgreement rentalAgreement, LocalDate checkInDate, int lateDays,
+	    int lateChargeDays, long lateCharge) {
+	this.rentalAgreement = rentalAgreement;
+	this.checkInDate = checkInDate;
+	this.lateDays = lateDays;
+	this.lateChargeDays = lateChargeDays;
+	this.lateCharge = lateCharge;
+    }
+
+    @Override
+    public RentalAgreement getRentalAgreement() {
+	return rentalAgreement;
+    }
+
+    @Override
+    public LocalDate getCheckInDate() {
+	return checkInDate;
+    }
+
+    @Override
+    public int getLateDays() {
+	return lateDays;
+    }
+
+    @Override
+    public int getLateChargeDays() {
+	return lateChargeDays;
+    }
+
+    @Override
+    public long getLateCharge() {
+	return lateCharge;
+    }
+
+    @Override
+    public String toString() {
+	return "CheckInResponseImpl [rentalAgreement=" + rentalAgreement + ", checkInDate=" + checkInDate
+		+ ", lateDays=" + lateDays + ", lateChargeDays=" + lateChargeDays + ", lateCharge=" + lateCharge + "]";
+    }
+}
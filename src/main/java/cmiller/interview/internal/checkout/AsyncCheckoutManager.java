@@ -0,0 +1,57 @@
+package cmiller.interview.internal.checkout;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmiller.interview.ToolRentalServiceException;
+import cmiller.interview.ToolRentalServiceException.FailureReason;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.CheckoutResponse;
+
+/**
+ * Runs checkouts on an {@link Executor}, so the caller's thread is not tied up
+ * while the checkout is processed.
+ */
+public class AsyncCheckoutManager {
+    private static final Logger LOGGER = Logger.getLogger(AsyncCheckoutManager.class.getName());
+
+    private final CheckoutManager checkoutManager;
+    private final Executor executor;
+
+    public AsyncCheckoutManager(CheckoutManager checkoutManager, Executor executor) {
+	this.checkoutManager = checkoutManager;
+	this.executor = executor;
+    }
+
+    /**
+     * @return a future completed with the checkout's response. If the checkout
+     *         fails, the future is completed exceptionally with a
+     *         {@link ToolRentalServiceException}; unexpected errors, including
+     *         {@link Error errors} and the executor rejecting the task, are
+     *         reported as {@link FailureReason#INTERNAL_ERROR}.
+     */
+    public CompletableFuture<CheckoutResponse> checkout(CheckoutRequest request) {
+	CompletableFuture<CheckoutResponse> future = new CompletableFuture<>();
+	try {
+	    executor.execute(() -> {
+		try {
+		    future.complete(checkoutManager.checkout(request));
+		} catch (ToolRentalServiceException e) {
+		    future.completeExceptionally(e);
+		} catch (Throwable e) {
+		    // anything escaping the task would leave the future incomplete forever
+		    LOGGER.log(Level.SEVERE, "Unexpected error during asynchronous checkout", e);
+		    future.completeExceptionally(
+			    new ToolRentalServiceException(FailureReason.INTERNAL_ERROR, "An unexpected error occurred", e));
+		}
+	    });
+	} catch (RejectedExecutionException e) {
+	    future.completeExceptionally(
+		    new ToolRentalServiceException(FailureReason.INTERNAL_ERROR, "The checkout could not be scheduled", e));
+	}
+	return future;
+    }
+}
@@ -1,13 +1,14 @@
 package cmiller.interview.internal.checkout;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.DayOfWeek;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -15,61 +16,297 @@ import cmiller.interview.ToolRentalServiceException;
 import cmiller.interview.ToolRentalServiceException.FailureReason;
 import cmiller.interview.checkout.CheckoutRequest;
 import cmiller.interview.checkout.CheckoutResponse;
+import cmiller.interview.checkout.CheckoutResult;
 import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.checkout.RentalQuote;
 import cmiller.interview.common.Tool;
-import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.availability.AvailabilityIndex;
+import cmiller.interview.internal.calculator.ChargeCalculator;
 import cmiller.interview.internal.data.ChargeableDaysDO;
 import cmiller.interview.internal.data.access.DataRetrievalService;
 import cmiller.interview.internal.factory.ToolRentalServiceDependencyFactory;
+import cmiller.interview.internal.inventory.InventoryService;
+import cmiller.interview.internal.journal.RentalJournal;
+import cmiller.interview.internal.ledger.Rental;
+import cmiller.interview.internal.ledger.RentalLedger;
+import cmiller.interview.internal.metrics.ToolRentalMetrics;
+import cmiller.interview.internal.pricing.PricingEngine;
+import cmiller.interview.internal.pricing.RentalCharge;
 
 public class CheckoutManager {
     private static final Logger LOGGER = Logger.getLogger(CheckoutManager.class.getName());
 
-    private ToolRentalServiceDependencyFactory factory;
-    private HolidaysAgent holidaysAgent;
+    private final DataRetrievalService dataRetrievalService;
+    private final PricingEngine pricingEngine;
+    private final RentalLedger rentalLedger;
+    private final RentalJournal rentalJournal;
+    private final InventoryService inventoryService;
+    private final AvailabilityIndex availabilityIndex;
+    private final QuoteCache quoteCache;
+    private final Clock clock;
+    private final ToolRentalMetrics metrics;
+    private final boolean metricsEnabled;
 
     public CheckoutManager(ToolRentalServiceDependencyFactory factory) {
-	this.factory = factory;
-	this.holidaysAgent = factory.getHolidaysAgent();
+	this.dataRetrievalService = factory.getDataRetrievalService();
+	this.pricingEngine = factory.getPricingEngine();
+	this.rentalLedger = factory.getRentalLedger();
+	// replays the journal into the ledger, before any rental id is issued
+	this.rentalJournal = factory.getRentalJournal();
+	this.inventoryService = factory.getInventoryService();
+	this.availabilityIndex = factory.getAvailabilityIndex();
+	this.quoteCache = factory.getQuoteCache();
+	this.clock = factory.getClock();
+	this.metrics = factory.getMetrics();
+	this.metricsEnabled = metrics.isEnabled();
     }
 
     public CheckoutResponse checkout(CheckoutRequest request) {
+	if (!metricsEnabled) {
+	    return checkoutUnmeasured(request);
+	}
+	long startNanos = System.nanoTime();
+	try {
+	    CheckoutResponse response = checkoutUnmeasured(request);
+	    metrics.recordCheckout(System.nanoTime() - startNanos, request.getRentalDays());
+	    return response;
+	} catch (ToolRentalServiceException e) {
+	    metrics.recordCheckoutFailure(System.nanoTime() - startNanos, e.getFailureReason());
+	    throw e;
+	} catch (RuntimeException e) {
+	    metrics.recordCheckoutFailure(System.nanoTime() - startNanos, FailureReason.INTERNAL_ERROR);
+	    throw e;
+	}
+    }
+
+    /**
+     * Checks out the request as {@link #checkout(CheckoutRequest)} does, but
+     * returns a failed result instead of throwing. Invalid requests and unknown
+     * tool codes, the common failures at a register, are rejected without
+     * throwing at all.
+     */
+    public CheckoutResult tryCheckout(CheckoutRequest request) {
+	if (!metricsEnabled) {
+	    return tryCheckoutUnmeasured(request);
+	}
+	long startNanos = System.nanoTime();
+	CheckoutResult result = tryCheckoutUnmeasured(request);
+	long latencyNanos = System.nanoTime() - startNanos;
+	if (result.isSuccess()) {
+	    metrics.recordCheckout(latencyNanos, request.getRentalDays());
+	} else {
+	    metrics.recordCheckoutFailure(latencyNanos, result.getFailureReason());
+	}
+	return result;
+    }
+
+    private CheckoutResult tryCheckoutUnmeasured(CheckoutRequest request) {
+	ToolRentalServiceException invalidRequest = checkRequest(request);
+	if (invalidRequest != null) {
+	    return CheckoutResultImpl.failure(invalidRequest);
+	}
+
+	try {
+	    DataRetrievalService catalog = dataRetrievalService.snapshot();
+	    Tool toolToRent = catalog.getToolByCode(request.getToolCode());
+	    if (toolToRent == null) {
+		return CheckoutResultImpl.failure(toolNotFound(request.getToolCode()));
+	    }
+	    ChargeableDaysDO chargeableDaysDO = findChargeableDays(catalog, toolToRent.getType());
+	    return CheckoutResultImpl.success(new CheckoutResponseImpl(
+		    createRentalAgreement(request, toolToRent, chargeableDaysDO, catalog.getCatalogVersion())));
+	} catch (RuntimeException e) {
+	    return CheckoutResultImpl.failure(asServiceException(e));
+	}
+    }
+
+    private CheckoutResponse checkoutUnmeasured(CheckoutRequest request) {
+	validateRequest(request);
+
+	// every lookup of the checkout reads the same version of the catalog
+	DataRetrievalService catalog = dataRetrievalService.snapshot();
+	Tool toolToRent = findTool(catalog, request.getToolCode());
+	ChargeableDaysDO chargeableDaysDO = findChargeableDays(catalog, toolToRent.getType());
+
+	return new CheckoutResponseImpl(
+		createRentalAgreement(request, toolToRent, chargeableDaysDO, catalog.getCatalogVersion()));
+    }
+
+    /**
+     * @return whether a unit of the requested tool is free at the requested store
+     *         on every day from the check out date, for the rental days, going by
+     *         the rentals checked out so far
+     */
+    public boolean isAvailable(CheckoutRequest request) {
 	validateRequest(request);
+	Tool tool = findTool(dataRetrievalService, request.getToolCode());
+	LocalDate checkOutDate = request.getCheckOutDate();
+	return availabilityIndex.isAvailable(request.getStoreId(), tool.getCode(), checkOutDate,
+		checkOutDate.plusDays(request.getRentalDays()));
+    }
+
+    /**
+     * Prices the request as {@link #checkout(CheckoutRequest)} would, without
+     * reserving a unit or opening a rental. Quotes are memoized in the
+     * {@link QuoteCache}, so asking again for the same rental only looks up the
+     * tool and its charges.
+     */
+    public RentalQuote quote(CheckoutRequest request) {
+	validateRequest(request);
+
+	DataRetrievalService catalog = dataRetrievalService.snapshot();
+	Tool tool = findTool(catalog, request.getToolCode());
+	ChargeableDaysDO chargeableDaysDO = findChargeableDays(catalog, tool.getType());
+	long ruleSetVersion = pricingEngine.getRuleSet().getVersion();
+
+	RentalQuote quote = quoteCache.get(request.getStoreId(), request.getCheckOutDate(), request.getRentalDays(),
+		request.getDiscountPercent(), chargeableDaysDO, ruleSetVersion, () -> {
+		    RentalQuote priced = createQuote(request, chargeableDaysDO);
+		    // the rules were updated while pricing, so the quote may not be of
+		    // the version it would be cached under
+		    return pricingEngine.getRuleSet().getVersion() == ruleSetVersion ? priced : null;
+		});
+	return quote != null ? quote : createQuote(request, chargeableDaysDO);
+    }
+
+    /**
+     * Checks out every request of the batch. Requests are grouped by tool code, so
+     * each {@link Tool} and {@link ChargeableDaysDO} is only looked up once per
+     * batch, and each group is then priced in a tight loop.
+     *
+     * @return one result per request, in the same order as the requests. A failed
+     *         request does not affect the other requests.
+     */
+    public List<CheckoutResult> checkoutAll(Collection<CheckoutRequest> requests) {
+	if (!metricsEnabled) {
+	    return checkoutAllUnmeasured(requests);
+	}
+	long startNanos = System.nanoTime();
+	List<CheckoutResult> results = checkoutAllUnmeasured(requests);
+	if (results.isEmpty()) {
+	    return results;
+	}
+	// the requests are priced together, so each is measured at its share of the
+	// batch
+	long latencyNanos = (System.nanoTime() - startNanos) / results.size();
+	for (CheckoutResult result : results) {
+	    if (result.isSuccess()) {
+		metrics.recordCheckout(latencyNanos, result.getResponse().getRentalAgreement().getRentalDays());
+	    } else {
+		metrics.recordCheckoutFailure(latencyNanos, result.getFailureReason());
+	    }
+	}
+	return results;
+    }
+
+    private List<CheckoutResult> checkoutAllUnmeasured(Collection<CheckoutRequest> requests) {
+	List<CheckoutRequest> requestList = new ArrayList<>(requests);
+	CheckoutResult[] results = new CheckoutResult[requestList.size()];
+
+	// valid requests' indexes by tool code, keeping the first-seen order
+	Map<String, List<Integer>> indexesByToolCode = new LinkedHashMap<>();
+	for (int i = 0; i < requestList.size(); i++) {
+	    CheckoutRequest request = requestList.get(i);
+	    ToolRentalServiceException invalidRequest = checkRequest(request);
+	    if (invalidRequest != null) {
+		results[i] = CheckoutResultImpl.failure(invalidRequest);
+	    } else {
+		indexesByToolCode.computeIfAbsent(request.getToolCode(), toolCode -> new ArrayList<>()).add(i);
+	    }
+	}
+
+	DataRetrievalService catalog = dataRetrievalService.snapshot();
+	Map<Tool.Type, ChargeableDaysDO> chargeableDaysByType = new EnumMap<>(Tool.Type.class);
+	for (Map.Entry<String, List<Integer>> group : indexesByToolCode.entrySet()) {
+	    List<Integer> indexes = group.getValue();
+	    Tool toolToRent;
+	    ChargeableDaysDO chargeableDaysDO;
+	    try {
+		toolToRent = findTool(catalog, group.getKey());
+		chargeableDaysDO = chargeableDaysByType.get(toolToRent.getType());
+		if (chargeableDaysDO == null) {
+		    chargeableDaysDO = findChargeableDays(catalog, toolToRent.getType());
+		    chargeableDaysByType.put(toolToRent.getType(), chargeableDaysDO);
+		}
+	    } catch (RuntimeException e) {
+		CheckoutResult failure = CheckoutResultImpl.failure(asServiceException(e));
+		for (int index : indexes) {
+		    results[index] = failure;
+		}
+		continue;
+	    }
 
-	String toolCode = request.getToolCode();
+	    for (int index : indexes) {
+		try {
+		    RentalAgreement rentalAgreement = createRentalAgreement(requestList.get(index), toolToRent,
+			    chargeableDaysDO, catalog.getCatalogVersion());
+		    results[index] = CheckoutResultImpl.success(new CheckoutResponseImpl(rentalAgreement));
+		} catch (RuntimeException e) {
+		    results[index] = CheckoutResultImpl.failure(asServiceException(e));
+		}
+	    }
+	}
+
+	return Arrays.asList(results);
+    }
 
-	DataRetrievalService dataRetrievalService = factory.getDataRetrievalService();
-	Tool toolToRent = dataRetrievalService.getToolByCode(toolCode);
+    private static Tool findTool(DataRetrievalService catalog, String toolCode) {
+	Tool toolToRent = catalog.getToolByCode(toolCode);
 
 	if (toolToRent == null) {
-	    throw new ToolRentalServiceException(FailureReason.TOOL_NOT_FOUND,
-		    "The toolCode %s could not be found".formatted(toolCode));
+	    throw toolNotFound(toolCode);
 	}
+	return toolToRent;
+    }
+
+    private static ToolRentalServiceException toolNotFound(String toolCode) {
+	// concatenated rather than formatted, as mistyped tool codes are common
+	return ToolRentalServiceException.rejection(FailureReason.TOOL_NOT_FOUND,
+		"The toolCode " + toolCode + " could not be found");
+    }
+
+    private static ToolRentalServiceException toolUnavailable(String toolCode, String storeId) {
+	return ToolRentalServiceException.rejection(FailureReason.TOOL_UNAVAILABLE,
+		"No %s is available at store %s".formatted(toolCode, storeId));
+    }
 
-	ChargeableDaysDO chargeableDaysDO = dataRetrievalService.getChargeableDaysByToolType(toolToRent.getType());
+    private static ChargeableDaysDO findChargeableDays(DataRetrievalService catalog, Tool.Type toolType) {
+	ChargeableDaysDO chargeableDaysDO = catalog.getChargeableDaysByToolType(toolType);
 	if (chargeableDaysDO == null) {
 	    LOGGER.log(Level.SEVERE,
 		    "Unable to find chargeable days information for the toolType: %s. It is expected that all tool"
 			    + "types within our database have an associated chargeable days defined."
-				    .formatted(toolToRent.getType()));
+				    .formatted(toolType));
 	    throw new ToolRentalServiceException(FailureReason.INTERNAL_ERROR, "An unexpected error occurred");
 	}
+	return chargeableDaysDO;
+    }
 
+    private RentalQuote createQuote(CheckoutRequest request, ChargeableDaysDO chargeableDaysDO) {
 	int rentalDays = request.getRentalDays();
 	LocalDate checkOutDate = request.getCheckOutDate();
 	LocalDate dueDate = checkOutDate.plusDays(rentalDays);
 
-	int chargeDays = calculateChargeableDays(checkOutDate, dueDate, chargeableDaysDO);
-
 	long dailyRentalCharge = chargeableDaysDO.getDailyCharge();
-	long preDiscountCharge = calculatePreDiscountCharge(chargeDays, dailyRentalCharge);
 	int discountPercent = request.getDiscountPercent();
-	long discountAmount = calculateDiscountAmount(preDiscountCharge, discountPercent);
-	long finalCharge = preDiscountCharge - discountAmount;
+	int chargeDays;
+	long preDiscountCharge;
+	long discountAmount;
+	try {
+	    RentalCharge rentalCharge = pricingEngine.price(request.getStoreId(), checkOutDate, dueDate,
+		    chargeableDaysDO);
+	    chargeDays = rentalCharge.getChargeDays();
+	    preDiscountCharge = rentalCharge.getPreDiscountCharge();
+	    discountAmount = ChargeCalculator.calculateDiscountAmount(preDiscountCharge, discountPercent);
+	} catch (ArithmeticException e) {
+	    LOGGER.log(Level.SEVERE, "The charge for %s rental days at %s cents per day is out of range"
+		    .formatted(rentalDays, dailyRentalCharge), e);
+	    throw new ToolRentalServiceException(FailureReason.INTERNAL_ERROR, "An unexpected error occurred", e);
+	}
 
 	//@formatter:off
-	RentalAgreement rentalAgreement = new RentalAgreementImpl.Builder()
-		.tool(toolToRent)
+	return new RentalQuoteImpl.Builder()
+		.toolType(chargeableDaysDO.getToolType())
 		.rentalDays(rentalDays)
 		.checkOutDate(checkOutDate)
 		.dueDate(dueDate)
@@ -78,100 +315,105 @@ public class CheckoutManager {
 		.preDiscountCharge(preDiscountCharge)
 		.discountPercent(discountPercent)
 		.discountAmount(discountAmount)
-		.finalCharge(finalCharge)
+		.finalCharge(preDiscountCharge - discountAmount)
 		.build();
 	//@formatter:on
-
-	return new CheckoutResponseImpl(rentalAgreement);
-    }
-
-    private static long calculateDiscountAmount(long preDiscountChargeCents, int discountPercent) {
-	BigDecimal preDiscountCharge = new BigDecimal(preDiscountChargeCents);
-	BigDecimal discount = preDiscountCharge.multiply(new BigDecimal(discountPercent)).divide(new BigDecimal("100"));
-	discount = discount.setScale(0, RoundingMode.HALF_UP);
-	return discount.longValue();
-    }
-
-    private static long calculatePreDiscountCharge(int chargeDays, long dailyRentalChargeCents) {
-	BigDecimal dailyRentalCharge = new BigDecimal(dailyRentalChargeCents);
-	BigDecimal totalCharge = dailyRentalCharge.multiply(new BigDecimal(chargeDays));
-	totalCharge = totalCharge.setScale(0, RoundingMode.HALF_UP);
-	return totalCharge.longValue();
     }
 
-    private int calculateChargeableDays(LocalDate checkOutDate, LocalDate dueDate, ChargeableDaysDO chargeableDaysDO) {
-	int chargeableDays = 0;
-	List<Predicate<LocalDate>> notChargeableDayConditions = buildNonChargeableDayConditions(chargeableDaysDO);
+    private RentalAgreement createRentalAgreement(CheckoutRequest request, Tool toolToRent,
+	    ChargeableDaysDO chargeableDaysDO, long catalogVersion) {
+	RentalQuote quote = createQuote(request, chargeableDaysDO);
 
-	// Based on the requirements, the first chargeable day is the day after
-	// checkout
-	LocalDate currentDate = checkOutDate.plusDays(1);
-
-	// inclusive to the due date
-	nextDayLoop: while (currentDate.isBefore(dueDate) || currentDate.isEqual(dueDate)) {
-	    for (Predicate<LocalDate> condition : notChargeableDayConditions) {
+	// booked last, once nothing but an unexpected error can fail the checkout.
+	// The window is the only capacity check, so a unit can be booked ahead for
+	// any window in which it is free, whatever is on the shelf today
+	String storeId = request.getStoreId();
+	String toolCode = toolToRent.getCode();
+	if (!availabilityIndex.tryBook(storeId, toolCode, quote.getCheckOutDate(), quote.getDueDate())) {
+	    throw toolUnavailable(toolCode, storeId);
+	}
+	// only a rental starting by today takes its unit off the shelf
+	boolean shelfUnitTaken = !quote.getCheckOutDate().isAfter(LocalDate.now(clock));
+	if (shelfUnitTaken) {
+	    inventoryService.markRented(storeId, toolCode);
+	}
+	try {
+	    //@formatter:off
+	    RentalAgreement rentalAgreement = new RentalAgreementImpl.Builder()
+		    .rentalId(rentalLedger.nextRentalId())
+		    .tool(toolToRent)
+		    .rentalDays(quote.getRentalDays())
+		    .checkOutDate(quote.getCheckOutDate())
+		    .dueDate(quote.getDueDate())
+		    .dailyRentalCharge(quote.getDailyRentalCharge())
+		    .chargeDays(quote.getChargeDays())
+		    .preDiscountCharge(quote.getPreDiscountCharge())
+		    .discountPercent(quote.getDiscountPercent())
+		    .discountAmount(quote.getDiscountAmount())
+		    .finalCharge(quote.getFinalCharge())
+		    .catalogVersion(catalogVersion)
+		    .build();
+	    //@formatter:on
 
-		// if it's determined based on the Predicate, that the tool rental is not
-		// chargeable for that day
-		if (condition.test(currentDate)) {
-		    currentDate = currentDate.plusDays(1);
-		    continue nextDayLoop;
-		}
+	    // the rental is open from here on, until the tool is checked in. It is
+	    // journaled first, so a failing journal never leaves an unrecorded
+	    // rental open
+	    Rental rental = new Rental(rentalAgreement, chargeableDaysDO, storeId);
+	    if (shelfUnitTaken) {
+		rental.markShelfUnitTaken();
+	    }
+	    rentalJournal.recordOpened(rental);
+	    rentalLedger.open(rental);
+	    return rentalAgreement;
+	} catch (RuntimeException e) {
+	    availabilityIndex.cancel(storeId, toolCode, quote.getCheckOutDate(), quote.getDueDate());
+	    if (shelfUnitTaken) {
+		inventoryService.release(storeId, toolCode);
 	    }
+	    throw e;
+	}
+    }
 
-	    chargeableDays++;
-	    currentDate = currentDate.plusDays(1);
+    private static ToolRentalServiceException asServiceException(RuntimeException e) {
+	if (e instanceof ToolRentalServiceException) {
+	    return (ToolRentalServiceException) e;
 	}
-	return chargeableDays;
+	LOGGER.log(Level.SEVERE, "Unexpected error during checkout", e);
+	return new ToolRentalServiceException(FailureReason.INTERNAL_ERROR, "An unexpected error occurred", e);
     }
 
     /**
-     * 
-     * @return the List of conditions to check if a certain {@link LocalDate day}
-     *         should not be charged. The list of conditions is made up, only of the
-     *         specified conditions (weekday/weekend/holiday) that are "false",
-     *         meaning that condition is "not chargeable" for the tool type.
+     * throws an exception with {@link FailureReason#INVALID_INPUT} if one of the
+     * conditions for an invalid request are met
      */
-    private List<Predicate<LocalDate>> buildNonChargeableDayConditions(ChargeableDaysDO chargeableDaysDO) {
-	List<Predicate<LocalDate>> conditions = new ArrayList<>();
-
-	if (!chargeableDaysDO.isWeekendCharge()) {
-	    conditions.add(CheckoutManager::isWeekend);
-	}
-	if (!chargeableDaysDO.isHolidayCharge()) {
-	    conditions.add(this::isHoliday);
+    private static void validateRequest(CheckoutRequest request) {
+	ToolRentalServiceException invalidRequest = checkRequest(request);
+	if (invalidRequest != null) {
+	    throw invalidRequest;
 	}
-
-	return conditions;
-    }
-
-    private static boolean isWeekend(LocalDate date) {
-	return Arrays.asList(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY).contains(date.getDayOfWeek());
-    }
-
-    private boolean isHoliday(LocalDate date) {
-	List<LocalDate> holidays = holidaysAgent.getHolidaysForYear(date.getYear());
-	return holidays.contains(date);
     }
 
     /**
-     * throws an exception with {@link FailureReason#INVALID_INPUT} if one of the
-     * conditions for an invalid request are met
+     * @return an exception with {@link FailureReason#INVALID_INPUT} if one of the
+     *         conditions for an invalid request are met, or else {@code null}
      */
-    private void validateRequest(CheckoutRequest request) {
-	if (request.getRentalDays() < 1) {
-	    throw new ToolRentalServiceException(FailureReason.INVALID_INPUT,
+    private static ToolRentalServiceException checkRequest(CheckoutRequest request) {
+	if (request == null) {
+	    return ToolRentalServiceException.rejection(FailureReason.INVALID_INPUT, "request cannot be null");
+	} else if (request.getRentalDays() < 1) {
+	    return ToolRentalServiceException.rejection(FailureReason.INVALID_INPUT,
 		    "rentalDays is required, and must be greater than 0");
 	} else if (request.getDiscountPercent() < 0 || request.getDiscountPercent() >= 100) {
-	    throw new ToolRentalServiceException(FailureReason.INVALID_INPUT,
+	    return ToolRentalServiceException.rejection(FailureReason.INVALID_INPUT,
 		    "discountPercent must be between 0 and 100");
 	} else if (request.getToolCode() == null) {
-	    throw new ToolRentalServiceException(FailureReason.INVALID_INPUT,
+	    return ToolRentalServiceException.rejection(FailureReason.INVALID_INPUT,
 		    "toolCode is required, and cannot be null");
 	} else if (request.getCheckOutDate() == null) {
-	    throw new ToolRentalServiceException(FailureReason.INVALID_INPUT,
+	    return ToolRentalServiceException.rejection(FailureReason.INVALID_INPUT,
 		    "checkOutDate is required, and cannot be null");
 	}
+	return null;
     }
 
 }
@@ -0,0 +1,49 @@
+package cmiller.interview.internal.checkout;
+
+import cmiller.interview.ToolRentalServiceException;
+import cmiller.interview.ToolRentalServiceException.FailureReason;
+import cmiller.interview.checkout.CheckoutResponse;
+import cmiller.interview.checkout.CheckoutResult;
+
+public class CheckoutResultImpl implements CheckoutResult {
+    private final CheckoutResponse response;
+    private final ToolRentalServiceException failure;
+
+    private CheckoutResultImpl(CheckoutResponse response, ToolRentalServiceException failure) {
+	this.response = response;
+	this.failure = failure;
+    }
+
+    public static CheckoutResult success(CheckoutResponse response) {
+	return new CheckoutResultImpl(response, null);
+    }
+
+    public static CheckoutResult failure(ToolRentalServiceException failure) {
+	return new CheckoutResultImpl(null, failure);
+    }
+
+    @Override
+    public boolean isSuccess() {
+	return failure == null;
+    }
+
+    @Override
+    public CheckoutResponse getResponse() {
+	return response;
+    }
+
+    @Override
+    public ToolRentalServiceException getFailure() {
+	return failure;
+    }
+
+    @Override
+    public FailureReason getFailureReason() {
+	return failure == null ? null : failure.getFailureReason();
+    }
+
+    @Override
+    public String toString() {
+	return "CheckoutResultImpl [response=" + response + ", failure=" + failure + "]";
+    }
+}
@@ -0,0 +1,80 @@
+package cmiller.interview.internal.checkout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.CheckoutResult;
+
+/**
+ * Prices large checkout batches on a {@link ForkJoinPool}. The batch is split
+ * in halves until the slices are no larger than the threshold, and each slice
+ * is then checked out as a {@link CheckoutManager#checkoutAll(Collection)
+ * batch} of its own. Results are written into the slot of their request, so
+ * they keep the input order.
+ * <p>
+ * Relies on the {@link CheckoutManager} and its dependencies being safe to use
+ * from multiple threads.
+ */
+public class ParallelCheckoutManager {
+    private final CheckoutManager checkoutManager;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelCheckoutManager(CheckoutManager checkoutManager, ForkJoinPool pool, int threshold) {
+	if (threshold < 1) {
+	    throw new IllegalArgumentException("ParallelCheckoutManager.threshold must be greater than 0");
+	}
+	this.checkoutManager = checkoutManager;
+	this.pool = pool;
+	this.threshold = threshold;
+    }
+
+    /**
+     * @return one result per request, in the same order as the requests
+     * @see CheckoutManager#checkoutAll(Collection)
+     */
+    public List<CheckoutResult> checkoutAll(Collection<CheckoutRequest> requests) {
+	List<CheckoutRequest> requestList = new ArrayList<>(requests);
+	CheckoutResult[] results = new CheckoutResult[requestList.size()];
+	if (!requestList.isEmpty()) {
+	    pool.invoke(new CheckoutSliceAction(requestList, results, 0, requestList.size()));
+	}
+	return Arrays.asList(results);
+    }
+
+    private class CheckoutSliceAction extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+
+	private final List<CheckoutRequest> requests;
+	private final CheckoutResult[] results;
+	private final int from;
+	private final int to;
+
+	private CheckoutSliceAction(List<CheckoutRequest> requests, CheckoutResult[] results, int from, int to) {
+	    this.requests = requests;
+	    this.results = results;
+	    this.from = from;
+	    this.to = to;
+	}
+
+	@Override
+	protected void compute() {
+	    if (to - from <= threshold) {
+		List<CheckoutResult> sliceResults = checkoutManager.checkoutAll(requests.subList(from, to));
+		for (int i = 0; i < sliceResults.size(); i++) {
+		    results[from + i] = sliceResults.get(i);
+		}
+		return;
+	    }
+
+	    int middle = (from + to) >>> 1;
+	    invokeAll(new CheckoutSliceAction(requests, results, from, middle),
+		    new CheckoutSliceAction(requests, results, middle, to));
+	}
+    }
+}
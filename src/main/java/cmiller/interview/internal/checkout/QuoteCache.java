@@ -0,0 +1,99 @@
+package cmiller.interview.internal.checkout;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import cmiller.interview.checkout.RentalQuote;
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.cache.CacheStats;
+import cmiller.interview.internal.cache.LruCache;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * Remembers the most recently quoted rentals. A quote is keyed by everything
+ * its charges depend on: the store, which picks the holidays and pricing
+ * rules, the tool type and its {@link ChargeableDaysDO charges}, the rental
+ * window, the discount, and the version of the pricing rules. Every tool of a
+ * type shares its quotes, and a catalog or rules update simply stops matching
+ * the quotes cached before it, which then age out.
+ * <p>
+ * A cache with a maximum size of 0 remembers nothing.
+ */
+public class QuoteCache {
+    private final LruCache<Key, RentalQuote> quotes;
+
+    public QuoteCache(int maximumSize) {
+	if (maximumSize < 0) {
+	    throw new IllegalArgumentException("QuoteCache.maximumSize cannot be negative");
+	}
+	this.quotes = maximumSize == 0 ? null : new LruCache<>(maximumSize);
+    }
+
+    /**
+     * @return the cached quote of the rental, or else the quote of the loader,
+     *         which is cached unless it is {@code null}
+     */
+    public RentalQuote get(String storeId, LocalDate checkOutDate, int rentalDays, int discountPercent,
+	    ChargeableDaysDO chargeableDaysDO, long ruleSetVersion, Supplier<RentalQuote> loader) {
+	if (quotes == null) {
+	    return loader.get();
+	}
+	return quotes.get(
+		new Key(storeId, checkOutDate, rentalDays, discountPercent, chargeableDaysDO, ruleSetVersion),
+		key -> loader.get());
+    }
+
+    public CacheStats stats() {
+	return quotes == null ? new CacheStats(0, 0, 0, 0) : quotes.stats();
+    }
+
+    private static final class Key {
+	private final String storeId;
+	private final LocalDate checkOutDate;
+	private final int rentalDays;
+	private final int discountPercent;
+	private final Tool.Type toolType;
+	private final long dailyCharge;
+	// the weekday, weekend and holiday charge flags
+	private final int chargedDays;
+	private final long ruleSetVersion;
+	private final int hashCode;
+
+	private Key(String storeId, LocalDate checkOutDate, int rentalDays, int discountPercent,
+		ChargeableDaysDO chargeableDaysDO, long ruleSetVersion) {
+	    this.storeId = storeId;
+	    this.checkOutDate = checkOutDate;
+	    this.rentalDays = rentalDays;
+	    this.discountPercent = discountPercent;
+	    this.toolType = chargeableDaysDO.getToolType();
+	    this.dailyCharge = chargeableDaysDO.getDailyCharge();
+	    this.chargedDays = (chargeableDaysDO.isWeekdayCharge() ? 1 : 0)
+		    | (chargeableDaysDO.isWeekendCharge() ? 2 : 0) | (chargeableDaysDO.isHolidayCharge() ? 4 : 0);
+	    this.ruleSetVersion = ruleSetVersion;
+	    this.hashCode = Objects.hash(storeId, checkOutDate, rentalDays, discountPercent, toolType, dailyCharge,
+		    chargedDays, ruleSetVersion);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+	    if (this == obj) {
+		return true;
+	    }
+	    if (!(obj instanceof Key)) {
+		return false;
+	    }
+	    Key other = (Key) obj;
+	    return hashCode == other.hashCode && rentalDays == other.rentalDays
+		    && discountPercent == other.discountPercent && toolType == other.toolType
+		    && dailyCharge == other.dailyCharge && chargedDays == other.chargedDays
+		    && ruleSetVersion == other.ruleSetVersion && checkOutDate.equals(other.checkOutDate)
+		    && Objects.equals(storeId, other.storeId);
+	}
+
+	@Override
+	public int hashCode() {
+	    return hashCode;
+	}
+    }
+}
@@ -1,14 +1,17 @@
 package cmiller.interview.internal.checkout;
 
-import java.text.NumberFormat;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 
 import cmiller.interview.checkout.RentalAgreement;
 import cmiller.interview.common.Tool;
 
 public class RentalAgreementImpl implements RentalAgreement {
+    // fits a typical receipt without resizing
+    private static final int PRETTY_PRINT_CAPACITY = 320;
+
+    private final long rentalId;
     private final Tool tool;
     private final int rentalDays;
     private final LocalDate checkOutDate;
@@ -19,8 +22,10 @@ public class RentalAgreementImpl implements RentalAgreement {
     private final int discountPercent;
     private final long discountAmount;
     private final long finalCharge;
+    private final long catalogVersion;
 
     private RentalAgreementImpl(Builder builder) {
+	this.rentalId = builder.rentalId;
 	this.tool = builder.tool;
 	this.rentalDays = builder.rentalDays;
 	this.checkOutDate = builder.checkOutDate;
@@ -31,33 +36,29 @@ public class RentalAgreementImpl implements RentalAgreement {
 	this.discountPercent = builder.discountPercent;
 	this.discountAmount = builder.discountAmount;
 	this.finalCharge = builder.finalCharge;
+	this.catalogVersion = builder.catalogVersion;
     }
 
     @Override
     public String prettyPrint() {
-	StringBuilder builder = new StringBuilder();
-	builder.append("Tool code: ").append(tool.getCode()).append('\n');
-	builder.append("Tool type: ").append(tool.getType().asString()).append('\n');
-	builder.append("Tool brand: ").append(tool.getBrand()).append('\n');
-	builder.append("Rental days: ").append(rentalDays).append('\n');
-	builder.append("Check-out date: ").append(prettyPrintDate(checkOutDate)).append('\n');
-	builder.append("Due date: ").append(prettyPrintDate(dueDate)).append('\n');
-	builder.append("Daily rental charge: ").append(prettyPrintDollar(dailyRentalCharge)).append('\n');
-	builder.append("Charge days: ").append(chargeDays).append('\n');
-	builder.append("Pre-discount charge: ").append(prettyPrintDollar(preDiscountCharge)).append('\n');
-	builder.append("Discount percent: ").append("%s%%".formatted(discountPercent)).append('\n');
-	builder.append("Discount amount: ").append(prettyPrintDollar(discountAmount)).append('\n');
-	builder.append("Final charge: ").append(prettyPrintDollar(finalCharge)).append('\n');
+	StringBuilder builder = new StringBuilder(PRETTY_PRINT_CAPACITY);
+	try {
+	    prettyPrint(builder);
+	} catch (IOException e) {
+	    // a StringBuilder never throws
+	    throw new UncheckedIOException(e);
+	}
 	return builder.toString();
     }
 
-    private static String prettyPrintDollar(long amount) {
-	NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
-	return currencyFormat.format(amount / 100.0);
+    @Override
+    public void prettyPrint(Appendable out) throws IOException {
+	RentalAgreementPrinter.print(this, out);
     }
 
-    private static String prettyPrintDate(LocalDate date) {
-	return date.format(DateTimeFormatter.ofPattern("MM'/'dd'/'yy"));
+    @Override
+    public long getRentalId() {
+	return rentalId;
     }
 
     @Override
@@ -110,15 +111,22 @@ public class RentalAgreementImpl implements RentalAgreement {
 	return finalCharge;
     }
 
+    @Override
+    public long getCatalogVersion() {
+	return catalogVersion;
+    }
+
     @Override
     public String toString() {
-	return "RentalAgreementImpl [tool=" + tool + ", rentalDays=" + rentalDays + ", checkOutDate=" + checkOutDate
-		+ ", dueDate=" + dueDate + ", dailyRentalCharge=" + dailyRentalCharge + ", chargeDays=" + chargeDays
-		+ ", preDiscountCharge=" + preDiscountCharge + ", discountPercent=" + discountPercent
-		+ ", discountAmount=" + discountAmount + ", finalCharge=" + finalCharge + "]";
+	return "RentalAgreementImpl [rentalId=" + rentalId + ", tool=" + tool + ", rentalDays=" + rentalDays
+		+ ", checkOutDate=" + checkOutDate + ", dueDate=" + dueDate + ", dailyRentalCharge=" + dailyRentalCharge
+		+ ", chargeDays=" + chargeDays + ", preDiscountCharge=" + preDiscountCharge + ", discountPercent="
+		+ discountPercent + ", discountAmount=" + discountAmount + ", finalCharge=" + finalCharge
+		+ ", catalogVersion=" + catalogVersion + "]";
     }
 
     public static class Builder {
+	private long rentalId;
 	private Tool tool;
 	private int rentalDays;
 	private LocalDate checkOutDate;
@@ -129,6 +137,12 @@ public class RentalAgreementImpl implements RentalAgreement {
 	private int discountPercent;
 	private long discountAmount;
 	private long finalCharge;
+	private long catalogVersion;
+
+	public Builder rentalId(long rentalId) {
+	    this.rentalId = rentalId;
+	    return this;
+	}
 
 	public Builder tool(Tool tool) {
 	    this.tool = tool;
@@ -180,6 +194,11 @@ public class RentalAgreementImpl implements RentalAgreement {
 	    return this;
 	}
 
+	public Builder catalogVersion(long catalogVersion) {
+	    this.catalogVersion = catalogVersion;
+	    return this;
+	}
+
 	public RentalAgreement build() {
 	    return new RentalAgreementImpl(this);
 	}
@@ -0,0 +1,110 @@
+package cmiller.interview.internal.checkout;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.common.Tool;
+
+/**
+ * Renders the pretty-printed receipt of a {@link RentalAgreement} straight
+ * into an {@link Appendable}. Dates and dollar amounts are written digit by
+ * digit, dollars from the cents without going through {@code double}, so
+ * rendering does not create intermediate strings or formatters. The output is
+ * the same as the {@code MM/dd/yy} {@link java.time.format.DateTimeFormatter}
+ * and US currency {@link java.text.NumberFormat} formats.
+ */
+public final class RentalAgreementPrinter {
+    private static final long CENTS_PER_DOLLAR = 100;
+
+    private RentalAgreementPrinter() {
+    }
+
+    public static void print(RentalAgreement rentalAgreement, Appendable out) throws IOException {
+	Tool tool = rentalAgreement.getTool();
+	out.append("Tool code: ").append(tool.getCode()).append('\n');
+	out.append("Tool type: ").append(tool.getType().asString()).append('\n');
+	out.append("Tool brand: ").append(tool.getBrand()).append('\n');
+	out.append("Rental days: ");
+	appendLong(rentalAgreement.getRentalDays(), false, out);
+	out.append('\n');
+	out.append("Check-out date: ");
+	appendDate(rentalAgreement.getCheckOutDate(), out);
+	out.append('\n');
+	out.append("Due date: ");
+	appendDate(rentalAgreement.getDueDate(), out);
+	out.append('\n');
+	out.append("Daily rental charge: ");
+	appendDollars(rentalAgreement.getDailyRentalCharge(), out);
+	out.append('\n');
+	out.append("Charge days: ");
+	appendLong(rentalAgreement.getChargeDays(), false, out);
+	out.append('\n');
+	out.append("Pre-discount charge: ");
+	appendDollars(rentalAgreement.getPreDiscountCharge(), out);
+	out.append('\n');
+	out.append("Discount percent: ");
+	appendLong(rentalAgreement.getDiscountPercent(), false, out);
+	out.append('%').append('\n');
+	out.append("Discount amount: ");
+	appendDollars(rentalAgreement.getDiscountAmount(), out);
+	out.append('\n');
+	out.append("Final charge: ");
+	appendDollars(rentalAgreement.getFinalCharge(), out);
+	out.append('\n');
+    }
+
+    /**
+     * Appends the date as {@code MM/dd/yy}
+     */
+    static void appendDate(LocalDate date, Appendable out) throws IOException {
+	appendTwoDigits(date.getMonthValue(), out);
+	out.append('/');
+	appendTwoDigits(date.getDayOfMonth(), out);
+	out.append('/');
+	appendTwoDigits(Math.floorMod(date.getYear(), 100), out);
+    }
+
+    /**
+     * Appends the cents as US dollars, e.g. {@code $1,234.50} or
+     * {@code -$0.05}
+     */
+    static void appendDollars(long cents, Appendable out) throws IOException {
+	// division before negation, so Long.MIN_VALUE cannot overflow
+	long dollars = Math.abs(cents / CENTS_PER_DOLLAR);
+	int remainingCents = (int) Math.abs(cents % CENTS_PER_DOLLAR);
+
+	if (cents < 0) {
+	    out.append('-');
+	}
+	out.append('$');
+	appendLong(dollars, true, out);
+	out.append('.');
+	appendTwoDigits(remainingCents, out);
+    }
+
+    private static void appendTwoDigits(int value, Appendable out) throws IOException {
+	out.append((char) ('0' + value / 10));
+	out.append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Appends a non-negative number, optionally with a comma between each group
+     * of three digits
+     */
+    private static void appendLong(long value, boolean grouping, Appendable out) throws IOException {
+	long divisor = 1;
+	int digits = 1;
+	while (value / divisor >= 10) {
+	    divisor *= 10;
+	    digits++;
+	}
+
+	for (; divisor > 0; divisor /= 10, digits--) {
+	    out.append((char) ('0' + (value / divisor) % 10));
+	    if (grouping && digits > 1 && (digits - 1) % 3 == 0) {
+		out.append(',');
+	    }
+	}
+    }
+}
@@ -0,0 +1,161 @@
+package cmiller.interview.internal.checkout;
+
+import java.time.LocalDate;
+
+import cmiller.interview.checkout.RentalQuote;
+import cmiller.interview.common.Tool;
+
+/**
+ * Immutable, so a quote can be cached and handed out to every caller asking for
+ * the same rental
+ */
+public class RentalQuoteImpl implements RentalQuote {
+    private final Tool.Type toolType;
+    private final int rentalDays;
+    private final LocalDate checkOutDate;
+    private final LocalDate dueDate;
+    private final long dailyRentalCharge;
+    private final int chargeDays;
+    private final long preDiscountCharge;
+    private final int discountPercent;
+    private final long discountAmount;
+    private final long finalCharge;
+
+    private RentalQuoteImpl(Builder builder) {
+	this.toolType = builder.toolType;
+	this.rentalDays = builder.rentalDays;
+	this.checkOutDate = builder.checkOutDate;
+	this.dueDate = builder.dueDate;
+	this.dailyRentalCharge = builder.dailyRentalCharge;
+	this.chargeDays = builder.chargeDays;
+	this.preDiscountCharge = builder.preDiscountCharge;
+	this.discountPercent = builder.discountPercent;
+	this.discountAmount = builder.discountAmount;
+	this.finalCharge = builder.finalCharge;
+    }
+
+    @Override
+    public Tool.Type getToolType() {
+	return toolType;
+    }
+
+    @Override
+    public int getRentalDays() {
+	return rentalDays;
+    }
+
+    @Override
+    public LocalDate getCheckOutDate() {
+	return checkOutDate;
+    }
+
+    @Override
+    public LocalDate getDueDate() {
+	return dueDate;
+    }
+
+    @Override
+    public long getDailyRentalCharge() {
+	return dailyRentalCharge;
+    }
+
+    @Override
+    public int getChargeDays() {
+	return chargeDays;
+    }
+
+    @Override
+    public long getPreDiscountCharge() {
+	return preDiscountCharge;
+    }
+
+    @Override
+    public int getDiscountPercent() {
+	return discountPercent;
+    }
+
+    @Override
+    public long getDiscountAmount() {
+	return discountAmount;
+    }
+
+    @Override
+    public long getFinalCharge() {
+	return finalCharge;
+    }
+
+    @Override
+    public String toString() {
+	return "RentalQuoteImpl [toolType=" + toolType + ", rentalDays=" + rentalDays + ", checkOutDate="
+		+ checkOutDate + ", dueDate=" + dueDate + ", dailyRentalCharge=" + dailyRentalCharge + ", chargeDays="
+		+ chargeDays + ", preDiscountCharge=" + preDiscountCharge + ", discountPercent=" + discountPercent
+		+ ", discountAmount=" + discountAmount + ", finalCharge=" + finalCharge + "]";
+    }
+
+    public static class Builder {
+	private Tool.Type toolType;
+	private int rentalDays;
+	private LocalDate checkOutDate;
+	private LocalDate dueDate;
+	private long dailyRentalCharge;
+	private int chargeDays;
+	private long preDiscountCharge;
+	private int discountPercent;
+	private long discountAmount;
+	private long finalCharge;
+
+	public Builder toolType(Tool.Type toolType) {
+	    this.toolType = toolType;
+	    return this;
+	}
+
+	public Builder rentalDays(int rentalDays) {
+	    this.rentalDays = rentalDays;
+	    return this;
+	}
+
+	public Builder checkOutDate(LocalDate checkOutDate) {
+	    this.checkOutDate = checkOutDate;
+	    return this;
+	}
+
+	public Builder dueDate(LocalDate dueDate) {
+	    this.dueDate = dueDate;
+	    return this;
+	}
+
+	public Builder dailyRentalCharge(long dailyRentalCharge) {
+	    this.dailyRentalCharge = dailyRentalCharge;
+	    return this;
+	}
+
+	public Builder chargeDays(int chargeDays) {
+	    this.chargeDays = chargeDays;
+	    return this;
+	}
+
+	public Builder preDiscountCharge(long preDiscountCharge) {
+	    this.preDiscountCharge = preDiscountCharge;
+	    return this;
+	}
+
+	public Builder discountPercent(int discountPercent) {
+	    this.discountPercent = discountPercent;
+	    return this;
+	}
+
+	public Builder discountAmount(long discountAmount) {
+	    this.discountAmount = discountAmount;
+	    return this;
+	}
+
+	public Builder finalCharge(long finalCharge) {
+	    this.finalCharge = finalCharge;
+	    return this;
+	}
+
+	public RentalQuoteImpl build() {
+	    return new RentalQuoteImpl(this);
+	}
+    }
+}
@@ -5,6 +5,7 @@ import cmiller.interview.common.Tool;
 public class ChargeableDaysDO {
     private final Tool.Type toolType;
     private final long dailyCharge;
+    private final boolean weekdayCharge;
     private final boolean weekendCharge;
     private final boolean holidayCharge;
 
@@ -12,14 +13,15 @@ public class ChargeableDaysDO {
 	    boolean holidayCharge) {
 	this.toolType = toolType;
 	this.dailyCharge = dailyCharge;
+	this.weekdayCharge = weekdayCharge;
 	this.weekendCharge = weekendCharge;
 	this.holidayCharge = holidayCharge;
     }
 
     @Override
     public String toString() {
-	return "ChargeableDaysDO [toolType=" + toolType + ", dailyCharge=" + dailyCharge + ", weekendCharge="
-		+ weekendCharge + ", holidayCharge=" + holidayCharge + "]";
+	return "ChargeableDaysDO [toolType=" + toolType + ", dailyCharge=" + dailyCharge + ", weekdayCharge="
+		+ weekdayCharge + ", weekendCharge=" + weekendCharge + ", holidayCharge=" + holidayCharge + "]";
     }
 
     public Tool.Type getToolType() {
@@ -30,6 +32,10 @@ public class ChargeableDaysDO {
 	return dailyCharge;
     }
 
+    public boolean isWeekdayCharge() {
+	return weekdayCharge;
+    }
+
     public boolean isWeekendCharge() {
 	return weekendCharge;
     }
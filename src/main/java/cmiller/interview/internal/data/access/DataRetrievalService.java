@@ -20,6 +20,23 @@ public interface DataRetrievalService {
      */
     public ChargeableDaysDO getChargeableDaysByToolType(Tool.Type toolType);
 
+    /**
+     * @return a view of the data which does not change while it is used, so that
+     *         a tool and its chargeable days are always read from the same version
+     *         of the catalog. Services whose data never changes return themselves.
+     */
+    public default DataRetrievalService snapshot() {
+	return this;
+    }
+
+    /**
+     * @return the version of the catalog the data is read from, or 0 if the data
+     *         is not versioned
+     */
+    public default long getCatalogVersion() {
+	return 0;
+    }
+
     public class Factory {
 	public static DataRetrievalService getService() {
 	    return new InMemoryDataRetrievalService();
@@ -0,0 +1,260 @@
+package cmiller.interview.internal.data.access.impl;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.cache.CacheStats;
+import cmiller.interview.internal.cache.LruCache;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.access.DataRetrievalService;
+
+/**
+ * Read-through cache in front of a slower {@link DataRetrievalService}. Tools
+ * are kept in a size-bounded {@link LruCache}, including codes which were not
+ * found, so repeated lookups of an unknown code do not reach the delegate
+ * either. There are only a few tool types, so their chargeable days are all
+ * loaded up front.
+ * <p>
+ * Cached lookups belong to the delegate's current {@link #snapshot() snapshot}.
+ * Everything is dropped when the delegate swaps in a new snapshot, or its
+ * {@link DataRetrievalService#getCatalogVersion() catalog version} changes, and
+ * a snapshot of this cache only ever reads from the delegate snapshot it was
+ * taken of, so a tool, its chargeable days and the catalog version all come
+ * from the same catalog. Entries may also expire after a fixed time. Other
+ * changes to the delegate are only seen after they are
+ * {@link #invalidate(String) invalidated}.
+ */
+public class CachingDataRetrievalService implements DataRetrievalService, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(CachingDataRetrievalService.class.getName());
+
+    private final DataRetrievalService delegate;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier ticker;
+    // a tool code which was not found is cached as empty
+    private final LruCache<ToolKey, Optional<Tool>> toolByCode;
+    private volatile Generation generation;
+
+    /**
+     * @param expireAfterWrite how long lookups stay cached, or 0 for them to be
+     *                         kept until invalidated or evicted
+     */
+    public CachingDataRetrievalService(DataRetrievalService delegate, int maximumCachedTools, long expireAfterWrite,
+	    TimeUnit unit) {
+	this(delegate, maximumCachedTools, expireAfterWrite, unit, System::nanoTime);
+    }
+
+    CachingDataRetrievalService(DataRetrievalService delegate, int maximumCachedTools, long expireAfterWrite,
+	    TimeUnit unit, LongSupplier ticker) {
+	this.delegate = delegate;
+	this.expireAfterWriteNanos = unit.toNanos(expireAfterWrite);
+	this.ticker = ticker;
+	this.toolByCode = new LruCache<>(maximumCachedTools, expireAfterWrite, unit, ticker);
+	this.generation = new Generation(delegate.snapshot());
+    }
+
+    @Override
+    public Tool getToolByCode(String toolCode) {
+	return getToolByCode(currentGeneration(), toolCode);
+    }
+
+    @Override
+    public ChargeableDaysDO getChargeableDaysByToolType(Tool.Type toolType) {
+	return getChargeableDaysByToolType(currentGeneration(), toolType);
+    }
+
+    /**
+     * @return this cache if the delegate's data never changes, or else a cached
+     *         view of the delegate's current snapshot
+     */
+    @Override
+    public DataRetrievalService snapshot() {
+	Generation snapshotGeneration = currentGeneration();
+	return snapshotGeneration.source == delegate ? this : new Snapshot(snapshotGeneration);
+    }
+
+    /**
+     * Drops the cached lookup of a tool code, so the next lookup reads it from
+     * the delegate again
+     */
+    public void invalidate(String toolCode) {
+	toolByCode.invalidate(new ToolKey(generation, toolCode));
+    }
+
+    /**
+     * Drops every cached tool, and reloads the chargeable days
+     */
+    public synchronized void invalidateAll() {
+	generation = new Generation(delegate.snapshot());
+	toolByCode.invalidateAll();
+    }
+
+    /**
+     * @return the hits and misses of tool lookups. Lookups of unknown codes
+     *         answered from the cache count as hits.
+     */
+    public CacheStats getToolCacheStats() {
+	return toolByCode.stats();
+    }
+
+    @Override
+    public long getCatalogVersion() {
+	return currentGeneration().catalogVersion;
+    }
+
+    public DataRetrievalService getDelegate() {
+	return delegate;
+    }
+
+    @Override
+    public void close() {
+	if (delegate instanceof AutoCloseable) {
+	    try {
+		((AutoCloseable) delegate).close();
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		LOGGER.log(Level.WARNING, "Interrupted closing " + delegate, e);
+	    } catch (Exception e) {
+		LOGGER.log(Level.WARNING, "Failed to close " + delegate, e);
+	    }
+	}
+    }
+
+    private Generation currentGeneration() {
+	DataRetrievalService source = delegate.snapshot();
+	Generation current = generation;
+	if (current.isOf(source)) {
+	    return current;
+	}
+	synchronized (this) {
+	    current = generation;
+	    if (!current.isOf(source)) {
+		current = new Generation(source);
+		generation = current;
+		// the tools of earlier generations are never looked up again
+		toolByCode.invalidateAll();
+	    }
+	    return current;
+	}
+    }
+
+    private Tool getToolByCode(Generation toolGeneration, String toolCode) {
+	if (toolCode == null) {
+	    return null;
+	}
+	return toolByCode.get(new ToolKey(toolGeneration, toolCode),
+		key -> Optional.ofNullable(toolGeneration.source.getToolByCode(toolCode))).orElse(null);
+    }
+
+    private ChargeableDaysDO getChargeableDaysByToolType(Generation chargeableDaysGeneration, Tool.Type toolType) {
+	ChargeableDaysSnapshot snapshot = chargeableDaysGeneration.chargeableDays;
+	if (expireAfterWriteNanos > 0 && ticker.getAsLong() - snapshot.loadedAtNanos >= expireAfterWriteNanos) {
+	    // concurrent callers may both reload, which is harmless
+	    snapshot = loadChargeableDays(chargeableDaysGeneration.source);
+	    chargeableDaysGeneration.chargeableDays = snapshot;
+	}
+	return snapshot.byType.get(toolType);
+    }
+
+    private ChargeableDaysSnapshot loadChargeableDays(DataRetrievalService source) {
+	Map<Tool.Type, ChargeableDaysDO> byType = new EnumMap<>(Tool.Type.class);
+	for (Tool.Type toolType : Tool.Type.values()) {
+	    ChargeableDaysDO chargeableDaysDO = source.getChargeableDaysByToolType(toolType);
+	    if (chargeableDaysDO != null) {
+		byType.put(toolType, chargeableDaysDO);
+	    }
+	}
+	return new ChargeableDaysSnapshot(Collections.unmodifiableMap(byType), ticker.getAsLong());
+    }
+
+    /**
+     * The cached data of one snapshot of the delegate
+     */
+    private final class Generation {
+	private final DataRetrievalService source;
+	private final long catalogVersion;
+	private volatile ChargeableDaysSnapshot chargeableDays;
+
+	private Generation(DataRetrievalService source) {
+	    this.source = source;
+	    this.catalogVersion = source.getCatalogVersion();
+	    this.chargeableDays = loadChargeableDays(source);
+	}
+
+	private boolean isOf(DataRetrievalService source) {
+	    return this.source == source && catalogVersion == source.getCatalogVersion();
+	}
+    }
+
+    /**
+     * A view which reads only from one generation, and so from one snapshot of
+     * the delegate, even once a newer snapshot is swapped in
+     */
+    private final class Snapshot implements DataRetrievalService {
+	private final Generation snapshotGeneration;
+
+	private Snapshot(Generation snapshotGeneration) {
+	    this.snapshotGeneration = snapshotGeneration;
+	}
+
+	@Override
+	public Tool getToolByCode(String toolCode) {
+	    return CachingDataRetrievalService.this.getToolByCode(snapshotGeneration, toolCode);
+	}
+
+	@Override
+	public ChargeableDaysDO getChargeableDaysByToolType(Tool.Type toolType) {
+	    return CachingDataRetrievalService.this.getChargeableDaysByToolType(snapshotGeneration, toolType);
+	}
+
+	@Override
+	public DataRetrievalService snapshot() {
+	    return this;
+	}
+
+	@Override
+	public long getCatalogVersion() {
+	    return snapshotGeneration.catalogVersion;
+	}
+    }
+
+    private static final class ToolKey {
+	private final Generation generation;
+	private final String toolCode;
+
+	private ToolKey(Generation generation, String toolCode) {
+	    this.generation = generation;
+	    this.toolCode = toolCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+	    if (!(obj instanceof ToolKey)) {
+		return false;
+	    }
+	    ToolKey other = (ToolKey) obj;
+	    return generation == other.generation && toolCode.equals(other.toolCode);
+	}
+
+	@Override
+	public int hashCode() {
+	    return 31 * System.identityHashCode(generation) + toolCode.hashCode();
+	}
+    }
+
+    private static final class ChargeableDaysSnapshot {
+	private final Map<Tool.Type, ChargeableDaysDO> byType;
+	private final long loadedAtNanos;
+
+	private ChargeableDaysSnapshot(Map<Tool.Type, ChargeableDaysDO> byType, long loadedAtNanos) {
+	    this.byType = byType;
+	    this.loadedAtNanos = loadedAtNanos;
+	}
+    }
+}
@@ -1,6 +1,7 @@
 package cmiller.interview.internal.data.access.impl;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -12,21 +13,27 @@ import cmiller.interview.internal.data.access.DataRetrievalService;
 
 public class InMemoryDataRetrievalService implements DataRetrievalService {
 
-    private Map<String, Tool> toolByCode;
-    private Map<Tool.Type, ChargeableDaysDO> chargeableDaysByType;
+    // populated once, and only read afterwards, so instances may be shared across
+    // threads
+    private final Map<String, Tool> toolByCode;
+    private final Map<Tool.Type, ChargeableDaysDO> chargeableDaysByType;
 
     public InMemoryDataRetrievalService() {
-	populateDatabase();
+	this.toolByCode = Collections.unmodifiableMap(populateTools());
+	this.chargeableDaysByType = Collections.unmodifiableMap(populateChargeableDays());
     }
 
-    private void populateDatabase() {
-	this.toolByCode = Arrays
+    private static Map<String, Tool> populateTools() {
+	return Arrays
 		.asList(createNewToolFromDataset("CHNS", "Chainsaw", "Stihl"),
 			createNewToolFromDataset("LADW", "Ladder", "Werner"),
 			createNewToolFromDataset("JAKD", "Jackhammer", "DeWalt"),
 			createNewToolFromDataset("JAKR", "Jackhammer", "Ridgid"))
 		.stream().collect(Collectors.toMap(Tool::getCode, Function.identity()));
-	this.chargeableDaysByType = Arrays
+    }
+
+    private static Map<Tool.Type, ChargeableDaysDO> populateChargeableDays() {
+	return Arrays
 		.asList(newChargeableDaysDO(Tool.Type.LADDER, 199, "Yes", "Yes", "No"),
 			newChargeableDaysDO(Tool.Type.CHAINSAW, 149, "Yes", "No", "Yes"),
 			newChargeableDaysDO(Tool.Type.JACKHAMMER, 299, "Yes", "No", "No"))
@@ -0,0 +1,204 @@
+package cmiller.interview.internal.data.access.impl;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.ToolDO;
+import cmiller.interview.internal.data.access.DataRetrievalService;
+import cmiller.interview.internal.data.catalog.BinaryCatalogFormat;
+import cmiller.interview.internal.data.catalog.BinaryCatalogWriter;
+
+/**
+ * Reads tools from a {@link BinaryCatalogFormat binary catalog} written by the
+ * {@link BinaryCatalogWriter}. The file is memory mapped, and a lookup only
+ * touches the index slots it probes and the matching record, so opening the
+ * catalog and the heap it uses do not grow with the number of tools. Tools are
+ * built on every lookup, and only for the requested code.
+ * <p>
+ * The mapped buffer is only read with absolute gets, so instances may be
+ * shared across threads.
+ */
+public class MappedCatalogDataRetrievalService implements DataRetrievalService, AutoCloseable {
+    private static final Tool.Type[] TOOL_TYPES = Tool.Type.values();
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long catalogVersion;
+    private final int toolCount;
+    private final int chargeableDaysCount;
+    private final int chargeableDaysOffset;
+    private final int indexOffset;
+    private final int indexMask;
+    // decoded on first request, there are only a handful of tool types
+    private final AtomicReferenceArray<ChargeableDaysDO> chargeableDaysByType = new AtomicReferenceArray<>(
+	    TOOL_TYPES.length);
+
+    private MappedCatalogDataRetrievalService(Path path, MappedByteBuffer buffer) throws IOException {
+	this.path = path;
+	this.buffer = buffer;
+	if (buffer.capacity() < BinaryCatalogFormat.HEADER_SIZE
+		|| buffer.getInt(BinaryCatalogFormat.HEADER_MAGIC) != BinaryCatalogFormat.MAGIC) {
+	    throw new IOException(path + " is not a tool catalog");
+	}
+	short formatVersion = buffer.getShort(BinaryCatalogFormat.HEADER_FORMAT_VERSION);
+	if (formatVersion != BinaryCatalogFormat.FORMAT_VERSION) {
+	    throw new IOException("Unsupported format version " + formatVersion + " of tool catalog " + path);
+	}
+
+	this.catalogVersion = buffer.getLong(BinaryCatalogFormat.HEADER_CATALOG_VERSION);
+	this.toolCount = buffer.getInt(BinaryCatalogFormat.HEADER_TOOL_COUNT);
+	this.chargeableDaysCount = buffer.getInt(BinaryCatalogFormat.HEADER_CHARGEABLE_DAYS_COUNT);
+	this.chargeableDaysOffset = (int) buffer.getLong(BinaryCatalogFormat.HEADER_CHARGEABLE_DAYS_OFFSET);
+	this.indexOffset = (int) buffer.getLong(BinaryCatalogFormat.HEADER_INDEX_OFFSET);
+	int indexCapacity = buffer.getInt(BinaryCatalogFormat.HEADER_INDEX_CAPACITY);
+	if (Integer.bitCount(indexCapacity) != 1 || (long) indexOffset
+		+ (long) indexCapacity * BinaryCatalogFormat.INDEX_SLOT_SIZE > buffer.capacity()) {
+	    throw new IOException("Tool catalog " + path + " is corrupt");
+	}
+	this.indexMask = indexCapacity - 1;
+    }
+
+    /**
+     * Maps the catalog, reading only its header.
+     *
+     * @throws IOException if the file cannot be read, or is not a supported tool
+     *                     catalog
+     */
+    public static MappedCatalogDataRetrievalService open(Path path) throws IOException {
+	try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+	    if (channel.size() > Integer.MAX_VALUE) {
+		throw new IOException("Tool catalog " + path + " is too large to map");
+	    }
+	    // the mapping stays valid after the channel is closed
+	    return new MappedCatalogDataRetrievalService(path,
+		    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+	}
+    }
+
+    @Override
+    public Tool getToolByCode(String toolCode) {
+	if (toolCode == null) {
+	    return null;
+	}
+	int recordOffset = findRecord(toolCode);
+	return recordOffset < 0 ? null : readTool(recordOffset);
+    }
+
+    @Override
+    public ChargeableDaysDO getChargeableDaysByToolType(Tool.Type toolType) {
+	if (toolType == null) {
+	    return null;
+	}
+	ChargeableDaysDO chargeableDaysDO = chargeableDaysByType.get(toolType.ordinal());
+	if (chargeableDaysDO == null) {
+	    chargeableDaysDO = readChargeableDays(toolType);
+	    if (chargeableDaysDO != null) {
+		chargeableDaysByType.compareAndSet(toolType.ordinal(), null, chargeableDaysDO);
+	    }
+	}
+	return chargeableDaysDO;
+    }
+
+    /**
+     * Builds every tool of the catalog, in index order, passing each to the
+     * consumer without retaining it.
+     */
+    public void forEachTool(Consumer<? super Tool> consumer) {
+	for (int slot = 0; slot <= indexMask; slot++) {
+	    int reference = buffer.getInt(slotOffset(slot) + Integer.BYTES);
+	    if (reference != BinaryCatalogFormat.EMPTY_SLOT) {
+		consumer.accept(readTool(reference - 1));
+	    }
+	}
+    }
+
+    public void forEachChargeableDays(Consumer<? super ChargeableDaysDO> consumer) {
+	for (int i = 0; i < chargeableDaysCount; i++) {
+	    consumer.accept(readChargeableDaysRecord(
+		    chargeableDaysOffset + i * BinaryCatalogFormat.CHARGEABLE_DAYS_RECORD_SIZE));
+	}
+    }
+
+    public Path getPath() {
+	return path;
+    }
+
+    @Override
+    public long getCatalogVersion() {
+	return catalogVersion;
+    }
+
+    public int getToolCount() {
+	return toolCount;
+    }
+
+    /**
+     * The mapping is released by the garbage collector once the service is
+     * unreachable. There is nothing to close eagerly, this exists so the service
+     * can be managed like the other closeable dependencies.
+     */
+    @Override
+    public void close() {
+    }
+
+    private int findRecord(String toolCode) {
+	int hash = BinaryCatalogFormat.hash(toolCode);
+	int slot = hash & indexMask;
+	while (true) {
+	    int slotOffset = slotOffset(slot);
+	    int reference = buffer.getInt(slotOffset + Integer.BYTES);
+	    if (reference == BinaryCatalogFormat.EMPTY_SLOT) {
+		return -1;
+	    }
+	    if (buffer.getInt(slotOffset) == hash
+		    && BinaryCatalogFormat.codeEquals(buffer, reference - 1, toolCode)) {
+		return reference - 1;
+	    }
+	    slot = (slot + 1) & indexMask;
+	}
+    }
+
+    private int slotOffset(int slot) {
+	return indexOffset + slot * BinaryCatalogFormat.INDEX_SLOT_SIZE;
+    }
+
+    private Tool readTool(int recordOffset) {
+	String code = BinaryCatalogFormat.readString(buffer, recordOffset);
+	int typeOffset = recordOffset + Short.BYTES + (buffer.getShort(recordOffset) & 0xffff);
+	String brand = BinaryCatalogFormat.readString(buffer, typeOffset + Byte.BYTES);
+	return new ToolDO.Builder().code(code).type(toolTypeOf(buffer.get(typeOffset))).brand(brand).build();
+    }
+
+    private ChargeableDaysDO readChargeableDays(Tool.Type toolType) {
+	for (int i = 0; i < chargeableDaysCount; i++) {
+	    int recordOffset = chargeableDaysOffset + i * BinaryCatalogFormat.CHARGEABLE_DAYS_RECORD_SIZE;
+	    if (buffer.get(recordOffset) == toolType.ordinal()) {
+		return readChargeableDaysRecord(recordOffset);
+	    }
+	}
+	return null;
+    }
+
+    private ChargeableDaysDO readChargeableDaysRecord(int recordOffset) {
+	Tool.Type toolType = toolTypeOf(buffer.get(recordOffset));
+	long dailyCharge = buffer.getLong(recordOffset + Byte.BYTES);
+	int flags = buffer.get(recordOffset + Byte.BYTES + Long.BYTES);
+	return new ChargeableDaysDO(toolType, dailyCharge, (flags & BinaryCatalogFormat.FLAG_WEEKDAY_CHARGE) != 0,
+		(flags & BinaryCatalogFormat.FLAG_WEEKEND_CHARGE) != 0,
+		(flags & BinaryCatalogFormat.FLAG_HOLIDAY_CHARGE) != 0);
+    }
+
+    private Tool.Type toolTypeOf(byte ordinal) {
+	if (ordinal < 0 || ordinal >= TOOL_TYPES.length) {
+	    throw new IllegalStateException("Tool catalog " + path + " has an unknown tool type " + ordinal);
+	}
+	return TOOL_TYPES[ordinal];
+    }
+}
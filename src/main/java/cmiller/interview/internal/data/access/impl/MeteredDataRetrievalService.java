@@ -0,0 +1,75 @@
+package cmiller.interview.internal.data.access.impl;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.access.DataRetrievalService;
+import cmiller.interview.internal.metrics.ToolRentalMetrics;
+
+/**
+ * Records the latency of every lookup of a delegate {@link DataRetrievalService}
+ * to the {@link ToolRentalMetrics}. Lookups of the delegate's
+ * {@link #snapshot() snapshots} are recorded too.
+ */
+public class MeteredDataRetrievalService implements DataRetrievalService, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(MeteredDataRetrievalService.class.getName());
+
+    private final DataRetrievalService delegate;
+    private final ToolRentalMetrics metrics;
+
+    public MeteredDataRetrievalService(DataRetrievalService delegate, ToolRentalMetrics metrics) {
+	this.delegate = delegate;
+	this.metrics = metrics;
+    }
+
+    @Override
+    public Tool getToolByCode(String toolCode) {
+	long startNanos = System.nanoTime();
+	try {
+	    return delegate.getToolByCode(toolCode);
+	} finally {
+	    metrics.recordToolLookup(System.nanoTime() - startNanos);
+	}
+    }
+
+    @Override
+    public ChargeableDaysDO getChargeableDaysByToolType(Tool.Type toolType) {
+	long startNanos = System.nanoTime();
+	try {
+	    return delegate.getChargeableDaysByToolType(toolType);
+	} finally {
+	    metrics.recordChargeableDaysLookup(System.nanoTime() - startNanos);
+	}
+    }
+
+    @Override
+    public DataRetrievalService snapshot() {
+	DataRetrievalService snapshot = delegate.snapshot();
+	return snapshot == delegate ? this : new MeteredDataRetrievalService(snapshot, metrics);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+	return delegate.getCatalogVersion();
+    }
+
+    public DataRetrievalService getDelegate() {
+	return delegate;
+    }
+
+    @Override
+    public void close() {
+	if (delegate instanceof AutoCloseable) {
+	    try {
+		((AutoCloseable) delegate).close();
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		LOGGER.log(Level.WARNING, "Interrupted closing " + delegate, e);
+	    } catch (Exception e) {
+		LOGGER.log(Level.WARNING, "Failed to close " + delegate, e);
+	    }
+	}
+    }
+}
@@ -0,0 +1,154 @@
+package cmiller.interview.internal.data.access.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.access.DataRetrievalService;
+
+/**
+ * Serves a {@link MappedCatalogDataRetrievalService tool catalog} file, and
+ * picks up new versions of the file without restarting. A background thread
+ * polls the file, opens each new version as an immutable snapshot, and swaps it
+ * in with a single atomic reference update. Lookups only read the current
+ * reference, so they never wait on a reload, and a checkout which took a
+ * {@link #snapshot()} finishes against that version even if a newer one is
+ * swapped in meanwhile.
+ * <p>
+ * Catalogs should be replaced by moving a complete file into place, as the
+ * {@link cmiller.interview.internal.data.catalog.BinaryCatalogWriter} does. A
+ * file which fails to open is logged, and the current snapshot is kept.
+ */
+public class ReloadingDataRetrievalService implements DataRetrievalService, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ReloadingDataRetrievalService.class.getName());
+
+    private final Path path;
+    private final AtomicReference<MappedCatalogDataRetrievalService> current;
+    private final ScheduledExecutorService poller;
+    // identifies the file version of the current snapshot, guarded by "this"
+    private FileVersion loadedFileVersion;
+
+    /**
+     * Opens the catalog, and polls it for changes at the interval.
+     *
+     * @throws IOException if the catalog cannot be opened
+     */
+    public ReloadingDataRetrievalService(Path path, long pollInterval, TimeUnit unit) throws IOException {
+	this.path = path;
+	this.loadedFileVersion = FileVersion.of(path);
+	this.current = new AtomicReference<>(MappedCatalogDataRetrievalService.open(path));
+	this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+	    Thread thread = new Thread(runnable, "catalog-reload-" + path.getFileName());
+	    thread.setDaemon(true);
+	    return thread;
+	});
+	poller.scheduleWithFixedDelay(this::reloadIfChanged, pollInterval, pollInterval, unit);
+    }
+
+    @Override
+    public Tool getToolByCode(String toolCode) {
+	return current.get().getToolByCode(toolCode);
+    }
+
+    @Override
+    public ChargeableDaysDO getChargeableDaysByToolType(Tool.Type toolType) {
+	return current.get().getChargeableDaysByToolType(toolType);
+    }
+
+    /**
+     * @return the current catalog snapshot, which is never changed by later
+     *         reloads
+     */
+    @Override
+    public DataRetrievalService snapshot() {
+	return current.get();
+    }
+
+    @Override
+    public long getCatalogVersion() {
+	return current.get().getCatalogVersion();
+    }
+
+    /**
+     * Opens the catalog file and swaps it in, whether or not it changed.
+     *
+     * @return the catalog version now being served
+     * @throws IOException if the catalog cannot be opened, in which case the
+     *                     current snapshot is kept
+     */
+    public synchronized long reload() throws IOException {
+	FileVersion fileVersion = FileVersion.of(path);
+	MappedCatalogDataRetrievalService snapshot = MappedCatalogDataRetrievalService.open(path);
+	MappedCatalogDataRetrievalService previous = current.getAndSet(snapshot);
+	loadedFileVersion = fileVersion;
+	// in-flight checkouts may still read the previous snapshot, its mapping is
+	// released once they no longer reference it
+	previous.close();
+	LOGGER.info(() -> "Loaded version " + snapshot.getCatalogVersion() + " of tool catalog " + path + " with "
+		+ snapshot.getToolCount() + " tools");
+	return snapshot.getCatalogVersion();
+    }
+
+    @Override
+    public void close() {
+	poller.shutdownNow();
+    }
+
+    private synchronized void reloadIfChanged() {
+	try {
+	    if (!FileVersion.of(path).equals(loadedFileVersion)) {
+		reload();
+	    }
+	} catch (NoSuchFileException e) {
+	    LOGGER.warning(() -> "Tool catalog " + path + " is missing, keeping version " + getCatalogVersion());
+	} catch (IOException | RuntimeException e) {
+	    LOGGER.log(Level.WARNING, "Failed to reload tool catalog " + path + ", keeping version "
+		    + getCatalogVersion(), e);
+	}
+    }
+
+    /**
+     * The attributes which change when a catalog file is rewritten or replaced
+     */
+    private static final class FileVersion {
+	private final Object fileKey;
+	private final long lastModifiedMillis;
+	private final long size;
+
+	private FileVersion(BasicFileAttributes attributes) {
+	    this.fileKey = attributes.fileKey();
+	    this.lastModifiedMillis = attributes.lastModifiedTime().toMillis();
+	    this.size = attributes.size();
+	}
+
+	static FileVersion of(Path path) throws IOException {
+	    return new FileVersion(Files.readAttributes(path, BasicFileAttributes.class));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+	    if (!(obj instanceof FileVersion)) {
+		return false;
+	    }
+	    FileVersion other = (FileVersion) obj;
+	    return Objects.equals(fileKey, other.fileKey) && lastModifiedMillis == other.lastModifiedMillis
+		    && size == other.size;
+	}
+
+	@Override
+	public int hashCode() {
+	    return Objects.hash(fileKey, lastModifiedMillis, size);
+	}
+    }
+}
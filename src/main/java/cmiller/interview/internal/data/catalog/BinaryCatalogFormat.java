@@ -0,0 +1,140 @@
+package cmiller.interview.internal.data.catalog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout of the binary tool catalog. All numbers are big-endian, and all
+ * offsets are from the start of the file.
+ *
+ * <pre>
+ * header            64 bytes, see the HEADER_* offsets
+ * tool records      one per written tool:
+ *                     short  code length, then the UTF-8 code
+ *                     byte   Tool.Type ordinal
+ *                     short  brand length, then the UTF-8 brand
+ * chargeable days   CHARGEABLE_DAYS_RECORD_SIZE bytes per tool type:
+ *                     byte   Tool.Type ordinal
+ *                     long   daily charge, in cents
+ *                     byte   flags: weekday, weekend, holiday charge
+ * index             open-addressing hash table of INDEX_SLOT_SIZE byte slots,
+ *                   with a power of two capacity and linear probing:
+ *                     int    hash of the tool code
+ *                     int    offset of the tool record + 1, or 0 if empty
+ * </pre>
+ *
+ * Tool types are stored by ordinal, so {@link cmiller.interview.common.Tool.Type}
+ * constants may only be appended to, or the {@link #FORMAT_VERSION} must
+ * change.
+ */
+public final class BinaryCatalogFormat {
+    public static final int MAGIC = 0x54524354; // "TRCT"
+    public static final short FORMAT_VERSION = 1;
+
+    public static final int HEADER_SIZE = 64;
+    public static final int HEADER_MAGIC = 0;
+    public static final int HEADER_FORMAT_VERSION = 4;
+    public static final int HEADER_CATALOG_VERSION = 8;
+    public static final int HEADER_TOOL_COUNT = 16;
+    public static final int HEADER_CHARGEABLE_DAYS_COUNT = 20;
+    public static final int HEADER_CHARGEABLE_DAYS_OFFSET = 24;
+    public static final int HEADER_INDEX_OFFSET = 32;
+    public static final int HEADER_INDEX_CAPACITY = 40;
+
+    public static final int CHARGEABLE_DAYS_RECORD_SIZE = 10;
+    public static final int FLAG_WEEKDAY_CHARGE = 1;
+    public static final int FLAG_WEEKEND_CHARGE = 1 << 1;
+    public static final int FLAG_HOLIDAY_CHARGE = 1 << 2;
+
+    public static final int INDEX_SLOT_SIZE = 8;
+    public static final int EMPTY_SLOT = 0;
+
+    private static final int FNV_OFFSET_BASIS = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private BinaryCatalogFormat() {
+    }
+
+    /**
+     * @return the index capacity for the number of tools, keeping the table at
+     *         most half full
+     */
+    public static int indexCapacity(long toolCount) {
+	long capacity = Long.highestOneBit(Math.max(2, toolCount * 2 - 1)) << 1;
+	if (capacity > Integer.MAX_VALUE / INDEX_SLOT_SIZE) {
+	    throw new IllegalArgumentException("Too many tools for a single catalog: " + toolCount);
+	}
+	return (int) capacity;
+    }
+
+    /**
+     * @return the FNV-1a hash of the code's UTF-8 bytes. ASCII codes are hashed
+     *         without allocating.
+     */
+    public static int hash(String code) {
+	if (!isAscii(code)) {
+	    return hash(code.getBytes(StandardCharsets.UTF_8));
+	}
+	int hash = FNV_OFFSET_BASIS;
+	for (int i = 0; i < code.length(); i++) {
+	    hash = (hash ^ code.charAt(i)) * FNV_PRIME;
+	}
+	return hash;
+    }
+
+    public static int hash(byte[] utf8) {
+	int hash = FNV_OFFSET_BASIS;
+	for (byte b : utf8) {
+	    hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+	}
+	return hash;
+    }
+
+    /**
+     * @return whether the UTF-8 encoded code stored at the offset equals the code
+     */
+    public static boolean codeEquals(ByteBuffer buffer, int recordOffset, String code) {
+	int length = buffer.getShort(recordOffset) & 0xffff;
+	int start = recordOffset + Short.BYTES;
+	if (isAscii(code)) {
+	    if (length != code.length()) {
+		return false;
+	    }
+	    for (int i = 0; i < length; i++) {
+		if (buffer.get(start + i) != code.charAt(i)) {
+		    return false;
+		}
+	    }
+	    return true;
+	}
+
+	byte[] utf8 = code.getBytes(StandardCharsets.UTF_8);
+	if (length != utf8.length) {
+	    return false;
+	}
+	for (int i = 0; i < length; i++) {
+	    if (buffer.get(start + i) != utf8[i]) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    public static String readString(ByteBuffer buffer, int offset) {
+	int length = buffer.getShort(offset) & 0xffff;
+	byte[] utf8 = new byte[length];
+	for (int i = 0; i < length; i++) {
+	    utf8[i] = buffer.get(offset + Short.BYTES + i);
+	}
+	return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isAscii(String string) {
+	for (int i = 0; i < string.length(); i++) {
+	    if (string.charAt(i) >= 0x80) {
+		return false;
+	    }
+	}
+	return true;
+    }
+}
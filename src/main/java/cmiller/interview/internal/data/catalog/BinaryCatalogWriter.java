@@ -0,0 +1,261 @@
+package cmiller.interview.internal.data.catalog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * Writes a {@link BinaryCatalogFormat binary tool catalog}. Tool records are
+ * streamed to disk as they are written, and only a hash and an offset per tool
+ * are spilled to a temporary file for building the index, so the heap used is
+ * independent of the size of the catalog.
+ * <p>
+ * The catalog is written to a temporary file next to the output, and only moved
+ * into place by {@link #finish()}, so readers never see a partially written
+ * catalog. Closing the writer without finishing it discards the output. When a
+ * tool code is written more than once, the last record wins.
+ * <p>
+ * Not thread safe.
+ */
+public class BinaryCatalogWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path output;
+    private final Path temporaryOutput;
+    private final Path spillFile;
+    private final long catalogVersion;
+    private final FileChannel channel;
+    private final DataOutputStream records;
+    private final DataOutputStream spill;
+    private final Map<Tool.Type, ChargeableDaysDO> chargeableDaysByType = new EnumMap<>(Tool.Type.class);
+
+    private long position = BinaryCatalogFormat.HEADER_SIZE;
+    private long writtenToolCount;
+    private int toolCount;
+    private int duplicateToolCount;
+    private boolean finished;
+    private boolean closed;
+
+    public BinaryCatalogWriter(Path output, long catalogVersion) throws IOException {
+	Path directory = output.toAbsolutePath().getParent();
+	String name = output.getFileName().toString();
+	this.output = output;
+	this.catalogVersion = catalogVersion;
+	this.temporaryOutput = Files.createTempFile(directory, name, ".tmp");
+	this.spillFile = Files.createTempFile(directory, name, ".index.tmp");
+	this.channel = FileChannel.open(temporaryOutput, StandardOpenOption.READ, StandardOpenOption.WRITE);
+	channel.position(BinaryCatalogFormat.HEADER_SIZE);
+	this.records = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+	this.spill = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile), BUFFER_SIZE));
+    }
+
+    public void writeTool(Tool tool) throws IOException {
+	ensureWritable();
+	if (position > Integer.MAX_VALUE) {
+	    throw new IOException("Catalog exceeds the maximum size of " + Integer.MAX_VALUE + " bytes");
+	}
+
+	byte[] code = encode(tool.getCode());
+	byte[] brand = encode(tool.getBrand());
+	spill.writeInt(BinaryCatalogFormat.hash(code));
+	spill.writeInt((int) position);
+
+	records.writeShort(code.length);
+	records.write(code);
+	records.writeByte(tool.getType().ordinal());
+	records.writeShort(brand.length);
+	records.write(brand);
+	position += Short.BYTES + code.length + Byte.BYTES + Short.BYTES + brand.length;
+	writtenToolCount++;
+    }
+
+    /**
+     * Sets the chargeable days information of a tool type, replacing any
+     * previously written for the same type.
+     */
+    public void writeChargeableDays(ChargeableDaysDO chargeableDaysDO) {
+	ensureWritable();
+	chargeableDaysByType.put(chargeableDaysDO.getToolType(), chargeableDaysDO);
+    }
+
+    /**
+     * Writes the chargeable days and the index, and moves the catalog into
+     * place.
+     *
+     * @return the number of distinct tools in the catalog
+     */
+    public int finish() throws IOException {
+	ensureWritable();
+	try {
+	    long chargeableDaysOffset = position;
+	    for (ChargeableDaysDO chargeableDaysDO : chargeableDaysByType.values()) {
+		records.writeByte(chargeableDaysDO.getToolType().ordinal());
+		records.writeLong(chargeableDaysDO.getDailyCharge());
+		records.writeByte(flagsOf(chargeableDaysDO));
+		position += BinaryCatalogFormat.CHARGEABLE_DAYS_RECORD_SIZE;
+	    }
+	    records.flush();
+	    spill.close();
+
+	    long indexOffset = position;
+	    int indexCapacity = BinaryCatalogFormat.indexCapacity(writtenToolCount);
+	    long size = indexOffset + (long) indexCapacity * BinaryCatalogFormat.INDEX_SLOT_SIZE;
+	    if (size > Integer.MAX_VALUE) {
+		throw new IOException("Catalog exceeds the maximum size of " + Integer.MAX_VALUE + " bytes");
+	    }
+
+	    // mapping past the end grows the file, and the new index region reads as zeros,
+	    // i.e. empty slots
+	    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+	    buildIndex(buffer, (int) indexOffset, indexCapacity);
+
+	    buffer.putInt(BinaryCatalogFormat.HEADER_MAGIC, BinaryCatalogFormat.MAGIC);
+	    buffer.putShort(BinaryCatalogFormat.HEADER_FORMAT_VERSION, BinaryCatalogFormat.FORMAT_VERSION);
+	    buffer.putLong(BinaryCatalogFormat.HEADER_CATALOG_VERSION, catalogVersion);
+	    buffer.putInt(BinaryCatalogFormat.HEADER_TOOL_COUNT, toolCount);
+	    buffer.putInt(BinaryCatalogFormat.HEADER_CHARGEABLE_DAYS_COUNT, chargeableDaysByType.size());
+	    buffer.putLong(BinaryCatalogFormat.HEADER_CHARGEABLE_DAYS_OFFSET, chargeableDaysOffset);
+	    buffer.putLong(BinaryCatalogFormat.HEADER_INDEX_OFFSET, indexOffset);
+	    buffer.putInt(BinaryCatalogFormat.HEADER_INDEX_CAPACITY, indexCapacity);
+	    buffer.force();
+	    channel.close();
+
+	    moveIntoPlace();
+	    finished = true;
+	    return toolCount;
+	} finally {
+	    close();
+	}
+    }
+
+    /**
+     * @return the number of tool records that were replaced by a later record
+     *         with the same code
+     */
+    public int getDuplicateToolCount() {
+	return duplicateToolCount;
+    }
+
+    public long getCatalogVersion() {
+	return catalogVersion;
+    }
+
+    /**
+     * Releases the files of the writer. Unless {@link #finish()} completed, the
+     * partially written catalog is deleted.
+     */
+    @Override
+    public void close() throws IOException {
+	if (closed) {
+	    return;
+	}
+	closed = true;
+	try {
+	    spill.close();
+	    channel.close();
+	} finally {
+	    Files.deleteIfExists(spillFile);
+	    if (!finished) {
+		Files.deleteIfExists(temporaryOutput);
+	    }
+	}
+    }
+
+    private void buildIndex(MappedByteBuffer buffer, int indexOffset, int indexCapacity) throws IOException {
+	int mask = indexCapacity - 1;
+	try (DataInputStream entries = new DataInputStream(
+		new BufferedInputStream(Files.newInputStream(spillFile), BUFFER_SIZE))) {
+	    for (long i = 0; i < writtenToolCount; i++) {
+		int hash = entries.readInt();
+		int recordOffset = entries.readInt();
+
+		int slot = hash & mask;
+		while (true) {
+		    int slotOffset = indexOffset + slot * BinaryCatalogFormat.INDEX_SLOT_SIZE;
+		    int storedReference = buffer.getInt(slotOffset + Integer.BYTES);
+		    if (storedReference == BinaryCatalogFormat.EMPTY_SLOT) {
+			buffer.putInt(slotOffset, hash);
+			buffer.putInt(slotOffset + Integer.BYTES, recordOffset + 1);
+			toolCount++;
+			break;
+		    }
+		    if (buffer.getInt(slotOffset) == hash && sameCode(buffer, storedReference - 1, recordOffset)) {
+			buffer.putInt(slotOffset + Integer.BYTES, recordOffset + 1);
+			duplicateToolCount++;
+			break;
+		    }
+		    slot = (slot + 1) & mask;
+		}
+	    }
+	} catch (EOFException e) {
+	    throw new IOException("Index spill file " + spillFile + " is truncated", e);
+	}
+    }
+
+    private void moveIntoPlace() throws IOException {
+	try {
+	    Files.move(temporaryOutput, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	} catch (AtomicMoveNotSupportedException e) {
+	    Files.move(temporaryOutput, output, StandardCopyOption.REPLACE_EXISTING);
+	}
+    }
+
+    private static boolean sameCode(MappedByteBuffer buffer, int firstOffset, int secondOffset) {
+	int length = buffer.getShort(firstOffset) & 0xffff;
+	if (length != (buffer.getShort(secondOffset) & 0xffff)) {
+	    return false;
+	}
+	for (int i = Short.BYTES; i < Short.BYTES + length; i++) {
+	    if (buffer.get(firstOffset + i) != buffer.get(secondOffset + i)) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    private static int flagsOf(ChargeableDaysDO chargeableDaysDO) {
+	int flags = 0;
+	if (chargeableDaysDO.isWeekdayCharge()) {
+	    flags |= BinaryCatalogFormat.FLAG_WEEKDAY_CHARGE;
+	}
+	if (chargeableDaysDO.isWeekendCharge()) {
+	    flags |= BinaryCatalogFormat.FLAG_WEEKEND_CHARGE;
+	}
+	if (chargeableDaysDO.isHolidayCharge()) {
+	    flags |= BinaryCatalogFormat.FLAG_HOLIDAY_CHARGE;
+	}
+	return flags;
+    }
+
+    private static byte[] encode(String value) {
+	byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+	if (utf8.length > 0xffff) {
+	    throw new IllegalArgumentException("Value is too long for the catalog: " + utf8.length + " bytes");
+	}
+	return utf8;
+    }
+
+    private void ensureWritable() {
+	if (closed || finished) {
+	    throw new IllegalStateException("Catalog writer for " + output + " is closed");
+	}
+    }
+}
@@ -0,0 +1,20 @@
+package cmiller.interview.internal.data.catalog;
+
+/**
+ * A row of a catalog export could not be parsed or failed validation. The row
+ * is skipped, and the import continues with the next one.
+ */
+public class CatalogFormatException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final long lineNumber;
+
+    public CatalogFormatException(long lineNumber, String message) {
+	super("Line " + lineNumber + ": " + message);
+	this.lineNumber = lineNumber;
+    }
+
+    public long getLineNumber() {
+	return lineNumber;
+    }
+}
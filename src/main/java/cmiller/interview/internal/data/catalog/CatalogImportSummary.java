@@ -0,0 +1,84 @@
+package cmiller.interview.internal.data.catalog;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of a {@link CatalogImporter catalog import}.
+ */
+public class CatalogImportSummary {
+    private final long catalogVersion;
+    private final long rowsRead;
+    private final long rowsRejected;
+    private final long copiedToolCount;
+    private final int toolCount;
+    private final int duplicateToolCount;
+    private final long elapsedNanos;
+
+    public CatalogImportSummary(long catalogVersion, long rowsRead, long rowsRejected, long copiedToolCount,
+	    int toolCount, int duplicateToolCount, long elapsedNanos) {
+	this.catalogVersion = catalogVersion;
+	this.rowsRead = rowsRead;
+	this.rowsRejected = rowsRejected;
+	this.copiedToolCount = copiedToolCount;
+	this.toolCount = toolCount;
+	this.duplicateToolCount = duplicateToolCount;
+	this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getCatalogVersion() {
+	return catalogVersion;
+    }
+
+    /**
+     * @return the number of tool and pricing rows read from the exports
+     */
+    public long getRowsRead() {
+	return rowsRead;
+    }
+
+    /**
+     * @return the number of rows which failed validation and were skipped
+     */
+    public long getRowsRejected() {
+	return rowsRejected;
+    }
+
+    /**
+     * @return the number of tools copied from the existing catalog when appending
+     */
+    public long getCopiedToolCount() {
+	return copiedToolCount;
+    }
+
+    /**
+     * @return the number of distinct tools in the written catalog
+     */
+    public int getToolCount() {
+	return toolCount;
+    }
+
+    /**
+     * @return the number of tools which replaced an earlier tool with the same
+     *         code
+     */
+    public int getDuplicateToolCount() {
+	return duplicateToolCount;
+    }
+
+    public long getElapsedNanos() {
+	return elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+	return elapsedNanos == 0 ? 0 : rowsRead * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+	return "CatalogImportSummary [catalogVersion=" + catalogVersion + ", rowsRead=" + rowsRead + ", rowsRejected="
+		+ rowsRejected + ", copiedToolCount=" + copiedToolCount + ", toolCount=" + toolCount
+		+ ", duplicateToolCount=" + duplicateToolCount + ", elapsedMillis="
+		+ TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + ", rowsPerSecond=" + Math.round(getRowsPerSecond())
+		+ "]";
+    }
+}
@@ -0,0 +1,412 @@
+package cmiller.interview.internal.data.catalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.ToolDO;
+import cmiller.interview.internal.data.access.impl.MappedCatalogDataRetrievalService;
+
+/**
+ * Compiles CSV or JSON lines exports of tools and pricing into a
+ * {@link BinaryCatalogFormat binary tool catalog}, which is then read by the
+ * {@link MappedCatalogDataRetrievalService}. Rows are streamed one at a time
+ * into the {@link BinaryCatalogWriter}, so memory use does not depend on the
+ * number of rows.
+ * <p>
+ * Tool rows have the columns {@code code}, {@code type} and {@code brand}.
+ * Pricing rows have the columns {@code type}, {@code dailyCharge} in dollars,
+ * and {@code weekdayCharge}, {@code weekendCharge} and {@code holidayCharge}
+ * as Yes/No or true/false. Rows failing validation are logged and skipped.
+ * <p>
+ * When appending, the tools and pricing of the existing catalog are copied
+ * first, so imported rows replace existing ones with the same tool code or
+ * type. Either way, the new catalog's version is higher than that of the
+ * catalog it replaces, so readers of the catalog see every import as a change.
+ */
+public class CatalogImporter {
+    private static final Logger LOGGER = Logger.getLogger(CatalogImporter.class.getName());
+    private static final int MAX_LOGGED_REJECTIONS = 20;
+    private static final long PROGRESS_INTERVAL_ROWS = 1_000_000;
+
+    public enum Format {
+	CSV, JSON_LINES;
+
+	/**
+	 * @return JSON lines for {@code .jsonl} and {@code .json} files, otherwise CSV
+	 */
+	public static Format of(Path path) {
+	    String name = path.getFileName().toString().toLowerCase();
+	    return name.endsWith(".jsonl") || name.endsWith(".json") ? JSON_LINES : CSV;
+	}
+
+	public static Format fromString(String string) {
+	    if ("csv".equalsIgnoreCase(string)) {
+		return CSV;
+	    }
+	    if ("jsonl".equalsIgnoreCase(string) || "json".equalsIgnoreCase(string)) {
+		return JSON_LINES;
+	    }
+	    throw new IllegalArgumentException("Unknown format: " + string);
+	}
+    }
+
+    private final Path toolsPath;
+    private final Path pricingPath;
+    private final Format format;
+    private final Path outputPath;
+    private final boolean append;
+    private final long catalogVersion;
+
+    private long rowsRead;
+    private long rowsRejected;
+    private long startNanos;
+
+    private CatalogImporter(Builder builder) {
+	this.toolsPath = builder.toolsPath;
+	this.pricingPath = builder.pricingPath;
+	this.format = builder.format;
+	this.outputPath = builder.outputPath;
+	this.append = builder.append;
+	this.catalogVersion = builder.catalogVersion;
+    }
+
+    /**
+     * Runs the import. An importer may only be run once.
+     */
+    public CatalogImportSummary run() throws IOException {
+	if (startNanos != 0) {
+	    throw new IllegalStateException("CatalogImporter has already been run");
+	}
+	startNanos = System.nanoTime();
+
+	MappedCatalogDataRetrievalService existing = append && Files.exists(outputPath)
+		? MappedCatalogDataRetrievalService.open(outputPath)
+		: null;
+	long version = existing != null ? existing.getCatalogVersion() + 1
+		: Math.max(catalogVersion, replacedCatalogVersion() + 1);
+
+	try (BinaryCatalogWriter writer = new BinaryCatalogWriter(outputPath, version)) {
+	    long copiedToolCount = 0;
+	    if (existing != null) {
+		copiedToolCount = copy(existing, writer);
+		LOGGER.info(() -> "Copied " + existing.getToolCount() + " tools from " + outputPath);
+	    }
+	    if (pricingPath != null) {
+		importRows(pricingPath, writer, true);
+	    }
+	    if (toolsPath != null) {
+		importRows(toolsPath, writer, false);
+	    }
+	    int toolCount = writer.finish();
+
+	    CatalogImportSummary summary = new CatalogImportSummary(version, rowsRead, rowsRejected, copiedToolCount,
+		    toolCount, writer.getDuplicateToolCount(), System.nanoTime() - startNanos);
+	    LOGGER.info(() -> "Wrote " + outputPath + ": " + summary);
+	    return summary;
+	} finally {
+	    if (existing != null) {
+		existing.close();
+	    }
+	}
+    }
+
+    /**
+     * @return the version of the catalog at the output path, or 0 if there is
+     *         none or it cannot be read
+     */
+    private long replacedCatalogVersion() {
+	if (!Files.exists(outputPath)) {
+	    return 0;
+	}
+	try (MappedCatalogDataRetrievalService replaced = MappedCatalogDataRetrievalService.open(outputPath)) {
+	    return replaced.getCatalogVersion();
+	} catch (IOException e) {
+	    LOGGER.warning(() -> "Replacing unreadable catalog " + outputPath + ": " + e.getMessage());
+	    return 0;
+	}
+    }
+
+    private static long copy(MappedCatalogDataRetrievalService existing, BinaryCatalogWriter writer)
+	    throws IOException {
+	existing.forEachChargeableDays(writer::writeChargeableDays);
+	long[] copied = new long[1];
+	try {
+	    existing.forEachTool(tool -> {
+		try {
+		    writer.writeTool(tool);
+		    copied[0]++;
+		} catch (IOException e) {
+		    throw new CopyFailedException(e);
+		}
+	    });
+	} catch (CopyFailedException e) {
+	    throw e.getCause();
+	}
+	return copied[0];
+    }
+
+    private void importRows(Path path, BinaryCatalogWriter writer, boolean pricing) throws IOException {
+	try (CatalogRowReader reader = openReader(path)) {
+	    while (true) {
+		Map<String, String> row;
+		try {
+		    row = reader.next();
+		} catch (CatalogFormatException e) {
+		    rowsRead++;
+		    reject(path, e);
+		    continue;
+		}
+		if (row == null) {
+		    return;
+		}
+
+		rowsRead++;
+		try {
+		    if (pricing) {
+			writer.writeChargeableDays(toChargeableDays(row, reader.getLineNumber()));
+		    } else {
+			writer.writeTool(toTool(row, reader.getLineNumber()));
+		    }
+		} catch (CatalogFormatException e) {
+		    reject(path, e);
+		}
+		if (rowsRead % PROGRESS_INTERVAL_ROWS == 0) {
+		    logProgress();
+		}
+	    }
+	}
+    }
+
+    private CatalogRowReader openReader(Path path) throws IOException {
+	BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+	switch (format == null ? Format.of(path) : format) {
+	case JSON_LINES:
+	    return new JsonLinesCatalogRowReader(reader);
+	default:
+	    try {
+		return new CsvCatalogRowReader(reader);
+	    } catch (IOException | RuntimeException e) {
+		reader.close();
+		throw e;
+	    }
+	}
+    }
+
+    static Tool toTool(Map<String, String> row, long lineNumber) {
+	try {
+	    return new ToolDO.Builder().code(row.get("code")).type(toToolType(row.get("type"), lineNumber))
+		    .brand(row.get("brand")).build();
+	} catch (IllegalArgumentException e) {
+	    throw new CatalogFormatException(lineNumber, e.getMessage());
+	}
+    }
+
+    static ChargeableDaysDO toChargeableDays(Map<String, String> row, long lineNumber) {
+	return new ChargeableDaysDO(toToolType(row.get("type"), lineNumber),
+		toCents(row.get("dailyCharge"), lineNumber), toBoolean(row, "weekdayCharge", lineNumber),
+		toBoolean(row, "weekendCharge", lineNumber), toBoolean(row, "holidayCharge", lineNumber));
+    }
+
+    private static Tool.Type toToolType(String value, long lineNumber) {
+	// fromString falls back to OTHER, which would hide a typo in the export
+	Tool.Type type = Tool.Type.fromString(value);
+	if (type == Tool.Type.OTHER && !Tool.Type.OTHER.asString().equalsIgnoreCase(value)) {
+	    throw new CatalogFormatException(lineNumber, "unknown tool type: " + value);
+	}
+	return type;
+    }
+
+    private static long toCents(String dollars, long lineNumber) {
+	if (dollars == null) {
+	    throw new CatalogFormatException(lineNumber, "missing dailyCharge");
+	}
+	try {
+	    long cents = new BigDecimal(dollars.replace("$", "")).movePointRight(2).longValueExact();
+	    if (cents < 0) {
+		throw new CatalogFormatException(lineNumber, "dailyCharge cannot be negative: " + dollars);
+	    }
+	    return cents;
+	} catch (ArithmeticException | NumberFormatException e) {
+	    throw new CatalogFormatException(lineNumber, "invalid dailyCharge: " + dollars);
+	}
+    }
+
+    private static boolean toBoolean(Map<String, String> row, String column, long lineNumber) {
+	String value = row.get(column);
+	if ("Yes".equalsIgnoreCase(value) || "true".equalsIgnoreCase(value)) {
+	    return true;
+	}
+	if ("No".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+	    return false;
+	}
+	throw new CatalogFormatException(lineNumber, "invalid " + column + ": " + value);
+    }
+
+    private void reject(Path path, CatalogFormatException e) {
+	rowsRejected++;
+	if (rowsRejected <= MAX_LOGGED_REJECTIONS) {
+	    LOGGER.warning(() -> "Skipping row of " + path + ". " + e.getMessage());
+	} else if (rowsRejected == MAX_LOGGED_REJECTIONS + 1) {
+	    LOGGER.warning("Too many rejected rows, no longer logging each of them");
+	}
+    }
+
+    private void logProgress() {
+	double seconds = (System.nanoTime() - startNanos) / 1e9;
+	LOGGER.info(() -> "Imported " + rowsRead + " rows, " + Math.round(rowsRead / seconds) + " rows per second");
+    }
+
+    /**
+     * Usage:
+     *
+     * <pre>
+     * CatalogImporter --output &lt;catalog&gt; [--tools &lt;file&gt;] [--pricing &lt;file&gt;]
+     *                 [--format csv|jsonl] [--append] [--catalog-version &lt;n&gt;]
+     * </pre>
+     */
+    public static void main(String[] args) {
+	Builder builder = new Builder();
+	try {
+	    for (int i = 0; i < args.length; i++) {
+		switch (args[i]) {
+		case "--tools":
+		    builder.toolsPath(Paths.get(value(args, ++i)));
+		    break;
+		case "--pricing":
+		    builder.pricingPath(Paths.get(value(args, ++i)));
+		    break;
+		case "--format":
+		    builder.format(Format.fromString(value(args, ++i)));
+		    break;
+		case "--output":
+		    builder.outputPath(Paths.get(value(args, ++i)));
+		    break;
+		case "--append":
+		    builder.append(true);
+		    break;
+		case "--catalog-version":
+		    builder.catalogVersion(Long.parseLong(value(args, ++i)));
+		    break;
+		default:
+		    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+		}
+	    }
+	    builder.validate();
+	} catch (IllegalArgumentException e) {
+	    System.err.println(e.getMessage());
+	    System.err.println("Usage: CatalogImporter --output <catalog> [--tools <file>] [--pricing <file>]"
+		    + " [--format csv|jsonl] [--append] [--catalog-version <n>]");
+	    System.exit(2);
+	    return;
+	}
+
+	try {
+	    CatalogImportSummary summary = builder.build().run();
+	    System.out.println("Imported " + summary.getRowsRead() + " rows (" + summary.getRowsRejected()
+		    + " rejected) into " + summary.getToolCount() + " tools, catalog version "
+		    + summary.getCatalogVersion() + ", " + Math.round(summary.getRowsPerSecond()) + " rows per second");
+	} catch (IOException | RuntimeException e) {
+	    LOGGER.log(Level.SEVERE, "Catalog import failed", e);
+	    System.exit(1);
+	}
+    }
+
+    private static String value(String[] args, int index) {
+	if (index >= args.length) {
+	    throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+	}
+	return args[index];
+    }
+
+    /**
+     * Carries a checked exception out of a {@code forEach} callback.
+     */
+    private static class CopyFailedException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	private CopyFailedException(IOException cause) {
+	    super(cause);
+	}
+
+	@Override
+	public synchronized IOException getCause() {
+	    return (IOException) super.getCause();
+	}
+    }
+
+    public static class Builder {
+	private Path toolsPath;
+	private Path pricingPath;
+	private Format format;
+	private Path outputPath;
+	private boolean append;
+	private long catalogVersion = 1;
+
+	public Builder toolsPath(Path toolsPath) {
+	    this.toolsPath = toolsPath;
+	    return this;
+	}
+
+	public Builder pricingPath(Path pricingPath) {
+	    this.pricingPath = pricingPath;
+	    return this;
+	}
+
+	/**
+	 * The format of the exports. When not set, it is chosen by each file's
+	 * extension.
+	 */
+	public Builder format(Format format) {
+	    this.format = format;
+	    return this;
+	}
+
+	public Builder outputPath(Path outputPath) {
+	    this.outputPath = outputPath;
+	    return this;
+	}
+
+	/**
+	 * Add to the existing catalog at the output path, if there is one, instead of
+	 * replacing it.
+	 */
+	public Builder append(boolean append) {
+	    this.append = append;
+	    return this;
+	}
+
+	/**
+	 * The version of a new catalog. It is raised above the version of a catalog
+	 * being replaced, and appending always increments the version of the
+	 * existing catalog instead.
+	 */
+	public Builder catalogVersion(long catalogVersion) {
+	    this.catalogVersion = catalogVersion;
+	    return this;
+	}
+
+	public CatalogImporter build() {
+	    validate();
+	    return new CatalogImporter(this);
+	}
+
+	private void validate() {
+	    if (outputPath == null) {
+		throw new IllegalArgumentException("CatalogImporter.outputPath cannot be null");
+	    }
+	    if (toolsPath == null && pricingPath == null) {
+		throw new IllegalArgumentException("CatalogImporter needs a toolsPath and/or a pricingPath");
+	    }
+	}
+    }
+}
@@ -0,0 +1,25 @@
+package cmiller.interview.internal.data.catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Streams the rows of a catalog export one at a time, so only the current row
+ * is held in memory.
+ */
+public interface CatalogRowReader extends Closeable {
+
+    /**
+     * @return the next row, keyed by column name, or null once every row has been
+     *         read. The map may be reused by the following call.
+     * @throws CatalogFormatException if the row cannot be parsed
+     */
+    Map<String, String> next() throws IOException;
+
+    /**
+     * @return the line number of the row last returned by {@link #next()},
+     *         starting from 1
+     */
+    long getLineNumber();
+}
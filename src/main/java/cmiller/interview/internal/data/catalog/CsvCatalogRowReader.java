@@ -0,0 +1,102 @@
+package cmiller.interview.internal.data.catalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a CSV export whose first line names the columns. Fields may be quoted,
+ * with {@code ""} escaping a quote, but may not span lines. Blank lines are
+ * skipped.
+ */
+public class CsvCatalogRowReader implements CatalogRowReader {
+    private final BufferedReader reader;
+    private final List<String> columns;
+    private final List<String> fields = new ArrayList<>();
+    private final Map<String, String> row = new HashMap<>();
+    private final StringBuilder field = new StringBuilder();
+    private long lineNumber;
+
+    public CsvCatalogRowReader(BufferedReader reader) throws IOException {
+	this.reader = reader;
+	String header = readLine();
+	if (header == null) {
+	    throw new CatalogFormatException(1, "missing the header line");
+	}
+	parse(header);
+	this.columns = new ArrayList<>(fields);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+	String line;
+	do {
+	    line = readLine();
+	    if (line == null) {
+		return null;
+	    }
+	} while (line.trim().isEmpty());
+
+	parse(line);
+	if (fields.size() != columns.size()) {
+	    throw new CatalogFormatException(lineNumber,
+		    "expected " + columns.size() + " fields but found " + fields.size());
+	}
+	row.clear();
+	for (int i = 0; i < columns.size(); i++) {
+	    row.put(columns.get(i), fields.get(i));
+	}
+	return row;
+    }
+
+    @Override
+    public long getLineNumber() {
+	return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+	reader.close();
+    }
+
+    private String readLine() throws IOException {
+	String line = reader.readLine();
+	if (line != null) {
+	    lineNumber++;
+	}
+	return line;
+    }
+
+    private void parse(String line) {
+	fields.clear();
+	field.setLength(0);
+	boolean quoted = false;
+	for (int i = 0; i < line.length(); i++) {
+	    char c = line.charAt(i);
+	    if (quoted) {
+		if (c != '"') {
+		    field.append(c);
+		} else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+		    field.append('"');
+		    i++;
+		} else {
+		    quoted = false;
+		}
+	    } else if (c == '"') {
+		quoted = true;
+	    } else if (c == ',') {
+		fields.add(field.toString().trim());
+		field.setLength(0);
+	    } else {
+		field.append(c);
+	    }
+	}
+	if (quoted) {
+	    throw new CatalogFormatException(lineNumber, "unterminated quoted field");
+	}
+	fields.add(field.toString().trim());
+    }
+}
@@ -0,0 +1,162 @@
+package cmiller.interview.internal.data.catalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads a JSON lines export, one flat JSON object per line. Values must be
+ * strings, numbers, booleans or null, and are returned in their text form, with
+ * null values left out of the row. Blank lines are skipped.
+ */
+public class JsonLinesCatalogRowReader implements CatalogRowReader {
+    private final BufferedReader reader;
+    private final Map<String, String> row = new HashMap<>();
+    private final StringBuilder token = new StringBuilder();
+    private String line;
+    private int position;
+    private long lineNumber;
+
+    public JsonLinesCatalogRowReader(BufferedReader reader) {
+	this.reader = reader;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+	do {
+	    line = reader.readLine();
+	    if (line == null) {
+		return null;
+	    }
+	    lineNumber++;
+	} while (line.trim().isEmpty());
+
+	row.clear();
+	position = 0;
+	expect('{');
+	if (peek() == '}') {
+	    position++;
+	} else {
+	    while (true) {
+		String name = readString();
+		expect(':');
+		String value = readValue();
+		if (value != null) {
+		    row.put(name, value);
+		}
+		if (peek() == ',') {
+		    position++;
+		} else {
+		    expect('}');
+		    break;
+		}
+	    }
+	}
+	if (peek() != 0) {
+	    throw error("unexpected content after the object");
+	}
+	return row;
+    }
+
+    @Override
+    public long getLineNumber() {
+	return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+	reader.close();
+    }
+
+    private String readValue() {
+	char c = peek();
+	if (c == '"') {
+	    return readString();
+	}
+	if (c == '{' || c == '[') {
+	    throw error("nested values are not supported");
+	}
+	int start = position;
+	while (position < line.length() && ",} \t".indexOf(line.charAt(position)) < 0) {
+	    position++;
+	}
+	String literal = line.substring(start, position);
+	if (literal.isEmpty()) {
+	    throw error("missing value");
+	}
+	return literal.equals("null") ? null : literal;
+    }
+
+    private String readString() {
+	expect('"');
+	token.setLength(0);
+	while (position < line.length()) {
+	    char c = line.charAt(position++);
+	    if (c == '"') {
+		return token.toString();
+	    }
+	    if (c != '\\') {
+		token.append(c);
+		continue;
+	    }
+	    if (position >= line.length()) {
+		break;
+	    }
+	    char escaped = line.charAt(position++);
+	    switch (escaped) {
+	    case 'n':
+		token.append('\n');
+		break;
+	    case 't':
+		token.append('\t');
+		break;
+	    case 'r':
+		token.append('\r');
+		break;
+	    case 'b':
+		token.append('\b');
+		break;
+	    case 'f':
+		token.append('\f');
+		break;
+	    case 'u':
+		if (position + 4 > line.length()) {
+		    throw error("truncated unicode escape");
+		}
+		try {
+		    token.append((char) Integer.parseInt(line.substring(position, position + 4), 16));
+		} catch (NumberFormatException e) {
+		    throw error("invalid unicode escape");
+		}
+		position += 4;
+		break;
+	    default:
+		token.append(escaped);
+	    }
+	}
+	throw error("unterminated string");
+    }
+
+    private void expect(char expected) {
+	if (peek() != expected) {
+	    throw error("expected '" + expected + "'");
+	}
+	position++;
+    }
+
+    /**
+     * @return the next character which is not whitespace, without consuming it,
+     *         or 0 at the end of the line
+     */
+    private char peek() {
+	while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+	    position++;
+	}
+	return position < line.length() ? line.charAt(position) : 0;
+    }
+
+    private CatalogFormatException error(String message) {
+	return new CatalogFormatException(lineNumber, message + " at column " + (position + 1));
+    }
+}
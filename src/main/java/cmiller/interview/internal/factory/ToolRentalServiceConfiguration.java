@@ -0,0 +1,554 @@
+package cmiller.interview.internal.factory;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.calculator.PrefixSumChargeableDayCalculator;
+import cmiller.interview.internal.calendar.BusinessCalendar;
+import cmiller.interview.internal.calendar.HolidayRulesFile;
+import cmiller.interview.internal.calendar.RegionalCalendars;
+import cmiller.interview.internal.checkout.QuoteCache;
+import cmiller.interview.internal.data.access.impl.CachingDataRetrievalService;
+import cmiller.interview.internal.data.access.impl.ReloadingDataRetrievalService;
+import cmiller.interview.internal.data.catalog.BinaryCatalogFormat;
+import cmiller.interview.internal.inventory.InventoryService;
+import cmiller.interview.internal.journal.FileRentalJournal;
+import cmiller.interview.internal.metrics.LongAdderToolRentalMetrics;
+import cmiller.interview.internal.metrics.NoOpToolRentalMetrics;
+import cmiller.interview.internal.metrics.ToolRentalMetrics;
+import cmiller.interview.internal.pricing.PricingEngine;
+import cmiller.interview.internal.pricing.PricingRuleSet;
+
+/**
+ * Tuning options for the dependencies built by the
+ * {@link ToolRentalServiceDependencyFactory}. Every option has a default, so
+ * {@code new ToolRentalServiceConfiguration.Builder().build()} gives a working
+ * configuration.
+ */
+public class ToolRentalServiceConfiguration {
+    private final int holidayCacheMaximumSize;
+    private final boolean holidayCachePrewarm;
+    private final int holidayCachePrewarmFromYear;
+    private final int holidayCachePrewarmToYear;
+    private final int businessCalendarFromYear;
+    private final int businessCalendarToYear;
+    private final boolean chargeableDayPrefixSums;
+    private final int checkoutParallelism;
+    private final int parallelCheckoutThreshold;
+    private final Executor asyncCheckoutExecutor;
+    private final Path catalogPath;
+    private final long catalogReloadIntervalNanos;
+    private final int toolCacheMaximumSize;
+    private final long toolCacheExpireAfterWriteNanos;
+    private final Path rentalJournalPath;
+    private final long rentalJournalCommitWindowNanos;
+    private final List<ToolStock> toolStock;
+    private final ToolRentalMetrics metrics;
+    private final PricingRuleSet pricingRules;
+    private final Path holidayRulesPath;
+    private final Map<String, String> storeRegions;
+    private final int quoteCacheMaximumSize;
+    private final Clock clock;
+
+    private ToolRentalServiceConfiguration(Builder builder) {
+	this.holidayCacheMaximumSize = builder.holidayCacheMaximumSize;
+	this.holidayCachePrewarm = builder.holidayCachePrewarm;
+	this.holidayCachePrewarmFromYear = builder.holidayCachePrewarmFromYear;
+	this.holidayCachePrewarmToYear = builder.holidayCachePrewarmToYear;
+	this.businessCalendarFromYear = builder.businessCalendarFromYear;
+	this.businessCalendarToYear = builder.businessCalendarToYear;
+	this.chargeableDayPrefixSums = builder.chargeableDayPrefixSums;
+	this.checkoutParallelism = builder.checkoutParallelism;
+	this.parallelCheckoutThreshold = builder.parallelCheckoutThreshold;
+	this.asyncCheckoutExecutor = builder.asyncCheckoutExecutor;
+	this.catalogPath = builder.catalogPath;
+	this.catalogReloadIntervalNanos = builder.catalogReloadIntervalNanos;
+	this.toolCacheMaximumSize = builder.toolCacheMaximumSize;
+	this.toolCacheExpireAfterWriteNanos = builder.toolCacheExpireAfterWriteNanos;
+	this.rentalJournalPath = builder.rentalJournalPath;
+	this.rentalJournalCommitWindowNanos = builder.rentalJournalCommitWindowNanos;
+	this.toolStock = Collections.unmodifiableList(new ArrayList<>(builder.toolStock));
+	this.metrics = builder.metrics;
+	this.pricingRules = builder.pricingRules;
+	this.holidayRulesPath = builder.holidayRulesPath;
+	this.storeRegions = Collections.unmodifiableMap(new LinkedHashMap<>(builder.storeRegions));
+	this.quoteCacheMaximumSize = builder.quoteCacheMaximumSize;
+	this.clock = builder.clock;
+    }
+
+    public static ToolRentalServiceConfiguration defaults() {
+	return new Builder().build();
+    }
+
+    /**
+     * @return the maximum number of years the {@link HolidaysAgent} keeps cached
+     */
+    public int getHolidayCacheMaximumSize() {
+	return holidayCacheMaximumSize;
+    }
+
+    /**
+     * @return whether the {@link HolidaysAgent} cache is filled when it is created
+     */
+    public boolean isHolidayCachePrewarm() {
+	return holidayCachePrewarm;
+    }
+
+    public int getHolidayCachePrewarmFromYear() {
+	return holidayCachePrewarmFromYear;
+    }
+
+    public int getHolidayCachePrewarmToYear() {
+	return holidayCachePrewarmToYear;
+    }
+
+    /**
+     * @return the first year covered by the precomputed {@link BusinessCalendar}
+     */
+    public int getBusinessCalendarFromYear() {
+	return businessCalendarFromYear;
+    }
+
+    /**
+     * @return the last year covered by the precomputed {@link BusinessCalendar}
+     */
+    public int getBusinessCalendarToYear() {
+	return businessCalendarToYear;
+    }
+
+    /**
+     * @return whether chargeable days are counted from the prefix sum tables of a
+     *         {@link PrefixSumChargeableDayCalculator}, rather than with bit
+     *         counts over the {@link BusinessCalendar}
+     */
+    public boolean isChargeableDayPrefixSums() {
+	return chargeableDayPrefixSums;
+    }
+
+    /**
+     * @return the parallelism of the {@link ForkJoinPool} used for parallel batch
+     *         checkouts
+     */
+    public int getCheckoutParallelism() {
+	return checkoutParallelism;
+    }
+
+    /**
+     * @return the largest slice of a parallel batch checkout which is priced on a
+     *         single thread
+     */
+    public int getParallelCheckoutThreshold() {
+	return parallelCheckoutThreshold;
+    }
+
+    /**
+     * @return the executor running asynchronous checkouts, or {@code null} to use
+     *         the service's own default executor
+     */
+    public Executor getAsyncCheckoutExecutor() {
+	return asyncCheckoutExecutor;
+    }
+
+    /**
+     * @return the {@link BinaryCatalogFormat binary tool catalog} to read tools
+     *         from, or {@code null} to use the built in tools
+     */
+    public Path getCatalogPath() {
+	return catalogPath;
+    }
+
+    /**
+     * @return how often the catalog file is checked for a new version, in
+     *         nanoseconds, or 0 if it is only read once
+     */
+    public long getCatalogReloadIntervalNanos() {
+	return catalogReloadIntervalNanos;
+    }
+
+    /**
+     * @return the maximum number of tools kept by the
+     *         {@link CachingDataRetrievalService}, or 0 if tools are not cached
+     */
+    public int getToolCacheMaximumSize() {
+	return toolCacheMaximumSize;
+    }
+
+    /**
+     * @return how long cached tools are kept, in nanoseconds, or 0 if they do not
+     *         expire
+     */
+    public long getToolCacheExpireAfterWriteNanos() {
+	return toolCacheExpireAfterWriteNanos;
+    }
+
+    /**
+     * @return the {@link FileRentalJournal} open rentals are recorded to, or
+     *         {@code null} if they are only kept in memory
+     */
+    public Path getRentalJournalPath() {
+	return rentalJournalPath;
+    }
+
+    /**
+     * @return the longest time a rental journal record is buffered before it is
+     *         written and fsynced, in nanoseconds
+     */
+    public long getRentalJournalCommitWindowNanos() {
+	return rentalJournalCommitWindowNanos;
+    }
+
+    /**
+     * @return the units of each tool owned by each store, counted by the
+     *         {@link InventoryService}. Tools not listed are not counted.
+     */
+    public List<ToolStock> getToolStock() {
+	return toolStock;
+    }
+
+    /**
+     * @return where the measurements of the service are recorded
+     */
+    public ToolRentalMetrics getMetrics() {
+	return metrics;
+    }
+
+    /**
+     * @return the rules the {@link PricingEngine} starts out pricing rentals by
+     */
+    public PricingRuleSet getPricingRules() {
+	return pricingRules;
+    }
+
+    /**
+     * @return the {@link HolidayRulesFile} holding the holidays of each region, or
+     *         {@code null} if every store observes the built in holidays
+     */
+    public Path getHolidayRulesPath() {
+	return holidayRulesPath;
+    }
+
+    /**
+     * @return the region of each store which does not observe the holidays of the
+     *         {@link RegionalCalendars#DEFAULT_REGION default region}
+     */
+    public Map<String, String> getStoreRegions() {
+	return storeRegions;
+    }
+
+    /**
+     * @return the maximum number of quotes kept by the {@link QuoteCache}, or 0 if
+     *         quotes are not cached
+     */
+    public int getQuoteCacheMaximumSize() {
+	return quoteCacheMaximumSize;
+    }
+
+    /**
+     * @return the clock telling which rentals have started, and so have taken a
+     *         unit off the shelf
+     */
+    public Clock getClock() {
+	return clock;
+    }
+
+    /**
+     * The number of units of a tool a store owns
+     */
+    public static final class ToolStock {
+	private final String storeId;
+	private final String toolCode;
+	private final long units;
+
+	private ToolStock(String storeId, String toolCode, long units) {
+	    this.storeId = storeId;
+	    this.toolCode = toolCode;
+	    this.units = units;
+	}
+
+	public String getStoreId() {
+	    return storeId;
+	}
+
+	public String getToolCode() {
+	    return toolCode;
+	}
+
+	public long getUnits() {
+	    return units;
+	}
+    }
+
+    public static class Builder {
+	private int holidayCacheMaximumSize = HolidaysAgent.DEFAULT_MAXIMUM_CACHED_YEARS;
+	private boolean holidayCachePrewarm;
+	private int holidayCachePrewarmFromYear;
+	private int holidayCachePrewarmToYear;
+	private int businessCalendarFromYear = 1990;
+	private int businessCalendarToYear = 2100;
+	private boolean chargeableDayPrefixSums;
+	private int checkoutParallelism = Runtime.getRuntime().availableProcessors();
+	private int parallelCheckoutThreshold = 256;
+	private Executor asyncCheckoutExecutor;
+	private Path catalogPath;
+	private long catalogReloadIntervalNanos;
+	private int toolCacheMaximumSize;
+	private long toolCacheExpireAfterWriteNanos;
+	private Path rentalJournalPath;
+	private long rentalJournalCommitWindowNanos = TimeUnit.MILLISECONDS.toNanos(5);
+	private final List<ToolStock> toolStock = new ArrayList<>();
+	private ToolRentalMetrics metrics = NoOpToolRentalMetrics.INSTANCE;
+	private PricingRuleSet pricingRules = PricingRuleSet.EMPTY;
+	private Path holidayRulesPath;
+	private final Map<String, String> storeRegions = new LinkedHashMap<>();
+	private int quoteCacheMaximumSize = 4096;
+	private Clock clock = Clock.systemDefaultZone();
+
+	public Builder holidayCacheMaximumSize(int holidayCacheMaximumSize) {
+	    if (holidayCacheMaximumSize < 1) {
+		throw new IllegalArgumentException("holidayCacheMaximumSize must be greater than 0");
+	    }
+	    this.holidayCacheMaximumSize = holidayCacheMaximumSize;
+	    return this;
+	}
+
+	/**
+	 * Pre-warm the holiday cache with each year of the inclusive range
+	 */
+	public Builder holidayCachePrewarm(int fromYear, int toYear) {
+	    if (fromYear > toYear) {
+		throw new IllegalArgumentException("holidayCachePrewarm fromYear cannot be after toYear");
+	    }
+	    this.holidayCachePrewarm = true;
+	    this.holidayCachePrewarmFromYear = fromYear;
+	    this.holidayCachePrewarmToYear = toYear;
+	    return this;
+	}
+
+	/**
+	 * Count chargeable days from prefix sum tables over the span of the
+	 * {@link #businessCalendarYears(int, int) business calendar}, two array reads
+	 * per rental, at the cost of a table of 4 bytes per day for each combination
+	 * of charged kinds of day in use. By default days are counted with bit counts
+	 * over the business calendar, whose cost grows by a word per 64 days rented.
+	 */
+	public Builder chargeableDayPrefixSums(boolean chargeableDayPrefixSums) {
+	    this.chargeableDayPrefixSums = chargeableDayPrefixSums;
+	    return this;
+	}
+
+	/**
+	 * The span of years precomputed into the {@link BusinessCalendar}. Rentals
+	 * outside of it are still supported, but are calculated more slowly.
+	 */
+	public Builder businessCalendarYears(int fromYear, int toYear) {
+	    if (fromYear > toYear) {
+		throw new IllegalArgumentException("businessCalendarYears fromYear cannot be after toYear");
+	    }
+	    this.businessCalendarFromYear = fromYear;
+	    this.businessCalendarToYear = toYear;
+	    return this;
+	}
+
+	public Builder checkoutParallelism(int checkoutParallelism) {
+	    if (checkoutParallelism < 1) {
+		throw new IllegalArgumentException("checkoutParallelism must be greater than 0");
+	    }
+	    this.checkoutParallelism = checkoutParallelism;
+	    return this;
+	}
+
+	public Builder parallelCheckoutThreshold(int parallelCheckoutThreshold) {
+	    if (parallelCheckoutThreshold < 1) {
+		throw new IllegalArgumentException("parallelCheckoutThreshold must be greater than 0");
+	    }
+	    this.parallelCheckoutThreshold = parallelCheckoutThreshold;
+	    return this;
+	}
+
+	/**
+	 * The executor running asynchronous checkouts. The caller remains responsible
+	 * for shutting it down. When not set, the service creates a virtual thread per
+	 * task executor if the runtime supports it (Java 21+), or else a fixed pool of
+	 * platform threads.
+	 */
+	public Builder asyncCheckoutExecutor(Executor asyncCheckoutExecutor) {
+	    this.asyncCheckoutExecutor = asyncCheckoutExecutor;
+	    return this;
+	}
+
+	/**
+	 * Read tools from a {@link BinaryCatalogFormat binary tool catalog} file,
+	 * instead of the built in tools.
+	 */
+	public Builder catalogPath(Path catalogPath) {
+	    this.catalogPath = catalogPath;
+	    return this;
+	}
+
+	/**
+	 * Check the catalog file for a new version at this interval, and swap it in
+	 * with the {@link ReloadingDataRetrievalService} without interrupting
+	 * checkouts. Only applies together with {@link #catalogPath(Path)}. By default
+	 * the catalog is only read once.
+	 */
+	public Builder catalogReloadInterval(long interval, TimeUnit unit) {
+	    if (interval < 0) {
+		throw new IllegalArgumentException("catalogReloadInterval cannot be negative");
+	    }
+	    this.catalogReloadIntervalNanos = unit.toNanos(interval);
+	    return this;
+	}
+
+	/**
+	 * Cache up to this many tool lookups in front of the data retrieval service.
+	 * Useful when tools are read from a slower store than memory, so the default
+	 * is 0, which disables the cache.
+	 */
+	public Builder toolCacheMaximumSize(int toolCacheMaximumSize) {
+	    if (toolCacheMaximumSize < 0) {
+		throw new IllegalArgumentException("toolCacheMaximumSize cannot be negative");
+	    }
+	    this.toolCacheMaximumSize = toolCacheMaximumSize;
+	    return this;
+	}
+
+	/**
+	 * Expire cached tools and chargeable days this long after they were read. By
+	 * default they do not expire.
+	 */
+	public Builder toolCacheExpireAfterWrite(long duration, TimeUnit unit) {
+	    if (duration < 0) {
+		throw new IllegalArgumentException("toolCacheExpireAfterWrite cannot be negative");
+	    }
+	    this.toolCacheExpireAfterWriteNanos = unit.toNanos(duration);
+	    return this;
+	}
+
+	/**
+	 * Record rentals to a {@link FileRentalJournal write-ahead journal} file, and
+	 * recover the open rentals from it on startup. By default rentals are only
+	 * kept in memory.
+	 */
+	public Builder rentalJournalPath(Path rentalJournalPath) {
+	    this.rentalJournalPath = rentalJournalPath;
+	    return this;
+	}
+
+	/**
+	 * Group the journal records of this window into a single write and fsync.
+	 * Longer windows trade durability latency for fewer fsyncs. The default is 5
+	 * milliseconds.
+	 */
+	public Builder rentalJournalCommitWindow(long window, TimeUnit unit) {
+	    if (window < 0) {
+		throw new IllegalArgumentException("rentalJournalCommitWindow cannot be negative");
+	    }
+	    this.rentalJournalCommitWindowNanos = unit.toNanos(window);
+	    return this;
+	}
+
+	/**
+	 * Count the units of the tool at the store, so it can only be rented for a
+	 * window in which a unit is not booked by another rental. Tools without any
+	 * stock configured can always be rented. Stock configured more than once for
+	 * the same tool and store is added up.
+	 */
+	public Builder toolStock(String storeId, String toolCode, long units) {
+	    if (storeId == null || toolCode == null) {
+		throw new IllegalArgumentException("toolStock storeId and toolCode cannot be null");
+	    }
+	    if (units < 0) {
+		throw new IllegalArgumentException("toolStock units cannot be negative");
+	    }
+	    this.toolStock.add(new ToolStock(storeId, toolCode, units));
+	    return this;
+	}
+
+	/**
+	 * Record checkout latencies and failures, data retrieval latencies and cache
+	 * statistics, for example to a {@link LongAdderToolRentalMetrics}. By default
+	 * nothing is measured.
+	 */
+	public Builder metrics(ToolRentalMetrics metrics) {
+	    if (metrics == null) {
+		throw new IllegalArgumentException("metrics cannot be null");
+	    }
+	    this.metrics = metrics;
+	    return this;
+	}
+
+	/**
+	 * Price rentals by seasonal rates, weekly and monthly caps and store overrides,
+	 * on top of the daily charge of each tool type. By default there are no rules.
+	 */
+	public Builder pricingRules(PricingRuleSet pricingRules) {
+	    if (pricingRules == null) {
+		throw new IllegalArgumentException("pricingRules cannot be null");
+	    }
+	    this.pricingRules = pricingRules;
+	    return this;
+	}
+
+	/**
+	 * Read the holidays of each region from a {@link HolidayRulesFile}. Rules of
+	 * the {@link RegionalCalendars#DEFAULT_REGION default region} replace the
+	 * built in Independence Day and Labor Day.
+	 */
+	public Builder holidayRulesPath(Path holidayRulesPath) {
+	    this.holidayRulesPath = holidayRulesPath;
+	    return this;
+	}
+
+	/**
+	 * Charge the store's rentals by the holidays of the region, which must be
+	 * defined in the {@link #holidayRulesPath(Path) holiday rules}. Stores
+	 * without a region observe the holidays of the default region.
+	 */
+	public Builder storeRegion(String storeId, String region) {
+	    if (storeId == null || region == null) {
+		throw new IllegalArgumentException("storeRegion storeId and region cannot be null");
+	    }
+	    this.storeRegions.put(storeId, region);
+	    return this;
+	}
+
+	/**
+	 * Cache up to this many quotes, so the same rental quoted again is not priced
+	 * again. The default is 4096, 0 disables the cache.
+	 */
+	public Builder quoteCacheMaximumSize(int quoteCacheMaximumSize) {
+	    if (quoteCacheMaximumSize < 0) {
+		throw new IllegalArgumentException("quoteCacheMaximumSize cannot be negative");
+	    }
+	    this.quoteCacheMaximumSize = quoteCacheMaximumSize;
+	    return this;
+	}
+
+	/**
+	 * The clock telling which rentals have started by now. Rentals starting on
+	 * or before its date take a unit off the shelf counted by the
+	 * {@link InventoryService}, while rentals booked ahead only hold their window.
+	 * The default is the system clock, in the default time zone.
+	 */
+	public Builder clock(Clock clock) {
+	    if (clock == null) {
+		throw new IllegalArgumentException("clock cannot be null");
+	    }
+	    this.clock = clock;
+	    return this;
+	}
+
+	public ToolRentalServiceConfiguration build() {
+	    return new ToolRentalServiceConfiguration(this);
+	}
+    }
+}
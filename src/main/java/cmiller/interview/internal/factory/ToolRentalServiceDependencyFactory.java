@@ -1,21 +1,470 @@
 package cmiller.interview.internal.factory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkout.RentalAgreement;
 import cmiller.interview.internal.ToolRentalServiceImpl;
 import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.availability.AvailabilityIndex;
+import cmiller.interview.internal.calculator.BusinessCalendarChargeableDayCalculator;
+import cmiller.interview.internal.calculator.ChargeableDayCalculator;
+import cmiller.interview.internal.calculator.ClosedFormChargeableDayCalculator;
+import cmiller.interview.internal.calculator.PrefixSumChargeableDayCalculator;
+import cmiller.interview.internal.calendar.BusinessCalendar;
+import cmiller.interview.internal.calendar.HolidayRule;
+import cmiller.interview.internal.calendar.HolidayRulesFile;
+import cmiller.interview.internal.calendar.RegionalCalendars;
+import cmiller.interview.internal.checkin.CheckInManager;
+import cmiller.interview.internal.checkout.AsyncCheckoutManager;
+import cmiller.interview.internal.checkout.CheckoutManager;
+import cmiller.interview.internal.checkout.ParallelCheckoutManager;
+import cmiller.interview.internal.checkout.QuoteCache;
 import cmiller.interview.internal.data.access.DataRetrievalService;
+import cmiller.interview.internal.data.access.impl.CachingDataRetrievalService;
 import cmiller.interview.internal.data.access.impl.InMemoryDataRetrievalService;
+import cmiller.interview.internal.data.access.impl.MappedCatalogDataRetrievalService;
+import cmiller.interview.internal.data.access.impl.MeteredDataRetrievalService;
+import cmiller.interview.internal.data.access.impl.ReloadingDataRetrievalService;
+import cmiller.interview.internal.inventory.InventoryService;
+import cmiller.interview.internal.journal.FileRentalJournal;
+import cmiller.interview.internal.journal.NoOpRentalJournal;
+import cmiller.interview.internal.journal.RentalJournal;
+import cmiller.interview.internal.ledger.RentalLedger;
+import cmiller.interview.internal.metrics.ToolRentalMetrics;
+import cmiller.interview.internal.pricing.PricingEngine;
+
+/**
+ * Builds and owns the service's dependencies. Each dependency is created once,
+ * on first use, and then shared by every caller, so all dependencies handed out
+ * by this factory must be safe to use from multiple threads.
+ * <p>
+ * {@link #close() Closing} the factory closes every dependency that it created
+ * which is {@link AutoCloseable}, and shuts down every {@link ExecutorService},
+ * in reverse order of creation.
+ */
+public class ToolRentalServiceDependencyFactory implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ToolRentalServiceDependencyFactory.class.getName());
+
+    private final ToolRentalServiceConfiguration configuration;
+    private final Deque<Object> createdDependencies = new ArrayDeque<>();
+    private volatile boolean closed;
+
+    private final Singleton<ToolRentalService> toolRentalService = new Singleton<>(
+	    () -> new ToolRentalServiceImpl(this));
+    private final Singleton<DataRetrievalService> dataRetrievalService = new Singleton<>(
+	    this::createDataRetrievalService);
+    private final Singleton<Map<String, List<HolidayRule>>> holidayRules = new Singleton<>(
+	    this::createHolidayRules);
+    private final Singleton<HolidaysAgent> holidaysAgent = new Singleton<>(this::createHolidaysAgent);
+    private final Singleton<BusinessCalendar> businessCalendar = new Singleton<>(this::createBusinessCalendar);
+    private final Singleton<ChargeableDayCalculator> chargeableDayCalculator = new Singleton<>(
+	    () -> createChargeableDayCalculator(getHolidaysAgent(), getBusinessCalendar()));
+    private final Singleton<RegionalCalendars> regionalCalendars = new Singleton<>(this::createRegionalCalendars);
+    private final Singleton<PricingEngine> pricingEngine = new Singleton<>(this::createPricingEngine);
+    private final Singleton<QuoteCache> quoteCache = new Singleton<>(this::createQuoteCache);
+    private final Singleton<CheckoutManager> checkoutManager = new Singleton<>(() -> new CheckoutManager(this));
+    private final Singleton<ForkJoinPool> checkoutPool = new Singleton<>(this::createCheckoutPool);
+    private final Singleton<ParallelCheckoutManager> parallelCheckoutManager = new Singleton<>(
+	    this::createParallelCheckoutManager);
+    private final Singleton<ExecutorService> defaultAsyncCheckoutExecutor = new Singleton<>(
+	    ToolRentalServiceDependencyFactory::newDefaultAsyncExecutor);
+    private final Singleton<AsyncCheckoutManager> asyncCheckoutManager = new Singleton<>(
+	    () -> new AsyncCheckoutManager(getCheckoutManager(), getAsyncCheckoutExecutor()));
+    private final Singleton<RentalLedger> rentalLedger = new Singleton<>(RentalLedger::new);
+    private final Singleton<RentalJournal> rentalJournal = new Singleton<>(this::createRentalJournal);
+    private final Singleton<InventoryService> inventoryService = new Singleton<>(this::createInventoryService);
+    private final Singleton<AvailabilityIndex> availabilityIndex = new Singleton<>(
+	    this::createAvailabilityIndex);
+    private final Singleton<CheckInManager> checkInManager = new Singleton<>(() -> new CheckInManager(this));
+
+    public ToolRentalServiceDependencyFactory() {
+	this(ToolRentalServiceConfiguration.defaults());
+    }
+
+    public ToolRentalServiceDependencyFactory(ToolRentalServiceConfiguration configuration) {
+	this.configuration = configuration;
+    }
+
+    public ToolRentalServiceConfiguration getConfiguration() {
+	return configuration;
+    }
 
-public class ToolRentalServiceDependencyFactory {
     public ToolRentalService getToolRentalServiceImpl() {
-	return new ToolRentalServiceImpl(this);
+	return toolRentalService.get();
+    }
+
+    /**
+     * @return the configured metrics, which every dependency records to
+     */
+    public ToolRentalMetrics getMetrics() {
+	return configuration.getMetrics();
+    }
+
+    /**
+     * @return the configured clock, telling which rentals have started
+     */
+    public Clock getClock() {
+	return configuration.getClock();
     }
 
     public DataRetrievalService getDataRetrievalService() {
-	return new InMemoryDataRetrievalService();
+	return dataRetrievalService.get();
     }
 
+    /**
+     * @return the holiday rules of each region, including the
+     *         {@link RegionalCalendars#DEFAULT_REGION default region}
+     */
+    public Map<String, List<HolidayRule>> getHolidayRules() {
+	return holidayRules.get();
+    }
+
+    /**
+     * @return the holidays of the default region
+     */
     public HolidaysAgent getHolidaysAgent() {
-	return new HolidaysAgent();
+	return holidaysAgent.get();
+    }
+
+    public BusinessCalendar getBusinessCalendar() {
+	return businessCalendar.get();
+    }
+
+    /**
+     * @return the calculator of the default region
+     */
+    public ChargeableDayCalculator getChargeableDayCalculator() {
+	return chargeableDayCalculator.get();
+    }
+
+    /**
+     * @return the calendars of each region, shared by checkout and check-in
+     */
+    public RegionalCalendars getRegionalCalendars() {
+	return regionalCalendars.get();
+    }
+
+    public PricingEngine getPricingEngine() {
+	return pricingEngine.get();
+    }
+
+    public QuoteCache getQuoteCache() {
+	return quoteCache.get();
+    }
+
+    public CheckoutManager getCheckoutManager() {
+	return checkoutManager.get();
+    }
+
+    public ForkJoinPool getCheckoutPool() {
+	return checkoutPool.get();
+    }
+
+    public ParallelCheckoutManager getParallelCheckoutManager() {
+	return parallelCheckoutManager.get();
+    }
+
+    /**
+     * @return the configured executor for asynchronous checkouts, or else the
+     *         factory's own default executor
+     */
+    public Executor getAsyncCheckoutExecutor() {
+	Executor configured = configuration.getAsyncCheckoutExecutor();
+	return configured != null ? configured : defaultAsyncCheckoutExecutor.get();
+    }
+
+    public AsyncCheckoutManager getAsyncCheckoutManager() {
+	return asyncCheckoutManager.get();
+    }
+
+    /**
+     * @return the ledger of open rentals, shared by checkout and check-in
+     */
+    public RentalLedger getRentalLedger() {
+	return rentalLedger.get();
+    }
+
+    /**
+     * @return the journal rentals are recorded to. The journal is replayed into the
+     *         {@link #getRentalLedger() ledger} when it is created.
+     */
+    public RentalJournal getRentalJournal() {
+	return rentalJournal.get();
+    }
+
+    /**
+     * @return the stock of each store, shared by checkout and check-in
+     */
+    public InventoryService getInventoryService() {
+	return inventoryService.get();
+    }
+
+    /**
+     * @return the days each tool is booked, shared by checkout and check-in
+     */
+    public AvailabilityIndex getAvailabilityIndex() {
+	return availabilityIndex.get();
+    }
+
+    public CheckInManager getCheckInManager() {
+	return checkInManager.get();
+    }
+
+    private DataRetrievalService createDataRetrievalService() {
+	DataRetrievalService dataRetrievalService = createUncachedDataRetrievalService();
+	if (configuration.getToolCacheMaximumSize() > 0) {
+	    CachingDataRetrievalService cachingService = new CachingDataRetrievalService(dataRetrievalService,
+		    configuration.getToolCacheMaximumSize(), configuration.getToolCacheExpireAfterWriteNanos(),
+		    TimeUnit.NANOSECONDS);
+	    getMetrics().registerCache("tools", cachingService::getToolCacheStats);
+	    dataRetrievalService = cachingService;
+	}
+	// outermost, so the latency measured is the latency checkouts see
+	if (getMetrics().isEnabled()) {
+	    dataRetrievalService = new MeteredDataRetrievalService(dataRetrievalService, getMetrics());
+	}
+	return dataRetrievalService;
+    }
+
+    private DataRetrievalService createUncachedDataRetrievalService() {
+	if (configuration.getCatalogPath() == null) {
+	    return new InMemoryDataRetrievalService();
+	}
+	try {
+	    if (configuration.getCatalogReloadIntervalNanos() > 0) {
+		return new ReloadingDataRetrievalService(configuration.getCatalogPath(),
+			configuration.getCatalogReloadIntervalNanos(), TimeUnit.NANOSECONDS);
+	    }
+	    return MappedCatalogDataRetrievalService.open(configuration.getCatalogPath());
+	} catch (IOException e) {
+	    throw new UncheckedIOException("Failed to open the tool catalog " + configuration.getCatalogPath(), e);
+	}
+    }
+
+    private PricingEngine createPricingEngine() {
+	return new PricingEngine(configuration.getPricingRules(), getRegionalCalendars()::getChargeableDayCalculator);
+    }
+
+    private QuoteCache createQuoteCache() {
+	QuoteCache cache = new QuoteCache(configuration.getQuoteCacheMaximumSize());
+	if (configuration.getQuoteCacheMaximumSize() > 0) {
+	    getMetrics().registerCache("quotes", cache::stats);
+	}
+	return cache;
+    }
+
+    private RentalJournal createRentalJournal() {
+	if (configuration.getRentalJournalPath() == null) {
+	    return NoOpRentalJournal.INSTANCE;
+	}
+	try {
+	    return FileRentalJournal.open(configuration.getRentalJournalPath(), getRentalLedger(),
+		    configuration.getRentalJournalCommitWindowNanos(), TimeUnit.NANOSECONDS);
+	} catch (IOException e) {
+	    throw new UncheckedIOException("Failed to open the rental journal " + configuration.getRentalJournalPath(),
+		    e);
+	}
+    }
+
+    private InventoryService createInventoryService() {
+	InventoryService inventory = new InventoryService();
+	for (ToolRentalServiceConfiguration.ToolStock stock : configuration.getToolStock()) {
+	    inventory.addStock(stock.getStoreId(), stock.getToolCode(), stock.getUnits());
+	}
+	// the units of started rentals recovered from the journal are still out
+	getRentalJournal();
+	LocalDate today = LocalDate.now(getClock());
+	getRentalLedger().forEachOpenRental(rental -> {
+	    RentalAgreement agreement = rental.getRentalAgreement();
+	    if (!agreement.getCheckOutDate().isAfter(today)) {
+		inventory.markRented(rental.getStoreId(), agreement.getTool().getCode());
+		rental.markShelfUnitTaken();
+	    }
+	});
+	return inventory;
+    }
+
+    private AvailabilityIndex createAvailabilityIndex() {
+	AvailabilityIndex index = new AvailabilityIndex();
+	for (ToolRentalServiceConfiguration.ToolStock stock : configuration.getToolStock()) {
+	    index.addCapacity(stock.getStoreId(), stock.getToolCode(), stock.getUnits());
+	}
+	// the rentals recovered from the journal still hold their windows
+	getRentalJournal();
+	getRentalLedger().forEachOpenRental(rental -> {
+	    RentalAgreement agreement = rental.getRentalAgreement();
+	    index.book(rental.getStoreId(), agreement.getTool().getCode(), agreement.getCheckOutDate(),
+		    agreement.getDueDate());
+	});
+	return index;
+    }
+
+    private Map<String, List<HolidayRule>> createHolidayRules() {
+	Map<String, List<HolidayRule>> rules = new LinkedHashMap<>();
+	rules.put(RegionalCalendars.DEFAULT_REGION, HolidayRule.DEFAULT_RULES);
+	Path path = configuration.getHolidayRulesPath();
+	if (path != null) {
+	    try {
+		rules.putAll(HolidayRulesFile.load(path));
+	    } catch (IOException e) {
+		throw new UncheckedIOException("Failed to read the holiday rules " + path, e);
+	    }
+	}
+	return Collections.unmodifiableMap(rules);
+    }
+
+    private RegionalCalendars createRegionalCalendars() {
+	RegionalCalendars.Builder builder = new RegionalCalendars.Builder().region(RegionalCalendars.DEFAULT_REGION,
+		getHolidaysAgent(), getBusinessCalendar(), getChargeableDayCalculator());
+	for (Map.Entry<String, List<HolidayRule>> regionRules : getHolidayRules().entrySet()) {
+	    String region = regionRules.getKey();
+	    if (region.equals(RegionalCalendars.DEFAULT_REGION)) {
+		continue;
+	    }
+	    HolidaysAgent agent = new HolidaysAgent(regionRules.getValue(), configuration.getHolidayCacheMaximumSize());
+	    getMetrics().registerCache("holidays " + region, agent::getCacheStats);
+	    BusinessCalendar calendar = BusinessCalendar.build(agent, configuration.getBusinessCalendarFromYear(),
+		    configuration.getBusinessCalendarToYear());
+	    builder.region(region, agent, calendar, createChargeableDayCalculator(agent, calendar));
+	}
+	configuration.getStoreRegions().forEach(builder::storeRegion);
+	return builder.build();
+    }
+
+    private HolidaysAgent createHolidaysAgent() {
+	HolidaysAgent agent = new HolidaysAgent(getHolidayRules().get(RegionalCalendars.DEFAULT_REGION),
+		configuration.getHolidayCacheMaximumSize());
+	if (configuration.isHolidayCachePrewarm()) {
+	    agent.prewarm(configuration.getHolidayCachePrewarmFromYear(), configuration.getHolidayCachePrewarmToYear());
+	}
+	getMetrics().registerCache("holidays", agent::getCacheStats);
+	return agent;
+    }
+
+    private BusinessCalendar createBusinessCalendar() {
+	return BusinessCalendar.build(getHolidaysAgent(), configuration.getBusinessCalendarFromYear(),
+		configuration.getBusinessCalendarToYear());
+    }
+
+    private ChargeableDayCalculator createChargeableDayCalculator(HolidaysAgent agent, BusinessCalendar calendar) {
+	ChargeableDayCalculator fallback = new ClosedFormChargeableDayCalculator(agent);
+	if (configuration.isChargeableDayPrefixSums()) {
+	    return new PrefixSumChargeableDayCalculator(calendar, fallback);
+	}
+	return new BusinessCalendarChargeableDayCalculator(calendar, fallback);
+    }
+
+    private ForkJoinPool createCheckoutPool() {
+	return new ForkJoinPool(configuration.getCheckoutParallelism());
+    }
+
+    private ParallelCheckoutManager createParallelCheckoutManager() {
+	return new ParallelCheckoutManager(getCheckoutManager(), getCheckoutPool(),
+		configuration.getParallelCheckoutThreshold());
+    }
+
+    /**
+     * Uses a virtual thread per task when running on Java 21 or later. It is
+     * looked up reflectively, as the project still compiles for older Java
+     * versions.
+     */
+    private static ExecutorService newDefaultAsyncExecutor() {
+	try {
+	    Method factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+	    return (ExecutorService) factoryMethod.invoke(null);
+	} catch (ReflectiveOperationException | RuntimeException e) {
+	    LOGGER.log(Level.FINE, "Virtual threads are not available, using platform threads", e);
+	}
+
+	AtomicInteger threadCount = new AtomicInteger();
+	return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+	    Thread thread = new Thread(runnable, "async-checkout-" + threadCount.incrementAndGet());
+	    thread.setDaemon(true);
+	    return thread;
+	});
+    }
+
+    public boolean isClosed() {
+	return closed;
+    }
+
+    @Override
+    public void close() {
+	Deque<Object> toClose;
+	synchronized (createdDependencies) {
+	    if (closed) {
+		return;
+	    }
+	    closed = true;
+	    toClose = new ArrayDeque<>(createdDependencies);
+	    createdDependencies.clear();
+	}
+
+	// most recently created first, as they may depend on earlier ones
+	for (Object dependency : toClose) {
+	    if (dependency instanceof AutoCloseable && dependency != this) {
+		try {
+		    ((AutoCloseable) dependency).close();
+		} catch (Exception e) {
+		    LOGGER.log(Level.WARNING, "Failed to close dependency " + dependency, e);
+		}
+	    } else if (dependency instanceof ExecutorService) {
+		((ExecutorService) dependency).shutdown();
+	    }
+	}
+    }
+
+    /**
+     * Lazily creates a single shared instance, using double-checked locking so the
+     * already-created path is a single volatile read.
+     */
+    private final class Singleton<T> {
+	private final Supplier<T> supplier;
+	private volatile T instance;
+
+	private Singleton(Supplier<T> supplier) {
+	    this.supplier = supplier;
+	}
+
+	T get() {
+	    T result = instance;
+	    if (result == null) {
+		synchronized (this) {
+		    result = instance;
+		    if (result == null) {
+			if (closed) {
+			    throw new IllegalStateException("ToolRentalServiceDependencyFactory has been closed");
+			}
+			result = supplier.get();
+			instance = result;
+			synchronized (createdDependencies) {
+			    createdDependencies.push(result);
+			}
+		    }
+		}
+	    }
+	    return result;
+	}
     }
 }
@@ -0,0 +1,100 @@
+package cmiller.interview.internal.inventory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the units of each tool on the shelf of each store right now. A rental
+ * takes its unit off the shelf once it has started, and check-in puts it back.
+ * Whether a unit can be rented for a window is decided by the
+ * {@link cmiller.interview.internal.availability.AvailabilityIndex
+ * AvailabilityIndex}, so a rental booked ahead does not hold a unit on the shelf
+ * meanwhile.
+ * <p>
+ * Each (store, tool code) pair has its own {@link AtomicLong} counter, and a
+ * unit is reserved with a compare-and-set loop which never takes the count
+ * below zero, so two registers can never both rent the last unit, and
+ * registers renting different tools never contend. Looking up a counter is a
+ * read of two {@link ConcurrentHashMap concurrent maps}, without allocating a
+ * key.
+ * <p>
+ * Tools without any stock recorded are not tracked, and are always available,
+ * as before inventory was counted.
+ */
+public class InventoryService {
+    /**
+     * The number of available units reported for tools which are not tracked
+     */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, AtomicLong>> availableByStore =
+	    new ConcurrentHashMap<>();
+
+    /**
+     * Adds units of the tool to the store's stock, and starts tracking the tool
+     * there if it was not tracked yet
+     *
+     * @param units the number of units to add, or to remove if negative
+     * @return the number of units now available
+     */
+    public long addStock(String storeId, String toolCode, long units) {
+	return availableByStore.computeIfAbsent(storeId, store -> new ConcurrentHashMap<>())
+		.computeIfAbsent(toolCode, code -> new AtomicLong()).addAndGet(units);
+    }
+
+    /**
+     * Reserves a unit of the tool at the store
+     *
+     * @return true if a unit was reserved, or the tool is not tracked. False if no
+     *         unit is available.
+     */
+    public boolean tryReserve(String storeId, String toolCode) {
+	AtomicLong available = find(storeId, toolCode);
+	if (available == null) {
+	    return true;
+	}
+	long current;
+	do {
+	    current = available.get();
+	    if (current <= 0) {
+		return false;
+	    }
+	} while (!available.compareAndSet(current, current - 1));
+	return true;
+    }
+
+    /**
+     * Returns a reserved unit of the tool to the store's stock
+     */
+    public void release(String storeId, String toolCode) {
+	AtomicLong available = find(storeId, toolCode);
+	if (available != null) {
+	    available.incrementAndGet();
+	}
+    }
+
+    /**
+     * Takes a unit which is known to be rented out, even if that leaves fewer than
+     * none available, such as for rentals recovered after a restart
+     */
+    public void markRented(String storeId, String toolCode) {
+	AtomicLong available = find(storeId, toolCode);
+	if (available != null) {
+	    available.decrementAndGet();
+	}
+    }
+
+    /**
+     * @return the number of units of the tool available at the store, or
+     *         {@link #UNLIMITED} if the tool is not tracked there
+     */
+    public long getAvailable(String storeId, String toolCode) {
+	AtomicLong available = find(storeId, toolCode);
+	return available == null ? UNLIMITED : Math.max(0, available.get());
+    }
+
+    private AtomicLong find(String storeId, String toolCode) {
+	ConcurrentHashMap<String, AtomicLong> availableByToolCode = availableByStore.get(storeId);
+	return availableByToolCode == null ? null : availableByToolCode.get(toolCode);
+    }
+}
@@ -0,0 +1,464 @@
+package cmiller.interview.internal.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.checkout.RentalAgreementImpl;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.ToolDO;
+import cmiller.interview.internal.ledger.Rental;
+import cmiller.interview.internal.ledger.RentalLedger;
+
+/**
+ * Append-only, write-ahead {@link RentalJournal} file, written through a
+ * {@link FileChannel}.
+ * <p>
+ * Records are framed as an int payload length, the CRC32 of the payload, and
+ * the payload itself. Appending only copies the record into an in-memory
+ * buffer. A background thread writes the buffered records and fsyncs them as
+ * one group commit, once per commit window or once enough bytes are buffered,
+ * so registers never wait on an fsync. Records buffered when the process dies
+ * are lost; the futures returned by the record methods tell callers when their
+ * records are durable.
+ * <p>
+ * {@link #open(Path, RentalLedger, long, TimeUnit) Opening} the journal replays
+ * it into the ledger. A torn or corrupt record at the end of the file, left by
+ * a crash during a write, ends the replay and is truncated away.
+ */
+public class FileRentalJournal implements RentalJournal {
+    private static final Logger LOGGER = Logger.getLogger(FileRentalJournal.class.getName());
+
+    private static final int MAGIC = 0x524a4e4c; // "RJNL"
+    private static final short FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    // larger than any valid record, so a corrupt length is not trusted
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final int FLUSH_THRESHOLD_BYTES = 256 * 1024;
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte OPENED = 1;
+    private static final byte CLOSED = 2;
+    // an opened record, without the tool code, brand and store id
+    private static final int OPENED_FIXED_SIZE = 98;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long commitWindowNanos;
+    private final Thread flusher;
+    private final CRC32 crc = new CRC32();
+
+    // guarded by "this"
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private CompletableFuture<Void> pendingCommit = new CompletableFuture<>();
+    // the commit being written by the flusher, or the last one written
+    private CompletableFuture<Void> writingCommit = CompletableFuture.completedFuture(null);
+    private long firstPendingNanos;
+    // the offset in the pending buffer where the record being written begins
+    private int recordStart;
+    private boolean flushRequested;
+    private boolean closed;
+    private IOException failure;
+
+    // only used by the flusher thread
+    private ByteBuffer writing = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    private FileRentalJournal(Path path, FileChannel channel, long commitWindowNanos) {
+	this.path = path;
+	this.channel = channel;
+	this.commitWindowNanos = commitWindowNanos;
+	this.flusher = new Thread(this::flushLoop, "rental-journal-" + path.getFileName());
+	flusher.setDaemon(true);
+    }
+
+    /**
+     * Opens the journal, creating it if it does not exist, and replays its
+     * records into the ledger.
+     *
+     * @param commitWindow the longest time a record stays buffered before it is
+     *                     written and fsynced
+     */
+    public static FileRentalJournal open(Path path, RentalLedger ledger, long commitWindow, TimeUnit unit)
+	    throws IOException {
+	FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+		StandardOpenOption.WRITE);
+	try {
+	    FileRentalJournal journal = new FileRentalJournal(path, channel, unit.toNanos(commitWindow));
+	    journal.recover(ledger);
+	    journal.flusher.start();
+	    return journal;
+	} catch (IOException | RuntimeException e) {
+	    channel.close();
+	    throw e;
+	}
+    }
+
+    @Override
+    public CompletableFuture<Void> recordOpened(Rental rental) {
+	RentalAgreement agreement = rental.getRentalAgreement();
+	Tool tool = agreement.getTool();
+	ChargeableDaysDO chargeableDaysDO = rental.getChargeableDaysDO();
+	// encoded before taking the lock, and checked so a record is never left half
+	// written in the buffer
+	byte[] code = toBytes(tool.getCode());
+	byte[] brand = toBytes(tool.getBrand());
+	byte[] storeId = toBytes(rental.getStoreId());
+
+	synchronized (this) {
+	    ByteBuffer payload = beginRecord(OPENED_FIXED_SIZE + code.length + brand.length + storeId.length);
+	    payload.put(OPENED);
+	    payload.putLong(agreement.getRentalId());
+	    putBytes(payload, code);
+	    payload.put((byte) tool.getType().ordinal());
+	    putBytes(payload, brand);
+	    payload.putInt(agreement.getRentalDays());
+	    payload.putInt((int) agreement.getCheckOutDate().toEpochDay());
+	    payload.putInt((int) agreement.getDueDate().toEpochDay());
+	    payload.putLong(agreement.getDailyRentalCharge());
+	    payload.putInt(agreement.getChargeDays());
+	    payload.putLong(agreement.getPreDiscountCharge());
+	    payload.putInt(agreement.getDiscountPercent());
+	    payload.putLong(agreement.getDiscountAmount());
+	    payload.putLong(agreement.getFinalCharge());
+	    payload.putLong(agreement.getCatalogVersion());
+	    payload.putLong(chargeableDaysDO.getDailyCharge());
+	    payload.put((byte) (chargeableDaysDO.isWeekdayCharge() ? 1 : 0));
+	    payload.put((byte) (chargeableDaysDO.isWeekendCharge() ? 1 : 0));
+	    payload.put((byte) (chargeableDaysDO.isHolidayCharge() ? 1 : 0));
+	    putBytes(payload, storeId);
+	    return endRecord();
+	}
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> recordClosed(long rentalId) {
+	ByteBuffer payload = beginRecord(Byte.BYTES + Long.BYTES);
+	payload.put(CLOSED);
+	payload.putLong(rentalId);
+	return endRecord();
+    }
+
+    /**
+     * Starts a group commit of everything buffered so far, without waiting for the
+     * commit window to end.
+     *
+     * @return a future completed once every record buffered so far is durable
+     */
+    public synchronized CompletableFuture<Void> flush() {
+	if (pending.position() == 0) {
+	    // nothing buffered, but the last commit may still be in progress
+	    return writingCommit;
+	}
+	flushRequested = true;
+	notifyAll();
+	return pendingCommit;
+    }
+
+    /**
+     * Commits the buffered records, and closes the file
+     */
+    @Override
+    public void close() {
+	synchronized (this) {
+	    if (closed) {
+		return;
+	    }
+	    closed = true;
+	    notifyAll();
+	}
+	try {
+	    flusher.join();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	}
+	try {
+	    channel.close();
+	} catch (IOException e) {
+	    LOGGER.log(Level.WARNING, "Failed to close rental journal " + path, e);
+	}
+    }
+
+    public Path getPath() {
+	return path;
+    }
+
+    /**
+     * Must be called while holding the lock of the journal
+     */
+    private ByteBuffer beginRecord(int maximumPayloadSize) {
+	if (closed) {
+	    throw new IllegalStateException("Rental journal " + path + " is closed");
+	}
+	if (failure != null) {
+	    throw new UncheckedIOException("Rental journal " + path + " failed", failure);
+	}
+	int required = RECORD_HEADER_SIZE + maximumPayloadSize;
+	if (pending.remaining() < required) {
+	    ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + required));
+	    pending.flip();
+	    grown.put(pending);
+	    pending = grown;
+	}
+	if (pending.position() == 0) {
+	    firstPendingNanos = System.nanoTime();
+	}
+	recordStart = pending.position();
+	// the header is filled in by endRecord, once the payload length is known
+	pending.position(pending.position() + RECORD_HEADER_SIZE);
+	return pending;
+    }
+
+    /**
+     * Must be called while holding the lock of the journal
+     */
+    private CompletableFuture<Void> endRecord() {
+	int end = pending.position();
+	int payloadStart = recordStart + RECORD_HEADER_SIZE;
+	int payloadLength = end - payloadStart;
+	crc.reset();
+	crc.update(pending.array(), payloadStart, payloadLength);
+	pending.putInt(payloadStart - RECORD_HEADER_SIZE, payloadLength);
+	pending.putInt(payloadStart - Integer.BYTES, (int) crc.getValue());
+	if (pending.position() >= FLUSH_THRESHOLD_BYTES) {
+	    notifyAll();
+	}
+	return pendingCommit;
+    }
+
+    private void flushLoop() {
+	while (true) {
+	    CompletableFuture<Void> commit;
+	    boolean last;
+	    synchronized (this) {
+		try {
+		    waitForCommit();
+		} catch (InterruptedException e) {
+		    // finish with a last commit, as if closed
+		    closed = true;
+		}
+		ByteBuffer swapped = pending;
+		pending = writing;
+		writing = swapped;
+		commit = pendingCommit;
+		writingCommit = commit;
+		pendingCommit = new CompletableFuture<>();
+		flushRequested = false;
+		last = closed;
+	    }
+
+	    try {
+		writing.flip();
+		while (writing.hasRemaining()) {
+		    channel.write(writing);
+		}
+		if (writing.limit() > 0) {
+		    channel.force(false);
+		}
+		commit.complete(null);
+	    } catch (IOException e) {
+		LOGGER.log(Level.SEVERE, "Failed to write rental journal " + path, e);
+		synchronized (this) {
+		    failure = e;
+		}
+		commit.completeExceptionally(e);
+	    } finally {
+		writing.clear();
+	    }
+
+	    if (last) {
+		synchronized (this) {
+		    // nothing can be buffered after closing, but complete it regardless
+		    pendingCommit.complete(null);
+		}
+		return;
+	    }
+	}
+    }
+
+    /**
+     * Waits until the pending records are due to be committed. Must be called
+     * while holding the lock of the journal.
+     */
+    private void waitForCommit() throws InterruptedException {
+	while (!closed) {
+	    if (pending.position() == 0) {
+		wait();
+		continue;
+	    }
+	    long remainingNanos = firstPendingNanos + commitWindowNanos - System.nanoTime();
+	    if (flushRequested || remainingNanos <= 0 || pending.position() >= FLUSH_THRESHOLD_BYTES) {
+		return;
+	    }
+	    TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+	}
+    }
+
+    private void recover(RentalLedger ledger) throws IOException {
+	long size = channel.size();
+	if (size == 0) {
+	    ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+	    header.putInt(MAGIC).putShort(FORMAT_VERSION).flip();
+	    while (header.hasRemaining()) {
+		channel.write(header, header.position());
+	    }
+	    channel.force(true);
+	    channel.position(FILE_HEADER_SIZE);
+	    return;
+	}
+
+	ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+	readFully(header, 0);
+	if (header.getInt(0) != MAGIC) {
+	    throw new IOException(path + " is not a rental journal");
+	}
+	if (header.getShort(Integer.BYTES) != FORMAT_VERSION) {
+	    throw new IOException("Unsupported format version " + header.getShort(Integer.BYTES)
+		    + " of rental journal " + path);
+	}
+
+	long position = FILE_HEADER_SIZE;
+	long opened = 0;
+	long closedCount = 0;
+	ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+	ByteBuffer payload = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+	while (position < size) {
+	    recordHeader.clear();
+	    if (!readFully(recordHeader, position)) {
+		break;
+	    }
+	    int length = recordHeader.getInt(0);
+	    int expectedCrc = recordHeader.getInt(Integer.BYTES);
+	    if (length <= 0 || length > MAX_RECORD_SIZE) {
+		break;
+	    }
+	    if (payload.capacity() < length) {
+		payload = ByteBuffer.allocate(length);
+	    }
+	    payload.clear().limit(length);
+	    if (!readFully(payload, position + RECORD_HEADER_SIZE)) {
+		break;
+	    }
+	    crc.reset();
+	    crc.update(payload.array(), 0, length);
+	    if ((int) crc.getValue() != expectedCrc) {
+		break;
+	    }
+
+	    payload.flip();
+	    try {
+		byte type = payload.get();
+		if (type == OPENED) {
+		    ledger.restore(readRental(payload));
+		    opened++;
+		} else if (type == CLOSED) {
+		    ledger.close(payload.getLong());
+		    closedCount++;
+		} else {
+		    throw new IOException("Rental journal " + path + " has a record of unknown type " + type
+			    + " at offset " + position);
+		}
+	    } catch (BufferUnderflowException | IllegalArgumentException e) {
+		throw new IOException("Rental journal " + path + " has an invalid record at offset " + position, e);
+	    }
+	    position += RECORD_HEADER_SIZE + length;
+	}
+
+	if (position < size) {
+	    long validSize = position;
+	    LOGGER.warning(() -> "Truncating the incomplete or corrupt tail of rental journal " + path + " from "
+		    + size + " to " + validSize + " bytes");
+	    channel.truncate(validSize);
+	    channel.force(true);
+	}
+	channel.position(position);
+	long replayedOpened = opened;
+	long replayedClosed = closedCount;
+	LOGGER.info(() -> "Replayed rental journal " + path + ": " + replayedOpened + " opened, " + replayedClosed
+		+ " closed, " + ledger.getOpenRentalCount() + " open rentals");
+    }
+
+    private static Rental readRental(ByteBuffer payload) {
+	long rentalId = payload.getLong();
+	String code = getString(payload);
+	byte ordinal = payload.get();
+	if (ordinal < 0 || ordinal >= Tool.Type.values().length) {
+	    throw new IllegalArgumentException("Unknown tool type " + ordinal);
+	}
+	Tool.Type type = Tool.Type.values()[ordinal];
+	String brand = getString(payload);
+	Tool tool = new ToolDO.Builder().code(code).type(type).brand(brand).build();
+
+	//@formatter:off
+	RentalAgreement agreement = new RentalAgreementImpl.Builder()
+		.rentalId(rentalId)
+		.tool(tool)
+		.rentalDays(payload.getInt())
+		.checkOutDate(LocalDate.ofEpochDay(payload.getInt()))
+		.dueDate(LocalDate.ofEpochDay(payload.getInt()))
+		.dailyRentalCharge(payload.getLong())
+		.chargeDays(payload.getInt())
+		.preDiscountCharge(payload.getLong())
+		.discountPercent(payload.getInt())
+		.discountAmount(payload.getLong())
+		.finalCharge(payload.getLong())
+		.catalogVersion(payload.getLong())
+		.build();
+	//@formatter:on
+	ChargeableDaysDO chargeableDaysDO = new ChargeableDaysDO(type, payload.getLong(), payload.get() != 0,
+		payload.get() != 0, payload.get() != 0);
+	// records written before stores were tracked end here
+	String storeId = payload.hasRemaining() ? getString(payload) : CheckoutRequest.DEFAULT_STORE_ID;
+	return new Rental(agreement, chargeableDaysDO, storeId);
+    }
+
+    private static byte[] toBytes(String value) {
+	byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+	if (bytes.length > Short.MAX_VALUE) {
+	    throw new IllegalArgumentException("Value is too long for the journal: " + bytes.length + " bytes");
+	}
+	return bytes;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+	buffer.putShort((short) bytes.length);
+	buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+	short length = buffer.getShort();
+	if (length < 0) {
+	    throw new IllegalArgumentException("Negative string length " + length);
+	}
+	byte[] bytes = new byte[length];
+	buffer.get(bytes);
+	return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return false if the end of the file was reached first
+     */
+    private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+	while (buffer.hasRemaining()) {
+	    int read = channel.read(buffer, position + buffer.position());
+	    if (read < 0) {
+		return false;
+	    }
+	}
+	return true;
+    }
+}
@@ -0,0 +1,31 @@
+package cmiller.interview.internal.journal;
+
+import java.util.concurrent.CompletableFuture;
+
+import cmiller.interview.internal.ledger.Rental;
+
+/**
+ * Used when no journal is configured, so rentals only live in memory
+ */
+public final class NoOpRentalJournal implements RentalJournal {
+    public static final NoOpRentalJournal INSTANCE = new NoOpRentalJournal();
+
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    private NoOpRentalJournal() {
+    }
+
+    @Override
+    public CompletableFuture<Void> recordOpened(Rental rental) {
+	return DONE;
+    }
+
+    @Override
+    public CompletableFuture<Void> recordClosed(long rentalId) {
+	return DONE;
+    }
+
+    @Override
+    public void close() {
+    }
+}
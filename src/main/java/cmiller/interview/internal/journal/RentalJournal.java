@@ -0,0 +1,32 @@
+package cmiller.interview.internal.journal;
+
+import java.util.concurrent.CompletableFuture;
+
+import cmiller.interview.internal.ledger.Rental;
+import cmiller.interview.internal.ledger.RentalLedger;
+
+/**
+ * Durable record of the rentals opened and closed in the {@link RentalLedger},
+ * from which the ledger is rebuilt after a restart.
+ */
+public interface RentalJournal extends AutoCloseable {
+
+    /**
+     * Records that the rental was opened. Returns once the record is buffered,
+     * without waiting for it to be durable.
+     *
+     * @return a future completed once the record is durable
+     */
+    CompletableFuture<Void> recordOpened(Rental rental);
+
+    /**
+     * Records that the rental was closed. Returns once the record is buffered,
+     * without waiting for it to be durable.
+     *
+     * @return a future completed once the record is durable
+     */
+    CompletableFuture<Void> recordClosed(long rentalId);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,68 @@
+package cmiller.interview.internal.ledger;
+
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * An open rental, kept together with the {@link ChargeableDaysDO chargeable
+ * days} it was priced with, so that late days are charged by the same rules
+ * even if the catalog changes before the tool is returned.
+ */
+public class Rental {
+    private final RentalAgreement rentalAgreement;
+    private final ChargeableDaysDO chargeableDaysDO;
+    private final String storeId;
+    private volatile boolean shelfUnitTaken;
+
+    public Rental(RentalAgreement rentalAgreement, ChargeableDaysDO chargeableDaysDO) {
+	this(rentalAgreement, chargeableDaysDO, CheckoutRequest.DEFAULT_STORE_ID);
+    }
+
+    public Rental(RentalAgreement rentalAgreement, ChargeableDaysDO chargeableDaysDO, String storeId) {
+	this.rentalAgreement = rentalAgreement;
+	this.chargeableDaysDO = chargeableDaysDO;
+	this.storeId = storeId;
+    }
+
+    public long getRentalId() {
+	return rentalAgreement.getRentalId();
+    }
+
+    public RentalAgreement getRentalAgreement() {
+	return rentalAgreement;
+    }
+
+    public ChargeableDaysDO getChargeableDaysDO() {
+	return chargeableDaysDO;
+    }
+
+    /**
+     * @return the store the tool was rented from, and is returned to
+     */
+    public String getStoreId() {
+	return storeId;
+    }
+
+    /**
+     * Records that the rental has started, and took a unit of the tool off the
+     * store's shelf, which is put back at check-in
+     */
+    public void markShelfUnitTaken() {
+	shelfUnitTaken = true;
+    }
+
+    /**
+     * @return whether the rental took a unit off the shelf. Rentals booked ahead
+     *         of their check out date only hold their window.
+     */
+    public boolean isShelfUnitTaken() {
+	return shelfUnitTaken;
+    }
+
+    @Override
+    public String toString() {
+	return "Rental [rentalAgreement=" + rentalAgreement + ", chargeableDaysDO=" + chargeableDaysDO + ", storeId="
+		+ storeId + "]";
+    }
+}
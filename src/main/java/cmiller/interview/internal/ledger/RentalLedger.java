@@ -0,0 +1,150 @@
+package cmiller.interview.internal.ledger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process record of the open rentals, indexed by rental id and by tool code.
+ * <p>
+ * Both indexes are {@link ConcurrentHashMap concurrent maps}, so registers
+ * opening and closing rentals at the same time only contend when they touch
+ * the same tool code, and never take a ledger-wide lock. A rental is closed by
+ * removing it from the id index, which succeeds for exactly one caller. A
+ * rental may first be {@link #claim(long) claimed}, so that only one of
+ * concurrent callers records its closing elsewhere before closing it.
+ */
+public class RentalLedger {
+    private final AtomicLong lastRentalId = new AtomicLong();
+    private final ConcurrentHashMap<Long, Rental> openRentalsById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<Long>> openRentalIdsByToolCode = new ConcurrentHashMap<>();
+    private final Set<Long> claimedRentalIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @return a new, unique rental id. Ids start at 1.
+     */
+    public long nextRentalId() {
+	return lastRentalId.incrementAndGet();
+    }
+
+    /**
+     * Records the rental as open
+     *
+     * @throws IllegalStateException if a rental with the same id is already open
+     */
+    public void open(Rental rental) {
+	if (openRentalsById.putIfAbsent(rental.getRentalId(), rental) != null) {
+	    throw new IllegalStateException("Rental " + rental.getRentalId() + " is already open");
+	}
+	// compute runs atomically for the key, so a set emptied by close cannot be
+	// dropped while an id is being added to it
+	openRentalIdsByToolCode.compute(toolCodeOf(rental), (toolCode, rentalIds) -> {
+	    Set<Long> ids = rentalIds == null ? ConcurrentHashMap.newKeySet() : rentalIds;
+	    ids.add(rental.getRentalId());
+	    return ids;
+	});
+    }
+
+    /**
+     * Records a rental recovered from a journal as open, and makes sure later ids
+     * are issued after its id
+     *
+     * @throws IllegalStateException if a rental with the same id is already open
+     */
+    public void restore(Rental rental) {
+	lastRentalId.accumulateAndGet(rental.getRentalId(), Math::max);
+	open(rental);
+    }
+
+    /**
+     * Claims the open rental for closing. The rental stays open until it is
+     * {@link #close(long) closed}, or the claim is {@link #unclaim(long) given
+     * up}, but it cannot be claimed again meanwhile.
+     *
+     * @return the claimed rental, or null if no rental with the id is open, or it
+     *         is already claimed
+     */
+    public Rental claim(long rentalId) {
+	if (!claimedRentalIds.add(rentalId)) {
+	    return null;
+	}
+	Rental rental = openRentalsById.get(rentalId);
+	if (rental == null) {
+	    claimedRentalIds.remove(rentalId);
+	}
+	return rental;
+    }
+
+    /**
+     * Gives up the claim on a rental which is not going to be closed after all
+     */
+    public void unclaim(long rentalId) {
+	claimedRentalIds.remove(rentalId);
+    }
+
+    /**
+     * Closes the rental, and gives up any claim on it
+     *
+     * @return the closed rental, or null if no rental with the id is open, such as
+     *         when it was closed concurrently
+     */
+    public Rental close(long rentalId) {
+	Rental rental = openRentalsById.remove(rentalId);
+	if (rental == null) {
+	    return null;
+	}
+	// only given up once the rental is closed, so it cannot be claimed again
+	claimedRentalIds.remove(rentalId);
+	openRentalIdsByToolCode.computeIfPresent(toolCodeOf(rental), (toolCode, rentalIds) -> {
+	    rentalIds.remove(rentalId);
+	    return rentalIds.isEmpty() ? null : rentalIds;
+	});
+	return rental;
+    }
+
+    /**
+     * @return the open rental, or null if no rental with the id is open
+     */
+    public Rental getOpenRental(long rentalId) {
+	return openRentalsById.get(rentalId);
+    }
+
+    /**
+     * @return the open rentals of the tool, in no particular order
+     */
+    public List<Rental> getOpenRentalsForTool(String toolCode) {
+	Set<Long> rentalIds = openRentalIdsByToolCode.get(toolCode);
+	if (rentalIds == null) {
+	    return Collections.emptyList();
+	}
+	List<Rental> rentals = new ArrayList<>(rentalIds.size());
+	for (Long rentalId : rentalIds) {
+	    Rental rental = openRentalsById.get(rentalId);
+	    // may have been closed since the ids were read
+	    if (rental != null) {
+		rentals.add(rental);
+	    }
+	}
+	return rentals;
+    }
+
+    /**
+     * Runs the action for each open rental, in no particular order. Rentals opened
+     * or closed meanwhile may or may not be included.
+     */
+    public void forEachOpenRental(Consumer<Rental> action) {
+	openRentalsById.values().forEach(action);
+    }
+
+    public int getOpenRentalCount() {
+	return openRentalsById.size();
+    }
+
+    private static String toolCodeOf(Rental rental) {
+	return rental.getRentalAgreement().getTool().getCode();
+    }
+}
@@ -0,0 +1,67 @@
+package cmiller.interview.internal.metrics;
+
+/**
+ * The counts of a {@link LogLinearHistogram} at one point in time
+ */
+public final class HistogramSnapshot {
+    private final long[] counts;
+    private final long totalCount;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long sum, long max) {
+	this.counts = counts;
+	long total = 0;
+	for (long count : counts) {
+	    total += count;
+	}
+	this.totalCount = total;
+	this.sum = sum;
+	this.max = max;
+    }
+
+    public long getCount() {
+	return totalCount;
+    }
+
+    /**
+     * @return the mean of the recorded values, or 0 if none were recorded
+     */
+    public double getMean() {
+	return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * @return the largest recorded value, exactly
+     */
+    public long getMax() {
+	return max;
+    }
+
+    /**
+     * @param percentile in the range 0 - 100
+     * @return the value which the percentile of the recorded values are at or
+     *         below, to the precision of the buckets, or 0 if none were recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+	if (totalCount == 0) {
+	    return 0;
+	}
+	long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+	long seen = 0;
+	for (int i = 0; i < counts.length; i++) {
+	    seen += counts[i];
+	    if (seen >= countAtPercentile) {
+		// never more than was actually recorded
+		return Math.min(LogLinearHistogram.highestEquivalentValue(i), max);
+	    }
+	}
+	return max;
+    }
+
+    @Override
+    public String toString() {
+	return "HistogramSnapshot [count=" + totalCount + ", mean=" + getMean() + ", p50="
+		+ getValueAtPercentile(50) + ", p99=" + getValueAtPercentile(99) + ", max=" + max + "]";
+    }
+}
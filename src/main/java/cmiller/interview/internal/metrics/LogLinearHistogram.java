@@ -0,0 +1,71 @@
+package cmiller.interview.internal.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative values, recorded concurrently without locks, in the
+ * style of HdrHistogram.
+ * <p>
+ * Buckets are log-linear: each power of two range of values is split into 16
+ * equally sized buckets, and values below 32 have a bucket each, so every value
+ * is counted within about 6% of its true value, from nanoseconds to minutes,
+ * in a few hundred buckets. Each bucket is a {@link LongAdder}, so threads
+ * recording at once do not contend on the same counter.
+ */
+public final class LogLinearHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    /**
+     * Larger values are counted as this value, about 18 minutes in nanoseconds
+     */
+    public static final long HIGHEST_TRACKABLE_VALUE = (1L << 40) - 1;
+
+    private final LongAdder[] counts = new LongAdder[bucketIndex(HIGHEST_TRACKABLE_VALUE) + 1];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LogLinearHistogram() {
+	for (int i = 0; i < counts.length; i++) {
+	    counts[i] = new LongAdder();
+	}
+    }
+
+    /**
+     * @param value counted as 0 if negative
+     */
+    public void record(long value) {
+	long clamped = Math.max(0, Math.min(value, HIGHEST_TRACKABLE_VALUE));
+	counts[bucketIndex(clamped)].increment();
+	sum.add(clamped);
+	max.accumulate(clamped);
+    }
+
+    /**
+     * @return a copy of the counts. Values recorded while it is taken may or may
+     *         not be included.
+     */
+    public HistogramSnapshot snapshot() {
+	long[] snapshotCounts = new long[counts.length];
+	for (int i = 0; i < counts.length; i++) {
+	    snapshotCounts[i] = counts[i].sum();
+	}
+	return new HistogramSnapshot(snapshotCounts, sum.sum(), max.get());
+    }
+
+    static int bucketIndex(long value) {
+	// how far the value is shifted to fit in the sub buckets, 0 for small values
+	int shift = Math.max(0, Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1));
+	return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    /**
+     * @return the largest value counted in the bucket
+     */
+    static long highestEquivalentValue(int bucketIndex) {
+	int shift = bucketIndex < SUB_BUCKET_COUNT ? 0 : bucketIndex / SUB_BUCKET_HALF_COUNT - 1;
+	long subBucket = bucketIndex - shift * SUB_BUCKET_HALF_COUNT;
+	return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,72 @@
+package cmiller.interview.internal.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import cmiller.interview.ToolRentalServiceException.FailureReason;
+import cmiller.interview.internal.cache.CacheStats;
+
+/**
+ * Aggregates the measurements in memory, with {@link LongAdder} counters and
+ * {@link LogLinearHistogram histograms}, so recording never takes a lock and
+ * costs a few nanoseconds. Read them with {@link #snapshot()}.
+ */
+public class LongAdderToolRentalMetrics implements ToolRentalMetrics {
+    private final LogLinearHistogram checkoutLatency = new LogLinearHistogram();
+    private final LogLinearHistogram rentalDays = new LogLinearHistogram();
+    private final LongAdder[] failuresByReason = new LongAdder[FailureReason.values().length];
+    private final LogLinearHistogram toolLookupLatency = new LogLinearHistogram();
+    private final LogLinearHistogram chargeableDaysLookupLatency = new LogLinearHistogram();
+    private final Map<String, Supplier<CacheStats>> caches = new ConcurrentHashMap<>();
+
+    public LongAdderToolRentalMetrics() {
+	for (int i = 0; i < failuresByReason.length; i++) {
+	    failuresByReason[i] = new LongAdder();
+	}
+    }
+
+    @Override
+    public void recordCheckout(long latencyNanos, int rentalDays) {
+	checkoutLatency.record(latencyNanos);
+	this.rentalDays.record(rentalDays);
+    }
+
+    @Override
+    public void recordCheckoutFailure(long latencyNanos, FailureReason failureReason) {
+	failuresByReason[failureReason.ordinal()].increment();
+    }
+
+    @Override
+    public void recordToolLookup(long latencyNanos) {
+	toolLookupLatency.record(latencyNanos);
+    }
+
+    @Override
+    public void recordChargeableDaysLookup(long latencyNanos) {
+	chargeableDaysLookupLatency.record(latencyNanos);
+    }
+
+    @Override
+    public void registerCache(String name, Supplier<CacheStats> stats) {
+	caches.put(name, stats);
+    }
+
+    /**
+     * @return the measurements so far. Measurements recorded while it is taken may
+     *         or may not be included.
+     */
+    public MetricsSnapshot snapshot() {
+	Map<FailureReason, Long> failures = new EnumMap<>(FailureReason.class);
+	for (FailureReason reason : FailureReason.values()) {
+	    failures.put(reason, failuresByReason[reason.ordinal()].sum());
+	}
+	Map<String, CacheStats> cacheStats = new TreeMap<>();
+	caches.forEach((name, stats) -> cacheStats.put(name, stats.get()));
+	return new MetricsSnapshot(checkoutLatency.snapshot(), rentalDays.snapshot(), failures,
+		toolLookupLatency.snapshot(), chargeableDaysLookupLatency.snapshot(), cacheStats);
+    }
+}
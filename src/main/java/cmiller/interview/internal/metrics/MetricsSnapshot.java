@@ -0,0 +1,131 @@
+package cmiller.interview.internal.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import cmiller.interview.ToolRentalServiceException.FailureReason;
+import cmiller.interview.internal.cache.CacheStats;
+
+/**
+ * The measurements of a {@link LongAdderToolRentalMetrics} at one point in time
+ */
+public final class MetricsSnapshot {
+    private final HistogramSnapshot checkoutLatency;
+    private final HistogramSnapshot rentalDays;
+    private final Map<FailureReason, Long> failuresByReason;
+    private final HistogramSnapshot toolLookupLatency;
+    private final HistogramSnapshot chargeableDaysLookupLatency;
+    private final Map<String, CacheStats> cacheStats;
+
+    MetricsSnapshot(HistogramSnapshot checkoutLatency, HistogramSnapshot rentalDays,
+	    Map<FailureReason, Long> failuresByReason, HistogramSnapshot toolLookupLatency,
+	    HistogramSnapshot chargeableDaysLookupLatency, Map<String, CacheStats> cacheStats) {
+	this.checkoutLatency = checkoutLatency;
+	this.rentalDays = rentalDays;
+	this.failuresByReason = Collections.unmodifiableMap(failuresByReason);
+	this.toolLookupLatency = toolLookupLatency;
+	this.chargeableDaysLookupLatency = chargeableDaysLookupLatency;
+	this.cacheStats = Collections.unmodifiableMap(cacheStats);
+    }
+
+    /**
+     * @return the latency of successful checkouts, in nanoseconds
+     */
+    public HistogramSnapshot getCheckoutLatency() {
+	return checkoutLatency;
+    }
+
+    /**
+     * @return the rental days of successful checkouts
+     */
+    public HistogramSnapshot getRentalDays() {
+	return rentalDays;
+    }
+
+    /**
+     * @return the number of failed checkouts of each reason, including reasons
+     *         which never occurred
+     */
+    public Map<FailureReason, Long> getFailuresByReason() {
+	return failuresByReason;
+    }
+
+    /**
+     * @return the latency of looking up tools by code, in nanoseconds
+     */
+    public HistogramSnapshot getToolLookupLatency() {
+	return toolLookupLatency;
+    }
+
+    /**
+     * @return the latency of looking up the chargeable days of a tool type, in
+     *         nanoseconds
+     */
+    public HistogramSnapshot getChargeableDaysLookupLatency() {
+	return chargeableDaysLookupLatency;
+    }
+
+    /**
+     * @return the statistics of each registered cache, by name
+     */
+    public Map<String, CacheStats> getCacheStats() {
+	return cacheStats;
+    }
+
+    /**
+     * Prints a human-readable report of the measurements, one metric per line
+     *
+     * @throws IOException if appending to the destination fails
+     */
+    public void print(Appendable out) throws IOException {
+	printLatency(out, "checkout latency", checkoutLatency);
+	printDistribution(out, "rental days", rentalDays);
+	out.append("checkout failures:");
+	for (Map.Entry<FailureReason, Long> failures : failuresByReason.entrySet()) {
+	    out.append(' ').append(failures.getKey().name()).append('=').append(Long.toString(failures.getValue()));
+	}
+	out.append('\n');
+	printLatency(out, "tool lookup latency", toolLookupLatency);
+	printLatency(out, "chargeable days lookup latency", chargeableDaysLookupLatency);
+	for (Map.Entry<String, CacheStats> cache : cacheStats.entrySet()) {
+	    CacheStats stats = cache.getValue();
+	    out.append("%s cache: hits=%d misses=%d hitRate=%.3f evictions=%d size=%d\n".formatted(cache.getKey(),
+		    stats.getHitCount(), stats.getMissCount(), stats.getHitRate(), stats.getEvictionCount(),
+		    stats.getSize()));
+	}
+    }
+
+    @Override
+    public String toString() {
+	StringBuilder builder = new StringBuilder(1024);
+	try {
+	    print(builder);
+	} catch (IOException e) {
+	    // a StringBuilder never throws
+	    throw new UncheckedIOException(e);
+	}
+	return builder.toString();
+    }
+
+    private static void printLatency(Appendable out, String name, HistogramSnapshot histogram) throws IOException {
+	out.append("%s (us): count=%d mean=%.2f p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f\n".formatted(name,
+		histogram.getCount(), histogram.getMean() / TimeUnit.MICROSECONDS.toNanos(1),
+		micros(histogram.getValueAtPercentile(50)), micros(histogram.getValueAtPercentile(90)),
+		micros(histogram.getValueAtPercentile(99)), micros(histogram.getValueAtPercentile(99.9)),
+		micros(histogram.getMax())));
+    }
+
+    private static void printDistribution(Appendable out, String name, HistogramSnapshot histogram)
+	    throws IOException {
+	out.append("%s: count=%d mean=%.2f p50=%d p90=%d p99=%d max=%d\n".formatted(name, histogram.getCount(),
+		histogram.getMean(), histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+		histogram.getValueAtPercentile(99), histogram.getMax()));
+    }
+
+    private static double micros(long nanos) {
+	return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,41 @@
+package cmiller.interview.internal.metrics;
+
+import java.util.function.Supplier;
+
+import cmiller.interview.ToolRentalServiceException.FailureReason;
+import cmiller.interview.internal.cache.CacheStats;
+
+/**
+ * Used when no metrics are configured, so nothing is measured
+ */
+public final class NoOpToolRentalMetrics implements ToolRentalMetrics {
+    public static final NoOpToolRentalMetrics INSTANCE = new NoOpToolRentalMetrics();
+
+    private NoOpToolRentalMetrics() {
+    }
+
+    @Override
+    public boolean isEnabled() {
+	return false;
+    }
+
+    @Override
+    public void recordCheckout(long latencyNanos, int rentalDays) {
+    }
+
+    @Override
+    public void recordCheckoutFailure(long latencyNanos, FailureReason failureReason) {
+    }
+
+    @Override
+    public void recordToolLookup(long latencyNanos) {
+    }
+
+    @Override
+    public void recordChargeableDaysLookup(long latencyNanos) {
+    }
+
+    @Override
+    public void registerCache(String name, Supplier<CacheStats> stats) {
+    }
+}
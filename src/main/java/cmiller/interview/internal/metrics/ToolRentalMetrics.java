@@ -0,0 +1,62 @@
+package cmiller.interview.internal.metrics;
+
+import java.util.function.Supplier;
+
+import cmiller.interview.ToolRentalServiceException.FailureReason;
+import cmiller.interview.internal.cache.CacheStats;
+
+/**
+ * Receives the measurements of the service, to be aggregated or forwarded to a
+ * metrics system. Configured through
+ * {@link cmiller.interview.internal.factory.ToolRentalServiceConfiguration.Builder#metrics(ToolRentalMetrics)}.
+ * <p>
+ * The record methods are called on the checkout path, from many threads at
+ * once, so implementations must be thread-safe and should not block. By
+ * default the {@link NoOpToolRentalMetrics} is used, which the service detects
+ * through {@link #isEnabled()} to skip taking the measurements at all. The
+ * {@link LongAdderToolRentalMetrics} aggregates them in memory.
+ */
+public interface ToolRentalMetrics {
+
+    /**
+     * @return false if the measurements are discarded, so they need not be taken
+     */
+    default boolean isEnabled() {
+	return true;
+    }
+
+    /**
+     * A checkout succeeded
+     *
+     * @param latencyNanos the time taken to check out, in nanoseconds
+     * @param rentalDays   the rental days of the checkout
+     */
+    void recordCheckout(long latencyNanos, int rentalDays);
+
+    /**
+     * A checkout failed
+     *
+     * @param latencyNanos the time taken until the checkout failed, in
+     *                     nanoseconds
+     */
+    void recordCheckoutFailure(long latencyNanos, FailureReason failureReason);
+
+    /**
+     * A tool was looked up by its code in the data retrieval service
+     */
+    void recordToolLookup(long latencyNanos);
+
+    /**
+     * The chargeable days of a tool type were looked up in the data retrieval
+     * service
+     */
+    void recordChargeableDaysLookup(long latencyNanos);
+
+    /**
+     * Makes the statistics of one of the service's caches available, to be read
+     * whenever the metrics are reported
+     *
+     * @param name identifies the cache, such as "holidays"
+     */
+    void registerCache(String name, Supplier<CacheStats> stats);
+}
@@ -0,0 +1,145 @@
+package cmiller.interview.internal.pricing;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.cache.CacheStats;
+import cmiller.interview.internal.cache.LruCache;
+import cmiller.interview.internal.calculator.ChargeableDayCalculator;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * Prices rentals by the current {@link PricingRuleSet}, on top of the
+ * chargeable days of the {@link ChargeableDaysDO}.
+ * <p>
+ * Each rule set is compiled once into a {@link PricingPlan} per tool type, and
+ * per tool type of each store which has rules of its own, so a checkout only
+ * looks up its plan and evaluates it. Compiled rule sets are cached by
+ * version, so switching back to an earlier version does not compile it again.
+ * The current rule set is read with a single volatile read, and can be
+ * {@link #updateRules(PricingRuleSet) updated} while rentals are priced.
+ */
+public class PricingEngine {
+    private static final int MAXIMUM_CACHED_RULE_SETS = 8;
+
+    private final Function<String, ? extends ChargeableDayCalculator> chargeableDayCalculatorByStore;
+    private final LruCache<Long, CompiledRuleSet> compiledByVersion = new LruCache<>(MAXIMUM_CACHED_RULE_SETS);
+    private volatile CompiledRuleSet current;
+
+    public PricingEngine(PricingRuleSet ruleSet, ChargeableDayCalculator chargeableDayCalculator) {
+	this(ruleSet, storeId -> chargeableDayCalculator);
+    }
+
+    /**
+     * @param chargeableDayCalculatorByStore gives the calculator counting the
+     *                                       chargeable days of a store's rentals
+     */
+    public PricingEngine(PricingRuleSet ruleSet,
+	    Function<String, ? extends ChargeableDayCalculator> chargeableDayCalculatorByStore) {
+	this.chargeableDayCalculatorByStore = chargeableDayCalculatorByStore;
+	updateRules(ruleSet);
+    }
+
+    /**
+     * Prices rentals by the rule set from now on. A rule set of a version which
+     * was compiled before is not compiled again, even if its rules differ.
+     */
+    public void updateRules(PricingRuleSet ruleSet) {
+	if (ruleSet == null) {
+	    throw new IllegalArgumentException("PricingEngine ruleSet cannot be null");
+	}
+	current = compiledByVersion.get(ruleSet.getVersion(), version -> compile(ruleSet));
+    }
+
+    public PricingRuleSet getRuleSet() {
+	return current.ruleSet;
+    }
+
+    /**
+     * @return the plan of the tool type at the store, by the current rule set
+     */
+    public PricingPlan getPlan(String storeId, Tool.Type toolType) {
+	return current.getPlan(storeId, toolType);
+    }
+
+    /**
+     * @param checkOutDate the date the tool was checked out. This day is never
+     *                     charged.
+     * @param dueDate      the date the tool is due back, inclusive
+     * @throws ArithmeticException if the charge overflows a {@code long}
+     */
+    public RentalCharge price(String storeId, LocalDate checkOutDate, LocalDate dueDate,
+	    ChargeableDaysDO chargeableDaysDO) {
+	return getPlan(storeId, chargeableDaysDO.getToolType()).price(chargeableDayCalculatorByStore.apply(storeId),
+		checkOutDate, dueDate, chargeableDaysDO);
+    }
+
+    /**
+     * @return the hits and misses of looking up compiled rule sets by version
+     */
+    public CacheStats getCompiledRuleSetCacheStats() {
+	return compiledByVersion.stats();
+    }
+
+    private static CompiledRuleSet compile(PricingRuleSet ruleSet) {
+	// least specific first, keeping the listed order of equally specific rules
+	List<PricingRule> rules = new ArrayList<>(ruleSet.getRules());
+	rules.sort(Comparator.comparingInt(PricingRule::getSpecificity));
+
+	Set<String> storeIds = new LinkedHashSet<>();
+	for (PricingRule rule : rules) {
+	    if (rule.getStoreId() != null) {
+		storeIds.add(rule.getStoreId());
+	    }
+	}
+	Map<String, PricingPlan[]> plansByStore = new HashMap<>();
+	for (String storeId : storeIds) {
+	    plansByStore.put(storeId, compilePlans(rules, storeId));
+	}
+	return new CompiledRuleSet(ruleSet, compilePlans(rules, null), Collections.unmodifiableMap(plansByStore));
+    }
+
+    private static PricingPlan[] compilePlans(List<PricingRule> rules, String storeId) {
+	Tool.Type[] toolTypes = Tool.Type.values();
+	PricingPlan[] plans = new PricingPlan[toolTypes.length];
+	for (Tool.Type toolType : toolTypes) {
+	    List<PricingRule> applicable = new ArrayList<>();
+	    for (PricingRule rule : rules) {
+		if (rule.appliesTo(storeId, toolType)) {
+		    applicable.add(rule);
+		}
+	    }
+	    plans[toolType.ordinal()] = PricingPlan.compile(applicable);
+	}
+	return plans;
+    }
+
+    private static final class CompiledRuleSet {
+	private final PricingRuleSet ruleSet;
+	// by tool type ordinal
+	private final PricingPlan[] defaultPlans;
+	private final Map<String, PricingPlan[]> plansByStore;
+
+	private CompiledRuleSet(PricingRuleSet ruleSet, PricingPlan[] defaultPlans,
+		Map<String, PricingPlan[]> plansByStore) {
+	    this.ruleSet = ruleSet;
+	    this.defaultPlans = defaultPlans;
+	    this.plansByStore = plansByStore;
+	}
+
+	private PricingPlan getPlan(String storeId, Tool.Type toolType) {
+	    PricingPlan[] plans = plansByStore.isEmpty() ? defaultPlans
+		    : plansByStore.getOrDefault(storeId, defaultPlans);
+	    return plans[toolType.ordinal()];
+	}
+    }
+}
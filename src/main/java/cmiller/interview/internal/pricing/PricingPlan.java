@@ -0,0 +1,156 @@
+package cmiller.interview.internal.pricing;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.Arrays;
+import java.util.List;
+
+import cmiller.interview.internal.calculator.ChargeCalculator;
+import cmiller.interview.internal.calculator.ChargeableDayCalculator;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * The {@link PricingRule pricing rules} of one tool type at one store, compiled
+ * into lookup tables so that pricing a rental never tests a rule.
+ * <p>
+ * The daily charge of every day of the year is kept in a table indexed by day
+ * of a leap year, next to the number of days until it next changes. A rental
+ * is priced in runs of days sharing a daily charge, each counted by the
+ * {@link ChargeableDayCalculator}, so the cost grows with the number of weeks
+ * and seasons the rental spans rather than with its days. Plans without
+ * seasonal rates or caps are priced with a single count. Instances are
+ * immutable and safe to share across threads.
+ */
+public final class PricingPlan {
+    static final int DAYS_PER_WEEK = 7;
+    static final int DAYS_PER_MONTH = 30;
+
+    private static final long NO_CAP = Long.MAX_VALUE;
+    // the daily charge of the tool type applies
+    private static final long BASE_RATE = -1;
+    private static final int DAYS_PER_LEAP_YEAR = 366;
+    private static final int FEBRUARY_29_INDEX = 59;
+    private static final int MARCH_1_INDEX = 60;
+    private static final int[] LEAP_YEAR_MONTH_OFFSETS = { 0, 31, 60, 91, 121, 152, 182, 213, 244, 274, 305, 335 };
+
+    private final long[] rateByDayOfYear;
+    // days from each day of the year until the rate may change, never crossing
+    // February 29th, which only some years have, nor the end of the year
+    private final int[] runLengthByDayOfYear;
+    private final long weeklyCap;
+    private final long monthlyCap;
+    private final boolean flatRate;
+
+    private PricingPlan(long[] rateByDayOfYear, int[] runLengthByDayOfYear, long weeklyCap, long monthlyCap,
+	    boolean flatRate) {
+	this.rateByDayOfYear = rateByDayOfYear;
+	this.runLengthByDayOfYear = runLengthByDayOfYear;
+	this.weeklyCap = weeklyCap;
+	this.monthlyCap = monthlyCap;
+	this.flatRate = flatRate;
+    }
+
+    /**
+     * @param rules the rules which apply, least specific first, so later rules
+     *              override earlier ones
+     */
+    static PricingPlan compile(List<PricingRule> rules) {
+	long[] rateByDayOfYear = new long[DAYS_PER_LEAP_YEAR];
+	Arrays.fill(rateByDayOfYear, BASE_RATE);
+	long weeklyCap = NO_CAP;
+	long monthlyCap = NO_CAP;
+	boolean seasonal = false;
+	for (PricingRule rule : rules) {
+	    switch (rule.getKind()) {
+	    case SEASONAL_RATE:
+		seasonal = true;
+		int start = dayOfYearIndex(rule.getSeasonStart());
+		int end = dayOfYearIndex(rule.getSeasonEnd());
+		if (start <= end) {
+		    Arrays.fill(rateByDayOfYear, start, end + 1, rule.getAmount());
+		} else {
+		    Arrays.fill(rateByDayOfYear, start, DAYS_PER_LEAP_YEAR, rule.getAmount());
+		    Arrays.fill(rateByDayOfYear, 0, end + 1, rule.getAmount());
+		}
+		break;
+	    case WEEKLY_CAP:
+		weeklyCap = rule.getAmount();
+		break;
+	    case MONTHLY_CAP:
+		monthlyCap = rule.getAmount();
+		break;
+	    default:
+		throw new IllegalArgumentException("Unknown pricing rule kind " + rule.getKind());
+	    }
+	}
+
+	int[] runLengthByDayOfYear = new int[DAYS_PER_LEAP_YEAR];
+	runLengthByDayOfYear[DAYS_PER_LEAP_YEAR - 1] = 1;
+	for (int i = DAYS_PER_LEAP_YEAR - 2; i >= 0; i--) {
+	    boolean changes = rateByDayOfYear[i + 1] != rateByDayOfYear[i] || i + 1 == FEBRUARY_29_INDEX
+		    || i + 1 == MARCH_1_INDEX;
+	    runLengthByDayOfYear[i] = changes ? 1 : runLengthByDayOfYear[i + 1] + 1;
+	}
+	return new PricingPlan(rateByDayOfYear, runLengthByDayOfYear, weeklyCap, monthlyCap,
+		!seasonal && weeklyCap == NO_CAP && monthlyCap == NO_CAP);
+    }
+
+    /**
+     * @param checkOutDate the date the tool was checked out. This day is never
+     *                     charged.
+     * @param dueDate      the date the tool is due back, inclusive
+     * @throws ArithmeticException if the charge overflows a {@code long}
+     */
+    public RentalCharge price(ChargeableDayCalculator calculator, LocalDate checkOutDate, LocalDate dueDate,
+	    ChargeableDaysDO chargeableDaysDO) {
+	if (flatRate) {
+	    int chargeDays = calculator.calculateChargeableDays(checkOutDate, dueDate, chargeableDaysDO);
+	    return new RentalCharge(chargeDays,
+		    ChargeCalculator.calculatePreDiscountCharge(chargeDays, chargeableDaysDO.getDailyCharge()));
+	}
+
+	long firstEpochDay = checkOutDate.toEpochDay() + 1;
+	long lastEpochDay = dueDate.toEpochDay();
+	int chargeDays = 0;
+	long charge = 0;
+	for (long monthStart = firstEpochDay; monthStart <= lastEpochDay; monthStart += DAYS_PER_MONTH) {
+	    long monthEnd = Math.min(lastEpochDay, monthStart + DAYS_PER_MONTH - 1);
+	    long monthCharge = 0;
+	    for (long weekStart = monthStart; weekStart <= monthEnd; weekStart += DAYS_PER_WEEK) {
+		long weekEnd = Math.min(monthEnd, weekStart + DAYS_PER_WEEK - 1);
+		long weekCharge = 0;
+		for (long runStart = weekStart; runStart <= weekEnd;) {
+		    LocalDate runFirstDay = LocalDate.ofEpochDay(runStart);
+		    int dayIndex = dayOfYearIndex(runFirstDay);
+		    long runEnd = Math.min(weekEnd, runStart + runLengthByDayOfYear[dayIndex] - 1);
+		    int runChargeDays = calculator.calculateChargeableDays(runFirstDay.minusDays(1),
+			    LocalDate.ofEpochDay(runEnd), chargeableDaysDO);
+		    long rate = rateByDayOfYear[dayIndex];
+		    chargeDays += runChargeDays;
+		    weekCharge = Math.addExact(weekCharge, ChargeCalculator.calculatePreDiscountCharge(runChargeDays,
+			    rate == BASE_RATE ? chargeableDaysDO.getDailyCharge() : rate));
+		    runStart = runEnd + 1;
+		}
+		monthCharge = Math.addExact(monthCharge, Math.min(weekCharge, weeklyCap));
+	    }
+	    charge = Math.addExact(charge, Math.min(monthCharge, monthlyCap));
+	}
+	return new RentalCharge(chargeDays, charge);
+    }
+
+    /**
+     * @return whether every day is charged the daily charge of the tool type,
+     *         without caps
+     */
+    public boolean isFlatRate() {
+	return flatRate;
+    }
+
+    private static int dayOfYearIndex(MonthDay monthDay) {
+	return LEAP_YEAR_MONTH_OFFSETS[monthDay.getMonthValue() - 1] + monthDay.getDayOfMonth() - 1;
+    }
+
+    private static int dayOfYearIndex(LocalDate date) {
+	return LEAP_YEAR_MONTH_OFFSETS[date.getMonthValue() - 1] + date.getDayOfMonth() - 1;
+    }
+}
@@ -0,0 +1,158 @@
+package cmiller.interview.internal.pricing;
+
+import java.time.MonthDay;
+
+import cmiller.interview.common.Tool;
+
+/**
+ * A single rule of a {@link PricingRuleSet}. A rule applies to one tool type,
+ * or to every type if its type is {@code null}, and to every store unless it
+ * is limited to one {@link #atStore(String) store}.
+ * <p>
+ * When several rules of the same kind apply to the same day, the most specific
+ * one wins: a rule of a store over a rule of every store, then a rule of a
+ * tool type over a rule of every type, and then the rule listed last.
+ */
+public final class PricingRule {
+
+    public enum Kind {
+	/**
+	 * Replaces the daily charge of the tool type on the days of a season
+	 */
+	SEASONAL_RATE,
+	/**
+	 * Limits the charge of each week of a rental
+	 */
+	WEEKLY_CAP,
+	/**
+	 * Limits the charge of each month of a rental
+	 */
+	MONTHLY_CAP
+    }
+
+    private final Kind kind;
+    private final Tool.Type toolType;
+    private final String storeId;
+    private final MonthDay seasonStart;
+    private final MonthDay seasonEnd;
+    private final long amount;
+
+    private PricingRule(Kind kind, Tool.Type toolType, String storeId, MonthDay seasonStart, MonthDay seasonEnd,
+	    long amount) {
+	if (amount < 0) {
+	    throw new IllegalArgumentException("PricingRule amount cannot be negative");
+	}
+	this.kind = kind;
+	this.toolType = toolType;
+	this.storeId = storeId;
+	this.seasonStart = seasonStart;
+	this.seasonEnd = seasonEnd;
+	this.amount = amount;
+    }
+
+    /**
+     * Charges the daily charge on every chargeable day from the start through the
+     * end of the season, of every year. A season ending before it starts wraps
+     * around the new year.
+     *
+     * @param toolType the type the rate applies to, or {@code null} for all types
+     */
+    public static PricingRule seasonalRate(Tool.Type toolType, MonthDay seasonStart, MonthDay seasonEnd,
+	    long dailyCharge) {
+	if (seasonStart == null || seasonEnd == null) {
+	    throw new IllegalArgumentException("PricingRule season cannot be null");
+	}
+	return new PricingRule(Kind.SEASONAL_RATE, toolType, null, seasonStart, seasonEnd, dailyCharge);
+    }
+
+    /**
+     * Charges at most the cap for each 7 days of a rental, counted from the first
+     * chargeable day
+     *
+     * @param toolType the type the cap applies to, or {@code null} for all types
+     */
+    public static PricingRule weeklyCap(Tool.Type toolType, long cap) {
+	return new PricingRule(Kind.WEEKLY_CAP, toolType, null, null, null, cap);
+    }
+
+    /**
+     * Charges at most the cap for each 30 days of a rental, counted from the first
+     * chargeable day. The weeks of a month are capped first, the last week of
+     * each month being 2 days long.
+     *
+     * @param toolType the type the cap applies to, or {@code null} for all types
+     */
+    public static PricingRule monthlyCap(Tool.Type toolType, long cap) {
+	return new PricingRule(Kind.MONTHLY_CAP, toolType, null, null, null, cap);
+    }
+
+    /**
+     * @return the same rule, applying to rentals of the store only
+     */
+    public PricingRule atStore(String storeId) {
+	if (storeId == null) {
+	    throw new IllegalArgumentException("PricingRule storeId cannot be null");
+	}
+	return new PricingRule(kind, toolType, storeId, seasonStart, seasonEnd, amount);
+    }
+
+    public Kind getKind() {
+	return kind;
+    }
+
+    /**
+     * @return the type the rule applies to, or {@code null} if it applies to all
+     *         types
+     */
+    public Tool.Type getToolType() {
+	return toolType;
+    }
+
+    /**
+     * @return the store the rule applies to, or {@code null} if it applies to all
+     *         stores
+     */
+    public String getStoreId() {
+	return storeId;
+    }
+
+    /**
+     * @return the first day of the season of a {@link Kind#SEASONAL_RATE}
+     */
+    public MonthDay getSeasonStart() {
+	return seasonStart;
+    }
+
+    /**
+     * @return the last day of the season of a {@link Kind#SEASONAL_RATE},
+     *         inclusive
+     */
+    public MonthDay getSeasonEnd() {
+	return seasonEnd;
+    }
+
+    /**
+     * @return the daily charge or the cap, in cents
+     */
+    public long getAmount() {
+	return amount;
+    }
+
+    boolean appliesTo(String storeId, Tool.Type toolType) {
+	return (this.storeId == null || this.storeId.equals(storeId))
+		&& (this.toolType == null || this.toolType == toolType);
+    }
+
+    /**
+     * @return higher for rules which override others of the same kind
+     */
+    int getSpecificity() {
+	return (storeId != null ? 2 : 0) + (toolType != null ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+	return "PricingRule [kind=" + kind + ", toolType=" + toolType + ", storeId=" + storeId + ", seasonStart="
+		+ seasonStart + ", seasonEnd=" + seasonEnd + ", amount=" + amount + "]";
+    }
+}
@@ -0,0 +1,42 @@
+package cmiller.interview.internal.pricing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable, versioned list of {@link PricingRule pricing rules}. The version
+ * identifies the rules: the {@link PricingEngine} compiles each version once,
+ * so a changed rule set must be given a new version.
+ */
+public final class PricingRuleSet {
+    /**
+     * No rules, so every chargeable day is charged the daily charge of its tool
+     * type
+     */
+    public static final PricingRuleSet EMPTY = new PricingRuleSet(0, Collections.emptyList());
+
+    private final long version;
+    private final List<PricingRule> rules;
+
+    public PricingRuleSet(long version, List<PricingRule> rules) {
+	if (rules == null) {
+	    throw new IllegalArgumentException("PricingRuleSet rules cannot be null");
+	}
+	this.version = version;
+	this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+    }
+
+    public long getVersion() {
+	return version;
+    }
+
+    public List<PricingRule> getRules() {
+	return rules;
+    }
+
+    @Override
+    public String toString() {
+	return "PricingRuleSet [version=" + version + ", rules=" + rules + "]";
+    }
+}
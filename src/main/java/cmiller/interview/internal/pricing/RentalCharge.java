@@ -0,0 +1,30 @@
+package cmiller.interview.internal.pricing;
+
+/**
+ * The chargeable days of a rental and their charge, before any discount
+ */
+public final class RentalCharge {
+    private final int chargeDays;
+    private final long preDiscountCharge;
+
+    public RentalCharge(int chargeDays, long preDiscountCharge) {
+	this.chargeDays = chargeDays;
+	this.preDiscountCharge = preDiscountCharge;
+    }
+
+    public int getChargeDays() {
+	return chargeDays;
+    }
+
+    /**
+     * @return the charge in cents
+     */
+    public long getPreDiscountCharge() {
+	return preDiscountCharge;
+    }
+
+    @Override
+    public String toString() {
+	return "RentalCharge [chargeDays=" + chargeDays + ", preDiscountCharge=" + preDiscountCharge + "]";
+    }
+}
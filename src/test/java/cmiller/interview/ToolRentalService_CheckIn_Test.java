@@ -0,0 +1,144 @@
+package cmiller.interview;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cmiller.interview.ToolRentalServiceException.FailureReason;
+import cmiller.interview.checkin.CheckInRequest;
+import cmiller.interview.checkin.CheckInResponse;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.ToolDO;
+import cmiller.interview.internal.data.catalog.BinaryCatalogWriter;
+import cmiller.interview.internal.factory.ToolRentalServiceConfiguration;
+
+/**
+ * Functional tests for the {@link ToolRentalService#checkin(CheckInRequest)
+ * check-in} operation, checking in tools rented with the default in-memory
+ * sample data
+ */
+public class ToolRentalService_CheckIn_Test {
+
+    private static ToolRentalService toolRentalService;
+
+    @BeforeAll
+    public static void beforeAll() {
+	toolRentalService = ToolRentalService.Factory.getService();
+    }
+
+    @AfterAll
+    public static void afterAll() {
+	toolRentalService.close();
+    }
+
+    @Test
+    public void onTime() {
+	RentalAgreement agreement = rent("LADW", LocalDate.of(2020, Month.JULY, 2), 3);
+
+	CheckInResponse response = checkIn(agreement.getRentalId(), agreement.getDueDate());
+
+	assertThat(response.getRentalAgreement().getRentalId(), is(agreement.getRentalId()));
+	assertThat(response.getLateDays(), is(0));
+	assertThat(response.getLateChargeDays(), is(0));
+	assertThat(response.getLateCharge(), is(0L));
+    }
+
+    @Test
+    public void late_onlyChargeableDaysAreCharged() {
+	// due Wednesday 9/9/15, returned the following Monday
+	RentalAgreement agreement = rent("JAKD", LocalDate.of(2015, Month.SEPTEMBER, 3), 6);
+
+	CheckInResponse response = checkIn(agreement.getRentalId(), LocalDate.of(2015, Month.SEPTEMBER, 14));
+
+	assertThat(response.getLateDays(), is(5));
+	// Thursday, Friday and Monday, jackhammers are free on weekends
+	assertThat(response.getLateChargeDays(), is(3));
+	assertThat(response.getLateCharge(), is(897L));
+    }
+
+    @Test
+    public void rentalCanOnlyBeCheckedInOnce() {
+	RentalAgreement agreement = rent("CHNS", LocalDate.of(2020, Month.JULY, 2), 3);
+	checkIn(agreement.getRentalId(), agreement.getDueDate());
+
+	assertFailure(agreement.getRentalId(), agreement.getDueDate(), FailureReason.RENTAL_NOT_FOUND);
+    }
+
+    @Test
+    public void unknownRental() {
+	assertFailure(Long.MAX_VALUE, LocalDate.of(2020, Month.JULY, 2), FailureReason.RENTAL_NOT_FOUND);
+    }
+
+    @Test
+    public void invalidInput() {
+	RentalAgreement agreement = rent("JAKR", LocalDate.of(2020, Month.JULY, 2), 3);
+
+	assertFailure(agreement.getRentalId(), agreement.getCheckOutDate().minusDays(1), FailureReason.INVALID_INPUT);
+	assertFailure(agreement.getRentalId(), null, FailureReason.INVALID_INPUT);
+	assertFailure(0, agreement.getDueDate(), FailureReason.INVALID_INPUT);
+	// still open after the failed attempts
+	assertThat(checkIn(agreement.getRentalId(), agreement.getDueDate()).getLateDays(), is(0));
+    }
+
+    @Test
+    public void lateChargeOutOfRange_rentalStaysOpen(@TempDir Path directory) throws IOException {
+	Path catalog = directory.resolve("tools.catalog");
+	try (BinaryCatalogWriter writer = new BinaryCatalogWriter(catalog, 1)) {
+	    writer.writeTool(new ToolDO.Builder().code("CHNS").type(Tool.Type.CHAINSAW).brand("Stihl").build());
+	    writer.writeChargeableDays(new ChargeableDaysDO(Tool.Type.CHAINSAW, Long.MAX_VALUE / 2, true, false, true));
+	    writer.finish();
+	}
+	ToolRentalServiceConfiguration configuration = new ToolRentalServiceConfiguration.Builder().catalogPath(catalog)
+		.build();
+
+	try (ToolRentalService service = ToolRentalService.Factory.getService(configuration)) {
+	    // due Tuesday 9/15/15, the three late weekdays overflow the late charge
+	    RentalAgreement agreement = service.checkout(new CheckoutRequest.Builder().toolCode("CHNS")
+		    .checkOutDate(LocalDate.of(2015, Month.SEPTEMBER, 14)).rentalDays(1).discountPercent(0).build())
+		    .getRentalAgreement();
+	    try {
+		service.checkin(new CheckInRequest.Builder().rentalId(agreement.getRentalId())
+			.checkInDate(LocalDate.of(2015, Month.SEPTEMBER, 18)).build());
+		fail("Expected exception was not thrown");
+	    } catch (ToolRentalServiceException e) {
+		assertThat(e.getFailureReason(), is(FailureReason.INTERNAL_ERROR));
+	    }
+
+	    // still open after the failed attempt
+	    CheckInResponse response = service.checkin(new CheckInRequest.Builder()
+		    .rentalId(agreement.getRentalId()).checkInDate(agreement.getDueDate()).build());
+	    assertThat(response.getLateCharge(), is(0L));
+	}
+    }
+
+    private static RentalAgreement rent(String toolCode, LocalDate checkOutDate, int rentalDays) {
+	return toolRentalService.checkout(new CheckoutRequest.Builder().toolCode(toolCode).checkOutDate(checkOutDate)
+		.rentalDays(rentalDays).discountPercent(0).build()).getRentalAgreement();
+    }
+
+    private static CheckInResponse checkIn(long rentalId, LocalDate checkInDate) {
+	return toolRentalService.checkin(new CheckInRequest.Builder().rentalId(rentalId).checkInDate(checkInDate).build());
+    }
+
+    private static void assertFailure(long rentalId, LocalDate checkInDate, FailureReason expectedReason) {
+	try {
+	    checkIn(rentalId, checkInDate);
+	    fail("Expected exception was not thrown");
+	} catch (ToolRentalServiceException e) {
+	    assertThat(e.getFailureReason(), is(expectedReason));
+	}
+    }
+}
@@ -0,0 +1,56 @@
+package cmiller.interview.codec;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.number.OrderingComparison.lessThan;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+import org.junit.jupiter.api.Test;
+
+import cmiller.interview.checkout.CheckoutRequest;
+
+public class CheckoutRequestCodecTest {
+    private final CheckoutRequestCodec codec = new CheckoutRequestCodec();
+
+    @Test
+    public void roundTripsARequest() {
+	CheckoutRequest request = new CheckoutRequest.Builder().toolCode("LADW")
+		.checkOutDate(LocalDate.of(2020, Month.JULY, 2)).rentalDays(3).discountPercent(10).build();
+
+	byte[] encoded = codec.encode(request);
+	assertThat(encoded.length, is(codec.encodedSize(request)));
+	assertThat(encoded.length, lessThan(16));
+	CheckoutRequest decoded = codec.decode(encoded);
+
+	assertThat(decoded.getStoreId(), is(CheckoutRequest.DEFAULT_STORE_ID));
+	assertThat(decoded.getToolCode(), is("LADW"));
+	assertThat(decoded.getCheckOutDate(), is(LocalDate.of(2020, Month.JULY, 2)));
+	assertThat(decoded.getRentalDays(), is(3));
+	assertThat(decoded.getDiscountPercent(), is(10));
+    }
+
+    @Test
+    public void roundTripsTheStore() {
+	CheckoutRequest request = new CheckoutRequest.Builder().storeId("store 12").toolCode("LADW")
+		.checkOutDate(LocalDate.of(2020, Month.JULY, 2)).rentalDays(3).build();
+
+	byte[] encoded = codec.encode(request);
+	assertThat(encoded.length, is(codec.encodedSize(request)));
+	assertThat(codec.decode(encoded).getStoreId(), is("store 12"));
+    }
+
+    @Test
+    public void keepsInvalidRequestsAsGiven() {
+	CheckoutRequest request = new CheckoutRequest.Builder().rentalDays(-1).discountPercent(101).build();
+
+	CheckoutRequest decoded = codec.decode(codec.encode(request));
+
+	assertThat(decoded.getToolCode(), is(nullValue()));
+	assertThat(decoded.getCheckOutDate(), is(nullValue()));
+	assertThat(decoded.getRentalDays(), is(-1));
+	assertThat(decoded.getDiscountPercent(), is(101));
+    }
+}
@@ -0,0 +1,130 @@
+package cmiller.interview.codec;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.number.OrderingComparison.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.Month;
+
+import org.junit.jupiter.api.Test;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.data.access.impl.InMemoryDataRetrievalService;
+
+public class RentalAgreementCodecTest {
+    private final InMemoryDataRetrievalService catalog = new InMemoryDataRetrievalService();
+    private final RentalAgreementCodec codec = new RentalAgreementCodec(catalog::getToolByCode);
+
+    @Test
+    public void roundTripsAnAgreement() {
+	RentalAgreement agreement = checkout();
+
+	byte[] encoded = codec.encode(agreement);
+	assertThat(encoded.length, is(codec.encodedSize(agreement)));
+	RentalAgreement decoded = codec.decode(encoded);
+
+	assertThat(decoded.getRentalId(), is(agreement.getRentalId()));
+	assertThat(decoded.toString(), is(agreement.toString()));
+	assertThat(decoded.prettyPrint(), is(agreement.prettyPrint()));
+    }
+
+    @Test
+    public void encodesBackToBackInOneBuffer() {
+	RentalAgreement agreement = checkout();
+	ByteBuffer buffer = ByteBuffer.allocateDirect(4 * codec.encodedSize(agreement));
+	for (int i = 0; i < 4; i++) {
+	    codec.encode(agreement, buffer);
+	}
+	buffer.flip();
+
+	for (int i = 0; i < 4; i++) {
+	    assertThat(codec.decode(buffer).toString(), is(agreement.toString()));
+	}
+	assertThat(buffer.hasRemaining(), is(false));
+    }
+
+    @Test
+    public void rejectsUnknownVersionsAndTools() {
+	byte[] encoded = codec.encode(checkout());
+	RentalAgreementCodec emptyCatalog = new RentalAgreementCodec(code -> null);
+	assertThrows(IllegalArgumentException.class, () -> emptyCatalog.decode(encoded));
+
+	encoded[0] = RentalAgreementCodec.VERSION + 1;
+	assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+
+    @Test
+    public void isSmallerThanJavaSerialization() throws IOException {
+	RentalAgreement agreement = checkout();
+	int serializedSize = javaSerialize(new SerializableAgreement(agreement)).length;
+
+	assertThat(codec.encodedSize(agreement), lessThan(40));
+	assertThat(codec.encodedSize(agreement) * 10, lessThan(serializedSize));
+    }
+
+    private static RentalAgreement checkout() {
+	try (ToolRentalService service = ToolRentalService.Factory.getService()) {
+	    return service.checkout(new CheckoutRequest.Builder().toolCode("JAKR")
+		    .checkOutDate(LocalDate.of(2020, Month.JULY, 2)).rentalDays(4).discountPercent(50).build())
+		    .getRentalAgreement();
+	}
+    }
+
+    private static byte[] javaSerialize(Object value) throws IOException {
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+	    out.writeObject(value);
+	}
+	return bytes.toByteArray();
+    }
+
+    /**
+     * The agreement as it would be shipped with Java serialization, with the tool
+     * inlined
+     */
+    private static final class SerializableAgreement implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final long rentalId;
+	private final String toolCode;
+	private final Tool.Type toolType;
+	private final String toolBrand;
+	private final int rentalDays;
+	private final LocalDate checkOutDate;
+	private final LocalDate dueDate;
+	private final long dailyRentalCharge;
+	private final int chargeDays;
+	private final long preDiscountCharge;
+	private final int discountPercent;
+	private final long discountAmount;
+	private final long finalCharge;
+	private final long catalogVersion;
+
+	SerializableAgreement(RentalAgreement agreement) {
+	    this.rentalId = agreement.getRentalId();
+	    this.toolCode = agreement.getTool().getCode();
+	    this.toolType = agreement.getTool().getType();
+	    this.toolBrand = agreement.getTool().getBrand();
+	    this.rentalDays = agreement.getRentalDays();
+	    this.checkOutDate = agreement.getCheckOutDate();
+	    this.dueDate = agreement.getDueDate();
+	    this.dailyRentalCharge = agreement.getDailyRentalCharge();
+	    this.chargeDays = agreement.getChargeDays();
+	    this.preDiscountCharge = agreement.getPreDiscountCharge();
+	    this.discountPercent = agreement.getDiscountPercent();
+	    this.discountAmount = agreement.getDiscountAmount();
+	    this.finalCharge = agreement.getFinalCharge();
+	    this.catalogVersion = agreement.getCatalogVersion();
+	}
+    }
+}
@@ -0,0 +1,167 @@
+package cmiller.interview.internal.availability;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkin.CheckInRequest;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.internal.factory.ToolRentalServiceConfiguration;
+
+public class AvailabilityIndexTest {
+    private static final String STORE = "store 1";
+    private static final LocalDate JULY_1 = LocalDate.of(2020, Month.JULY, 1);
+
+    private final AvailabilityIndex index = new AvailabilityIndex();
+
+    @Test
+    public void countsOverlappingBookings() {
+	index.addCapacity(STORE, "JAKD", 2);
+	index.book(STORE, "JAKD", JULY_1, JULY_1.plusDays(10));
+	index.book(STORE, "JAKD", JULY_1.plusDays(5), JULY_1.plusDays(15));
+
+	assertThat(index.getPeakBookings(STORE, "JAKD", JULY_1, JULY_1.plusDays(5)), is(1));
+	assertThat(index.getPeakBookings(STORE, "JAKD", JULY_1, JULY_1.plusDays(6)), is(2));
+	assertThat(index.getPeakBookings(STORE, "JAKD", JULY_1.plusDays(15), JULY_1.plusDays(20)), is(0));
+
+	assertThat(index.isAvailable(STORE, "JAKD", JULY_1.plusDays(9), JULY_1.plusDays(12)), is(false));
+	// the first booking ends the day the window starts
+	assertThat(index.isAvailable(STORE, "JAKD", JULY_1.plusDays(10), JULY_1.plusDays(12)), is(true));
+
+	index.cancel(STORE, "JAKD", JULY_1, JULY_1.plusDays(10));
+	assertThat(index.isAvailable(STORE, "JAKD", JULY_1.plusDays(9), JULY_1.plusDays(12)), is(true));
+    }
+
+    @Test
+    public void toolsWithoutCapacityAreAlwaysAvailable() {
+	index.book(STORE, "LADW", JULY_1, JULY_1.plusDays(3));
+
+	assertThat(index.isAvailable(STORE, "LADW", JULY_1, JULY_1.plusDays(3)), is(true));
+	assertThat(index.tryBook(STORE, "LADW", JULY_1, JULY_1.plusDays(3)), is(true));
+	assertThat(index.getPeakBookings(STORE, "LADW", JULY_1, JULY_1.plusDays(3)), is(2));
+    }
+
+    @Test
+    public void matchesCountingEveryDay() {
+	Random random = new Random(42);
+	int days = 400;
+	int[] bookedPerDay = new int[days];
+	for (int i = 0; i < 2_000; i++) {
+	    int from = random.nextInt(days);
+	    int to = from + 1 + random.nextInt(days - from);
+	    boolean cancel = i % 3 == 2 && bookedPerDay[from] > 0;
+	    if (cancel) {
+		// cancel a single day booking, which is known to exist
+		to = from + 1;
+		index.cancel(STORE, "CHNS", JULY_1.plusDays(from), JULY_1.plusDays(to));
+	    } else {
+		index.book(STORE, "CHNS", JULY_1.plusDays(from), JULY_1.plusDays(to));
+	    }
+	    for (int day = from; day < to; day++) {
+		bookedPerDay[day] += cancel ? -1 : 1;
+	    }
+
+	    int queryFrom = random.nextInt(days);
+	    int queryTo = queryFrom + 1 + random.nextInt(days - queryFrom);
+	    int expected = 0;
+	    for (int day = queryFrom; day < queryTo; day++) {
+		expected = Math.max(expected, bookedPerDay[day]);
+	    }
+	    assertThat(index.getPeakBookings(STORE, "CHNS", JULY_1.plusDays(queryFrom), JULY_1.plusDays(queryTo)),
+		    is(expected));
+	}
+    }
+
+    @Test
+    public void concurrentBookingsNeverExceedTheCapacity() throws Exception {
+	int threads = 8;
+	int attemptsPerThread = 1_000;
+	int units = 100;
+	index.addCapacity(STORE, "JAKD", units);
+	AtomicInteger booked = new AtomicInteger();
+	CountDownLatch start = new CountDownLatch(1);
+	ExecutorService executor = Executors.newFixedThreadPool(threads);
+	try {
+	    List<Future<?>> futures = new ArrayList<>();
+	    for (int t = 0; t < threads; t++) {
+		int offset = t;
+		futures.add(executor.submit(() -> {
+		    start.await();
+		    for (int i = 0; i < attemptsPerThread; i++) {
+			// every window overlaps on July 10
+			LocalDate from = JULY_1.plusDays((offset + i) % 10);
+			if (index.tryBook(STORE, "JAKD", from, from.plusDays(10))) {
+			    booked.incrementAndGet();
+			}
+		    }
+		    return null;
+		}));
+	    }
+	    start.countDown();
+	    for (Future<?> future : futures) {
+		future.get(30, TimeUnit.SECONDS);
+	    }
+	} finally {
+	    executor.shutdownNow();
+	}
+
+	assertThat(booked.get(), is(units));
+	assertThat(index.getPeakBookings(STORE, "JAKD", JULY_1.plusDays(9), JULY_1.plusDays(10)), is(units));
+    }
+
+    @Test
+    public void serviceBooksDisjointWindowsOfOneUnit() {
+	ToolRentalServiceConfiguration configuration = new ToolRentalServiceConfiguration.Builder()
+		.toolStock(STORE, "LADW", 1)
+		.clock(Clock.fixed(JULY_1.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC)).build();
+	CheckoutRequest july = new CheckoutRequest.Builder().storeId(STORE).toolCode("LADW")
+		.checkOutDate(LocalDate.of(2030, Month.JULY, 1)).rentalDays(9).build();
+	CheckoutRequest august = new CheckoutRequest.Builder().storeId(STORE).toolCode("LADW")
+		.checkOutDate(LocalDate.of(2030, Month.AUGUST, 1)).rentalDays(9).build();
+
+	try (ToolRentalService service = ToolRentalService.Factory.getService(configuration)) {
+	    service.checkout(july);
+	    assertThat(service.isAvailable(august), is(true));
+	    assertThat(service.checkout(august).getRentalAgreement().getCheckOutDate(),
+		    is(LocalDate.of(2030, Month.AUGUST, 1)));
+	    assertThat(service.isAvailable(july), is(false));
+	}
+    }
+
+    @Test
+    public void serviceAnswersForFutureWindows() {
+	ToolRentalServiceConfiguration configuration = new ToolRentalServiceConfiguration.Builder()
+		.toolStock(STORE, "JAKD", 1).build();
+	CheckoutRequest firstTenDays = new CheckoutRequest.Builder().storeId(STORE).toolCode("JAKD")
+		.checkOutDate(JULY_1).rentalDays(10).build();
+	CheckoutRequest afterwards = new CheckoutRequest.Builder().storeId(STORE).toolCode("JAKD")
+		.checkOutDate(JULY_1.plusDays(10)).rentalDays(10).build();
+
+	try (ToolRentalService service = ToolRentalService.Factory.getService(configuration)) {
+	    assertThat(service.isAvailable(firstTenDays), is(true));
+	    long rentalId = service.checkout(firstTenDays).getRentalAgreement().getRentalId();
+
+	    assertThat(service.isAvailable(firstTenDays), is(false));
+	    assertThat(service.isAvailable(afterwards), is(true));
+
+	    service.checkin(new CheckInRequest.Builder().rentalId(rentalId).checkInDate(JULY_1.plusDays(10)).build());
+	    assertThat(service.isAvailable(firstTenDays), is(true));
+	}
+    }
+}
@@ -0,0 +1,113 @@
+package cmiller.interview.internal.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class LruCacheTest {
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+	LruCache<Integer, String> cache = new LruCache<>(2);
+	cache.get(1, String::valueOf);
+	cache.get(2, String::valueOf);
+	// touch 1, so 2 becomes the least recently used
+	cache.get(1, String::valueOf);
+	cache.get(3, String::valueOf);
+
+	assertThat(cache.getIfPresent(1), is("1"));
+	assertThat(cache.getIfPresent(2), is(nullValue()));
+	assertThat(cache.getIfPresent(3), is("3"));
+
+	CacheStats stats = cache.stats();
+	assertThat(stats.getHitCount(), is(1L));
+	assertThat(stats.getMissCount(), is(3L));
+	assertThat(stats.getEvictionCount(), is(1L));
+	assertThat(stats.getSize(), is(2));
+    }
+
+    @Test
+    public void nullAndFailedLoadsAreNotCached() {
+	LruCache<Integer, String> cache = new LruCache<>(2);
+
+	assertThat(cache.get(1, key -> null), is(nullValue()));
+	assertThrows(IllegalStateException.class, () -> cache.get(2, key -> {
+	    throw new IllegalStateException();
+	}));
+
+	assertThat(cache.size(), is(0));
+	assertThat(cache.get(2, String::valueOf), is("2"));
+    }
+
+    @Test
+    public void entriesExpireAfterWrite() {
+	AtomicLong now = new AtomicLong();
+	LruCache<Integer, String> cache = new LruCache<>(10, 5, TimeUnit.SECONDS, now::get);
+	cache.get(1, String::valueOf);
+	cache.put(2, "two");
+
+	now.addAndGet(TimeUnit.SECONDS.toNanos(4));
+	assertThat(cache.getIfPresent(1), is("1"));
+	cache.put(2, "TWO");
+
+	now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+	assertThat(cache.getIfPresent(1), is(nullValue()));
+	assertThat(cache.getIfPresent(2), is("TWO"));
+	assertThat(cache.get(1, key -> "reloaded"), is("reloaded"));
+
+	CacheStats stats = cache.stats();
+	assertThat(stats.getMissCount(), is(2L));
+	assertThat(stats.getEvictionCount(), is(1L));
+    }
+
+    @Test
+    public void concurrentMissesLoadOnce() throws Exception {
+	LruCache<Integer, String> cache = new LruCache<>(10);
+	AtomicInteger loads = new AtomicInteger();
+	CountDownLatch start = new CountDownLatch(1);
+	int threads = 8;
+	ExecutorService executor = Executors.newFixedThreadPool(threads);
+	try {
+	    List<Future<String>> results = new ArrayList<>();
+	    for (int i = 0; i < threads; i++) {
+		results.add(executor.submit(() -> {
+		    start.await();
+		    return cache.get(42, key -> {
+			loads.incrementAndGet();
+			sleep(50);
+			return String.valueOf(key);
+		    });
+		}));
+	    }
+	    start.countDown();
+	    for (Future<String> result : results) {
+		assertThat(result.get(5, TimeUnit.SECONDS), is("42"));
+	    }
+	} finally {
+	    executor.shutdownNow();
+	}
+
+	assertThat(loads.get(), is(1));
+    }
+
+    private static void sleep(long millis) {
+	try {
+	    Thread.sleep(millis);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	}
+    }
+}
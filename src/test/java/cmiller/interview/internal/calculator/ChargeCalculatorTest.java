@@ -0,0 +1,88 @@
+package cmiller.interview.internal.calculator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential fuzz tests of {@link ChargeCalculator} against the
+ * {@link BigDecimal} calculation it replaced
+ */
+public class ChargeCalculatorTest {
+    private static final int ITERATIONS = 1_000_000;
+
+    private final Random random = new Random(7L);
+
+    @Test
+    public void preDiscountCharge_matchesBigDecimal() {
+	for (int i = 0; i < ITERATIONS; i++) {
+	    int chargeDays = random.nextInt(Integer.MAX_VALUE);
+	    // bounded so the product always fits in a long
+	    long dailyRentalCharge = (long) (random.nextDouble() * (Long.MAX_VALUE / Integer.MAX_VALUE));
+
+	    assertThat(ChargeCalculator.calculatePreDiscountCharge(chargeDays, dailyRentalCharge),
+		    is(bigDecimalPreDiscountCharge(chargeDays, dailyRentalCharge)));
+	}
+    }
+
+    @Test
+    public void discountAmount_matchesBigDecimal() {
+	for (int i = 0; i < ITERATIONS; i++) {
+	    int discountPercent = random.nextInt(101);
+	    long preDiscountCharge = randomCharge();
+
+	    assertThat("preDiscountCharge=" + preDiscountCharge + ", discountPercent=" + discountPercent,
+		    ChargeCalculator.calculateDiscountAmount(preDiscountCharge, discountPercent),
+		    is(bigDecimalDiscountAmount(preDiscountCharge, discountPercent)));
+	}
+    }
+
+    @Test
+    public void discountAmount_matchesBigDecimalAtEveryRemainder() {
+	// every cent value up to 2 dollars, against every percent, covers every
+	// rounding remainder on both sides of zero
+	for (long preDiscountCharge = -200; preDiscountCharge <= 200; preDiscountCharge++) {
+	    for (int discountPercent = 0; discountPercent <= 100; discountPercent++) {
+		assertThat(ChargeCalculator.calculateDiscountAmount(preDiscountCharge, discountPercent),
+			is(bigDecimalDiscountAmount(preDiscountCharge, discountPercent)));
+	    }
+	}
+    }
+
+    @Test
+    public void overflowThrows() {
+	assertThrows(ArithmeticException.class,
+		() -> ChargeCalculator.calculatePreDiscountCharge(Integer.MAX_VALUE, Long.MAX_VALUE / 2));
+	assertThrows(ArithmeticException.class, () -> ChargeCalculator.calculateDiscountAmount(Long.MAX_VALUE, 2));
+    }
+
+    /**
+     * @return a charge whose product with a percent fits in a long, spread across
+     *         magnitudes so both small and large values are exercised
+     */
+    private long randomCharge() {
+	long bound = 1L << random.nextInt(57);
+	long magnitude = (long) (random.nextDouble() * bound);
+	return random.nextInt(10) == 0 ? -magnitude : magnitude;
+    }
+
+    private static long bigDecimalDiscountAmount(long preDiscountChargeCents, int discountPercent) {
+	BigDecimal preDiscountCharge = new BigDecimal(preDiscountChargeCents);
+	BigDecimal discount = preDiscountCharge.multiply(new BigDecimal(discountPercent)).divide(new BigDecimal("100"));
+	discount = discount.setScale(0, RoundingMode.HALF_UP);
+	return discount.longValue();
+    }
+
+    private static long bigDecimalPreDiscountCharge(int chargeDays, long dailyRentalChargeCents) {
+	BigDecimal dailyRentalCharge = new BigDecimal(dailyRentalChargeCents);
+	BigDecimal totalCharge = dailyRentalCharge.multiply(new BigDecimal(chargeDays));
+	totalCharge = totalCharge.setScale(0, RoundingMode.HALF_UP);
+	return totalCharge.longValue();
+    }
+}
@@ -0,0 +1,142 @@
+package cmiller.interview.internal.calculator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import cmiller.interview.common.Tool.Type;
+import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.calendar.BusinessCalendar;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+
+/**
+ * Property tests verifying that the {@link ClosedFormChargeableDayCalculator},
+ * {@link BusinessCalendarChargeableDayCalculator} and
+ * {@link PrefixSumChargeableDayCalculator} agree with the
+ * {@link IterativeChargeableDayCalculator reference implementation} for every
+ * {@link ChargeableDaysDO} combination.
+ */
+public class ChargeableDayCalculatorTest {
+    private static final long SEED = 20240701L;
+    private static final int SAMPLES_PER_COMBINATION = 2_000;
+    private static final LocalDate EARLIEST_CHECKOUT = LocalDate.of(1990, Month.JANUARY, 1);
+    private static final LocalDate LATEST_CHECKOUT = LocalDate.of(2100, Month.DECEMBER, 31);
+    private static final int MAX_RENTAL_DAYS = 2_000;
+
+    private final HolidaysAgent holidaysAgent = new HolidaysAgent();
+    private final ChargeableDayCalculator reference = new IterativeChargeableDayCalculator(holidaysAgent);
+    private final ChargeableDayCalculator closedForm = new ClosedFormChargeableDayCalculator(holidaysAgent);
+    // smaller than the random ranges, so the fallback path is exercised as well
+    private final ChargeableDayCalculator businessCalendar = new BusinessCalendarChargeableDayCalculator(
+	    BusinessCalendar.build(holidaysAgent, 2000, 2050), closedForm);
+    private final PrefixSumChargeableDayCalculator prefixSum = new PrefixSumChargeableDayCalculator(
+	    BusinessCalendar.build(holidaysAgent, 2000, 2050), closedForm);
+
+    static Stream<ChargeableDaysDO> allChargeableDaysCombinations() {
+	List<ChargeableDaysDO> combinations = new ArrayList<>();
+	for (boolean weekday : new boolean[] { true, false }) {
+	    for (boolean weekend : new boolean[] { true, false }) {
+		for (boolean holiday : new boolean[] { true, false }) {
+		    combinations.add(new ChargeableDaysDO(Type.OTHER, 100, weekday, weekend, holiday));
+		}
+	    }
+	}
+	return combinations.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("allChargeableDaysCombinations")
+    public void closedFormMatchesReference_randomRanges(ChargeableDaysDO chargeableDaysDO) {
+	Random random = new Random(SEED);
+	long checkoutSpan = LATEST_CHECKOUT.toEpochDay() - EARLIEST_CHECKOUT.toEpochDay();
+
+	for (int i = 0; i < SAMPLES_PER_COMBINATION; i++) {
+	    LocalDate checkOutDate = EARLIEST_CHECKOUT.plusDays((long) (random.nextDouble() * checkoutSpan));
+	    LocalDate dueDate = checkOutDate.plusDays(1 + random.nextInt(MAX_RENTAL_DAYS));
+
+	    assertSameResult(checkOutDate, dueDate, chargeableDaysDO);
+	}
+    }
+
+    @ParameterizedTest
+    @MethodSource("allChargeableDaysCombinations")
+    public void closedFormMatchesReference_shortRangesAroundHolidays(ChargeableDaysDO chargeableDaysDO) {
+	// every start day from late June through mid September, covering both holidays
+	// and each day of the week, for every rental length up to three weeks
+	for (int year = 2014; year <= 2026; year++) {
+	    LocalDate start = LocalDate.of(year, Month.JUNE, 25);
+	    LocalDate end = LocalDate.of(year, Month.SEPTEMBER, 15);
+	    for (LocalDate checkOutDate = start; checkOutDate.isBefore(end); checkOutDate = checkOutDate.plusDays(1)) {
+		for (int rentalDays = 1; rentalDays <= 21; rentalDays++) {
+		    assertSameResult(checkOutDate, checkOutDate.plusDays(rentalDays), chargeableDaysDO);
+		}
+	    }
+	}
+    }
+
+    @Test
+    public void closedForm_spansYearBoundary() {
+	ChargeableDaysDO noWeekendOrHoliday = new ChargeableDaysDO(Type.JACKHAMMER, 299, true, false, false);
+	LocalDate checkOutDate = LocalDate.of(2019, Month.DECEMBER, 30);
+
+	assertSameResult(checkOutDate, checkOutDate.plusDays(3650), noWeekendOrHoliday);
+    }
+
+    @Test
+    public void weekdayChargeIsHonoured() {
+	// Friday July 3rd 2015 is the observed Independence Day, through Tuesday
+	LocalDate checkOutDate = LocalDate.of(2015, Month.JULY, 2);
+	LocalDate dueDate = checkOutDate.plusDays(5);
+	ChargeableDaysDO weekendsOnly = new ChargeableDaysDO(Type.OTHER, 100, false, true, true);
+	ChargeableDaysDO weekdaysOnly = new ChargeableDaysDO(Type.OTHER, 100, true, false, true);
+	ChargeableDaysDO noDays = new ChargeableDaysDO(Type.OTHER, 100, false, false, true);
+
+	for (ChargeableDayCalculator calculator : new ChargeableDayCalculator[] { reference, closedForm,
+		businessCalendar, prefixSum }) {
+	    assertThat(calculator.calculateChargeableDays(checkOutDate, dueDate, weekendsOnly), is(2));
+	    assertThat(calculator.calculateChargeableDays(checkOutDate, dueDate, weekdaysOnly), is(3));
+	    assertThat(calculator.calculateChargeableDays(checkOutDate, dueDate, noDays), is(0));
+	}
+    }
+
+    @Test
+    public void prefixSum_buildsATablePerChargedKindsOfDay() {
+	LocalDate checkOutDate = LocalDate.of(2021, Month.JULY, 1);
+	assertThat(prefixSum.getTableFootprintBytes().isEmpty(), is(true));
+
+	prefixSum.calculateChargeableDays(checkOutDate, checkOutDate.plusDays(7),
+		new ChargeableDaysDO(Type.LADDER, 199, true, true, false));
+	prefixSum.calculateChargeableDays(checkOutDate, checkOutDate.plusDays(7),
+		new ChargeableDaysDO(Type.OTHER, 100, true, true, false));
+	prefixSum.calculateChargeableDays(checkOutDate, checkOutDate.plusDays(7),
+		new ChargeableDaysDO(Type.JACKHAMMER, 299, true, false, false));
+
+	// a table per day from 2000 through 2050, and one more entry
+	long tableBytes = 16 + (LocalDate.of(2051, Month.JANUARY, 1).toEpochDay()
+		- LocalDate.of(2000, Month.JANUARY, 1).toEpochDay() + 1) * Integer.BYTES;
+	assertThat(prefixSum.getTableFootprintBytes().keySet().toString(), is("[weekdays, weekdays+weekends]"));
+	assertThat(prefixSum.getTableFootprintBytes().get("weekdays"), is(tableBytes));
+	assertThat(prefixSum.getFootprintBytes(), is(2 * tableBytes));
+    }
+
+    private void assertSameResult(LocalDate checkOutDate, LocalDate dueDate, ChargeableDaysDO chargeableDaysDO) {
+	int expected = reference.calculateChargeableDays(checkOutDate, dueDate, chargeableDaysDO);
+	String description = "checkOutDate=" + checkOutDate + ", dueDate=" + dueDate + ", " + chargeableDaysDO;
+	assertThat(description, closedForm.calculateChargeableDays(checkOutDate, dueDate, chargeableDaysDO),
+		is(expected));
+	assertThat(description, businessCalendar.calculateChargeableDays(checkOutDate, dueDate, chargeableDaysDO),
+		is(expected));
+	assertThat(description, prefixSum.calculateChargeableDays(checkOutDate, dueDate, chargeableDaysDO),
+		is(expected));
+    }
+}
@@ -0,0 +1,153 @@
+package cmiller.interview.internal.calendar;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.factory.ToolRentalServiceConfiguration;
+
+public class RegionalCalendarsTest {
+    //@formatter:off
+    private static final List<String> HOLIDAY_RULES = Arrays.asList(
+	    "# region, name, definition",
+	    "MA, Independence Day, fixed JULY 4 observed",
+	    "MA, Patriots' Day, nth 3 MONDAY APRIL",
+	    "",
+	    "TX, Memorial Day, last MONDAY MAY",
+	    "TX, New Year's Day, fixed JANUARY 1 observed");
+    //@formatter:on
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void rulesGiveTheDateOfEachYear() {
+	assertThat(HolidayRule.lastWeekday("Memorial Day", DayOfWeek.MONDAY, Month.MAY).dateIn(2021),
+		is(LocalDate.of(2021, Month.MAY, 31)));
+	assertThat(HolidayRule.nthWeekday("Thanksgiving", 4, DayOfWeek.THURSDAY, Month.NOVEMBER).dateIn(2021),
+		is(LocalDate.of(2021, Month.NOVEMBER, 25)));
+	assertThat(HolidayRule.fixedDate("Christmas", Month.DECEMBER, 25, false).dateIn(2021),
+		is(LocalDate.of(2021, Month.DECEMBER, 25)));
+	// a Saturday, observed on the Friday before
+	assertThat(HolidayRule.fixedDate("Christmas", Month.DECEMBER, 25, true).dateIn(2021),
+		is(LocalDate.of(2021, Month.DECEMBER, 24)));
+	assertThrows(IllegalArgumentException.class,
+		() -> HolidayRule.fixedDate("Leap Day", Month.FEBRUARY, 29, false));
+    }
+
+    @Test
+    public void observedNewYearsDayMayFallInTheYearBefore() {
+	HolidaysAgent agent = new HolidaysAgent(
+		Collections.singletonList(HolidayRule.fixedDate("New Year's Day", Month.JANUARY, 1, true)), 16);
+
+	// January 1st 2022 is a Saturday
+	assertThat(agent.getHolidaysForYear(2021),
+		is(Arrays.asList(LocalDate.of(2021, Month.JANUARY, 1), LocalDate.of(2021, Month.DECEMBER, 31))));
+	assertThat(agent.getHolidaysForYear(2022), is(Collections.emptyList()));
+    }
+
+    @Test
+    public void defaultRulesAreIndependenceDayAndLaborDay() {
+	HolidaysAgent agent = new HolidaysAgent();
+	for (int year = 1990; year <= 2100; year++) {
+	    LocalDate independenceDay = LocalDate.of(year, Month.JULY, 4);
+	    if (independenceDay.getDayOfWeek() == DayOfWeek.SATURDAY) {
+		independenceDay = independenceDay.minusDays(1);
+	    } else if (independenceDay.getDayOfWeek() == DayOfWeek.SUNDAY) {
+		independenceDay = independenceDay.plusDays(1);
+	    }
+	    LocalDate laborDay = LocalDate.of(year, Month.SEPTEMBER, 1)
+		    .with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+
+	    assertThat(agent.getHolidaysForYear(year), is(Arrays.asList(independenceDay, laborDay)));
+	}
+    }
+
+    @Test
+    public void loadsTheRulesOfEachRegion() throws IOException {
+	Map<String, List<HolidayRule>> rulesByRegion = HolidayRulesFile.load(writeRules(HOLIDAY_RULES));
+
+	assertThat(rulesByRegion.keySet(), is(new LinkedHashSet<>(Arrays.asList("MA", "TX"))));
+	HolidayRule patriotsDay = rulesByRegion.get("MA").get(1);
+	assertThat(patriotsDay.getName(), is("Patriots' Day"));
+	assertThat(patriotsDay.getKind(), is(HolidayRule.Kind.NTH_WEEKDAY));
+	assertThat(patriotsDay.dateIn(2021), is(LocalDate.of(2021, Month.APRIL, 19)));
+	assertThat(rulesByRegion.get("TX").get(1).isObserved(), is(true));
+    }
+
+    @Test
+    public void rejectsAFileWithAnInvalidRule() throws IOException {
+	Path path = writeRules(Arrays.asList("MA, Patriots' Day, nth 3 MONDAY APRIL", "", "TX, Bad Day, nth 5 MONDAY"));
+
+	IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> HolidayRulesFile.load(path));
+	assertTrue(e.getMessage().startsWith("Line 3 of "), e.getMessage());
+    }
+
+    @Test
+    public void storesAreChargedByTheHolidaysOfTheirRegion() throws IOException {
+	ToolRentalServiceConfiguration configuration = new ToolRentalServiceConfiguration.Builder()
+		.holidayRulesPath(writeRules(HOLIDAY_RULES)).storeRegion("boston", "MA").storeRegion("austin", "TX")
+		.build();
+	LocalDate patriotsDay = LocalDate.of(2021, Month.APRIL, 19);
+	// ladders are not charged on holidays
+	CheckoutRequest.Builder request = new CheckoutRequest.Builder().toolCode("LADW")
+		.checkOutDate(patriotsDay.minusDays(1)).rentalDays(1).discountPercent(0);
+
+	try (ToolRentalService service = ToolRentalService.Factory.getService(configuration)) {
+	    assertThat(service.checkout(request.storeId("boston").build()).getRentalAgreement().getChargeDays(),
+		    is(0));
+	    assertThat(service.checkout(request.storeId("austin").build()).getRentalAgreement().getChargeDays(),
+		    is(1));
+	    assertThat(service.checkout(request.storeId("other").build()).getRentalAgreement().getChargeDays(),
+		    is(1));
+	}
+    }
+
+    @Test
+    public void looksUpTheCalendarOfTheStore() {
+	HolidaysAgent defaultAgent = new HolidaysAgent();
+	HolidaysAgent texasAgent = new HolidaysAgent(
+		Collections.singletonList(HolidayRule.lastWeekday("Memorial Day", DayOfWeek.MONDAY, Month.MAY)), 16);
+	BusinessCalendar defaultCalendar = BusinessCalendar.build(defaultAgent, 2020, 2022);
+	RegionalCalendars calendars = new RegionalCalendars.Builder()
+		.region(RegionalCalendars.DEFAULT_REGION, defaultAgent, defaultCalendar)
+		.region("TX", texasAgent, BusinessCalendar.build(texasAgent, 2020, 2022)).storeRegion("austin", "TX")
+		.build();
+	LocalDate memorialDay = LocalDate.of(2021, Month.MAY, 31);
+
+	assertThat(calendars.getRegion("austin"), is("TX"));
+	assertThat(calendars.getRegion("boston"), is(RegionalCalendars.DEFAULT_REGION));
+	assertThat(calendars.isHoliday("austin", memorialDay), is(true));
+	assertThat(calendars.isHoliday("boston", memorialDay), is(false));
+	// outside of the precomputed years
+	assertThat(calendars.isHoliday("austin", LocalDate.of(2030, Month.MAY, 27)), is(true));
+	assertThrows(IllegalArgumentException.class,
+		() -> new RegionalCalendars.Builder().region(RegionalCalendars.DEFAULT_REGION, defaultAgent,
+			defaultCalendar).storeRegion("austin", "TX").build());
+    }
+
+    private Path writeRules(List<String> lines) throws IOException {
+	return Files.write(tempDir.resolve("holidays.csv"), lines, StandardCharsets.UTF_8);
+    }
+}
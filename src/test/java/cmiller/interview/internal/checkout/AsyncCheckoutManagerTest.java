@@ -0,0 +1,88 @@
+package cmiller.interview.internal.checkout;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import cmiller.interview.ToolRentalServiceException;
+import cmiller.interview.ToolRentalServiceException.FailureReason;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.CheckoutResponse;
+import cmiller.interview.internal.factory.ToolRentalServiceDependencyFactory;
+
+public class AsyncCheckoutManagerTest {
+    private ToolRentalServiceDependencyFactory factory;
+
+    @BeforeEach
+    public void beforeEach() {
+	factory = new ToolRentalServiceDependencyFactory();
+    }
+
+    @AfterEach
+    public void afterEach() {
+	factory.close();
+    }
+
+    @Test
+    public void checkoutCompletesWithResponse() throws Exception {
+	CheckoutRequest request = new CheckoutRequest.Builder().toolCode("JAKR")
+		.checkOutDate(LocalDate.of(2020, Month.JULY, 2)).rentalDays(4).discountPercent(50).build();
+
+	CheckoutResponse response = factory.getAsyncCheckoutManager().checkout(request).get(5, TimeUnit.SECONDS);
+
+	assertThat(response.getRentalAgreement().getFinalCharge(), is(149L));
+    }
+
+    @Test
+    public void failureReasonIsCarriedByTheFuture() {
+	CheckoutRequest request = new CheckoutRequest.Builder().toolCode("INVALID_TOOL_CODE")
+		.checkOutDate(LocalDate.of(2020, Month.JULY, 2)).rentalDays(4).build();
+
+	CompletableFuture<CheckoutResponse> future = factory.getAsyncCheckoutManager().checkout(request);
+
+	assertFailureReason(future, FailureReason.TOOL_NOT_FOUND);
+    }
+
+    @Test
+    public void rejectedExecutionIsAnInternalError() {
+	AsyncCheckoutManager manager = new AsyncCheckoutManager(factory.getCheckoutManager(), runnable -> {
+	    throw new RejectedExecutionException();
+	});
+
+	CompletableFuture<CheckoutResponse> future = manager.checkout(new CheckoutRequest.Builder().build());
+
+	assertFailureReason(future, FailureReason.INTERNAL_ERROR);
+    }
+
+    @Test
+    public void errorIsAnInternalError() {
+	CheckoutManager checkoutManager = mock(CheckoutManager.class);
+	when(checkoutManager.checkout(any())).thenThrow(new StackOverflowError());
+	AsyncCheckoutManager manager = new AsyncCheckoutManager(checkoutManager, Runnable::run);
+
+	CompletableFuture<CheckoutResponse> future = manager.checkout(new CheckoutRequest.Builder().build());
+
+	assertFailureReason(future, FailureReason.INTERNAL_ERROR);
+    }
+
+    private static void assertFailureReason(CompletableFuture<CheckoutResponse> future, FailureReason expected) {
+	ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+	assertThat(e.getCause(), instanceOf(ToolRentalServiceException.class));
+	assertThat(((ToolRentalServiceException) e.getCause()).getFailureReason(), is(expected));
+    }
+}
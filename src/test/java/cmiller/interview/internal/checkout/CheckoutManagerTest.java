@@ -2,13 +2,22 @@ package cmiller.interview.internal.checkout;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static cmiller.interview.internal.checkout.CheckoutTestData.assertSamePricing;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.Month;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -26,13 +35,23 @@ import cmiller.interview.ToolRentalServiceException;
 import cmiller.interview.ToolRentalServiceException.FailureReason;
 import cmiller.interview.checkout.CheckoutRequest;
 import cmiller.interview.checkout.CheckoutResponse;
+import cmiller.interview.checkout.CheckoutResult;
 import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.checkout.RentalQuote;
 import cmiller.interview.common.Tool.Type;
 import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.availability.AvailabilityIndex;
+import cmiller.interview.internal.calculator.ClosedFormChargeableDayCalculator;
 import cmiller.interview.internal.data.ChargeableDaysDO;
 import cmiller.interview.internal.data.ToolDO;
 import cmiller.interview.internal.data.access.DataRetrievalService;
 import cmiller.interview.internal.factory.ToolRentalServiceDependencyFactory;
+import cmiller.interview.internal.inventory.InventoryService;
+import cmiller.interview.internal.journal.NoOpRentalJournal;
+import cmiller.interview.internal.ledger.RentalLedger;
+import cmiller.interview.internal.metrics.NoOpToolRentalMetrics;
+import cmiller.interview.internal.pricing.PricingEngine;
+import cmiller.interview.internal.pricing.PricingRuleSet;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -44,6 +63,9 @@ public class CheckoutManagerTest {
     private static final String TOOL_CODE_INPUT = "TEST";
     private static final Type SOME_TOOL_TYPE = Type.CHAINSAW;
     private static final LocalDate CHECKOUT_DATE_INPUT = LocalDate.of(2020, Month.JANUARY, 1); // WEDNESDAY
+    // today is the default check out date, so later windows are booked ahead
+    private static final Clock CLOCK = Clock.fixed(CHECKOUT_DATE_INPUT.atStartOfDay(ZoneOffset.UTC).toInstant(),
+	    ZoneOffset.UTC);
 
     private final CheckoutRequest DEFAULT_CHECKOUT_REQUEST = new CheckoutRequest.Builder().toolCode(TOOL_CODE_INPUT)
 	    .checkOutDate(CHECKOUT_DATE_INPUT).rentalDays(RENTAL_DAYS_INPUT).discountPercent(DISCOUNT_PERCENTAGE_INPUT)
@@ -56,13 +78,26 @@ public class CheckoutManagerTest {
     @Mock
     private DataRetrievalService mockDataRetrievalAgent;
 
+    private final InventoryService inventoryService = new InventoryService();
+    private final AvailabilityIndex availabilityIndex = new AvailabilityIndex();
+
     private CheckoutManager manager;
 
     @BeforeEach
     public void beforeEach() {
 	when(factory.getHolidaysAgent()).thenReturn(mockHolidaysAgent);
 	when(factory.getDataRetrievalService()).thenReturn(mockDataRetrievalAgent);
-
+	when(factory.getPricingEngine()).thenReturn(
+		new PricingEngine(PricingRuleSet.EMPTY, new ClosedFormChargeableDayCalculator(mockHolidaysAgent)));
+	when(factory.getRentalLedger()).thenReturn(new RentalLedger());
+	when(factory.getRentalJournal()).thenReturn(NoOpRentalJournal.INSTANCE);
+	when(factory.getInventoryService()).thenReturn(inventoryService);
+	when(factory.getAvailabilityIndex()).thenReturn(availabilityIndex);
+	when(factory.getQuoteCache()).thenReturn(new QuoteCache(16));
+	when(factory.getMetrics()).thenReturn(NoOpToolRentalMetrics.INSTANCE);
+	when(factory.getClock()).thenReturn(CLOCK);
+
+	when(mockDataRetrievalAgent.snapshot()).thenReturn(mockDataRetrievalAgent);
 	when(mockHolidaysAgent.getHolidaysForYear(CHECKOUT_DATE_INPUT.getYear())).thenReturn(new ArrayList<>());
 	when(mockDataRetrievalAgent.getToolByCode(TOOL_CODE_INPUT))
 		.thenReturn(new ToolDO.Builder().code(TOOL_CODE_INPUT).brand(SOME_BRAND).type(SOME_TOOL_TYPE).build());
@@ -155,6 +190,66 @@ public class CheckoutManagerTest {
 	    }
 	}
 
+	@Test
+	public void toolUnavailableTest() {
+	    availabilityIndex.addCapacity(CheckoutRequest.DEFAULT_STORE_ID, TOOL_CODE_INPUT, 1);
+	    availabilityIndex.addCapacity("another store", TOOL_CODE_INPUT, 1);
+	    manager.checkout(DEFAULT_CHECKOUT_REQUEST);
+
+	    try {
+		manager.checkout(DEFAULT_CHECKOUT_REQUEST);
+		fail("Expected exception was not thrown");
+	    } catch (ToolRentalServiceException e) {
+		assertThat(e.getFailureReason(), is(FailureReason.TOOL_UNAVAILABLE));
+	    }
+	    // other stores have their own stock
+	    manager.checkout(new CheckoutRequest.Builder().storeId("another store").toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).rentalDays(RENTAL_DAYS_INPUT).build());
+	}
+
+	@Test
+	public void toolBookedForTheWindowTest() {
+	    inventoryService.addStock("a store", TOOL_CODE_INPUT, 1);
+	    availabilityIndex.addCapacity("a store", TOOL_CODE_INPUT, 1);
+	    // the one unit is in stock today, but booked from the second day of the rental
+	    availabilityIndex.book("a store", TOOL_CODE_INPUT, CHECKOUT_DATE_INPUT.plusDays(1),
+		    CHECKOUT_DATE_INPUT.plusDays(5));
+	    CheckoutRequest request = new CheckoutRequest.Builder().storeId("a store").toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).rentalDays(RENTAL_DAYS_INPUT).build();
+
+	    try {
+		manager.checkout(request);
+		fail("Expected exception was not thrown");
+	    } catch (ToolRentalServiceException e) {
+		assertThat(e.getFailureReason(), is(FailureReason.TOOL_UNAVAILABLE));
+	    }
+	    assertThat(inventoryService.getAvailable("a store", TOOL_CODE_INPUT), is(1L));
+	    assertThat(availabilityIndex.getPeakBookings("a store", TOOL_CODE_INPUT, CHECKOUT_DATE_INPUT,
+		    CHECKOUT_DATE_INPUT.plusDays(5)), is(1));
+	}
+
+	@Test
+	public void disjointWindowsOfOneUnitTest() {
+	    inventoryService.addStock("a store", TOOL_CODE_INPUT, 1);
+	    availabilityIndex.addCapacity("a store", TOOL_CODE_INPUT, 1);
+	    CheckoutRequest bookedAhead = new CheckoutRequest.Builder().storeId("a store").toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT.plusDays(30)).rentalDays(9).build();
+	    CheckoutRequest laterStill = new CheckoutRequest.Builder().storeId("a store").toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT.plusDays(60)).rentalDays(9).build();
+
+	    manager.checkout(bookedAhead);
+	    assertThat(manager.isAvailable(laterStill), is(true));
+	    manager.checkout(laterStill);
+
+	    // neither rental has started, so the unit is still on the shelf
+	    assertThat(inventoryService.getAvailable("a store", TOOL_CODE_INPUT), is(1L));
+	    assertThat(manager.isAvailable(bookedAhead), is(false));
+	    // a rental starting today takes the unit, if it is free for its window
+	    manager.checkout(new CheckoutRequest.Builder().storeId("a store").toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).rentalDays(RENTAL_DAYS_INPUT).build());
+	    assertThat(inventoryService.getAvailable("a store", TOOL_CODE_INPUT), is(0L));
+	}
+
 	@Test
 	public void toolTypeHadNoChargeableDaysData() {
 	    when(mockDataRetrievalAgent.getChargeableDaysByToolType(SOME_TOOL_TYPE)).thenReturn(null);
@@ -250,4 +345,170 @@ public class CheckoutManagerTest {
 	    }
 	}
     }
+
+    @Nested
+    @DisplayName("Batch checkout test cases")
+    class BatchTestCases {
+	@Test
+	public void checkoutAll_resultsInRequestOrder() {
+	    CheckoutRequest unknownTool = new CheckoutRequest.Builder().toolCode("INVALID_TOOL_CODE").rentalDays(1)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).build();
+	    CheckoutRequest invalidRentalDays = new CheckoutRequest.Builder().toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).rentalDays(0).build();
+	    CheckoutRequest longerRental = new CheckoutRequest.Builder().toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).rentalDays(5).build();
+
+	    List<CheckoutResult> results = manager.checkoutAll(
+		    Arrays.asList(DEFAULT_CHECKOUT_REQUEST, unknownTool, invalidRentalDays, null, longerRental));
+
+	    assertThat(results.size(), is(5));
+	    assertThat(results.get(0).isSuccess(), is(true));
+	    assertThat(results.get(0).getResponse().getRentalAgreement().getRentalDays(), is(RENTAL_DAYS_INPUT));
+	    assertThat(results.get(1).getFailureReason(), is(FailureReason.TOOL_NOT_FOUND));
+	    assertThat(results.get(2).getFailureReason(), is(FailureReason.INVALID_INPUT));
+	    assertThat(results.get(3).getFailureReason(), is(FailureReason.INVALID_INPUT));
+	    assertThat(results.get(4).isSuccess(), is(true));
+	    assertThat(results.get(4).getResponse().getRentalAgreement().getRentalDays(), is(5));
+	}
+
+	@Test
+	public void checkoutAll_looksUpEachToolOnce() {
+	    manager.checkoutAll(Arrays.asList(DEFAULT_CHECKOUT_REQUEST, DEFAULT_CHECKOUT_REQUEST,
+		    DEFAULT_CHECKOUT_REQUEST));
+
+	    verify(mockDataRetrievalAgent, times(1)).getToolByCode(TOOL_CODE_INPUT);
+	    verify(mockDataRetrievalAgent, times(1)).getChargeableDaysByToolType(SOME_TOOL_TYPE);
+	}
+
+	@Test
+	public void checkoutAll_matchesSingleCheckout() {
+	    RentalAgreement expected = manager.checkout(DEFAULT_CHECKOUT_REQUEST).getRentalAgreement();
+	    RentalAgreement actual = manager.checkoutAll(Arrays.asList(DEFAULT_CHECKOUT_REQUEST)).get(0).getResponse()
+		    .getRentalAgreement();
+
+	    assertThat(actual.getRentalId(), is(expected.getRentalId() + 1));
+	    assertSamePricing(actual, expected);
+	}
+
+	@Test
+	public void checkoutAll_missingChargeableDaysFailsGroup() {
+	    when(mockDataRetrievalAgent.getChargeableDaysByToolType(SOME_TOOL_TYPE)).thenReturn(null);
+
+	    List<CheckoutResult> results = manager
+		    .checkoutAll(Arrays.asList(DEFAULT_CHECKOUT_REQUEST, DEFAULT_CHECKOUT_REQUEST));
+
+	    assertThat(results.get(0).getFailureReason(), is(FailureReason.INTERNAL_ERROR));
+	    assertThat(results.get(1).getFailureReason(), is(FailureReason.INTERNAL_ERROR));
+	}
+    }
+
+    @Nested
+    @DisplayName("Quote test cases")
+    class QuoteTestCases {
+	@Test
+	public void quote_matchesCheckout() {
+	    RentalQuote quote = manager.quote(DEFAULT_CHECKOUT_REQUEST);
+	    RentalAgreement rentalAgreement = manager.checkout(DEFAULT_CHECKOUT_REQUEST).getRentalAgreement();
+
+	    assertThat(quote.getToolType(), is(SOME_TOOL_TYPE));
+	    assertThat(quote.getRentalDays(), is(rentalAgreement.getRentalDays()));
+	    assertThat(quote.getCheckOutDate(), is(rentalAgreement.getCheckOutDate()));
+	    assertThat(quote.getDueDate(), is(rentalAgreement.getDueDate()));
+	    assertThat(quote.getDailyRentalCharge(), is(rentalAgreement.getDailyRentalCharge()));
+	    assertThat(quote.getChargeDays(), is(rentalAgreement.getChargeDays()));
+	    assertThat(quote.getPreDiscountCharge(), is(rentalAgreement.getPreDiscountCharge()));
+	    assertThat(quote.getDiscountPercent(), is(rentalAgreement.getDiscountPercent()));
+	    assertThat(quote.getDiscountAmount(), is(rentalAgreement.getDiscountAmount()));
+	    assertThat(quote.getFinalCharge(), is(rentalAgreement.getFinalCharge()));
+	}
+
+	@Test
+	public void quote_doesNotReserveTheTool() {
+	    inventoryService.addStock("a store", TOOL_CODE_INPUT, 1);
+	    CheckoutRequest request = new CheckoutRequest.Builder().storeId("a store").toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).rentalDays(RENTAL_DAYS_INPUT).build();
+
+	    manager.quote(request);
+	    manager.quote(request);
+
+	    assertThat(inventoryService.getAvailable("a store", TOOL_CODE_INPUT), is(1L));
+	    assertThat(manager.checkout(request).getRentalAgreement().getRentalId(), is(1L));
+	}
+
+	@Test
+	public void quote_repeatedQuoteIsCached() {
+	    RentalQuote quote = manager.quote(DEFAULT_CHECKOUT_REQUEST);
+
+	    assertThat(manager.quote(DEFAULT_CHECKOUT_REQUEST), is(sameInstance(quote)));
+	    CheckoutRequest otherDiscount = new CheckoutRequest.Builder().toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).rentalDays(RENTAL_DAYS_INPUT).discountPercent(10).build();
+	    assertThat(manager.quote(otherDiscount), is(not(sameInstance(quote))));
+	}
+
+	@Test
+	public void quote_changedChargesAreNotServedFromTheCache() {
+	    manager.quote(DEFAULT_CHECKOUT_REQUEST);
+	    when(mockDataRetrievalAgent.getChargeableDaysByToolType(SOME_TOOL_TYPE))
+		    .thenReturn(new ChargeableDaysDO(SOME_TOOL_TYPE, 99, true, true, true));
+
+	    assertThat(manager.quote(DEFAULT_CHECKOUT_REQUEST).getPreDiscountCharge(), is(297L));
+	}
+
+	@Test
+	public void quote_invalidInput() {
+	    CheckoutRequest request = new CheckoutRequest.Builder().toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).rentalDays(0).build();
+
+	    ToolRentalServiceException e = assertThrows(ToolRentalServiceException.class, () -> manager.quote(request));
+	    assertThat(e.getFailureReason(), is(FailureReason.INVALID_INPUT));
+	}
+    }
+
+    @Nested
+    @DisplayName("Non-throwing checkout test cases")
+    class TryCheckoutTestCases {
+	@Test
+	public void tryCheckout_success() {
+	    CheckoutResult result = manager.tryCheckout(DEFAULT_CHECKOUT_REQUEST);
+
+	    assertThat(result.isSuccess(), is(true));
+	    assertThat(result.getResponse().getRentalAgreement().getFinalCharge(), is(150L));
+	}
+
+	@Test
+	public void tryCheckout_rejectsWithoutAStackTrace() {
+	    CheckoutRequest unknownTool = new CheckoutRequest.Builder().toolCode("INVALID_TOOL_CODE").rentalDays(1)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).build();
+	    CheckoutRequest invalidRentalDays = new CheckoutRequest.Builder().toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).rentalDays(0).build();
+
+	    CheckoutResult toolNotFound = manager.tryCheckout(unknownTool);
+	    CheckoutResult invalidInput = manager.tryCheckout(invalidRentalDays);
+
+	    assertThat(toolNotFound.getFailureReason(), is(FailureReason.TOOL_NOT_FOUND));
+	    assertThat(toolNotFound.getFailure().getStackTrace().length, is(0));
+	    assertThat(invalidInput.getFailureReason(), is(FailureReason.INVALID_INPUT));
+	    assertThat(invalidInput.getFailure().getStackTrace().length, is(0));
+	    assertThat(manager.tryCheckout(null).getFailureReason(), is(FailureReason.INVALID_INPUT));
+	}
+
+	@Test
+	public void tryCheckout_unavailableTool() {
+	    availabilityIndex.addCapacity("a store", TOOL_CODE_INPUT, 0);
+	    CheckoutRequest request = new CheckoutRequest.Builder().storeId("a store").toolCode(TOOL_CODE_INPUT)
+		    .checkOutDate(CHECKOUT_DATE_INPUT).rentalDays(RENTAL_DAYS_INPUT).build();
+
+	    assertThat(manager.tryCheckout(request).getFailureReason(), is(FailureReason.TOOL_UNAVAILABLE));
+	}
+
+	@Test
+	public void tryCheckout_unexpectedErrorIsAnInternalError() {
+	    when(mockDataRetrievalAgent.getChargeableDaysByToolType(SOME_TOOL_TYPE)).thenReturn(null);
+
+	    CheckoutResult result = manager.tryCheckout(DEFAULT_CHECKOUT_REQUEST);
+
+	    assertThat(result.getFailureReason(), is(FailureReason.INTERNAL_ERROR));
+	    assertThat(result.getFailure().getStackTrace().length > 0, is(true));
+	}
+    }
 }
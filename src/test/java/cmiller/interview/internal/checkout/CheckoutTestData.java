@@ -0,0 +1,74 @@
+package cmiller.interview.internal.checkout;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import cmiller.interview.checkin.CheckInRequest;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.CheckoutResult;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.internal.checkin.CheckInManager;
+
+/**
+ * Checkout batches and assertions shared by the checkout tests and the
+ * {@code ParallelCheckoutBenchmark}
+ */
+public final class CheckoutTestData {
+    private static final String[] TOOL_CODES = { "CHNS", "LADW", "JAKD", "JAKR", "UNKNOWN" };
+
+    private CheckoutTestData() {
+    }
+
+    /**
+     * @return requests for random tools, dates, rental days and discounts, some
+     *         of them for an unknown tool
+     */
+    public static List<CheckoutRequest> randomRequests(Random random, int count) {
+	LocalDate earliest = LocalDate.of(2015, Month.JANUARY, 1);
+	List<CheckoutRequest> requests = new ArrayList<>(count);
+	for (int i = 0; i < count; i++) {
+	    requests.add(new CheckoutRequest.Builder().toolCode(TOOL_CODES[random.nextInt(TOOL_CODES.length)])
+		    .checkOutDate(earliest.plusDays(random.nextInt(3650))).rentalDays(1 + random.nextInt(60))
+		    .discountPercent(random.nextInt(100)).build());
+	}
+	return requests;
+    }
+
+    /**
+     * Checks in the rentals of a batch on their due dates, so each batch starts
+     * from an empty ledger
+     */
+    public static void checkInAll(CheckInManager checkInManager, List<CheckoutResult> results) {
+	for (CheckoutResult result : results) {
+	    if (result.isSuccess()) {
+		RentalAgreement rentalAgreement = result.getResponse().getRentalAgreement();
+		checkInManager.checkIn(new CheckInRequest.Builder().rentalId(rentalAgreement.getRentalId())
+			.checkInDate(rentalAgreement.getDueDate()).build());
+	    }
+	}
+    }
+
+    /**
+     * Asserts that two agreements rent the same tool with the same charges,
+     * whatever their rental ids
+     */
+    public static void assertSamePricing(RentalAgreement actual, RentalAgreement expected) {
+	assertThat(actual.getTool().getCode(), is(expected.getTool().getCode()));
+	assertThat(actual.getRentalDays(), is(expected.getRentalDays()));
+	assertThat(actual.getCheckOutDate(), is(expected.getCheckOutDate()));
+	assertThat(actual.getDueDate(), is(expected.getDueDate()));
+	assertThat(actual.getDailyRentalCharge(), is(expected.getDailyRentalCharge()));
+	assertThat(actual.getChargeDays(), is(expected.getChargeDays()));
+	assertThat(actual.getPreDiscountCharge(), is(expected.getPreDiscountCharge()));
+	assertThat(actual.getDiscountPercent(), is(expected.getDiscountPercent()));
+	assertThat(actual.getDiscountAmount(), is(expected.getDiscountAmount()));
+	assertThat(actual.getFinalCharge(), is(expected.getFinalCharge()));
+	assertThat(actual.getCatalogVersion(), is(expected.getCatalogVersion()));
+    }
+}
@@ -0,0 +1,65 @@
+package cmiller.interview.internal.checkout;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static cmiller.interview.internal.checkout.CheckoutTestData.assertSamePricing;
+import static cmiller.interview.internal.checkout.CheckoutTestData.checkInAll;
+import static cmiller.interview.internal.checkout.CheckoutTestData.randomRequests;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.CheckoutResult;
+import cmiller.interview.internal.factory.ToolRentalServiceDependencyFactory;
+
+/**
+ * Verifies the parallel batch checkout against the sequential batch. Its
+ * throughput is measured by the {@code ParallelCheckoutBenchmark}.
+ */
+public class ParallelCheckoutManagerTest {
+    private static final int BATCH_SIZE = 5_000;
+
+    private static ToolRentalServiceDependencyFactory factory;
+    private static List<CheckoutRequest> requests;
+    private static List<CheckoutResult> sequentialResults;
+
+    @BeforeAll
+    public static void beforeAll() {
+	factory = new ToolRentalServiceDependencyFactory();
+	requests = randomRequests(new Random(42), BATCH_SIZE);
+	sequentialResults = factory.getCheckoutManager().checkoutAll(requests);
+	checkInAll(factory.getCheckInManager(), sequentialResults);
+    }
+
+    @AfterAll
+    public static void afterAll() {
+	factory.close();
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+	List<CheckoutResult> parallelResults = factory.getParallelCheckoutManager().checkoutAll(requests);
+	checkInAll(factory.getCheckInManager(), parallelResults);
+	assertSameResults(parallelResults);
+    }
+
+    private static void assertSameResults(List<CheckoutResult> results) {
+	assertThat(results.size(), is(sequentialResults.size()));
+	for (int i = 0; i < results.size(); i++) {
+	    CheckoutResult expected = sequentialResults.get(i);
+	    CheckoutResult actual = results.get(i);
+	    assertThat(actual.isSuccess(), is(expected.isSuccess()));
+	    if (expected.isSuccess()) {
+		assertSamePricing(actual.getResponse().getRentalAgreement(),
+			expected.getResponse().getRentalAgreement());
+	    } else {
+		assertThat(actual.getFailureReason(), is(expected.getFailureReason()));
+	    }
+	}
+    }
+}
@@ -0,0 +1,50 @@
+package cmiller.interview.internal.checkout;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.io.IOException;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the {@link RentalAgreementPrinter} formats the same as the
+ * {@link NumberFormat} and {@link DateTimeFormatter} it replaced
+ */
+public class RentalAgreementPrinterTest {
+    private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
+    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM'/'dd'/'yy");
+
+    @Test
+    public void appendDollars_matchesNumberFormat() throws IOException {
+	for (long cents = -100_000; cents <= 100_000; cents++) {
+	    assertDollars(cents);
+	}
+
+	Random random = new Random(3L);
+	for (int i = 0; i < 100_000; i++) {
+	    // far beyond this the double based NumberFormat rounds to the wrong cent
+	    assertDollars(random.nextLong() % 1_000_000_000_000L);
+	}
+    }
+
+    @Test
+    public void appendDate_matchesDateTimeFormatter() throws IOException {
+	for (LocalDate date = LocalDate.of(1899, 12, 1); date.getYear() < 2101; date = date.plusDays(1)) {
+	    StringBuilder out = new StringBuilder();
+	    RentalAgreementPrinter.appendDate(date, out);
+	    assertThat(out.toString(), is(date.format(dateFormatter)));
+	}
+    }
+
+    private void assertDollars(long cents) throws IOException {
+	StringBuilder out = new StringBuilder();
+	RentalAgreementPrinter.appendDollars(cents, out);
+	assertThat(out.toString(), is(currencyFormat.format(cents / 100.0)));
+    }
+}
@@ -0,0 +1,128 @@
+package cmiller.interview.internal.data.access.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.cache.CacheStats;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.ToolDO;
+import cmiller.interview.internal.data.access.DataRetrievalService;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CachingDataRetrievalServiceTest {
+    private static final Tool CHAINSAW = new ToolDO.Builder().code("CHNS").type(Tool.Type.CHAINSAW).brand("Stihl")
+	    .build();
+    private static final ChargeableDaysDO CHAINSAW_CHARGEABLE_DAYS = new ChargeableDaysDO(Tool.Type.CHAINSAW, 149,
+	    true, false, true);
+
+    @Mock
+    private DataRetrievalService delegate;
+    @Mock
+    private DataRetrievalService reloaded;
+    @Mock
+    private DataRetrievalService reloading;
+
+    private final AtomicLong now = new AtomicLong();
+
+    @BeforeEach
+    public void setup() {
+	when(delegate.snapshot()).thenReturn(delegate);
+	when(delegate.getToolByCode("CHNS")).thenReturn(CHAINSAW);
+	when(delegate.getChargeableDaysByToolType(Tool.Type.CHAINSAW)).thenReturn(CHAINSAW_CHARGEABLE_DAYS);
+    }
+
+    @Test
+    public void cachesFoundAndUnknownCodes() {
+	CachingDataRetrievalService cache = new CachingDataRetrievalService(delegate, 10, 0, TimeUnit.SECONDS);
+
+	for (int i = 0; i < 3; i++) {
+	    assertThat(cache.getToolByCode("CHNS"), is(CHAINSAW));
+	    assertThat(cache.getToolByCode("NOPE"), is(nullValue()));
+	}
+
+	verify(delegate, times(1)).getToolByCode("CHNS");
+	verify(delegate, times(1)).getToolByCode("NOPE");
+	CacheStats stats = cache.getToolCacheStats();
+	assertThat(stats.getHitCount(), is(4L));
+	assertThat(stats.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void loadsChargeableDaysEagerly() {
+	CachingDataRetrievalService cache = new CachingDataRetrievalService(delegate, 10, 0, TimeUnit.SECONDS);
+
+	assertThat(cache.getChargeableDaysByToolType(Tool.Type.CHAINSAW), is(CHAINSAW_CHARGEABLE_DAYS));
+	assertThat(cache.getChargeableDaysByToolType(Tool.Type.CHAINSAW), is(CHAINSAW_CHARGEABLE_DAYS));
+	assertThat(cache.getChargeableDaysByToolType(Tool.Type.LADDER), is(nullValue()));
+
+	verify(delegate, times(1)).getChargeableDaysByToolType(Tool.Type.CHAINSAW);
+	verify(delegate, times(1)).getChargeableDaysByToolType(Tool.Type.LADDER);
+    }
+
+    @Test
+    public void invalidatedAndExpiredEntriesAreReloaded() {
+	CachingDataRetrievalService cache = new CachingDataRetrievalService(delegate, 10, 1, TimeUnit.MINUTES,
+		now::get);
+	cache.getToolByCode("CHNS");
+	cache.getToolByCode("NOPE");
+
+	cache.invalidate("NOPE");
+	cache.getToolByCode("CHNS");
+	cache.getToolByCode("NOPE");
+	verify(delegate, times(1)).getToolByCode("CHNS");
+	verify(delegate, times(2)).getToolByCode("NOPE");
+
+	now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+	cache.getToolByCode("CHNS");
+	cache.getChargeableDaysByToolType(Tool.Type.CHAINSAW);
+	verify(delegate, times(2)).getToolByCode("CHNS");
+	verify(delegate, times(2)).getChargeableDaysByToolType(Tool.Type.CHAINSAW);
+
+	cache.invalidateAll();
+	cache.getToolByCode("CHNS");
+	verify(delegate, times(3)).getToolByCode("CHNS");
+	verify(delegate, times(3)).getChargeableDaysByToolType(Tool.Type.CHAINSAW);
+    }
+
+    @Test
+    public void snapshotsReadFromOneCatalog() {
+	AtomicReference<DataRetrievalService> current = new AtomicReference<>(delegate);
+	when(reloading.snapshot()).thenAnswer(invocation -> current.get());
+	Tool reloadedChainsaw = new ToolDO.Builder().code("CHNS").type(Tool.Type.CHAINSAW).brand("Husqvarna").build();
+	ChargeableDaysDO reloadedChargeableDays = new ChargeableDaysDO(Tool.Type.CHAINSAW, 199, true, false, true);
+	when(reloaded.getToolByCode("CHNS")).thenReturn(reloadedChainsaw);
+	when(reloaded.getChargeableDaysByToolType(Tool.Type.CHAINSAW)).thenReturn(reloadedChargeableDays);
+	CachingDataRetrievalService cache = new CachingDataRetrievalService(reloading, 10, 0, TimeUnit.SECONDS);
+
+	DataRetrievalService snapshot = cache.snapshot();
+	assertThat(snapshot.getToolByCode("CHNS"), is(CHAINSAW));
+	// a full re-import swaps in a catalog of the same version
+	current.set(reloaded);
+
+	assertThat(snapshot.getToolByCode("CHNS"), is(CHAINSAW));
+	assertThat(snapshot.getChargeableDaysByToolType(Tool.Type.CHAINSAW), is(CHAINSAW_CHARGEABLE_DAYS));
+	assertThat(cache.getToolByCode("CHNS"), is(reloadedChainsaw));
+	assertThat(cache.getChargeableDaysByToolType(Tool.Type.CHAINSAW), is(reloadedChargeableDays));
+	assertThat(cache.snapshot().getToolByCode("CHNS"), is(reloadedChainsaw));
+	verify(delegate, times(1)).getToolByCode("CHNS");
+	verify(reloaded, times(1)).getToolByCode("CHNS");
+    }
+}
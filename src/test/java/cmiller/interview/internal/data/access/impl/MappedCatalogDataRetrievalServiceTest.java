@@ -0,0 +1,129 @@
+package cmiller.interview.internal.data.access.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.ToolDO;
+import cmiller.interview.internal.data.catalog.BinaryCatalogWriter;
+
+public class MappedCatalogDataRetrievalServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void readsBackTheBuiltInTools() throws IOException {
+	InMemoryDataRetrievalService inMemory = new InMemoryDataRetrievalService();
+	Path catalog = directory.resolve("tools.catalog");
+	try (BinaryCatalogWriter writer = new BinaryCatalogWriter(catalog, 7)) {
+	    for (String code : new String[] { "CHNS", "LADW", "JAKD", "JAKR" }) {
+		writer.writeTool(inMemory.getToolByCode(code));
+	    }
+	    for (Tool.Type type : new Tool.Type[] { Tool.Type.CHAINSAW, Tool.Type.LADDER, Tool.Type.JACKHAMMER }) {
+		writer.writeChargeableDays(inMemory.getChargeableDaysByToolType(type));
+	    }
+	    assertThat(writer.finish(), is(4));
+	}
+
+	try (MappedCatalogDataRetrievalService mapped = MappedCatalogDataRetrievalService.open(catalog)) {
+	    assertThat(mapped.getCatalogVersion(), is(7L));
+	    assertThat(mapped.getToolCount(), is(4));
+	    for (String code : new String[] { "CHNS", "LADW", "JAKD", "JAKR" }) {
+		assertThat(mapped.getToolByCode(code).toString(), is(inMemory.getToolByCode(code).toString()));
+	    }
+	    for (Tool.Type type : new Tool.Type[] { Tool.Type.CHAINSAW, Tool.Type.LADDER, Tool.Type.JACKHAMMER }) {
+		assertThat(mapped.getChargeableDaysByToolType(type).toString(),
+			is(inMemory.getChargeableDaysByToolType(type).toString()));
+	    }
+	    assertThat(mapped.getToolByCode("NOPE"), is(nullValue()));
+	    assertThat(mapped.getToolByCode(null), is(nullValue()));
+	    assertThat(mapped.getChargeableDaysByToolType(Tool.Type.OTHER), is(nullValue()));
+	}
+    }
+
+    @Test
+    public void findsEveryToolOfALargeCatalog() throws IOException {
+	int toolCount = 50_000;
+	Path catalog = directory.resolve("large.catalog");
+	try (BinaryCatalogWriter writer = new BinaryCatalogWriter(catalog, 1)) {
+	    for (int i = 0; i < toolCount; i++) {
+		writer.writeTool(tool("T" + i, "Brand " + i));
+	    }
+	    writer.writeChargeableDays(new ChargeableDaysDO(Tool.Type.OTHER, 1_000, true, false, true));
+	    writer.finish();
+	}
+
+	try (MappedCatalogDataRetrievalService mapped = MappedCatalogDataRetrievalService.open(catalog)) {
+	    assertThat(mapped.getToolCount(), is(toolCount));
+	    for (int i = 0; i < toolCount; i++) {
+		assertThat(mapped.getToolByCode("T" + i).getBrand(), is("Brand " + i));
+	    }
+	    assertThat(mapped.getToolByCode("T" + toolCount), is(nullValue()));
+
+	    Set<String> codes = new HashSet<>();
+	    mapped.forEachTool(tool -> codes.add(tool.getCode()));
+	    assertThat(codes.size(), is(toolCount));
+
+	    ChargeableDaysDO chargeableDaysDO = mapped.getChargeableDaysByToolType(Tool.Type.OTHER);
+	    assertThat(chargeableDaysDO.getDailyCharge(), is(1_000L));
+	    assertThat(chargeableDaysDO.isWeekdayCharge(), is(true));
+	    assertThat(chargeableDaysDO.isWeekendCharge(), is(false));
+	    assertThat(chargeableDaysDO.isHolidayCharge(), is(true));
+	}
+    }
+
+    @Test
+    public void laterRecordsReplaceDuplicateCodes() throws IOException {
+	Path catalog = directory.resolve("duplicates.catalog");
+	try (BinaryCatalogWriter writer = new BinaryCatalogWriter(catalog, 1)) {
+	    writer.writeTool(tool("CHNS", "Stihl"));
+	    writer.writeTool(tool("LADW", "Werner"));
+	    writer.writeTool(tool("CHNS", "Husqvarna"));
+	    assertThat(writer.finish(), is(2));
+	    assertThat(writer.getDuplicateToolCount(), is(1));
+	}
+
+	try (MappedCatalogDataRetrievalService mapped = MappedCatalogDataRetrievalService.open(catalog)) {
+	    assertThat(mapped.getToolCount(), is(2));
+	    assertThat(mapped.getToolByCode("CHNS").getBrand(), is("Husqvarna"));
+	}
+    }
+
+    @Test
+    public void unfinishedCatalogIsDiscarded() throws IOException {
+	Path catalog = directory.resolve("unfinished.catalog");
+	try (BinaryCatalogWriter writer = new BinaryCatalogWriter(catalog, 1)) {
+	    writer.writeTool(tool("CHNS", "Stihl"));
+	}
+
+	assertThat(Files.exists(catalog), is(false));
+	try (Stream<Path> files = Files.list(directory)) {
+	    assertThat(files.count(), is(0L));
+	}
+    }
+
+    @Test
+    public void rejectsFilesWhichAreNotCatalogs() throws IOException {
+	Path notACatalog = Files.write(directory.resolve("tools.csv"), "code,type,brand\n".repeat(10).getBytes());
+
+	assertThrows(IOException.class, () -> MappedCatalogDataRetrievalService.open(notACatalog));
+    }
+
+    private static Tool tool(String code, String brand) {
+	return new ToolDO.Builder().code(code).type(Tool.Type.OTHER).brand(brand).build();
+    }
+}
@@ -0,0 +1,114 @@
+package cmiller.interview.internal.data.access.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.ToolDO;
+import cmiller.interview.internal.data.access.DataRetrievalService;
+import cmiller.interview.internal.data.catalog.BinaryCatalogWriter;
+import cmiller.interview.internal.factory.ToolRentalServiceConfiguration;
+
+public class ReloadingDataRetrievalServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void snapshotsKeepTheirVersionAcrossReloads() throws IOException {
+	Path catalog = directory.resolve("tools.catalog");
+	writeCatalog(catalog, 1, "Stihl", 149);
+
+	try (ReloadingDataRetrievalService service = new ReloadingDataRetrievalService(catalog, 1, TimeUnit.HOURS)) {
+	    DataRetrievalService before = service.snapshot();
+	    writeCatalog(catalog, 2, "Husqvarna", 199);
+
+	    assertThat(service.reload(), is(2L));
+	    assertThat(service.getCatalogVersion(), is(2L));
+	    assertThat(service.getToolByCode("CHNS").getBrand(), is("Husqvarna"));
+	    assertThat(service.getChargeableDaysByToolType(Tool.Type.CHAINSAW).getDailyCharge(), is(199L));
+
+	    assertThat(before.getCatalogVersion(), is(1L));
+	    assertThat(before.getToolByCode("CHNS").getBrand(), is("Stihl"));
+	    assertThat(before.getChargeableDaysByToolType(Tool.Type.CHAINSAW).getDailyCharge(), is(149L));
+	}
+    }
+
+    @Test
+    public void keepsServingWhenTheNewFileIsInvalid() throws IOException {
+	Path catalog = directory.resolve("tools.catalog");
+	writeCatalog(catalog, 1, "Stihl", 149);
+
+	try (ReloadingDataRetrievalService service = new ReloadingDataRetrievalService(catalog, 1, TimeUnit.HOURS)) {
+	    // replaced rather than overwritten, like a real catalog update
+	    Path invalid = Files.write(directory.resolve("invalid.catalog"), new byte[] { 1, 2, 3 });
+	    Files.move(invalid, catalog, StandardCopyOption.REPLACE_EXISTING);
+
+	    assertThrows(IOException.class, service::reload);
+	    assertThat(service.getCatalogVersion(), is(1L));
+	    assertThat(service.getToolByCode("CHNS").getBrand(), is("Stihl"));
+	}
+    }
+
+    @Test
+    public void pollsForNewVersions() throws Exception {
+	Path catalog = directory.resolve("tools.catalog");
+	writeCatalog(catalog, 1, "Stihl", 149);
+
+	try (ReloadingDataRetrievalService service = new ReloadingDataRetrievalService(catalog, 10,
+		TimeUnit.MILLISECONDS)) {
+	    writeCatalog(catalog, 2, "Husqvarna", 199);
+
+	    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+	    while (service.getCatalogVersion() != 2 && System.nanoTime() < deadline) {
+		Thread.sleep(10);
+	    }
+	    assertThat(service.getCatalogVersion(), is(2L));
+	    assertThat(service.getToolByCode("LADW"), is(nullValue()));
+	}
+    }
+
+    @Test
+    public void agreementsRecordTheCatalogVersion() throws IOException {
+	Path catalog = directory.resolve("tools.catalog");
+	writeCatalog(catalog, 5, "Stihl", 149);
+	ToolRentalServiceConfiguration configuration = new ToolRentalServiceConfiguration.Builder().catalogPath(catalog)
+		.catalogReloadInterval(1, TimeUnit.HOURS).build();
+
+	try (ToolRentalService service = ToolRentalService.Factory.getService(configuration)) {
+	    RentalAgreement agreement = service.checkout(new CheckoutRequest.Builder().toolCode("CHNS")
+		    .checkOutDate(LocalDate.of(2015, Month.JULY, 2)).rentalDays(5).discountPercent(0).build())
+		    .getRentalAgreement();
+
+	    assertThat(agreement.getCatalogVersion(), is(5L));
+	    assertThat(agreement.getTool().getBrand(), is("Stihl"));
+	}
+    }
+
+    private static void writeCatalog(Path catalog, long version, String chainsawBrand, long chainsawDailyCharge)
+	    throws IOException {
+	try (BinaryCatalogWriter writer = new BinaryCatalogWriter(catalog, version)) {
+	    writer.writeTool(new ToolDO.Builder().code("CHNS").type(Tool.Type.CHAINSAW).brand(chainsawBrand).build());
+	    writer.writeChargeableDays(
+		    new ChargeableDaysDO(Tool.Type.CHAINSAW, chainsawDailyCharge, true, false, true));
+	    writer.finish();
+	}
+    }
+}
@@ -0,0 +1,122 @@
+package cmiller.interview.internal.data.catalog;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.access.impl.MappedCatalogDataRetrievalService;
+
+public class CatalogImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void importsCsv() throws IOException {
+	Path tools = write("tools.csv", "code,type,brand", "CHNS,Chainsaw,Stihl", "LADW,Ladder,Werner",
+		"JAKD,Jackhammer,DeWalt", "\"JAKR\",Jackhammer,\"Ridgid, \"\"Pro\"\"\"");
+	Path pricing = write("pricing.csv", "type,dailyCharge,weekdayCharge,weekendCharge,holidayCharge",
+		"Ladder,$1.99,Yes,Yes,No", "Chainsaw,1.49,Yes,No,Yes", "Jackhammer,2.99,Yes,No,No");
+	Path catalog = directory.resolve("tools.catalog");
+
+	CatalogImportSummary summary = new CatalogImporter.Builder().toolsPath(tools).pricingPath(pricing)
+		.outputPath(catalog).build().run();
+
+	assertThat(summary.getRowsRead(), is(7L));
+	assertThat(summary.getRowsRejected(), is(0L));
+	assertThat(summary.getToolCount(), is(4));
+	assertThat(summary.getCatalogVersion(), is(1L));
+	try (MappedCatalogDataRetrievalService mapped = MappedCatalogDataRetrievalService.open(catalog)) {
+	    assertThat(mapped.getToolByCode("JAKR").getBrand(), is("Ridgid, \"Pro\""));
+	    assertThat(mapped.getToolByCode("LADW").getType(), is(Tool.Type.LADDER));
+	    ChargeableDaysDO ladder = mapped.getChargeableDaysByToolType(Tool.Type.LADDER);
+	    assertThat(ladder.getDailyCharge(), is(199L));
+	    assertThat(ladder.isWeekendCharge(), is(true));
+	    assertThat(ladder.isHolidayCharge(), is(false));
+	}
+    }
+
+    @Test
+    public void skipsInvalidJsonLinesRows() throws IOException {
+	Path tools = write("tools.jsonl", "{\"code\": \"CHNS\", \"type\": \"Chainsaw\", \"brand\": \"Stihl\"}",
+		"{\"code\": \"BAD1\", \"type\": \"Chainsaww\", \"brand\": \"Stihl\"}",
+		"{\"code\": \"BAD2\", \"type\": \"Ladder\", \"brand\": \" \"}", "{\"code\": \"BAD3\", \"type\":",
+		"", "{\"code\": \"LADW\", \"type\": \"Ladder\", \"brand\": \"Wer\\u006eer\", \"discontinued\": null}");
+	Path pricing = write("pricing.jsonl",
+		"{\"type\": \"Ladder\", \"dailyCharge\": 1.99, \"weekdayCharge\": true, \"weekendCharge\": true,"
+			+ " \"holidayCharge\": false}",
+		"{\"type\": \"Chainsaw\", \"dailyCharge\": 1.499, \"weekdayCharge\": true, \"weekendCharge\": false,"
+			+ " \"holidayCharge\": true}");
+	Path catalog = directory.resolve("tools.catalog");
+
+	CatalogImportSummary summary = new CatalogImporter.Builder().toolsPath(tools).pricingPath(pricing)
+		.outputPath(catalog).build().run();
+
+	assertThat(summary.getRowsRead(), is(7L));
+	assertThat(summary.getRowsRejected(), is(4L));
+	assertThat(summary.getToolCount(), is(2));
+	try (MappedCatalogDataRetrievalService mapped = MappedCatalogDataRetrievalService.open(catalog)) {
+	    assertThat(mapped.getToolByCode("LADW").getBrand(), is("Werner"));
+	    assertThat(mapped.getToolByCode("BAD1"), is(nullValue()));
+	    assertThat(mapped.getChargeableDaysByToolType(Tool.Type.LADDER).getDailyCharge(), is(199L));
+	    // sub-cent charge is rejected
+	    assertThat(mapped.getChargeableDaysByToolType(Tool.Type.CHAINSAW), is(nullValue()));
+	}
+    }
+
+    @Test
+    public void appendsToExistingCatalog() throws IOException {
+	Path catalog = directory.resolve("tools.catalog");
+	new CatalogImporter.Builder().toolsPath(write("tools.csv", "code,type,brand", "CHNS,Chainsaw,Stihl"))
+		.pricingPath(write("pricing.csv", "type,dailyCharge,weekdayCharge,weekendCharge,holidayCharge",
+			"Chainsaw,1.49,Yes,No,Yes"))
+		.outputPath(catalog).catalogVersion(41).build().run();
+
+	CatalogImportSummary summary = new CatalogImporter.Builder()
+		.toolsPath(write("new-tools.csv", "code,type,brand", "LADW,Ladder,Werner", "CHNS,Chainsaw,Husqvarna"))
+		.outputPath(catalog).append(true).build().run();
+
+	assertThat(summary.getCatalogVersion(), is(42L));
+	assertThat(summary.getCopiedToolCount(), is(1L));
+	assertThat(summary.getToolCount(), is(2));
+	assertThat(summary.getDuplicateToolCount(), is(1));
+	try (MappedCatalogDataRetrievalService mapped = MappedCatalogDataRetrievalService.open(catalog)) {
+	    assertThat(mapped.getCatalogVersion(), is(42L));
+	    assertThat(mapped.getToolByCode("CHNS").getBrand(), is("Husqvarna"));
+	    assertThat(mapped.getToolByCode("LADW").getBrand(), is("Werner"));
+	    assertThat(mapped.getChargeableDaysByToolType(Tool.Type.CHAINSAW).getDailyCharge(), is(149L));
+	}
+    }
+
+    @Test
+    public void replacingRaisesCatalogVersion() throws IOException {
+	Path catalog = directory.resolve("tools.catalog");
+	Path tools = write("tools.csv", "code,type,brand", "CHNS,Chainsaw,Stihl");
+	new CatalogImporter.Builder().toolsPath(tools).outputPath(catalog).build().run();
+
+	CatalogImportSummary summary = new CatalogImporter.Builder().toolsPath(tools).outputPath(catalog).build()
+		.run();
+
+	assertThat(summary.getCatalogVersion(), is(2L));
+	try (MappedCatalogDataRetrievalService mapped = MappedCatalogDataRetrievalService.open(catalog)) {
+	    assertThat(mapped.getCatalogVersion(), is(2L));
+	}
+	assertThat(new CatalogImporter.Builder().toolsPath(tools).outputPath(catalog).catalogVersion(10).build().run()
+		.getCatalogVersion(), is(10L));
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+	return Files.write(directory.resolve(name), Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,107 @@
+package cmiller.interview.internal.inventory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.ToolRentalServiceException;
+import cmiller.interview.ToolRentalServiceException.FailureReason;
+import cmiller.interview.checkin.CheckInRequest;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.internal.factory.ToolRentalServiceConfiguration;
+
+public class InventoryServiceTest {
+    private static final String STORE = "store 1";
+
+    private final InventoryService inventory = new InventoryService();
+
+    @Test
+    public void reservesUntilNoUnitIsLeft() {
+	inventory.addStock(STORE, "LADW", 2);
+
+	assertThat(inventory.tryReserve(STORE, "LADW"), is(true));
+	assertThat(inventory.tryReserve(STORE, "LADW"), is(true));
+	assertThat(inventory.tryReserve(STORE, "LADW"), is(false));
+	assertThat(inventory.getAvailable(STORE, "LADW"), is(0L));
+
+	inventory.release(STORE, "LADW");
+	assertThat(inventory.getAvailable(STORE, "LADW"), is(1L));
+	assertThat(inventory.tryReserve(STORE, "LADW"), is(true));
+    }
+
+    @Test
+    public void untrackedToolsAreUnlimited() {
+	inventory.addStock(STORE, "LADW", 1);
+
+	assertThat(inventory.tryReserve(STORE, "CHNS"), is(true));
+	assertThat(inventory.tryReserve("store 2", "LADW"), is(true));
+	assertThat(inventory.getAvailable("store 2", "LADW"), is(InventoryService.UNLIMITED));
+    }
+
+    @Test
+    public void concurrentRegistersNeverRentMoreThanTheStock() throws Exception {
+	int threads = 8;
+	int attemptsPerThread = 10_000;
+	int units = 1_000;
+	inventory.addStock(STORE, "LADW", units);
+	AtomicInteger reserved = new AtomicInteger();
+	CountDownLatch start = new CountDownLatch(1);
+	ExecutorService executor = Executors.newFixedThreadPool(threads);
+	try {
+	    List<Future<?>> futures = new ArrayList<>();
+	    for (int t = 0; t < threads; t++) {
+		futures.add(executor.submit(() -> {
+		    start.await();
+		    for (int i = 0; i < attemptsPerThread; i++) {
+			if (inventory.tryReserve(STORE, "LADW")) {
+			    reserved.incrementAndGet();
+			}
+		    }
+		    return null;
+		}));
+	    }
+	    start.countDown();
+	    for (Future<?> future : futures) {
+		future.get(30, TimeUnit.SECONDS);
+	    }
+	} finally {
+	    executor.shutdownNow();
+	}
+
+	assertThat(reserved.get(), is(units));
+	assertThat(inventory.getAvailable(STORE, "LADW"), is(0L));
+    }
+
+    @Test
+    public void checkInReturnsTheUnitToTheStore() {
+	ToolRentalServiceConfiguration configuration = new ToolRentalServiceConfiguration.Builder()
+		.toolStock(STORE, "JAKD", 1).build();
+	CheckoutRequest request = new CheckoutRequest.Builder().storeId(STORE).toolCode("JAKD")
+		.checkOutDate(LocalDate.of(2015, Month.SEPTEMBER, 3)).rentalDays(6).discountPercent(0).build();
+
+	try (ToolRentalService service = ToolRentalService.Factory.getService(configuration)) {
+	    long rentalId = service.checkout(request).getRentalAgreement().getRentalId();
+	    ToolRentalServiceException e = assertThrows(ToolRentalServiceException.class,
+		    () -> service.checkout(request));
+	    assertThat(e.getFailureReason(), is(FailureReason.TOOL_UNAVAILABLE));
+
+	    service.checkin(new CheckInRequest.Builder().rentalId(rentalId)
+		    .checkInDate(LocalDate.of(2015, Month.SEPTEMBER, 9)).build());
+	    assertThat(service.checkout(request).getRentalAgreement().getTool().getCode(), is("JAKD"));
+	}
+    }
+}
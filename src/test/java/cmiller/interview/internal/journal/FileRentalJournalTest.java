@@ -0,0 +1,211 @@
+package cmiller.interview.internal.journal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkin.CheckInRequest;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.checkout.RentalAgreementImpl;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.ToolDO;
+import cmiller.interview.internal.factory.ToolRentalServiceConfiguration;
+import cmiller.interview.internal.ledger.Rental;
+import cmiller.interview.internal.ledger.RentalLedger;
+
+public class FileRentalJournalTest {
+    private static final ChargeableDaysDO CHARGEABLE_DAYS = new ChargeableDaysDO(Tool.Type.LADDER, 199, true, true,
+	    false);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void replaysOpenRentalsIntoTheLedger() throws Exception {
+	Path path = directory.resolve("rentals.journal");
+	try (FileRentalJournal journal = FileRentalJournal.open(path, new RentalLedger(), 1, TimeUnit.MILLISECONDS)) {
+	    journal.recordOpened(rental(1));
+	    journal.recordOpened(rental(2));
+	    CompletableFuture<Void> lastRecord = journal.recordClosed(1);
+	    lastRecord.get(10, TimeUnit.SECONDS);
+	}
+
+	RentalLedger recovered = new RentalLedger();
+	FileRentalJournal.open(path, recovered, 1, TimeUnit.MILLISECONDS).close();
+	assertThat(recovered.getOpenRentalCount(), is(1));
+	assertThat(recovered.getOpenRental(1), is(nullValue()));
+	Rental rental = recovered.getOpenRental(2);
+	assertThat(rental.getRentalAgreement().toString(), is(rental(2).getRentalAgreement().toString()));
+	assertThat(rental.getChargeableDaysDO().toString(), is(CHARGEABLE_DAYS.toString()));
+	// ids are never reused after a restart
+	assertThat(recovered.nextRentalId(), is(3L));
+    }
+
+    @Test
+    public void truncatesATornTail() throws Exception {
+	Path path = directory.resolve("rentals.journal");
+	try (FileRentalJournal journal = FileRentalJournal.open(path, new RentalLedger(), 1, TimeUnit.MILLISECONDS)) {
+	    journal.recordOpened(rental(1));
+	    journal.flush().get(10, TimeUnit.SECONDS);
+	}
+	long validSize = Files.size(path);
+	try (FileRentalJournal journal = FileRentalJournal.open(path, new RentalLedger(), 1, TimeUnit.MILLISECONDS)) {
+	    journal.recordOpened(rental(2));
+	}
+	// a crash part way through writing the second record
+	try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+	    channel.truncate(Files.size(path) - 5);
+	}
+
+	RentalLedger recovered = new RentalLedger();
+	try (FileRentalJournal journal = FileRentalJournal.open(path, recovered, 1, TimeUnit.MILLISECONDS)) {
+	    assertThat(Files.size(path), is(validSize));
+	    assertThat(recovered.getOpenRentalCount(), is(1));
+	    assertThat(recovered.getOpenRental(1).getRentalId(), is(1L));
+
+	    // appends continue after the last valid record
+	    journal.recordOpened(rental(3)).get(10, TimeUnit.SECONDS);
+	}
+	RentalLedger reopened = new RentalLedger();
+	FileRentalJournal.open(path, reopened, 1, TimeUnit.MILLISECONDS).close();
+	assertThat(reopened.getOpenRentalCount(), is(2));
+	assertThat(reopened.getOpenRental(3).getRentalId(), is(3L));
+    }
+
+    @Test
+    public void stopsReplayingAtACorruptRecord() throws Exception {
+	Path path = directory.resolve("rentals.journal");
+	try (FileRentalJournal journal = FileRentalJournal.open(path, new RentalLedger(), 1, TimeUnit.MILLISECONDS)) {
+	    journal.recordOpened(rental(1));
+	    journal.recordOpened(rental(2));
+	}
+	// flip a byte in the payload of the last record
+	try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+	    ByteBuffer lastByte = ByteBuffer.allocate(1);
+	    channel.read(lastByte, channel.size() - 10);
+	    lastByte.put(0, (byte) ~lastByte.get(0)).rewind();
+	    channel.write(lastByte, channel.size() - 10);
+	}
+
+	RentalLedger recovered = new RentalLedger();
+	FileRentalJournal.open(path, recovered, 1, TimeUnit.MILLISECONDS).close();
+	assertThat(recovered.getOpenRentalCount(), is(1));
+	assertThat(recovered.getOpenRental(2), is(nullValue()));
+    }
+
+    @Test
+    public void rejectsARecordOfUnknownType() throws Exception {
+	Path path = directory.resolve("rentals.journal");
+	try (FileRentalJournal journal = FileRentalJournal.open(path, new RentalLedger(), 1, TimeUnit.MILLISECONDS)) {
+	    journal.recordOpened(rental(1));
+	}
+	// a well formed record, as written by a later version of the journal
+	ByteBuffer payload = ByteBuffer.allocate(Byte.BYTES + Long.BYTES).put((byte) 9).putLong(1);
+	CRC32 crc = new CRC32();
+	crc.update(payload.array());
+	ByteBuffer record = ByteBuffer.allocate(2 * Integer.BYTES + payload.capacity()).putInt(payload.capacity())
+		.putInt((int) crc.getValue()).put(payload.array());
+	record.flip();
+	try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+	    channel.write(record);
+	}
+
+	try {
+	    FileRentalJournal.open(path, new RentalLedger(), 1, TimeUnit.MILLISECONDS).close();
+	    fail("Expected exception was not thrown");
+	} catch (IOException e) {
+	    assertThat(e.getMessage().contains("unknown type 9"), is(true));
+	}
+    }
+
+    @Test
+    public void rejectsARecordOfUnknownToolType() throws Exception {
+	Path path = directory.resolve("rentals.journal");
+	try (FileRentalJournal journal = FileRentalJournal.open(path, new RentalLedger(), 1, TimeUnit.MILLISECONDS)) {
+	    journal.recordOpened(rental(1));
+	}
+	// an opened record whose tool type ordinal is out of range
+	byte[] code = "LADW".getBytes(StandardCharsets.UTF_8);
+	ByteBuffer payload = ByteBuffer.allocate(Byte.BYTES + Long.BYTES + Short.BYTES + code.length + Byte.BYTES)
+		.put((byte) 1).putLong(2).putShort((short) code.length).put(code).put((byte) 99);
+	CRC32 crc = new CRC32();
+	crc.update(payload.array());
+	ByteBuffer record = ByteBuffer.allocate(2 * Integer.BYTES + payload.capacity()).putInt(payload.capacity())
+		.putInt((int) crc.getValue()).put(payload.array());
+	record.flip();
+	try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+	    channel.write(record);
+	}
+
+	try {
+	    FileRentalJournal.open(path, new RentalLedger(), 1, TimeUnit.MILLISECONDS).close();
+	    fail("Expected exception was not thrown");
+	} catch (IOException e) {
+	    assertThat(e.getMessage().contains("invalid record"), is(true));
+	    assertThat(e.getCause().getMessage(), is("Unknown tool type 99"));
+	}
+    }
+
+    @Test
+    public void serviceRecoversOpenRentalsAfterARestart() throws IOException {
+	ToolRentalServiceConfiguration configuration = new ToolRentalServiceConfiguration.Builder()
+		.rentalJournalPath(directory.resolve("rentals.journal")).build();
+	CheckoutRequest request = new CheckoutRequest.Builder().toolCode("JAKD")
+		.checkOutDate(LocalDate.of(2015, Month.SEPTEMBER, 3)).rentalDays(6).discountPercent(0).build();
+
+	long rentalId;
+	try (ToolRentalService service = ToolRentalService.Factory.getService(configuration)) {
+	    rentalId = service.checkout(request).getRentalAgreement().getRentalId();
+	}
+
+	try (ToolRentalService service = ToolRentalService.Factory.getService(configuration)) {
+	    RentalAgreement agreement = service
+		    .checkin(new CheckInRequest.Builder().rentalId(rentalId)
+			    .checkInDate(LocalDate.of(2015, Month.SEPTEMBER, 14)).build())
+		    .getRentalAgreement();
+	    assertThat(agreement.getRentalId(), is(rentalId));
+	    assertThat(agreement.getTool().getCode(), is("JAKD"));
+	    assertThat(service.checkout(request).getRentalAgreement().getRentalId(), is(rentalId + 1));
+	}
+    }
+
+    private static Rental rental(long rentalId) {
+	//@formatter:off
+	RentalAgreement agreement = new RentalAgreementImpl.Builder()
+		.rentalId(rentalId)
+		.tool(new ToolDO.Builder().code("LADW").type(Tool.Type.LADDER).brand("Werner").build())
+		.rentalDays(3)
+		.checkOutDate(LocalDate.of(2020, Month.JULY, 2))
+		.dueDate(LocalDate.of(2020, Month.JULY, 5))
+		.dailyRentalCharge(199)
+		.chargeDays(2)
+		.preDiscountCharge(398)
+		.discountPercent(10)
+		.discountAmount(40)
+		.finalCharge(358)
+		.catalogVersion(7)
+		.build();
+	//@formatter:on
+	return new Rental(agreement, CHARGEABLE_DAYS);
+    }
+}
@@ -0,0 +1,112 @@
+package cmiller.interview.internal.ledger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.checkout.RentalAgreementImpl;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.data.ToolDO;
+
+public class RentalLedgerTest {
+    private static final ChargeableDaysDO CHARGEABLE_DAYS = new ChargeableDaysDO(Tool.Type.LADDER, 199, true, true,
+	    false);
+
+    private final RentalLedger ledger = new RentalLedger();
+
+    @Test
+    public void indexesOpenRentalsByIdAndToolCode() {
+	Rental first = rental("LADW");
+	Rental second = rental("LADW");
+	Rental other = rental("CHNS");
+	ledger.open(first);
+	ledger.open(second);
+	ledger.open(other);
+
+	assertThat(ledger.getOpenRental(second.getRentalId()), is(second));
+	assertThat(ledger.getOpenRentalsForTool("LADW").size(), is(2));
+
+	assertThat(ledger.close(first.getRentalId()), is(first));
+	assertThat(ledger.close(first.getRentalId()), is(nullValue()));
+	assertThat(ledger.getOpenRental(first.getRentalId()), is(nullValue()));
+	assertThat(ledger.getOpenRentalsForTool("LADW").size(), is(1));
+	assertThat(ledger.getOpenRentalCount(), is(2));
+    }
+
+    @Test
+    public void claimedRentalsStayOpenUntilClosed() {
+	Rental rental = rental("LADW");
+	ledger.open(rental);
+
+	assertThat(ledger.claim(rental.getRentalId()), is(rental));
+	assertThat(ledger.claim(rental.getRentalId()), is(nullValue()));
+	assertThat(ledger.getOpenRental(rental.getRentalId()), is(rental));
+
+	ledger.unclaim(rental.getRentalId());
+	assertThat(ledger.claim(rental.getRentalId()), is(rental));
+	assertThat(ledger.close(rental.getRentalId()), is(rental));
+	assertThat(ledger.claim(rental.getRentalId()), is(nullValue()));
+    }
+
+    @Test
+    public void concurrentRegistersOpenAndCloseEveryRentalOnce() throws Exception {
+	int threads = 8;
+	int rentalsPerThread = 2_000;
+	AtomicInteger closedTwice = new AtomicInteger();
+	CountDownLatch start = new CountDownLatch(1);
+	ExecutorService executor = Executors.newFixedThreadPool(threads);
+	try {
+	    List<Future<?>> futures = new ArrayList<>();
+	    for (int t = 0; t < threads; t++) {
+		futures.add(executor.submit(() -> {
+		    start.await();
+		    for (int i = 0; i < rentalsPerThread; i++) {
+			// few tool codes, so the registers contend on the same keys
+			Rental rental = rental("T" + (i % 4));
+			ledger.open(rental);
+			if (ledger.close(rental.getRentalId()) != rental) {
+			    closedTwice.incrementAndGet();
+			}
+			// a second close, as if the same rental was checked in twice
+			if (ledger.close(rental.getRentalId()) != null) {
+			    closedTwice.incrementAndGet();
+			}
+		    }
+		    return null;
+		}));
+	    }
+	    start.countDown();
+	    for (Future<?> future : futures) {
+		future.get(30, TimeUnit.SECONDS);
+	    }
+	} finally {
+	    executor.shutdownNow();
+	}
+
+	assertThat(closedTwice.get(), is(0));
+	assertThat(ledger.getOpenRentalCount(), is(0));
+	for (int i = 0; i < 4; i++) {
+	    assertThat(ledger.getOpenRentalsForTool("T" + i).size(), is(0));
+	}
+	assertThat(ledger.nextRentalId(), is((long) threads * rentalsPerThread + 1));
+    }
+
+    private Rental rental(String toolCode) {
+	Tool tool = new ToolDO.Builder().code(toolCode).type(Tool.Type.LADDER).brand("Werner").build();
+	return new Rental(new RentalAgreementImpl.Builder().rentalId(ledger.nextRentalId()).tool(tool).rentalDays(1)
+		.checkOutDate(LocalDate.of(2020, 1, 1)).dueDate(LocalDate.of(2020, 1, 2)).build(), CHARGEABLE_DAYS);
+    }
+}
@@ -0,0 +1,105 @@
+package cmiller.interview.internal.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.ToolRentalServiceException;
+import cmiller.interview.ToolRentalServiceException.FailureReason;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.internal.factory.ToolRentalServiceConfiguration;
+
+public class LongAdderToolRentalMetricsTest {
+    private static final LocalDate CHECK_OUT_DATE = LocalDate.of(2015, Month.SEPTEMBER, 3);
+
+    @Test
+    public void histogramBucketsKeepValuesWithinSixPercent() {
+	for (long value = 0; value < 1L << 22; value += 1 + value / 1000) {
+	    long highest = LogLinearHistogram.highestEquivalentValue(LogLinearHistogram.bucketIndex(value));
+	    assertTrue(highest >= value, "bucket of " + value + " ends below it at " + highest);
+	    assertTrue(highest - value <= value / 16, "bucket of " + value + " ends at " + highest);
+	}
+	assertThat(LogLinearHistogram.highestEquivalentValue(
+		LogLinearHistogram.bucketIndex(LogLinearHistogram.HIGHEST_TRACKABLE_VALUE)),
+		is(LogLinearHistogram.HIGHEST_TRACKABLE_VALUE));
+    }
+
+    @Test
+    public void histogramPercentiles() {
+	LogLinearHistogram histogram = new LogLinearHistogram();
+	for (int value = 1; value <= 1000; value++) {
+	    histogram.record(value * 1000L);
+	}
+	HistogramSnapshot snapshot = histogram.snapshot();
+
+	assertThat(snapshot.getCount(), is(1000L));
+	assertThat(snapshot.getMax(), is(1_000_000L));
+	assertThat(snapshot.getMean(), is(500_500.0));
+	assertWithinBucket(snapshot.getValueAtPercentile(50), 500_000);
+	assertWithinBucket(snapshot.getValueAtPercentile(99), 990_000);
+	assertThat(snapshot.getValueAtPercentile(100), is(1_000_000L));
+	assertThat(new LogLinearHistogram().snapshot().getValueAtPercentile(50), is(0L));
+    }
+
+    @Test
+    public void measuresCheckoutsThroughTheService() {
+	LongAdderToolRentalMetrics metrics = new LongAdderToolRentalMetrics();
+	ToolRentalServiceConfiguration configuration = new ToolRentalServiceConfiguration.Builder()
+		.toolCacheMaximumSize(16).metrics(metrics).build();
+
+	try (ToolRentalService service = ToolRentalService.Factory.getService(configuration)) {
+	    service.checkout(request("LADW", 3));
+	    service.checkout(request("JAKR", 5));
+	    assertThrows(ToolRentalServiceException.class, () -> service.checkout(request("NONE", 3)));
+	    assertThrows(ToolRentalServiceException.class, () -> service.checkout(request("LADW", 0)));
+	    List<CheckoutRequest> batch = Arrays.asList(request("CHNS", 7), request("NONE", 1));
+	    service.checkoutAll(batch);
+	}
+
+	MetricsSnapshot snapshot = metrics.snapshot();
+	assertThat(snapshot.getCheckoutLatency().getCount(), is(3L));
+	assertThat(snapshot.getRentalDays().getCount(), is(3L));
+	assertThat(snapshot.getRentalDays().getMax(), is(7L));
+	assertThat(snapshot.getFailuresByReason().get(FailureReason.TOOL_NOT_FOUND), is(2L));
+	assertThat(snapshot.getFailuresByReason().get(FailureReason.INVALID_INPUT), is(1L));
+	assertThat(snapshot.getFailuresByReason().get(FailureReason.INTERNAL_ERROR), is(0L));
+	assertTrue(snapshot.getToolLookupLatency().getCount() >= 4);
+	assertTrue(snapshot.getChargeableDaysLookupLatency().getCount() >= 3);
+	assertTrue(snapshot.getCacheStats().get("holidays").getMissCount() > 0);
+	assertThat(snapshot.getCacheStats().get("tools").getMissCount(), is(4L));
+
+	String report = snapshot.toString();
+	assertTrue(report.contains("checkout latency (us): count=3"), report);
+	assertTrue(report.contains("TOOL_NOT_FOUND=2"), report);
+	assertTrue(report.contains("holidays cache: hits="), report);
+    }
+
+    @Test
+    public void metricsAreDisabledByDefault() {
+	ToolRentalServiceConfiguration configuration = ToolRentalServiceConfiguration.defaults();
+	assertThat(configuration.getMetrics().isEnabled(), is(false));
+
+	try (ToolRentalService service = ToolRentalService.Factory.getService(configuration)) {
+	    assertThat(service.checkout(request("LADW", 3)).getRentalAgreement().getRentalDays(), is(3));
+	}
+    }
+
+    private static CheckoutRequest request(String toolCode, int rentalDays) {
+	return new CheckoutRequest.Builder().toolCode(toolCode).checkOutDate(CHECK_OUT_DATE).rentalDays(rentalDays)
+		.discountPercent(0).build();
+    }
+
+    private static void assertWithinBucket(long actual, long expected) {
+	assertTrue(actual >= expected && actual <= expected + expected / 16,
+		"expected about " + expected + " but was " + actual);
+    }
+}
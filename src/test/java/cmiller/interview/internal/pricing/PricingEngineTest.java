@@ -0,0 +1,278 @@
+package cmiller.interview.internal.pricing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import cmiller.interview.ToolRentalService;
+import cmiller.interview.checkout.CheckoutRequest;
+import cmiller.interview.checkout.RentalAgreement;
+import cmiller.interview.common.Tool;
+import cmiller.interview.internal.agent.HolidaysAgent;
+import cmiller.interview.internal.calculator.ChargeableDayCalculator;
+import cmiller.interview.internal.calculator.ClosedFormChargeableDayCalculator;
+import cmiller.interview.internal.calculator.IterativeChargeableDayCalculator;
+import cmiller.interview.internal.data.ChargeableDaysDO;
+import cmiller.interview.internal.factory.ToolRentalServiceConfiguration;
+
+public class PricingEngineTest {
+    private static final String STORE = "airport";
+    private static final ChargeableDaysDO LADDER = new ChargeableDaysDO(Tool.Type.LADDER, 199, true, true, false);
+    private static final ChargeableDaysDO CHAINSAW = new ChargeableDaysDO(Tool.Type.CHAINSAW, 149, true, false,
+	    true);
+    private static final PricingRule SUMMER_LADDERS = PricingRule.seasonalRate(Tool.Type.LADDER,
+	    MonthDay.of(Month.JUNE, 1), MonthDay.of(Month.AUGUST, 31), 299);
+
+    private final HolidaysAgent holidaysAgent = new HolidaysAgent();
+    private final ChargeableDayCalculator calculator = new ClosedFormChargeableDayCalculator(holidaysAgent);
+
+    @Test
+    public void withoutRulesEveryChargeableDayCostsTheDailyCharge() {
+	PricingEngine engine = new PricingEngine(PricingRuleSet.EMPTY, calculator);
+	LocalDate checkOutDate = LocalDate.of(2015, Month.JULY, 2);
+
+	RentalCharge charge = engine.price(STORE, checkOutDate, checkOutDate.plusDays(5), LADDER);
+
+	assertThat(engine.getPlan(STORE, Tool.Type.LADDER).isFlatRate(), is(true));
+	assertThat(charge.getChargeDays(), is(4));
+	assertThat(charge.getPreDiscountCharge(), is(4 * 199L));
+    }
+
+    @Test
+    public void seasonalRateAppliesOnlyWithinTheSeason() {
+	PricingEngine engine = new PricingEngine(rules(1, SUMMER_LADDERS), calculator);
+	// Sunday May 30th through Wednesday June 2nd, two days before and two within
+	// summer
+	LocalDate checkOutDate = LocalDate.of(2021, Month.MAY, 29);
+
+	RentalCharge charge = engine.price(STORE, checkOutDate, checkOutDate.plusDays(4), LADDER);
+
+	assertThat(charge.getChargeDays(), is(4));
+	assertThat(charge.getPreDiscountCharge(), is(2 * 199 + 2 * 299L));
+	assertThat(engine.price(STORE, checkOutDate, checkOutDate.plusDays(4), CHAINSAW).getPreDiscountCharge(),
+		is(3 * 149L));
+    }
+
+    @Test
+    public void seasonCanWrapAroundTheNewYear() {
+	PricingRule winter = PricingRule.seasonalRate(null, MonthDay.of(Month.DECEMBER, 30),
+		MonthDay.of(Month.JANUARY, 2), 10);
+	PricingEngine engine = new PricingEngine(rules(1, winter), calculator);
+	LocalDate checkOutDate = LocalDate.of(2020, Month.DECEMBER, 28);
+
+	// December 29th through January 3rd, every day chargeable for ladders
+	RentalCharge charge = engine.price(STORE, checkOutDate, checkOutDate.plusDays(6), LADDER);
+
+	assertThat(charge.getChargeDays(), is(6));
+	assertThat(charge.getPreDiscountCharge(), is(199 + 4 * 10 + 199L));
+    }
+
+    @Test
+    public void weeklyAndMonthlyCapsLimitTheCharge() {
+	PricingEngine weekly = new PricingEngine(rules(1, PricingRule.weeklyCap(Tool.Type.LADDER, 1000)),
+		calculator);
+	PricingEngine monthly = new PricingEngine(rules(2, PricingRule.weeklyCap(Tool.Type.LADDER, 1000),
+		PricingRule.monthlyCap(Tool.Type.LADDER, 3000)), calculator);
+	// no holidays from February 1st 2021 for 60 days
+	LocalDate checkOutDate = LocalDate.of(2021, Month.JANUARY, 31);
+
+	assertThat(weekly.price(STORE, checkOutDate, checkOutDate.plusDays(3), LADDER).getPreDiscountCharge(),
+		is(3 * 199L));
+	assertThat(weekly.price(STORE, checkOutDate, checkOutDate.plusDays(9), LADDER).getPreDiscountCharge(),
+		is(1000 + 2 * 199L));
+	// each 30 days is 4 capped weeks and 2 days, capped again
+	RentalCharge twoMonths = monthly.price(STORE, checkOutDate, checkOutDate.plusDays(60), LADDER);
+	assertThat(twoMonths.getChargeDays(), is(60));
+	assertThat(twoMonths.getPreDiscountCharge(), is(2 * 3000L));
+	assertThat(weekly.price(STORE, checkOutDate, checkOutDate.plusDays(60), LADDER).getPreDiscountCharge(),
+		is(2 * (4 * 1000 + 2 * 199L)));
+    }
+
+    @Test
+    public void storeRulesOverrideTheRulesOfEveryStore() {
+	PricingRuleSet ruleSet = rules(1, SUMMER_LADDERS,
+		PricingRule.seasonalRate(null, MonthDay.of(Month.JULY, 1), MonthDay.of(Month.JULY, 31), 50)
+			.atStore(STORE),
+		PricingRule.weeklyCap(null, 500).atStore(STORE));
+	PricingEngine engine = new PricingEngine(ruleSet, calculator);
+	LocalDate checkOutDate = LocalDate.of(2021, Month.JUNE, 29);
+
+	// June 30th at the summer rate, then July 1st and 2nd at the store's rate
+	assertThat(engine.price(STORE, checkOutDate, checkOutDate.plusDays(3), LADDER).getPreDiscountCharge(),
+		is(299 + 2 * 50L));
+	assertThat(engine.price("downtown", checkOutDate, checkOutDate.plusDays(3), LADDER).getPreDiscountCharge(),
+		is(3 * 299L));
+	assertThat(engine.price(STORE, LocalDate.of(2021, Month.MAY, 1), LocalDate.of(2021, Month.MAY, 9), LADDER)
+		.getPreDiscountCharge(), is(500 + 199L));
+    }
+
+    @Test
+    public void compiledRuleSetsAreCachedByVersion() {
+	PricingRuleSet first = rules(1, SUMMER_LADDERS);
+	PricingRuleSet second = rules(2, PricingRule.weeklyCap(null, 100));
+	PricingEngine engine = new PricingEngine(first, calculator);
+	PricingPlan firstPlan = engine.getPlan(STORE, Tool.Type.LADDER);
+
+	engine.updateRules(second);
+	assertThat(engine.getRuleSet(), is(second));
+	engine.updateRules(first);
+
+	assertThat(engine.getPlan(STORE, Tool.Type.LADDER), is(sameInstance(firstPlan)));
+	assertThat(engine.getCompiledRuleSetCacheStats().getMissCount(), is(2L));
+	assertThat(engine.getCompiledRuleSetCacheStats().getHitCount(), is(1L));
+    }
+
+    @Test
+    public void matchesPricingEachDay_randomRules() {
+	Random random = new Random(20240801L);
+	ChargeableDayCalculator reference = new IterativeChargeableDayCalculator(holidaysAgent);
+	for (int i = 0; i < 200; i++) {
+	    PricingRuleSet ruleSet = randomRules(random, i);
+	    PricingEngine engine = new PricingEngine(ruleSet, calculator);
+	    for (int rental = 0; rental < 20; rental++) {
+		LocalDate checkOutDate = LocalDate.of(2019 + random.nextInt(3), 1 + random.nextInt(12),
+			1 + random.nextInt(28));
+		LocalDate dueDate = checkOutDate.plusDays(1 + random.nextInt(100));
+		ChargeableDaysDO chargeableDaysDO = random.nextBoolean() ? LADDER : CHAINSAW;
+		String storeId = random.nextBoolean() ? STORE : "downtown";
+
+		RentalCharge expected = priceEachDay(reference, ruleSet, storeId, checkOutDate, dueDate,
+			chargeableDaysDO);
+		RentalCharge actual = engine.price(storeId, checkOutDate, dueDate, chargeableDaysDO);
+		String description = ruleSet + ", " + storeId + ", " + checkOutDate + " - " + dueDate;
+		assertThat(description, actual.getChargeDays(), is(expected.getChargeDays()));
+		assertThat(description, actual.getPreDiscountCharge(), is(expected.getPreDiscountCharge()));
+	    }
+	}
+    }
+
+    @Test
+    public void checkoutIsPricedByTheConfiguredRules() {
+	ToolRentalServiceConfiguration configuration = new ToolRentalServiceConfiguration.Builder()
+		.pricingRules(rules(1, SUMMER_LADDERS)).build();
+	CheckoutRequest request = new CheckoutRequest.Builder().toolCode("LADW")
+		.checkOutDate(LocalDate.of(2021, Month.JUNE, 10)).rentalDays(3).discountPercent(10).build();
+
+	try (ToolRentalService service = ToolRentalService.Factory.getService(configuration)) {
+	    RentalAgreement agreement = service.checkout(request).getRentalAgreement();
+	    assertThat(agreement.getChargeDays(), is(3));
+	    assertThat(agreement.getDailyRentalCharge(), is(199L));
+	    assertThat(agreement.getPreDiscountCharge(), is(3 * 299L));
+	    assertThat(agreement.getFinalCharge(), is(3 * 299L - 90));
+	}
+    }
+
+    private static PricingRuleSet rules(long version, PricingRule... rules) {
+	return new PricingRuleSet(version, Arrays.asList(rules));
+    }
+
+    private static PricingRuleSet randomRules(Random random, long version) {
+	List<PricingRule> rules = new ArrayList<>();
+	int count = random.nextInt(5);
+	for (int i = 0; i < count; i++) {
+	    Tool.Type toolType = random.nextBoolean() ? null : (random.nextBoolean() ? Tool.Type.LADDER
+		    : Tool.Type.CHAINSAW);
+	    PricingRule rule;
+	    switch (random.nextInt(4)) {
+	    case 0:
+		rule = PricingRule.weeklyCap(toolType, 300 + random.nextInt(1000));
+		break;
+	    case 1:
+		rule = PricingRule.monthlyCap(toolType, 1000 + random.nextInt(4000));
+		break;
+	    default:
+		// often around February 29th and the new year
+		MonthDay start = random.nextBoolean() ? MonthDay.of(2, 20 + random.nextInt(9))
+			: MonthDay.of(1 + random.nextInt(12), 1 + random.nextInt(28));
+		MonthDay end = random.nextBoolean() ? MonthDay.of(2, 28 + random.nextInt(2))
+			: MonthDay.of(1 + random.nextInt(12), 1 + random.nextInt(28));
+		rule = PricingRule.seasonalRate(toolType, start, end, random.nextInt(500));
+		break;
+	    }
+	    rules.add(random.nextInt(3) == 0 ? rule.atStore(STORE) : rule);
+	}
+	return new PricingRuleSet(version, rules);
+    }
+
+    /**
+     * Prices one day at a time, testing every rule against each day
+     */
+    private static RentalCharge priceEachDay(ChargeableDayCalculator reference, PricingRuleSet ruleSet,
+	    String storeId, LocalDate checkOutDate, LocalDate dueDate, ChargeableDaysDO chargeableDaysDO) {
+	Tool.Type toolType = chargeableDaysDO.getToolType();
+	long weeklyCap = Long.MAX_VALUE;
+	long monthlyCap = Long.MAX_VALUE;
+	int weeklySpecificity = -1;
+	int monthlySpecificity = -1;
+	for (PricingRule rule : ruleSet.getRules()) {
+	    if (!rule.appliesTo(storeId, toolType)) {
+		continue;
+	    }
+	    if (rule.getKind() == PricingRule.Kind.WEEKLY_CAP && rule.getSpecificity() >= weeklySpecificity) {
+		weeklyCap = rule.getAmount();
+		weeklySpecificity = rule.getSpecificity();
+	    } else if (rule.getKind() == PricingRule.Kind.MONTHLY_CAP
+		    && rule.getSpecificity() >= monthlySpecificity) {
+		monthlyCap = rule.getAmount();
+		monthlySpecificity = rule.getSpecificity();
+	    }
+	}
+
+	int chargeDays = 0;
+	long charge = 0;
+	long monthCharge = 0;
+	long weekCharge = 0;
+	int dayNumber = 0;
+	for (LocalDate day = checkOutDate.plusDays(1); !day.isAfter(dueDate); day = day.plusDays(1), dayNumber++) {
+	    int dayChargeDays = reference.calculateChargeableDays(day.minusDays(1), day, chargeableDaysDO);
+	    chargeDays += dayChargeDays;
+	    weekCharge += dayChargeDays * rateOf(ruleSet, storeId, toolType, day, chargeableDaysDO.getDailyCharge());
+	    boolean lastDay = day.equals(dueDate);
+	    boolean monthEnds = dayNumber % PricingPlan.DAYS_PER_MONTH == PricingPlan.DAYS_PER_MONTH - 1;
+	    boolean weekEnds = dayNumber % PricingPlan.DAYS_PER_MONTH % PricingPlan.DAYS_PER_WEEK
+		    == PricingPlan.DAYS_PER_WEEK - 1;
+	    if (weekEnds || monthEnds || lastDay) {
+		monthCharge += Math.min(weekCharge, weeklyCap);
+		weekCharge = 0;
+	    }
+	    if (monthEnds || lastDay) {
+		charge += Math.min(monthCharge, monthlyCap);
+		monthCharge = 0;
+	    }
+	}
+	return new RentalCharge(chargeDays, charge);
+    }
+
+    private static long rateOf(PricingRuleSet ruleSet, String storeId, Tool.Type toolType, LocalDate day,
+	    long dailyCharge) {
+	long rate = dailyCharge;
+	int specificity = -1;
+	for (PricingRule rule : ruleSet.getRules()) {
+	    if (rule.getKind() == PricingRule.Kind.SEASONAL_RATE && rule.appliesTo(storeId, toolType)
+		    && rule.getSpecificity() >= specificity && inSeason(rule, MonthDay.from(day))) {
+		rate = rule.getAmount();
+		specificity = rule.getSpecificity();
+	    }
+	}
+	return rate;
+    }
+
+    private static boolean inSeason(PricingRule rule, MonthDay day) {
+	MonthDay start = rule.getSeasonStart();
+	MonthDay end = rule.getSeasonEnd();
+	if (start.isAfter(end)) {
+	    return !day.isBefore(start) || !day.isAfter(end);
+	}
+	return !day.isBefore(start) && !day.isAfter(end);
+    }
+}